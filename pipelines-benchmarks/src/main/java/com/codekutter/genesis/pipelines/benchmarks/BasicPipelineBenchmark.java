@@ -0,0 +1,48 @@
+package com.codekutter.genesis.pipelines.benchmarks;
+
+import com.codekutter.genesis.pipelines.Context;
+import com.codekutter.genesis.pipelines.ProcessorException;
+import com.codekutter.genesis.pipelines.ProcessorResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of BasicPipeline.execute() on a single entity, as the
+ * number of processors in the pipeline grows.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BasicPipelineBenchmark {
+    @Param({"1", "4", "16", "64"})
+    private int processors;
+
+    private BenchPipeline pipeline;
+    private BenchEntity entity;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        pipeline = new BenchPipeline();
+        pipeline.setName("basic-benchmark");
+        for (int ii = 0; ii < processors; ii++) {
+            BenchProcessor processor = new BenchProcessor();
+            processor.setName(String.format("processor-%d", ii));
+            pipeline.addProcessor(processor, null);
+        }
+        entity = BenchEntity.create(1).get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pipeline.dispose();
+    }
+
+    @Benchmark
+    public ProcessorResponse<BenchEntity> execute() throws ProcessorException {
+        return pipeline.execute(entity, null, new Context());
+    }
+}
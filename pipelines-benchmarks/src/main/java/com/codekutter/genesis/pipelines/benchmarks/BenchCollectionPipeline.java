@@ -0,0 +1,17 @@
+package com.codekutter.genesis.pipelines.benchmarks;
+
+import com.codekutter.genesis.pipelines.CollectionPipeline;
+import com.codekutter.genesis.pipelines.EProcessState;
+
+/**
+ * Collection pipeline used by the benchmarks.
+ */
+public class BenchCollectionPipeline extends CollectionPipeline<BenchEntity> {
+    /**
+     * Default constructor - pipeline is available on creation.
+     */
+    public BenchCollectionPipeline() {
+        setType(BenchEntity.class);
+        state.setState(EProcessState.Available);
+    }
+}
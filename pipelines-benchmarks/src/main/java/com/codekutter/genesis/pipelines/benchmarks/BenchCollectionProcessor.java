@@ -0,0 +1,43 @@
+package com.codekutter.genesis.pipelines.benchmarks;
+
+import com.codekutter.genesis.pipelines.CollectionProcessor;
+import com.codekutter.genesis.pipelines.CollectionProcessorResponse;
+import com.codekutter.genesis.pipelines.Context;
+import com.codekutter.genesis.pipelines.EProcessState;
+import com.codekutter.genesis.pipelines.EProcessorResponse;
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.model.nodes.AbstractConfigNode;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+/**
+ * Collection processor with a minimal amount of work (updates the count
+ * of each entity), to measure the pipeline overhead.
+ */
+public class BenchCollectionProcessor extends CollectionProcessor<BenchEntity> {
+    /**
+     * Default constructor - processor is available on creation.
+     */
+    public BenchCollectionProcessor() {
+        setType(BenchEntity.class);
+        state.setState(EProcessState.Available);
+    }
+
+    @Override
+    public void init(AbstractConfigNode node) throws ConfigurationException {
+        state.setState(EProcessState.Available);
+    }
+
+    @Override
+    protected CollectionProcessorResponse<BenchEntity> execute(
+            @Nonnull List<BenchEntity> data, Context context,
+            @Nonnull CollectionProcessorResponse<BenchEntity> response) {
+        for (BenchEntity entity : data) {
+            entity.setCount(entity.getCount() + 1);
+        }
+        response.setData(data);
+        response.setState(EProcessorResponse.OK);
+        return response;
+    }
+}
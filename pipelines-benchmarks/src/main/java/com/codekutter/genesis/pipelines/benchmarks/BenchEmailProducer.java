@@ -0,0 +1,24 @@
+package com.codekutter.genesis.pipelines.benchmarks;
+
+import com.codekutter.genesis.pipelines.EProcessState;
+import com.codekutter.genesis.pipelines.extensions.email.EmailDataProducer;
+import com.codekutter.genesis.pipelines.types.CollectionDataProducer;
+
+import javax.mail.Message;
+
+/**
+ * Email producer pipeline used by the benchmarks, reads from the
+ * passed data producer without the resilience wrappers.
+ */
+public class BenchEmailProducer extends CollectionDataProducer<Message> {
+    /**
+     * Create the pipeline - pipeline is available on creation.
+     *
+     * @param dataProducer - Email data producer.
+     */
+    public BenchEmailProducer(EmailDataProducer dataProducer) {
+        setType(Message.class);
+        producer = dataProducer;
+        state.setState(EProcessState.Available);
+    }
+}
@@ -0,0 +1,71 @@
+package com.codekutter.genesis.pipelines.benchmarks;
+
+import com.codekutter.genesis.pipelines.types.Entity;
+import lombok.Data;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Entity type used by the benchmarks.
+ */
+@Data
+@ToString
+public class BenchEntity implements Entity<String> {
+    public static final String[] STATES = {"Active", "Inactive", "Deleted", "Pending"};
+
+    private String id;
+    private String name;
+    private String state;
+    private int count;
+    private double amount;
+    private Date created;
+
+    /**
+     * Get the Entity Key.
+     *
+     * @return - Entity Key.
+     */
+    @Override
+    public String getKey() {
+        return id;
+    }
+
+    /**
+     * Create a list of entities with random values (fixed seed).
+     *
+     * @param size - Number of entities.
+     * @return - List of entities.
+     */
+    public static List<BenchEntity> create(int size) {
+        Random random = new Random(size);
+        long now = System.currentTimeMillis();
+        List<BenchEntity> entities = new ArrayList<>(size);
+        for (int ii = 0; ii < size; ii++) {
+            entities.add(create(String.format("entity-%d", ii), random, now));
+        }
+        return entities;
+    }
+
+    /**
+     * Create an entity with random values.
+     *
+     * @param id     - Entity ID.
+     * @param random - Random generator.
+     * @param now    - Current time (in milliseconds).
+     * @return - Created entity.
+     */
+    public static BenchEntity create(String id, Random random, long now) {
+        BenchEntity entity = new BenchEntity();
+        entity.id = id;
+        entity.name = String.format("name-%d", random.nextInt(1000));
+        entity.state = STATES[random.nextInt(STATES.length)];
+        entity.count = random.nextInt(100);
+        entity.amount = random.nextDouble() * 1000;
+        entity.created = new Date(now - random.nextInt(Integer.MAX_VALUE));
+        return entity;
+    }
+}
@@ -0,0 +1,17 @@
+package com.codekutter.genesis.pipelines.benchmarks;
+
+import com.codekutter.genesis.pipelines.BasicPipeline;
+import com.codekutter.genesis.pipelines.EProcessState;
+
+/**
+ * Entity pipeline used by the benchmarks.
+ */
+public class BenchPipeline extends BasicPipeline<BenchEntity> {
+    /**
+     * Default constructor - pipeline is available on creation.
+     */
+    public BenchPipeline() {
+        setType(BenchEntity.class);
+        state.setState(EProcessState.Available);
+    }
+}
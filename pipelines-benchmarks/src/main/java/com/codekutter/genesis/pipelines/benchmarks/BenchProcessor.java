@@ -0,0 +1,41 @@
+package com.codekutter.genesis.pipelines.benchmarks;
+
+import com.codekutter.genesis.pipelines.BasicProcessor;
+import com.codekutter.genesis.pipelines.Context;
+import com.codekutter.genesis.pipelines.EProcessState;
+import com.codekutter.genesis.pipelines.EProcessorResponse;
+import com.codekutter.genesis.pipelines.ProcessorResponse;
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.model.nodes.AbstractConfigNode;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Entity processor with a minimal amount of work (updates the count),
+ * to measure the pipeline overhead.
+ */
+public class BenchProcessor extends BasicProcessor<BenchEntity> {
+    /**
+     * Default constructor - processor is available on creation.
+     */
+    public BenchProcessor() {
+        setType(BenchEntity.class);
+        state.setState(EProcessState.Available);
+    }
+
+    @Override
+    public void init(AbstractConfigNode node) throws ConfigurationException {
+        state.setState(EProcessState.Available);
+    }
+
+    @Override
+    protected ProcessorResponse<BenchEntity> execute(@Nonnull BenchEntity data,
+                                                     Context context,
+                                                     @Nonnull
+                                                             ProcessorResponse<BenchEntity> response) {
+        data.setCount(data.getCount() + 1);
+        response.setData(data);
+        response.setState(EProcessorResponse.OK);
+        return response;
+    }
+}
@@ -0,0 +1,28 @@
+package com.codekutter.genesis.pipelines.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point to run the benchmarks with the GC profiler enabled
+ * (reports GC counts/time and the allocation rate per operation).
+ * <p>
+ * Accepts the standard JMH command line options, ex:
+ * java -jar target/benchmarks.jar CollectionPipelineBenchmark -p size=1000
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args)
+    throws RunnerException, CommandLineOptionException {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        Options options = new OptionsBuilder()
+                .parent(cmd)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,61 @@
+package com.codekutter.genesis.pipelines.benchmarks;
+
+import com.codekutter.genesis.pipelines.Context;
+import com.codekutter.genesis.pipelines.ProcessorException;
+import com.codekutter.genesis.pipelines.ProcessorResponse;
+import com.google.common.base.Strings;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to run a CollectionPipeline over a batch of entities, with and
+ * without stage conditions and filtered entities in the response.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class CollectionPipelineBenchmark {
+    public static final int PROCESSORS = 4;
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    @Param({"", "state = 'Active'"})
+    private String condition;
+
+    @Param({"true", "false"})
+    private boolean includeFiltered;
+
+    private BenchCollectionPipeline pipeline;
+    private List<BenchEntity> entities;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        pipeline = new BenchCollectionPipeline();
+        pipeline.setName("collection-benchmark");
+        String cond = (Strings.isNullOrEmpty(condition) ? null : condition);
+        for (int ii = 0; ii < PROCESSORS; ii++) {
+            BenchCollectionProcessor processor = new BenchCollectionProcessor();
+            processor.setName(String.format("processor-%d", ii));
+            processor.setIncludeFiltered(includeFiltered);
+            pipeline.addProcessor(processor, cond);
+        }
+        entities = BenchEntity.create(size);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pipeline.dispose();
+    }
+
+    @Benchmark
+    public ProcessorResponse<List<BenchEntity>> execute()
+    throws ProcessorException {
+        return pipeline.execute(entities, null, new Context());
+    }
+}
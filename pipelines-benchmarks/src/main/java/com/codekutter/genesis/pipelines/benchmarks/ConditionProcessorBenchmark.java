@@ -0,0 +1,54 @@
+package com.codekutter.genesis.pipelines.benchmarks;
+
+import com.codekutter.genesis.pipelines.utils.ConditionProcessor;
+import com.codekutter.genesis.pipelines.utils.ConditionProcessorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of evaluating entity conditions, for a single entity (matches)
+ * and a batch of entities (filter).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConditionProcessorBenchmark {
+    public static final String CONDITION_SIMPLE = "state = 'Active'";
+    public static final String CONDITION_COMPLEX =
+            "(state = 'Active' OR state = 'Pending') AND count > 25 " +
+                    "AND amount BETWEEN 100.0 AND 900.0 AND name LIKE 'name-1%'";
+
+    @Param({"simple", "complex"})
+    private String type;
+
+    @Param({"1000"})
+    private int size;
+
+    private ConditionProcessor<BenchEntity> processor;
+    private String condition;
+    private BenchEntity entity;
+    private List<BenchEntity> entities;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        processor = ConditionProcessorFactory.getProcessor(BenchEntity.class);
+        condition = ("complex".equals(type) ? CONDITION_COMPLEX : CONDITION_SIMPLE);
+        entities = BenchEntity.create(size);
+        entity = entities.get(0);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return processor.matches(entity, condition);
+    }
+
+    @Benchmark
+    public List<BenchEntity> filter() {
+        return processor.filter(entities, condition);
+    }
+}
@@ -0,0 +1,170 @@
+package com.codekutter.genesis.pipelines.benchmarks;
+
+import com.codekutter.genesis.pipelines.Context;
+import com.codekutter.genesis.pipelines.ProcessorException;
+import com.codekutter.genesis.pipelines.extensions.DataServiceException;
+import com.codekutter.genesis.pipelines.extensions.EEmailOperations;
+import com.codekutter.genesis.pipelines.extensions.email.EmailDataConsumer;
+import com.codekutter.genesis.pipelines.extensions.email.EmailDataProducer;
+import com.icegreen.greenmail.store.FolderException;
+import com.icegreen.greenmail.store.MailFolder;
+import com.icegreen.greenmail.user.GreenMailUser;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.openjdk.jmh.annotations.*;
+
+import javax.mail.Flags;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and latency of the email pipeline against an embedded
+ * IMAP/SMTP server (GreenMail) seeded with a mailbox of the specified
+ * size: fetch of the unread messages, subject search, flag updates
+ * and send.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class EmailBenchmark {
+    public static final String SERVER = "localhost";
+    public static final String USERNAME = "bench";
+    public static final String PASSWORD = "bench-secret";
+    public static final String ADDRESS = "bench@localhost";
+    public static final String SINK = "sink@localhost";
+
+    @Param({"10000", "100000", "1000000"})
+    private int messages;
+
+    @Param({"100"})
+    private int unread;
+
+    private GreenMail greenMail;
+    private GreenMailUser sink;
+    private Session session;
+    private EmailDataProducer dataProducer;
+    private EmailDataConsumer dataConsumer;
+    private BenchEmailProducer pipeline;
+    private Message flagged;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        greenMail = new GreenMail(ServerSetupTest.SMTP_IMAP);
+        greenMail.start();
+        GreenMailUser user = greenMail.setUser(ADDRESS, USERNAME, PASSWORD);
+        sink = greenMail.setUser(SINK, "sink", PASSWORD);
+        session = Session.getInstance(new Properties());
+        seed(greenMail.getManagers().getImapHostManager().getInbox(user));
+
+        dataProducer = new EmailDataProducer();
+        dataProducer.setServer(SERVER);
+        dataProducer.setPort(greenMail.getImap().getPort());
+        dataProducer.setUseSSL(false);
+        dataProducer.setUsername(USERNAME);
+        dataProducer.setPassword(PASSWORD);
+        pipeline = new BenchEmailProducer(dataProducer);
+        pipeline.setName("email-benchmark");
+
+        dataConsumer = new EmailDataConsumer();
+        dataConsumer.setServer(SERVER);
+        dataConsumer.setPort(greenMail.getSmtp().getPort());
+        dataConsumer.setUsername(USERNAME);
+        dataConsumer.setPassword(PASSWORD);
+        dataConsumer.setProducer(dataProducer);
+
+        List<Message> found = dataProducer.fetch(
+                String.format("subject == \"%s\"", subject(0)), null);
+        if (found == null || found.size() != 1) {
+            throw new IllegalStateException(
+                    String.format("Seeded message not found. [subject=%s]",
+                                  subject(0)));
+        }
+        flagged = found.get(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void purge() throws FolderException {
+        greenMail.getManagers().getImapHostManager().getInbox(sink)
+                 .deleteAllMessages();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        pipeline.dispose();
+        dataConsumer.close();
+        dataProducer.close();
+        greenMail.stop();
+    }
+
+    @Benchmark
+    public List<Message> fetchUnread() throws ProcessorException {
+        return pipeline.read(null, new Context());
+    }
+
+    @Benchmark
+    public List<Message> search() throws ProcessorException {
+        int index = ThreadLocalRandom.current().nextInt(messages);
+        return pipeline.read(String.format("subject == \"%s\"", subject(index)),
+                             new Context());
+    }
+
+    @Benchmark
+    public Message flagUpdate() throws DataServiceException {
+        dataConsumer.process(flagged, EEmailOperations.MarkAsUnread, null);
+        return dataConsumer.process(flagged, EEmailOperations.MarkAsRead, null);
+    }
+
+    @Benchmark
+    public Message send() throws DataServiceException, MessagingException {
+        return dataConsumer.process(createMessage(SINK, "outbound"),
+                                    EEmailOperations.Send, new Context());
+    }
+
+    /**
+     * Seed the inbox, the last unread messages (most recent) are not
+     * flagged as seen.
+     *
+     * @param inbox - Inbox folder.
+     * @throws MessagingException
+     */
+    private void seed(MailFolder inbox) throws MessagingException {
+        long now = System.currentTimeMillis();
+        for (int ii = 0; ii < messages; ii++) {
+            Date date = new Date(now - (long) (messages - ii) * 1000);
+            MimeMessage message = createMessage(ADDRESS, subject(ii));
+            message.setSentDate(date);
+            Flags flags = (ii >= messages - unread ? new Flags() :
+                    new Flags(Flags.Flag.SEEN));
+            inbox.appendMessage(message, flags, date);
+        }
+    }
+
+    private MimeMessage createMessage(String recipient, String subject)
+    throws MessagingException {
+        MimeMessage message = new MimeMessage(session);
+        message.setFrom(new InternetAddress(ADDRESS));
+        message.setRecipient(Message.RecipientType.TO,
+                             new InternetAddress(recipient));
+        message.setSubject(subject);
+        message.setSentDate(new Date());
+        message.setText(String.format("Body of %s", subject));
+        message.saveChanges();
+        return message;
+    }
+
+    private static String subject(int index) {
+        return String.format("message-%07d", index);
+    }
+}
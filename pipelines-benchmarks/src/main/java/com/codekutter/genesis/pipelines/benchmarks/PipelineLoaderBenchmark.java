@@ -0,0 +1,114 @@
+package com.codekutter.genesis.pipelines.benchmarks;
+
+import com.codekutter.genesis.pipelines.PipelineLoader;
+import com.codekutter.genesis.pipelines.jmx.PipelineMBeans;
+import com.codekutter.zconfig.common.model.ConfigurationSettings;
+import com.codekutter.zconfig.common.model.Version;
+import org.openjdk.jmh.annotations.*;
+
+import javax.management.JMException;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to load a generated pipeline configuration, as the number of
+ * pipelines and processors grows.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class PipelineLoaderBenchmark {
+    public static final String CONFIG_NAME = "benchmark-config";
+    public static final String CONFIG_VERSION = "0.2";
+
+    @Param({"10", "100", "1000"})
+    private int pipelines;
+
+    @Param({"10"})
+    private int processors;
+
+    private File config;
+    private PipelineLoader loader;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        config = File.createTempFile("pipelines", ".xml");
+        config.deleteOnExit();
+        try (Writer writer = new FileWriter(config)) {
+            writeConfig(writer, pipelines, processors);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        config.delete();
+    }
+
+    @TearDown(Level.Iteration)
+    public void unregister() throws JMException {
+        if (loader != null) {
+            for (int ii = 0; ii < pipelines; ii++) {
+                PipelineMBeans.unregister(String.format("pipeline-%d", ii));
+            }
+            loader = null;
+        }
+    }
+
+    @Benchmark
+    public PipelineLoader load() throws Exception {
+        loader = new PipelineLoader();
+        loader.load(CONFIG_NAME, config.toURI().toString(),
+                    Version.parse(CONFIG_VERSION), new ConfigurationSettings());
+        return loader;
+    }
+
+    /**
+     * Write a pipeline configuration with the specified number of pipelines
+     * and processors per pipeline. Every second pipeline embeds the
+     * previous one as a reference.
+     *
+     * @param writer     - Output writer.
+     * @param pipelines  - Number of pipelines.
+     * @param processors - Number of processors per pipeline.
+     * @throws IOException
+     */
+    public static void writeConfig(Writer writer, int pipelines, int processors)
+    throws IOException {
+        String entity = BenchEntity.class.getCanonicalName();
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n<root>\n");
+        writer.write(String.format(
+                "    <header ID=\"BENCHMARK-%d\" group=\"BENCHMARK\" " +
+                        "application=\"BENCHMARK\" name=\"%s\" version=\"%s\">\n",
+                pipelines, CONFIG_NAME, CONFIG_VERSION));
+        writer.write("        <description>Generated benchmark configuration.</description>\n");
+        writer.write("        <createdBy user=\"benchmark\" tiemstamp=\"0\"/>\n");
+        writer.write("        <updatedBy user=\"benchmark\" tiemstamp=\"0\"/>\n");
+        writer.write("    </header>\n    <pipelines>\n");
+        for (int ii = 0; ii < pipelines; ii++) {
+            writer.write(String.format(
+                    "        <pipeline name=\"pipeline-%d\" type=\"%s\" entityType=\"%s\">\n",
+                    ii, BenchPipeline.class.getCanonicalName(), entity));
+            writer.write("            <processors>\n");
+            for (int jj = 0; jj < processors; jj++) {
+                if (jj == 0 && ii % 2 == 1) {
+                    writer.write(String.format(
+                            "                <processor name=\"processor-%d\" type=\"%s\" entityType=\"%s\" reference=\"pipeline-%d\"/>\n",
+                            jj, BenchPipeline.class.getCanonicalName(), entity,
+                            ii - 1));
+                } else {
+                    writer.write(String.format(
+                            "                <processor name=\"processor-%d\" type=\"%s\" entityType=\"%s\"/>\n",
+                            jj, BenchProcessor.class.getCanonicalName(), entity));
+                }
+            }
+            writer.write("            </processors>\n        </pipeline>\n");
+        }
+        writer.write("    </pipelines>\n</root>\n");
+    }
+}
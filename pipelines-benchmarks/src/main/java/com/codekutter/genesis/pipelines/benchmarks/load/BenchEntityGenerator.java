@@ -0,0 +1,21 @@
+package com.codekutter.genesis.pipelines.benchmarks.load;
+
+import com.codekutter.genesis.pipelines.benchmarks.BenchEntity;
+
+import java.util.Random;
+
+/**
+ * Generator for benchmark entities with random values.
+ */
+public class BenchEntityGenerator implements IEntityGenerator<BenchEntity> {
+    @Override
+    public Class<BenchEntity> getType() {
+        return BenchEntity.class;
+    }
+
+    @Override
+    public BenchEntity create(long sequence, Random random) {
+        return BenchEntity.create(String.format("entity-%d", sequence), random,
+                                  System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,29 @@
+package com.codekutter.genesis.pipelines.benchmarks.load;
+
+import java.util.Random;
+
+/**
+ * Interface for generating the synthetic entities used by the load tests.
+ * <p>
+ * Note: Implementations need a public default constructor and are shared
+ * by the load generator threads.
+ *
+ * @param <T> - Entity Type.
+ */
+public interface IEntityGenerator<T> {
+    /**
+     * Get the type of the generated entities.
+     *
+     * @return - Entity Type.
+     */
+    Class<T> getType();
+
+    /**
+     * Create an entity.
+     *
+     * @param sequence - Sequence number of the entity.
+     * @param random   - Random generator (thread local).
+     * @return - Created entity.
+     */
+    T create(long sequence, Random random);
+}
@@ -0,0 +1,262 @@
+package com.codekutter.genesis.pipelines.benchmarks.load;
+
+import com.codekutter.genesis.pipelines.CollectionPipeline;
+import com.codekutter.genesis.pipelines.Context;
+import com.codekutter.genesis.pipelines.EProcessorResponse;
+import com.codekutter.genesis.pipelines.ProcessorResponse;
+import com.codekutter.genesis.pipelines.extensions.IDataProducer;
+import com.codekutter.genesis.pipelines.metrics.LatencyHistogram;
+import com.codekutter.genesis.pipelines.types.IOperationParser;
+import com.codekutter.zconfig.common.LogUtils;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator for collection pipelines.
+ * <p>
+ * Requests are scheduled at the target rate independent of the response
+ * times and queued for a fixed pool of workers. Each request fetches a batch
+ * from the producer and runs it through the pipeline. Latency is measured
+ * from the intended start of the request, so time spent waiting for a free
+ * worker is included (corrected for coordinated omission). The service time
+ * (from the actual start) is reported separately.
+ *
+ * @param <T> - Entity Type.
+ */
+public class LoadGenerator<T> {
+    /**
+     * Arrival model of the requests.
+     */
+    public enum EArrival {
+        /**
+         * Fixed interval between requests.
+         */
+        Uniform,
+        /**
+         * Exponentially distributed interval (Poisson process).
+         */
+        Poisson
+    }
+
+    /**
+     * Operation passed to the consumers of the pipeline.
+     */
+    public static final String OPERATION = "load";
+    private static final long MIN_DRAIN_TIMEOUT = TimeUnit.SECONDS.toNanos(10);
+
+    private final CollectionPipeline<T> pipeline;
+    private final IDataProducer<T> producer;
+    private EArrival arrival = EArrival.Uniform;
+
+    /**
+     * Create a load generator for the pipeline.
+     *
+     * @param pipeline - Pipeline under test.
+     * @param producer - Producer for the request batches.
+     */
+    public LoadGenerator(@Nonnull CollectionPipeline<T> pipeline,
+                         @Nonnull IDataProducer<T> producer) {
+        Preconditions.checkArgument(pipeline != null);
+        Preconditions.checkArgument(producer != null);
+        this.pipeline = pipeline;
+        this.producer = producer;
+    }
+
+    /**
+     * Get the arrival model.
+     *
+     * @return - Arrival model.
+     */
+    public EArrival getArrival() {
+        return arrival;
+    }
+
+    /**
+     * Set the arrival model.
+     *
+     * @param arrival - Arrival model.
+     * @return - Self.
+     */
+    public LoadGenerator<T> setArrival(@Nonnull EArrival arrival) {
+        Preconditions.checkArgument(arrival != null);
+        this.arrival = arrival;
+        return this;
+    }
+
+    /**
+     * Run a load test step. Requests scheduled during the warm-up are
+     * run but not recorded. After the measured duration the scheduled
+     * requests are drained, requests not run within the drain timeout
+     * (the measured duration, min 10 secs) are dropped.
+     *
+     * @param rate        - Target arrival rate (requests/sec).
+     * @param concurrency - Number of worker threads.
+     * @param warmup      - Warm-up duration.
+     * @param duration    - Measured duration.
+     * @param unit        - Duration time unit.
+     * @return - Step result.
+     * @throws InterruptedException
+     */
+    public LoadResult run(double rate, int concurrency, long warmup,
+                          long duration, @Nonnull TimeUnit unit)
+    throws InterruptedException {
+        Preconditions.checkArgument(rate > 0);
+        Preconditions.checkArgument(concurrency > 0);
+        Preconditions.checkArgument(warmup >= 0);
+        Preconditions.checkArgument(duration > 0);
+
+        Recorder recorder = new Recorder();
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory factory = (r) -> {
+            Thread thread = new Thread(r, String.format("load-worker-%d",
+                                                        count.incrementAndGet()));
+            thread.setDaemon(true);
+            return thread;
+        };
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency, factory);
+
+        double interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long durationNanos = unit.toNanos(duration);
+        long start = System.nanoTime();
+        long measureFrom = start + unit.toNanos(warmup);
+        long end = measureFrom + durationNanos;
+        Random random = new Random();
+        long scheduled = 0;
+        double next = start;
+        try {
+            while (true) {
+                long intended = (long) next;
+                if (intended - end >= 0) {
+                    break;
+                }
+                long now;
+                while ((now = System.nanoTime()) - intended < 0) {
+                    LockSupport.parkNanos(intended - now);
+                }
+                boolean measured = (intended - measureFrom >= 0);
+                if (measured) {
+                    scheduled++;
+                }
+                workers.execute(() -> execute(intended, measured, recorder));
+                if (arrival == EArrival.Poisson) {
+                    next += -Math.log(1 - random.nextDouble()) * interval;
+                } else {
+                    next += interval;
+                }
+            }
+        } finally {
+            workers.shutdown();
+        }
+        long drain = Math.max(durationNanos, MIN_DRAIN_TIMEOUT);
+        if (!workers.awaitTermination(drain, TimeUnit.NANOSECONDS)) {
+            List<Runnable> pending = workers.shutdownNow();
+            LogUtils.warn(getClass(), String.format(
+                    "Drain timeout, dropping requests. [rate=%s][concurrency=%d][pending=%d]",
+                    rate, concurrency, pending.size()));
+            workers.awaitTermination(drain, TimeUnit.NANOSECONDS);
+        }
+
+        LoadResult result = new LoadResult();
+        result.setRate(rate);
+        result.setConcurrency(concurrency);
+        result.setArrival(arrival.name());
+        result.setDuration(TimeUnit.NANOSECONDS.toMillis(durationNanos));
+        result.setScheduled(scheduled);
+        long completed = recorder.completed.sum();
+        long errors = recorder.errors.sum();
+        result.setCompleted(completed);
+        result.setErrors(errors);
+        result.setDropped(Math.max(0, scheduled - completed - errors));
+        result.setEntities(recorder.entities.sum());
+        double elapsed = (double) (Math.max(end, recorder.finished.get()) - measureFrom) /
+                TimeUnit.SECONDS.toNanos(1);
+        result.setThroughput(completed / elapsed);
+        result.setEntityThroughput(result.getEntities() / elapsed);
+        result.setLatency(recorder.latency.getSnapshot());
+        result.setService(recorder.service.getSnapshot());
+        Map<String, Long> responses = new LinkedHashMap<>();
+        for (Map.Entry<EProcessorResponse, LongAdder> entry :
+                recorder.responses.entrySet()) {
+            long value = entry.getValue().sum();
+            if (value > 0) {
+                responses.put(entry.getKey().name(), value);
+            }
+        }
+        result.setResponses(responses);
+        return result;
+    }
+
+    /**
+     * Run a request and record the result.
+     *
+     * @param intended - Intended start (nano time).
+     * @param measured - Record this request?
+     * @param recorder - Step recorder.
+     */
+    private void execute(long intended, boolean measured, Recorder recorder) {
+        long started = System.nanoTime();
+        EProcessorResponse state = null;
+        int entities = 0;
+        try {
+            Context context = new Context();
+            context.addParameter(IOperationParser.CONTEXT_KEY_OPERATION, OPERATION);
+            List<T> data = producer.fetch(null, context);
+            ProcessorResponse<List<T>> response =
+                    pipeline.execute(data, null, context);
+            state = response.getState();
+            if (response.getData() != null) {
+                entities = response.getData().size();
+            }
+        } catch (Exception ex) {
+            LogUtils.debug(getClass(), ex);
+        }
+        long finished = System.nanoTime();
+        if (measured) {
+            if (state == null) {
+                recorder.errors.increment();
+            } else {
+                recorder.completed.increment();
+                recorder.entities.add(entities);
+                recorder.responses.get(state).increment();
+            }
+            recorder.latency.record(finished - intended);
+            recorder.service.record(finished - started);
+            recorder.finished.accumulate(finished);
+        }
+    }
+
+    /**
+     * Recorded values of a load test step.
+     */
+    private static final class Recorder {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LatencyHistogram service = new LatencyHistogram();
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder entities = new LongAdder();
+        private final LongAccumulator finished = new LongAccumulator(Math::max,
+                                                                     Long.MIN_VALUE);
+        private final Map<EProcessorResponse, LongAdder> responses =
+                new EnumMap<>(EProcessorResponse.class);
+
+        private Recorder() {
+            for (EProcessorResponse state : EProcessorResponse.values()) {
+                responses.put(state, new LongAdder());
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.codekutter.genesis.pipelines.benchmarks.load;
+
+import com.codekutter.genesis.pipelines.metrics.HistogramSnapshot;
+import com.google.common.base.Preconditions;
+import lombok.Data;
+import lombok.ToString;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Report of a load test run, evaluates the steps against the latency SLO
+ * and renders the results as JSON.
+ */
+@Data
+@ToString
+public class LoadReport {
+    /**
+     * Name of the pipeline under test.
+     */
+    private String pipeline;
+    /**
+     * Entity generator type.
+     */
+    private String generator;
+    /**
+     * Number of entities per request.
+     */
+    private int batchSize;
+    /**
+     * SLO percentile (50, 90, 99 or 99.9).
+     */
+    private double sloPercentile = 99;
+    /**
+     * SLO latency (in milliseconds).
+     */
+    private long sloLatency;
+    /**
+     * Load test steps.
+     */
+    private List<LoadResult> results = new ArrayList<>();
+
+    /**
+     * Set the SLO percentile.
+     *
+     * @param sloPercentile - Percentile (50, 90, 99 or 99.9).
+     */
+    public void setSloPercentile(double sloPercentile) {
+        Preconditions.checkArgument(sloPercentile == 50 || sloPercentile == 90 ||
+                                            sloPercentile == 99 || sloPercentile == 99.9,
+                                    "Unsupported percentile: %s", sloPercentile);
+        this.sloPercentile = sloPercentile;
+    }
+
+    /**
+     * Add a step result, the step meets the SLO if all the scheduled
+     * requests completed without errors within the SLO latency (measured
+     * from the intended start).
+     *
+     * @param result - Step result.
+     */
+    public void add(@Nonnull LoadResult result) {
+        Preconditions.checkArgument(result != null);
+        long limit = TimeUnit.MILLISECONDS.toNanos(sloLatency);
+        result.setSloMet(result.getDropped() == 0 && result.getErrors() == 0 &&
+                                 percentile(result.getLatency(), sloPercentile) <= limit);
+        results.add(result);
+    }
+
+    /**
+     * Get the value of the percentile from the snapshot.
+     *
+     * @param snapshot   - Histogram snapshot.
+     * @param percentile - Percentile (50, 90, 99 or 99.9).
+     * @return - Value (in nanoseconds).
+     */
+    public static long percentile(@Nonnull HistogramSnapshot snapshot,
+                                  double percentile) {
+        if (percentile == 50) {
+            return snapshot.getP50();
+        } else if (percentile == 90) {
+            return snapshot.getP90();
+        } else if (percentile == 99) {
+            return snapshot.getP99();
+        } else if (percentile == 99.9) {
+            return snapshot.getP999();
+        }
+        throw new IllegalArgumentException(
+                String.format("Unsupported percentile. [percentile=%s]", percentile));
+    }
+
+    /**
+     * Render this report as JSON, latencies are in milliseconds.
+     *
+     * @return - JSON string.
+     */
+    public String toJson() {
+        StringBuilder buffer = new StringBuilder();
+        buffer.append("{\n");
+        buffer.append(String.format("  \"pipeline\": %s,\n", quote(pipeline)));
+        buffer.append(String.format("  \"generator\": %s,\n", quote(generator)));
+        buffer.append(String.format("  \"batchSize\": %d,\n", batchSize));
+        buffer.append(String.format("  \"slo\": {\"percentile\": %s, \"latencyMs\": %d},\n",
+                                    number(sloPercentile), sloLatency));
+        buffer.append("  \"results\": [");
+        for (int ii = 0; ii < results.size(); ii++) {
+            LoadResult result = results.get(ii);
+            buffer.append(ii == 0 ? "\n" : ",\n");
+            buffer.append("    {");
+            buffer.append(String.format("\"rate\": %s, ", number(result.getRate())));
+            buffer.append(String.format("\"concurrency\": %d, ", result.getConcurrency()));
+            buffer.append(String.format("\"arrival\": %s, ", quote(result.getArrival())));
+            buffer.append(String.format("\"durationMs\": %d, ", result.getDuration()));
+            buffer.append(String.format("\"scheduled\": %d, ", result.getScheduled()));
+            buffer.append(String.format("\"completed\": %d, ", result.getCompleted()));
+            buffer.append(String.format("\"errors\": %d, ", result.getErrors()));
+            buffer.append(String.format("\"dropped\": %d, ", result.getDropped()));
+            buffer.append(String.format("\"entities\": %d, ", result.getEntities()));
+            buffer.append(String.format("\"throughput\": %s, ", number(result.getThroughput())));
+            buffer.append(String.format("\"entityThroughput\": %s, ",
+                                        number(result.getEntityThroughput())));
+            buffer.append(String.format("\"latencyMs\": %s, ", histogram(result.getLatency())));
+            buffer.append(String.format("\"serviceMs\": %s, ", histogram(result.getService())));
+            buffer.append("\"responses\": {");
+            boolean first = true;
+            for (Map.Entry<String, Long> entry : result.getResponses().entrySet()) {
+                buffer.append(first ? "" : ", ");
+                buffer.append(String.format("%s: %d", quote(entry.getKey()), entry.getValue()));
+                first = false;
+            }
+            buffer.append("}, ");
+            buffer.append(String.format("\"sloMet\": %s}", result.isSloMet()));
+        }
+        buffer.append(results.isEmpty() ? "]\n" : "\n  ]\n");
+        buffer.append("}\n");
+        return buffer.toString();
+    }
+
+    private static String histogram(HistogramSnapshot snapshot) {
+        return String.format(
+                "{\"count\": %d, \"mean\": %s, \"p50\": %s, \"p90\": %s, \"p99\": %s, \"p999\": %s, \"max\": %s}",
+                snapshot.getCount(), millis(snapshot.getMean()),
+                millis(snapshot.getP50()), millis(snapshot.getP90()),
+                millis(snapshot.getP99()), millis(snapshot.getP999()),
+                millis(snapshot.getMax()));
+    }
+
+    private static String millis(double nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1000000);
+    }
+
+    private static String number(double value) {
+        if (value == Math.rint(value)) {
+            return String.valueOf((long) value);
+        }
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    private static String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder buffer = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                buffer.append('\\').append(c);
+            } else if (c < 0x20) {
+                buffer.append(String.format("\\u%04x", (int) c));
+            } else {
+                buffer.append(c);
+            }
+        }
+        return buffer.append('"').toString();
+    }
+}
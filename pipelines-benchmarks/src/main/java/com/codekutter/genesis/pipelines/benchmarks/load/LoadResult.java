@@ -0,0 +1,76 @@
+package com.codekutter.genesis.pipelines.benchmarks.load;
+
+import com.codekutter.genesis.pipelines.metrics.HistogramSnapshot;
+import lombok.Data;
+import lombok.ToString;
+
+import java.util.Map;
+
+/**
+ * Result of a load test step (fixed arrival rate and concurrency).
+ */
+@Data
+@ToString
+public class LoadResult {
+    /**
+     * Target arrival rate (requests/sec).
+     */
+    private double rate;
+    /**
+     * Number of worker threads.
+     */
+    private int concurrency;
+    /**
+     * Arrival model.
+     */
+    private String arrival;
+    /**
+     * Measured duration (in milliseconds), excludes the warm-up.
+     */
+    private long duration;
+    /**
+     * Number of requests scheduled in the measured duration.
+     */
+    private long scheduled;
+    /**
+     * Number of requests that returned a response.
+     */
+    private long completed;
+    /**
+     * Number of requests that failed with an exception.
+     */
+    private long errors;
+    /**
+     * Number of requests not run before the drain timeout.
+     */
+    private long dropped;
+    /**
+     * Number of entities processed by the completed requests.
+     */
+    private long entities;
+    /**
+     * Achieved throughput (requests/sec).
+     */
+    private double throughput;
+    /**
+     * Achieved throughput (entities/sec).
+     */
+    private double entityThroughput;
+    /**
+     * Latency from the intended start of the request (corrected for
+     * coordinated omission).
+     */
+    private HistogramSnapshot latency;
+    /**
+     * Latency from the actual start of the request (service time).
+     */
+    private HistogramSnapshot service;
+    /**
+     * Count of the completed requests by response state.
+     */
+    private Map<String, Long> responses;
+    /**
+     * Did this step meet the latency SLO?
+     */
+    private boolean sloMet;
+}
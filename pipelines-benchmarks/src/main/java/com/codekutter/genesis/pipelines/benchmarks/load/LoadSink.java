@@ -0,0 +1,32 @@
+package com.codekutter.genesis.pipelines.benchmarks.load;
+
+import com.codekutter.genesis.pipelines.EProcessState;
+import com.codekutter.genesis.pipelines.types.CollectionDataConsumer;
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.model.nodes.AbstractConfigNode;
+
+/**
+ * Sink processor for the load test pipelines, passes the entities to
+ * a discarding consumer.
+ *
+ * @param <T> - Entity Type.
+ */
+public class LoadSink<T> extends CollectionDataConsumer<T, String> {
+    /**
+     * Default constructor - processor is available on creation.
+     */
+    public LoadSink() {
+        consumer = new SinkConsumer<>();
+        state.setState(EProcessState.Available);
+    }
+
+    @Override
+    public void init(AbstractConfigNode node) throws ConfigurationException {
+        state.setState(EProcessState.Available);
+    }
+
+    @Override
+    public String parseOperation(Object operation) {
+        return String.valueOf(operation);
+    }
+}
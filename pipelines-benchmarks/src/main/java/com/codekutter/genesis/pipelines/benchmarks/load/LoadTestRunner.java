@@ -0,0 +1,188 @@
+package com.codekutter.genesis.pipelines.benchmarks.load;
+
+import com.codekutter.genesis.pipelines.CollectionPipeline;
+import com.codekutter.genesis.pipelines.Pipeline;
+import com.codekutter.genesis.pipelines.PipelineLoader;
+import com.codekutter.genesis.pipelines.benchmarks.BenchCollectionPipeline;
+import com.codekutter.genesis.pipelines.benchmarks.BenchCollectionProcessor;
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.model.ConfigurationSettings;
+import com.codekutter.zconfig.common.model.Version;
+import com.google.common.base.Strings;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command line runner for the pipeline load tests. Loads the pipeline
+ * using the PipelineLoader, runs a load step for each rate/concurrency
+ * combination and writes the JSON report.
+ * <p>
+ * If no configuration is passed, a collection pipeline with benchmark
+ * processors and a sink is generated. ex:
+ * java -cp target/benchmarks.jar com.codekutter.genesis.pipelines.benchmarks.load.LoadTestRunner
+ * --rates 100,1000 --concurrency 1,4 --duration 30 --slo-latency 50 --output report.json
+ */
+public class LoadTestRunner {
+    public static final String CONFIG_NAME = "load-test-config";
+    public static final String CONFIG_VERSION = "0.2";
+    public static final String DEFAULT_PIPELINE = "load-pipeline";
+
+    private static final String USAGE =
+            "Options:\n" +
+                    "  --config <uri>          Pipeline configuration (default: generated)\n" +
+                    "  --version <version>     Configuration version (default: 0.2)\n" +
+                    "  --pipeline <name>       Pipeline to run (default: load-pipeline)\n" +
+                    "  --processors <n>        Processors in the generated pipeline (default: 4)\n" +
+                    "  --generator <class>     Entity generator (default: BenchEntityGenerator)\n" +
+                    "  --batch <n>             Entities per request (default: 100)\n" +
+                    "  --rates <r1,r2..>       Arrival rates, requests/sec (default: 100)\n" +
+                    "  --concurrency <c1,c2..> Worker threads (default: 1)\n" +
+                    "  --arrival <model>       Uniform or Poisson (default: Uniform)\n" +
+                    "  --warmup <secs>         Warm-up per step (default: 5)\n" +
+                    "  --duration <secs>       Measured duration per step (default: 30)\n" +
+                    "  --slo-percentile <p>    50, 90, 99 or 99.9 (default: 99)\n" +
+                    "  --slo-latency <ms>      SLO latency (default: 100)\n" +
+                    "  --output <file>         Report file (default: stdout)\n";
+
+    @SuppressWarnings("unchecked")
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String config = options.get("config");
+        String name = options.getOrDefault("pipeline", DEFAULT_PIPELINE);
+        Class<?> type = Class.forName(options.getOrDefault(
+                "generator", BenchEntityGenerator.class.getCanonicalName()));
+        IEntityGenerator<Object> generator =
+                (IEntityGenerator<Object>) type.getDeclaredConstructor().newInstance();
+        int batch = Integer.parseInt(options.getOrDefault("batch", "100"));
+
+        File generated = null;
+        if (Strings.isNullOrEmpty(config)) {
+            generated = File.createTempFile("load-test", ".xml");
+            generated.deleteOnExit();
+            try (Writer writer = new FileWriter(generated)) {
+                writeConfig(writer, name, generator.getType(), Integer.parseInt(
+                        options.getOrDefault("processors", "4")));
+            }
+            config = generated.toURI().toString();
+        }
+        PipelineLoader loader = new PipelineLoader();
+        loader.load(CONFIG_NAME, config,
+                    Version.parse(options.getOrDefault("version", CONFIG_VERSION)),
+                    new ConfigurationSettings());
+        Pipeline<?> pipeline = loader.getPipeline(name);
+        if (!(pipeline instanceof CollectionPipeline)) {
+            throw new ConfigurationException(String.format(
+                    "Collection pipeline not found. [name=%s]", name));
+        }
+
+        SyntheticDataProducer<Object> producer =
+                new SyntheticDataProducer<>(generator, batch);
+        LoadGenerator<Object> load =
+                new LoadGenerator<>((CollectionPipeline<Object>) pipeline, producer);
+        load.setArrival(LoadGenerator.EArrival.valueOf(
+                options.getOrDefault("arrival", LoadGenerator.EArrival.Uniform.name())));
+
+        LoadReport report = new LoadReport();
+        report.setPipeline(name);
+        report.setGenerator(type.getCanonicalName());
+        report.setBatchSize(batch);
+        report.setSloPercentile(Double.parseDouble(
+                options.getOrDefault("slo-percentile", "99")));
+        report.setSloLatency(Long.parseLong(options.getOrDefault("slo-latency", "100")));
+
+        long warmup = Long.parseLong(options.getOrDefault("warmup", "5"));
+        long duration = Long.parseLong(options.getOrDefault("duration", "30"));
+        for (String rate : split(options.getOrDefault("rates", "100"))) {
+            for (String concurrency : split(options.getOrDefault("concurrency", "1"))) {
+                System.err.println(String.format(
+                        "Running step. [rate=%s][concurrency=%s]", rate, concurrency));
+                report.add(load.run(Double.parseDouble(rate),
+                                    Integer.parseInt(concurrency), warmup, duration,
+                                    TimeUnit.SECONDS));
+            }
+        }
+        producer.close();
+        ((CollectionPipeline<Object>) pipeline).dispose();
+        if (generated != null) {
+            generated.delete();
+        }
+
+        String json = report.toJson();
+        String output = options.get("output");
+        if (Strings.isNullOrEmpty(output)) {
+            System.out.print(json);
+        } else {
+            try (Writer writer = new FileWriter(output)) {
+                writer.write(json);
+            }
+        }
+    }
+
+    /**
+     * Write a configuration with a collection pipeline of benchmark
+     * processors terminated by a load sink.
+     *
+     * @param writer     - Output writer.
+     * @param name       - Pipeline name.
+     * @param entityType - Entity Type.
+     * @param processors - Number of processors.
+     * @throws IOException
+     */
+    public static void writeConfig(Writer writer, String name,
+                                   Class<?> entityType, int processors)
+    throws IOException {
+        String entity = entityType.getCanonicalName();
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n<root>\n");
+        writer.write(String.format(
+                "    <header ID=\"LOAD-TEST\" group=\"BENCHMARK\" " +
+                        "application=\"BENCHMARK\" name=\"%s\" version=\"%s\">\n",
+                CONFIG_NAME, CONFIG_VERSION));
+        writer.write("        <description>Generated load test configuration.</description>\n");
+        writer.write("        <createdBy user=\"benchmark\" tiemstamp=\"0\"/>\n");
+        writer.write("        <updatedBy user=\"benchmark\" tiemstamp=\"0\"/>\n");
+        writer.write("    </header>\n    <pipelines>\n");
+        writer.write(String.format(
+                "        <pipeline name=\"%s\" type=\"%s\" entityType=\"%s\">\n",
+                name, BenchCollectionPipeline.class.getCanonicalName(), entity));
+        writer.write("            <processors>\n");
+        for (int ii = 0; ii < processors; ii++) {
+            writer.write(String.format(
+                    "                <processor name=\"processor-%d\" type=\"%s\" entityType=\"%s\"/>\n",
+                    ii, BenchCollectionProcessor.class.getCanonicalName(), entity));
+        }
+        writer.write(String.format(
+                "                <processor name=\"sink\" type=\"%s\" entityType=\"%s\"/>\n",
+                LoadSink.class.getCanonicalName(), entity));
+        writer.write("            </processors>\n        </pipeline>\n");
+        writer.write("    </pipelines>\n</root>\n");
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int ii = 0; ii < args.length; ii++) {
+            String arg = args[ii];
+            if (!arg.startsWith("--") || ii + 1 >= args.length) {
+                throw new IllegalArgumentException(
+                        String.format("Invalid option. [option=%s]\n%s", arg, USAGE));
+            }
+            options.put(arg.substring(2), args[++ii]);
+        }
+        return options;
+    }
+
+    private static List<String> split(String values) {
+        List<String> result = new ArrayList<>();
+        for (String value : values.split(",")) {
+            result.add(value.trim());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,42 @@
+package com.codekutter.genesis.pipelines.benchmarks.load;
+
+import com.codekutter.genesis.pipelines.Context;
+import com.codekutter.genesis.pipelines.extensions.IDataConsumer;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Data consumer that discards the entities (only counts them), used as
+ * the terminal stage of the load test pipelines.
+ *
+ * @param <T> - Entity Type.
+ */
+public class SinkConsumer<T> implements IDataConsumer<T, String> {
+    private final LongAdder consumed = new LongAdder();
+
+    /**
+     * Get the number of entities consumed.
+     *
+     * @return - Consumed count.
+     */
+    public long getConsumed() {
+        return consumed.sum();
+    }
+
+    @Override
+    public T process(T data, String operation, Context context) {
+        consumed.increment();
+        return data;
+    }
+
+    @Override
+    public List<T> process(List<T> dataSet, String operation, Context context) {
+        consumed.add(dataSet.size());
+        return dataSet;
+    }
+
+    @Override
+    public void close() {
+    }
+}
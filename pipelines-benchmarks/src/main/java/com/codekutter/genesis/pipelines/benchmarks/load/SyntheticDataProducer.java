@@ -0,0 +1,74 @@
+package com.codekutter.genesis.pipelines.benchmarks.load;
+
+import com.codekutter.genesis.pipelines.Context;
+import com.codekutter.genesis.pipelines.extensions.DataServiceException;
+import com.codekutter.genesis.pipelines.extensions.IDataProducer;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Data producer returning batches of generated entities, used to
+ * drive pipelines without an external data source.
+ *
+ * @param <T> - Entity Type.
+ */
+public class SyntheticDataProducer<T> implements IDataProducer<T> {
+    private final IEntityGenerator<T> generator;
+    private final int batchSize;
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Create a producer for the generator.
+     *
+     * @param generator - Entity generator.
+     * @param batchSize - Number of entities returned per fetch.
+     */
+    public SyntheticDataProducer(@Nonnull IEntityGenerator<T> generator,
+                                 int batchSize) {
+        Preconditions.checkArgument(generator != null);
+        Preconditions.checkArgument(batchSize > 0);
+        this.generator = generator;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Get the number of entities generated so far.
+     *
+     * @return - Generated count.
+     */
+    public long getGenerated() {
+        return sequence.get();
+    }
+
+    /**
+     * Generate a batch of entities, the query is ignored.
+     *
+     * @param query   - Query Condition.
+     * @param context - Context Handle.
+     * @return - Generated entities.
+     * @throws DataServiceException
+     */
+    @Override
+    public List<T> fetch(String query, Context context)
+    throws DataServiceException {
+        if (context != null && context.isExpired()) {
+            throw new DataServiceException("Deadline exceeded.");
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long start = sequence.getAndAdd(batchSize);
+        List<T> data = new ArrayList<>(batchSize);
+        for (int ii = 0; ii < batchSize; ii++) {
+            data.add(generator.create(start + ii, random));
+        }
+        return data;
+    }
+
+    @Override
+    public void close() {
+    }
+}
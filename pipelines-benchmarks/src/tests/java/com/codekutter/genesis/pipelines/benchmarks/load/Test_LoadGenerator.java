@@ -0,0 +1,79 @@
+package com.codekutter.genesis.pipelines.benchmarks.load;
+
+import com.codekutter.genesis.pipelines.Context;
+import com.codekutter.genesis.pipelines.CollectionProcessorResponse;
+import com.codekutter.genesis.pipelines.benchmarks.BenchCollectionPipeline;
+import com.codekutter.genesis.pipelines.benchmarks.BenchCollectionProcessor;
+import com.codekutter.genesis.pipelines.benchmarks.BenchEntity;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_LoadGenerator {
+    private static class SlowProcessor extends BenchCollectionProcessor {
+        private final long delay;
+
+        private SlowProcessor(long delay) {
+            this.delay = delay;
+        }
+
+        @Override
+        protected CollectionProcessorResponse<BenchEntity> execute(
+                @Nonnull List<BenchEntity> data, Context context,
+                @Nonnull CollectionProcessorResponse<BenchEntity> response) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.execute(data, context, response);
+        }
+    }
+
+    private static LoadGenerator<BenchEntity> generator(long delay) {
+        BenchCollectionPipeline pipeline = new BenchCollectionPipeline();
+        pipeline.setName("load");
+        SlowProcessor processor = new SlowProcessor(delay);
+        processor.setName("slow");
+        LoadSink<BenchEntity> sink = new LoadSink<>();
+        sink.setName("sink");
+        pipeline.addProcessor(processor, null);
+        pipeline.addProcessor(sink, null);
+        return new LoadGenerator<>(pipeline, new SyntheticDataProducer<>(
+                new BenchEntityGenerator(), 10));
+    }
+
+    @Test
+    void run() throws Exception {
+        LoadResult result = generator(0).run(200, 2, 50, 250, TimeUnit.MILLISECONDS);
+        assertEquals(50, result.getScheduled(), 2);
+        assertEquals(result.getScheduled(), result.getCompleted());
+        assertEquals(0, result.getErrors());
+        assertEquals(0, result.getDropped());
+        assertEquals(result.getCompleted() * 10, result.getEntities());
+        assertEquals(result.getCompleted(), result.getLatency().getCount());
+        assertEquals(Long.valueOf(result.getCompleted()),
+                     result.getResponses().get("OK"));
+    }
+
+    @Test
+    void coordinatedOmission() throws Exception {
+        // 100 requests/sec on one worker with a 20ms service time: the
+        // requests queue up, the wait is included in the latency.
+        LoadResult result = generator(20).run(100, 1, 0, 300, TimeUnit.MILLISECONDS);
+        assertEquals(0, result.getDropped());
+        assertEquals(result.getScheduled(), result.getCompleted());
+
+        long service = result.getService().getP50();
+        assertTrue(service >= TimeUnit.MILLISECONDS.toNanos(18));
+        assertTrue(service < TimeUnit.MILLISECONDS.toNanos(100));
+        // The last request waits for ~half of the ones scheduled before it.
+        assertTrue(result.getLatency().getMax() >= TimeUnit.MILLISECONDS.toNanos(200));
+        assertTrue(result.getLatency().getP50() > service);
+        assertTrue(result.getThroughput() < 60);
+    }
+}
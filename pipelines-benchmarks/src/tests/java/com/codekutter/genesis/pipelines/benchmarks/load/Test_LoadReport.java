@@ -0,0 +1,101 @@
+package com.codekutter.genesis.pipelines.benchmarks.load;
+
+import com.codekutter.genesis.pipelines.metrics.HistogramSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_LoadReport {
+    private static HistogramSnapshot snapshot(long p50Ms, long p99Ms) {
+        HistogramSnapshot snapshot = new HistogramSnapshot();
+        snapshot.setCount(100);
+        snapshot.setMin(TimeUnit.MILLISECONDS.toNanos(1));
+        snapshot.setMean(TimeUnit.MILLISECONDS.toNanos(p50Ms));
+        snapshot.setP50(TimeUnit.MILLISECONDS.toNanos(p50Ms));
+        snapshot.setP90(TimeUnit.MILLISECONDS.toNanos(p50Ms));
+        snapshot.setP99(TimeUnit.MILLISECONDS.toNanos(p99Ms));
+        snapshot.setP999(TimeUnit.MILLISECONDS.toNanos(p99Ms));
+        snapshot.setMax(TimeUnit.MILLISECONDS.toNanos(p99Ms));
+        return snapshot;
+    }
+
+    private static LoadResult result(double rate, long p99Ms, long dropped) {
+        LoadResult result = new LoadResult();
+        result.setRate(rate);
+        result.setConcurrency(4);
+        result.setArrival(LoadGenerator.EArrival.Uniform.name());
+        result.setDuration(1000);
+        result.setScheduled(100);
+        result.setCompleted(100 - dropped);
+        result.setDropped(dropped);
+        result.setEntities(1000);
+        result.setThroughput(100 - dropped);
+        result.setEntityThroughput(1000);
+        result.setLatency(snapshot(5, p99Ms));
+        result.setService(snapshot(2, 4));
+        Map<String, Long> responses = new LinkedHashMap<>();
+        responses.put("OK", 100 - dropped);
+        result.setResponses(responses);
+        return result;
+    }
+
+    @Test
+    void slo() {
+        LoadReport report = new LoadReport();
+        report.setSloLatency(50);
+        report.add(result(100, 20, 0));
+        report.add(result(200, 80, 0));
+        report.add(result(400, 20, 5));
+        assertTrue(report.getResults().get(0).isSloMet());
+        // Above the SLO latency.
+        assertFalse(report.getResults().get(1).isSloMet());
+        // Dropped requests fail the SLO.
+        assertFalse(report.getResults().get(2).isSloMet());
+
+        report.setSloPercentile(50);
+        report.add(result(200, 80, 0));
+        assertTrue(report.getResults().get(3).isSloMet());
+        assertThrows(IllegalArgumentException.class,
+                     () -> report.setSloPercentile(95));
+    }
+
+    @Test
+    void json() {
+        LoadReport report = new LoadReport();
+        assertTrue(report.toJson().contains("\"results\": []"));
+
+        report.setPipeline("load \"pipeline\"");
+        report.setGenerator(BenchEntityGenerator.class.getCanonicalName());
+        report.setBatchSize(10);
+        report.setSloPercentile(99.9);
+        report.setSloLatency(50);
+        report.add(result(100.5, 20, 0));
+        String json = report.toJson();
+
+        assertTrue(json.contains("\"pipeline\": \"load \\\"pipeline\\\"\""));
+        assertTrue(json.contains("\"batchSize\": 10"));
+        assertTrue(json.contains("\"slo\": {\"percentile\": 99.900, \"latencyMs\": 50}"));
+        assertTrue(json.contains("\"rate\": 100.500, \"concurrency\": 4, \"arrival\": \"Uniform\""));
+        assertTrue(json.contains("\"scheduled\": 100, \"completed\": 100, \"errors\": 0, \"dropped\": 0"));
+        assertTrue(json.contains(
+                "\"latencyMs\": {\"count\": 100, \"mean\": 5.000, \"p50\": 5.000, \"p90\": 5.000, \"p99\": 20.000, \"p999\": 20.000, \"max\": 20.000}"));
+        assertTrue(json.contains("\"responses\": {\"OK\": 100}"));
+        assertTrue(json.contains("\"sloMet\": true}"));
+        assertEquals(count(json, '{'), count(json, '}'));
+        assertEquals(count(json, '['), count(json, ']'));
+    }
+
+    private static int count(String value, char c) {
+        int count = 0;
+        for (char v : value.toCharArray()) {
+            if (v == c) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,409 @@
+package com.codekutter.genesis.pipelines.codegen;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Annotation processor that generates the factories (and config binders)
+ * of the processors, exception processors and @ConfigPath types of a
+ * module.
+ * <p>
+ * A provider class (PipelineFactories) is generated in each package with
+ * eligible types and registered as an IFactoryProvider service. The
+ * factories call the no-args constructor directly. Binders are generated
+ * for types whose @ConfigAttribute/@ConfigValue fields are of simple types
+ * and accessible (directly or with a setter) from the package, and that
+ * don't have @MethodInvoke methods. Other types fall back to reflection.
+ */
+@SupportedAnnotationTypes("*")
+public class FactoryProcessor extends AbstractProcessor {
+    public static final String PROVIDER_NAME = "PipelineFactories";
+
+    private static final String TYPE_PROCESSOR =
+            "com.codekutter.genesis.pipelines.Processor";
+    private static final String TYPE_EXCEPTION_PROCESSOR =
+            "com.codekutter.genesis.pipelines.ExceptionProcessor";
+    private static final String TYPE_PROVIDER =
+            "com.codekutter.genesis.pipelines.factory.IFactoryProvider";
+    private static final String TYPE_REGISTRY =
+            "com.codekutter.genesis.pipelines.factory.FactoryRegistry";
+    private static final String TYPE_BINDER =
+            "com.codekutter.genesis.pipelines.snapshot.SnapshotBinder";
+    private static final String ANNOTATIONS =
+            "com.codekutter.zconfig.common.model.annotations.";
+    private static final String CONFIG_PATH = ANNOTATIONS + "ConfigPath";
+    private static final String CONFIG_ATTRIBUTE = ANNOTATIONS + "ConfigAttribute";
+    private static final String CONFIG_VALUE = ANNOTATIONS + "ConfigValue";
+    private static final String METHOD_INVOKE = ANNOTATIONS + "MethodInvoke";
+
+    private static final Map<String, String> SIMPLE_TYPES = new LinkedHashMap<>();
+
+    static {
+        SIMPLE_TYPES.put("java.lang.String", "java.lang.String");
+        SIMPLE_TYPES.put("java.lang.Integer", "java.lang.Integer");
+        SIMPLE_TYPES.put("java.lang.Long", "java.lang.Long");
+        SIMPLE_TYPES.put("java.lang.Double", "java.lang.Double");
+        SIMPLE_TYPES.put("java.lang.Float", "java.lang.Float");
+        SIMPLE_TYPES.put("java.lang.Short", "java.lang.Short");
+        SIMPLE_TYPES.put("java.lang.Byte", "java.lang.Byte");
+        SIMPLE_TYPES.put("java.lang.Boolean", "java.lang.Boolean");
+        SIMPLE_TYPES.put("java.lang.Character", "java.lang.Character");
+        SIMPLE_TYPES.put("java.lang.Class", "java.lang.Class");
+        SIMPLE_TYPES.put("int", "java.lang.Integer");
+        SIMPLE_TYPES.put("long", "java.lang.Long");
+        SIMPLE_TYPES.put("double", "java.lang.Double");
+        SIMPLE_TYPES.put("float", "java.lang.Float");
+        SIMPLE_TYPES.put("short", "java.lang.Short");
+        SIMPLE_TYPES.put("byte", "java.lang.Byte");
+        SIMPLE_TYPES.put("boolean", "java.lang.Boolean");
+        SIMPLE_TYPES.put("char", "java.lang.Character");
+    }
+
+    /**
+     * Generated binding of a configuration field.
+     */
+    private static final class FieldBinding {
+        private String name;
+        private boolean attribute;
+        private boolean required;
+        private String field;
+        private String setter;
+        private String type;
+        private String cast;
+    }
+
+    private final Map<String, List<TypeElement>> pending = new LinkedHashMap<>();
+    private final Set<String> providers = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations,
+                           RoundEnvironment roundEnv) {
+        if (processingEnv.getElementUtils().getTypeElement(TYPE_PROVIDER) == null) {
+            return false;
+        }
+        if (roundEnv.processingOver()) {
+            writeServices();
+            return false;
+        }
+        for (Element element : roundEnv.getRootElements()) {
+            collect(element);
+        }
+        for (Map.Entry<String, List<TypeElement>> entry : pending.entrySet()) {
+            if (providers.contains(entry.getKey())) {
+                processingEnv.getMessager().printMessage(
+                        Diagnostic.Kind.WARNING,
+                        String.format("Factories already generated for package, " +
+                                              "skipping generated types. [package=%s]",
+                                      entry.getKey()));
+                continue;
+            }
+            writeProvider(entry.getKey(), entry.getValue());
+            providers.add(entry.getKey());
+        }
+        pending.clear();
+        return false;
+    }
+
+    private void collect(Element element) {
+        if (element.getKind() != ElementKind.CLASS) {
+            return;
+        }
+        TypeElement type = (TypeElement) element;
+        if (isEligible(type)) {
+            String pkg = processingEnv.getElementUtils().getPackageOf(type)
+                                      .getQualifiedName().toString();
+            pending.computeIfAbsent(pkg, (k) -> new ArrayList<>()).add(type);
+        }
+        for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+            if (nested.getModifiers().contains(Modifier.STATIC)) {
+                collect(nested);
+            }
+        }
+    }
+
+    private boolean isEligible(TypeElement type) {
+        Set<Modifier> modifiers = type.getModifiers();
+        if (modifiers.contains(Modifier.ABSTRACT) ||
+                modifiers.contains(Modifier.PRIVATE)) {
+            return false;
+        }
+        if (processingEnv.getElementUtils().getPackageOf(type).isUnnamed()) {
+            return false;
+        }
+        for (Element enclosing = type.getEnclosingElement();
+             enclosing instanceof TypeElement;
+             enclosing = enclosing.getEnclosingElement()) {
+            if (enclosing.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+        }
+        if (type.getNestingKind() != NestingKind.TOP_LEVEL &&
+                !(type.getNestingKind() == NestingKind.MEMBER &&
+                        modifiers.contains(Modifier.STATIC))) {
+            return false;
+        }
+        if (!isSubtype(type, TYPE_PROCESSOR) &&
+                !isSubtype(type, TYPE_EXCEPTION_PROCESSOR) &&
+                annotation(type, CONFIG_PATH) == null) {
+            return false;
+        }
+        for (ExecutableElement constructor :
+                ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() &&
+                    !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isSubtype(TypeElement type, String name) {
+        TypeElement base = processingEnv.getElementUtils().getTypeElement(name);
+        if (base == null) {
+            return false;
+        }
+        return processingEnv.getTypeUtils().isSubtype(
+                processingEnv.getTypeUtils().erasure(type.asType()),
+                processingEnv.getTypeUtils().erasure(base.asType()));
+    }
+
+    private static AnnotationMirror annotation(Element element, String name) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement type = (TypeElement) mirror.getAnnotationType().asElement();
+            if (type.getQualifiedName().contentEquals(name)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private Object annotationValue(AnnotationMirror mirror, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+                processingEnv.getElementUtils().getElementValuesWithDefaults(mirror)
+                             .entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the field bindings of the type.
+     *
+     * @param type - Bound type.
+     * @return - Field bindings, NULL if a binder can't be generated.
+     */
+    private List<FieldBinding> bindings(TypeElement type) {
+        List<FieldBinding> bindings = new ArrayList<>();
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+        for (TypeElement cls = type; cls != null; cls = superclass(cls)) {
+            for (ExecutableElement method :
+                    ElementFilter.methodsIn(cls.getEnclosedElements())) {
+                if (annotation(method, METHOD_INVOKE) != null) {
+                    return null;
+                }
+            }
+            for (VariableElement field :
+                    ElementFilter.fieldsIn(cls.getEnclosedElements())) {
+                AnnotationMirror attr = annotation(field, CONFIG_ATTRIBUTE);
+                AnnotationMirror value = annotation(field, CONFIG_VALUE);
+                if (attr == null && value == null) {
+                    continue;
+                }
+                FieldBinding binding = binding(type, pkg, cls, field);
+                if (binding == null) {
+                    return null;
+                }
+                AnnotationMirror mirror = (attr != null ? attr : value);
+                binding.name = (String) annotationValue(mirror, "name");
+                binding.attribute = (attr != null);
+                binding.required = Boolean.TRUE.equals(annotationValue(mirror, "required"));
+                bindings.add(binding);
+            }
+        }
+        return bindings;
+    }
+
+    private FieldBinding binding(TypeElement type, PackageElement pkg,
+                                 TypeElement owner, VariableElement field) {
+        if (field.getModifiers().contains(Modifier.FINAL) ||
+                field.getModifiers().contains(Modifier.STATIC)) {
+            return null;
+        }
+        TypeMirror fieldType = processingEnv.getTypeUtils().erasure(field.asType());
+        FieldBinding binding = new FieldBinding();
+        String name = fieldType.toString();
+        if (SIMPLE_TYPES.containsKey(name)) {
+            binding.type = name;
+            binding.cast = SIMPLE_TYPES.get(name);
+        } else if (fieldType.getKind() == TypeKind.DECLARED &&
+                ((DeclaredType) fieldType).asElement().getKind() == ElementKind.ENUM) {
+            binding.type = name;
+            binding.cast = name;
+        } else {
+            return null;
+        }
+        if (isAccessible(field, owner, pkg)) {
+            binding.field = field.getSimpleName().toString();
+            return binding;
+        }
+        String fname = field.getSimpleName().toString();
+        String setter = "set" + Character.toUpperCase(fname.charAt(0)) +
+                fname.substring(1);
+        for (TypeElement cls = type; cls != null; cls = superclass(cls)) {
+            for (ExecutableElement method :
+                    ElementFilter.methodsIn(cls.getEnclosedElements())) {
+                if (method.getSimpleName().contentEquals(setter) &&
+                        method.getParameters().size() == 1 &&
+                        !method.getModifiers().contains(Modifier.STATIC) &&
+                        isAccessible(method, cls, pkg) &&
+                        processingEnv.getTypeUtils().isSameType(
+                                processingEnv.getTypeUtils().erasure(
+                                        method.getParameters().get(0).asType()),
+                                fieldType)) {
+                    binding.setter = setter;
+                    return binding;
+                }
+            }
+        }
+        return null;
+    }
+
+    private boolean isAccessible(Element member, TypeElement owner,
+                                 PackageElement pkg) {
+        Set<Modifier> modifiers = member.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE)) {
+            return false;
+        }
+        if (modifiers.contains(Modifier.PUBLIC) &&
+                owner.getModifiers().contains(Modifier.PUBLIC)) {
+            return true;
+        }
+        return processingEnv.getElementUtils().getPackageOf(owner).equals(pkg);
+    }
+
+    private TypeElement superclass(TypeElement type) {
+        TypeMirror parent = type.getSuperclass();
+        if (parent.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) parent).asElement();
+        if (element.getQualifiedName().contentEquals("java.lang.Object")) {
+            return null;
+        }
+        return element;
+    }
+
+    private void writeProvider(String pkg, List<TypeElement> types) {
+        String name = pkg + "." + PROVIDER_NAME;
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(
+                    name, types.toArray(new Element[0]));
+            try (PrintWriter writer = new PrintWriter(file.openWriter())) {
+                writer.printf("package %s;%n%n", pkg);
+                writer.printf("/**%n * Generated by %s, do not edit.%n */%n",
+                              getClass().getCanonicalName());
+                writer.printf("public final class %s implements %s {%n",
+                              PROVIDER_NAME, TYPE_PROVIDER);
+                writer.printf("    @Override%n");
+                writer.printf("    @SuppressWarnings({\"unchecked\", \"rawtypes\"})%n");
+                writer.printf("    public void register(%s registry) {%n", TYPE_REGISTRY);
+                for (TypeElement type : types) {
+                    writeRegistration(writer, type);
+                }
+                writer.printf("    }%n}%n");
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(
+                    Diagnostic.Kind.ERROR,
+                    String.format("Error generating factories. [class=%s][error=%s]",
+                                  name, e.getLocalizedMessage()));
+        }
+    }
+
+    private void writeRegistration(PrintWriter writer, TypeElement type) {
+        String cls = type.getQualifiedName().toString();
+        List<FieldBinding> bindings = bindings(type);
+        if (bindings == null) {
+            writer.printf("        registry.register(%s.class, %s::new, null);%n", cls, cls);
+            return;
+        }
+        writer.printf("        registry.register(%s.class, %s::new, (target, node) -> {%n",
+                      cls, cls);
+        if (!bindings.isEmpty()) {
+            writer.printf("            String value;%n");
+        }
+        for (FieldBinding binding : bindings) {
+            writer.printf("            value = %s.value(node, \"%s\", %s, %s);%n",
+                          TYPE_BINDER, binding.name, binding.attribute,
+                          binding.required);
+            writer.printf("            if (value != null) {%n");
+            String converted = String.format("(%s) %s.convert(%s.class, value)",
+                                             binding.cast, TYPE_BINDER, binding.type);
+            if (binding.field != null) {
+                writer.printf("                target.%s = %s;%n", binding.field, converted);
+            } else {
+                writer.printf("                target.%s(%s);%n", binding.setter, converted);
+            }
+            writer.printf("            }%n");
+        }
+        writer.printf("        });%n");
+    }
+
+    private void writeServices() {
+        if (providers.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject file = processingEnv.getFiler().createResource(
+                    StandardLocation.CLASS_OUTPUT, "",
+                    "META-INF/services/" + TYPE_PROVIDER);
+            try (Writer writer = file.openWriter()) {
+                for (String pkg : providers) {
+                    writer.write(pkg + "." + PROVIDER_NAME);
+                    writer.write("\n");
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(
+                    Diagnostic.Kind.ERROR,
+                    String.format("Error writing factory services. [error=%s]",
+                                  e.getLocalizedMessage()));
+        }
+    }
+}
@@ -1,5 +1,16 @@
 package com.codekutter.genesis.pipelines;
 
+import com.codekutter.genesis.pipelines.cache.ResultCache;
+import com.codekutter.genesis.pipelines.cache.ResultKey;
+import com.codekutter.genesis.pipelines.incremental.Fingerprinter;
+import com.codekutter.genesis.pipelines.jfr.PipelineEvents;
+import com.codekutter.genesis.pipelines.limits.LimiterStats;
+import com.codekutter.genesis.pipelines.metrics.OutlierRecorder;
+import com.codekutter.genesis.pipelines.metrics.ProcessorMetricsSnapshot;
+import com.codekutter.genesis.pipelines.tracing.TraceScope;
+import com.codekutter.genesis.pipelines.tracing.Tracing;
+import com.codekutter.genesis.pipelines.utils.ConditionProcessor;
+import com.codekutter.genesis.pipelines.utils.ConditionProcessorFactory;
 import com.codekutter.zconfig.common.ConfigurationException;
 import com.codekutter.zconfig.common.LogUtils;
 import com.codekutter.zconfig.common.model.nodes.AbstractConfigNode;
@@ -9,8 +20,10 @@ import com.google.common.base.Strings;
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.UnaryOperator;
 
 /**
  * Basic Pipeline type - Pipeline executed processors on an entity instance.
@@ -18,9 +31,82 @@ import java.util.Map;
  * @param <T> - Entity Type.
  */
 public class BasicPipeline<T> extends BasicProcessor<T> implements Pipeline<T> {
-    private Map<String, BasicProcessor<T>> processors = new HashMap<>();
+    /**
+     * Stage of an inlined execution plan.
+     * <p>
+     * A referenced pipeline is inlined as a group stage followed by its
+     * stages, the group ends at the index of the next stage after it.
+     *
+     * @param <T> - Entity Type.
+     */
+    private static final class Stage<T> {
+        private final String name;
+        private final BasicProcessor<T> processor;
+        private final String condition;
+        /**
+         * Pipeline the stage was added to (error handlers and logging).
+         */
+        private final BasicPipeline<T> scope;
+        /**
+         * Group stage - Index after the inlined stages (-1 for processors).
+         */
+        private final int end;
+        /**
+         * Processor stage - Index of the stage timings (-1 for groups).
+         */
+        private final int slot;
+
+        private Stage(String name, BasicProcessor<T> processor, String condition,
+                      BasicPipeline<T> scope, int end, int slot) {
+            this.name = name;
+            this.processor = processor;
+            this.condition = condition;
+            this.scope = scope;
+            this.end = end;
+            this.slot = slot;
+        }
+
+        private boolean matches(T data) {
+            if (Strings.isNullOrEmpty(condition)) {
+                return true;
+            }
+            ConditionProcessor<T> processor =
+                    ConditionProcessorFactory.getProcessor(this.processor.getType());
+            return processor.matches(data, condition);
+        }
+    }
+
+    /**
+     * Execution plan with the referenced pipelines inlined.
+     *
+     * @param <T> - Entity Type.
+     */
+    private static final class Inlined<T> {
+        private final Stage<T>[] stages;
+        /**
+         * Names of the processor stages (for the stage timings).
+         */
+        private final List<String> names;
+        private final int depth;
+        private final int groups;
+
+        private Inlined(Stage<T>[] stages, List<String> names, int depth,
+                        int groups) {
+            this.stages = stages;
+            this.names = names;
+            this.depth = depth;
+            this.groups = groups;
+        }
+    }
+
+    private Map<String, BasicProcessor<T>> processors = new LinkedHashMap<>();
     private Map<String, String> conditions = new HashMap<>();
     private List<ExceptionProcessor<T>> exceptionProcessors;
+    private volatile OutlierRecorder outliers;
+    private volatile Inlined<T> inlined;
+    private volatile ResultCache<ResultKey, ProcessorResponse<T>> cache;
+    private volatile Fingerprinter<T> fingerprinter;
+    private volatile UnaryOperator<T> copy;
 
     /**
      * Add a processor to this pipeline.
@@ -41,9 +127,128 @@ public class BasicPipeline<T> extends BasicProcessor<T> implements Pipeline<T> {
         if (!Strings.isNullOrEmpty(condition)) {
             conditions.put(processor.name, condition);
         }
+        inlined = null;
         return this;
     }
 
+    /**
+     * Remove a processor from this pipeline (without disposing it).
+     *
+     * @param name - Processor name.
+     * @return - Removed processor, NULL if not found.
+     */
+    BasicProcessor<T> removeProcessor(@Nonnull String name) {
+        conditions.remove(name);
+        inlined = null;
+        return processors.remove(name);
+    }
+
+    /**
+     * Inline the stages of the referenced pipelines into the execution
+     * plan of this pipeline, so nested pipelines execute in a single
+     * loop instead of re-entering the processor execution per level.
+     * <p>
+     * The condition of the reference is checked once when the inlined
+     * stages are entered (reference AND stage conditions), errors are
+     * handled by the handlers of the pipeline that defined the stage, and a
+     * stop ends the inlined pipeline with its result checked by the
+     * referencing pipeline, as for a nested execution.
+     * <p>
+     * Pipelines with a concurrency limit, an outlier recorder, a result
+     * cache or a custom execute are not inlined. Inlined pipelines don't
+     * record their own metrics/traces, and must not be changed after this
+     * is called. They do count their in-flight executions (so their
+     * dispose(timeout) waits for them), an inlined pipeline that is no
+     * longer available is executed as a nested pipeline instead.
+     *
+     * @return - Number of inlined pipelines.
+     */
+    @SuppressWarnings("unchecked")
+    public int inline() {
+        List<Stage<T>> stages = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int depth = compile(stages, names);
+        int groups = stages.size() - names.size();
+        if (groups > 0) {
+            inlined = new Inlined<>(stages.toArray(new Stage[0]), names, depth,
+                                    groups);
+        } else {
+            inlined = null;
+        }
+        return groups;
+    }
+
+    /**
+     * Get the number of referenced pipelines inlined into the execution plan.
+     *
+     * @return - Inlined pipelines.
+     */
+    public int getInlined() {
+        Inlined<T> plan = inlined;
+        return (plan != null ? plan.groups : 0);
+    }
+
+    /**
+     * Add the stages of this pipeline to the inlined plan.
+     *
+     * @param stages - Plan stages.
+     * @param names  - Processor stage names.
+     * @return - Max nesting depth of the inlined pipelines.
+     */
+    private int compile(List<Stage<T>> stages, List<String> names) {
+        int depth = 0;
+        for (String name : processors.keySet()) {
+            BasicProcessor<T> processor = processors.get(name);
+            String condition = conditions.get(name);
+            if (isInlineable(processor)) {
+                int index = stages.size();
+                stages.add(null);
+                depth = Math.max(depth,
+                                 ((BasicPipeline<T>) processor).compile(stages, names) + 1);
+                stages.set(index, new Stage<>(name, processor, condition, this,
+                                              stages.size(), -1));
+            } else {
+                stages.add(new Stage<>(name, processor, condition, this, -1,
+                                       names.size()));
+                names.add(name);
+            }
+        }
+        return depth;
+    }
+
+    /**
+     * Check if the processor is a pipeline that can be inlined.
+     *
+     * @param processor - Processor instance.
+     * @return - Can be inlined?
+     */
+    private static boolean isInlineable(BasicProcessor<?> processor) {
+        if (!(processor instanceof BasicPipeline<?>) ||
+                processor.getLimiter() != null ||
+                ((BasicPipeline<?>) processor).outliers != null ||
+                ((BasicPipeline<?>) processor).cache != null) {
+            return false;
+        }
+        for (Class<?> type = processor.getClass(); type != BasicPipeline.class;
+             type = type.getSuperclass()) {
+            if (declares(type, Object.class, String.class, Context.class) ||
+                    declares(type, Object.class, Context.class,
+                             ProcessorResponse.class)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean declares(Class<?> type, Class<?>... params) {
+        try {
+            type.getDeclaredMethod("execute", params);
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
     /**
      * Add an exception processor for this pipeline.
      *
@@ -62,6 +267,138 @@ public class BasicPipeline<T> extends BasicProcessor<T> implements Pipeline<T> {
         return this;
     }
 
+    /**
+     * Get the concurrency limiter counters (current/peak in-flight) of the
+     * processors in this pipeline, that have limits defined.
+     *
+     * @return - Map of processor name to limiter statistics.
+     */
+    public Map<String, LimiterStats> getLimiterStats() {
+        Map<String, LimiterStats> stats = new LinkedHashMap<>();
+        for (String name : processors.keySet()) {
+            BasicProcessor<T> processor = processors.get(name);
+            if (processor.getLimiter() != null) {
+                stats.put(name, processor.getLimiter().getStats());
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Get the processors in this pipeline (in execution order).
+     *
+     * @return - List of processors.
+     */
+    @Override
+    public List<BasicProcessor<T>> getProcessors() {
+        return new ArrayList<>(processors.values());
+    }
+
+    /**
+     * Get the condition for executing the specified processor.
+     *
+     * @param processor - Processor name.
+     * @return - Condition string, NULL if not set.
+     */
+    @Override
+    public String getCondition(String processor) {
+        return conditions.get(processor);
+    }
+
+    /**
+     * Get the exception handlers of this pipeline.
+     *
+     * @return - List of exception handlers.
+     */
+    @Override
+    public List<ExceptionProcessor<T>> getErrorHandlers() {
+        if (exceptionProcessors == null) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(exceptionProcessors);
+    }
+
+    /**
+     * Get the execution metrics of the processors in this pipeline.
+     *
+     * @return - Map of processor name to metrics snapshot.
+     */
+    @Override
+    public Map<String, ProcessorMetricsSnapshot> getProcessorMetrics() {
+        Map<String, ProcessorMetricsSnapshot> snapshots = new LinkedHashMap<>();
+        for (String name : processors.keySet()) {
+            snapshots.put(name, processors.get(name).getMetrics());
+        }
+        return snapshots;
+    }
+
+    /**
+     * Get the recorder for the slowest executions of this pipeline.
+     *
+     * @return - Outlier Recorder, NULL if not enabled.
+     */
+    @Override
+    public OutlierRecorder getOutlierRecorder() {
+        return outliers;
+    }
+
+    /**
+     * Set the recorder for the slowest executions of this pipeline.
+     *
+     * @param recorder - Outlier Recorder (NULL to disable).
+     */
+    @Override
+    public void setOutlierRecorder(OutlierRecorder recorder) {
+        this.outliers = recorder;
+    }
+
+    /**
+     * Get the cache of the pipeline results.
+     *
+     * @return - Result Cache, NULL if not enabled.
+     */
+    public ResultCache<ResultKey, ProcessorResponse<T>> getResultCache() {
+        return cache;
+    }
+
+    /**
+     * Set the cache of the pipeline results, for pipelines that are pure
+     * functions of the entity.
+     * <p>
+     * Results are cached by the entity key and version (see ResultKey), only
+     * for keyed and versioned (IVersioned) entities. A cached result is
+     * returned without executing the stages, the result entity is shared by
+     * the executions (the entity returned by the first execution and by all
+     * the cache hits) hence must not be changed by the callers.
+     *
+     * @param cache - Result Cache (NULL to disable).
+     */
+    public void setResultCache(ResultCache<ResultKey, ProcessorResponse<T>> cache) {
+        setResultCache(cache, null, null);
+    }
+
+    /**
+     * Set the cache of the pipeline results, for pipelines that are pure
+     * functions of the entity.
+     * <p>
+     * Results are cached by the entity key and fingerprint (see ResultKey),
+     * only for keyed entities. A cached result is returned without executing
+     * the stages. If a copy function is set, a copy of the result entity is
+     * cached and each hit returns a copy of it, else the result entity is
+     * shared by the executions hence must not be changed by the callers.
+     *
+     * @param cache         - Result Cache (NULL to disable).
+     * @param fingerprinter - Entity Fingerprinter (NULL to cache versioned entities only).
+     * @param copy          - Copies the result entity (NULL to share it).
+     */
+    public void setResultCache(ResultCache<ResultKey, ProcessorResponse<T>> cache,
+                               Fingerprinter<T> fingerprinter,
+                               UnaryOperator<T> copy) {
+        this.fingerprinter = fingerprinter;
+        this.copy = copy;
+        this.cache = cache;
+    }
+
     /**
      * Dispose this process instance.
      */
@@ -102,13 +439,72 @@ public class BasicPipeline<T> extends BasicProcessor<T> implements Pipeline<T> {
                                            @Nonnull ProcessorResponse<T> response) {
         Preconditions.checkArgument(data != null);
         Preconditions.checkArgument(response != null);
+        ResultCache<ResultKey, ProcessorResponse<T>> results = cache;
+        ResultKey key = null;
+        UnaryOperator<T> copy = this.copy;
+        if (results != null) {
+            Fingerprinter<T> fingerprinter = this.fingerprinter;
+            key = (fingerprinter != null ? ResultKey.of(data, fingerprinter)
+                    : ResultKey.of(data));
+        }
+        if (key != null) {
+            ProcessorResponse<T> cached = results.get(key);
+            if (cached != null) {
+                response.setData(copy != null ? copy.apply(cached.data) : cached.data);
+                response.setState(cached.getState());
+                return response;
+            }
+        }
+        response = run(data, context, response);
+        if (key != null && response.data != null &&
+                (response.getState() == EProcessorResponse.OK ||
+                        response.getState() == EProcessorResponse.StopWithOk ||
+                        response.getState() == EProcessorResponse.Skipped)) {
+            ProcessorResponse<T> result = new ProcessorResponse<>();
+            result.setData(copy != null ? copy.apply(response.data) : response.data);
+            result.setState(response.getState());
+            results.put(key, result);
+        }
+        return response;
+    }
+
+    /**
+     * Run the stages of this pipeline on the passed data.
+     *
+     * @param data     - Entity Object.
+     * @param context  - Context Handle
+     * @param response - Processor Response.
+     * @return - Processor Response.
+     */
+    private ProcessorResponse<T> run(T data, Context context,
+                                     ProcessorResponse<T> response) {
+        Inlined<T> plan = inlined;
+        if (plan != null) {
+            return execute(plan, data, context, response);
+        }
+        Object run = PipelineEvents.beginPipeline();
+        if (context == null && Tracing.getTracer() != null) {
+            context = new Context();
+        }
+        TraceScope trace = Tracing.startPipeline(this.name, getType(), context);
+        OutlierRecorder recorder = outliers;
+        long start = (recorder != null ? System.nanoTime() : 0);
+        long[] stages = (recorder != null ? new long[processors.size()] : null);
+        int stage = 0;
         if (!processors.isEmpty()) {
             response.setData(data);
             for (String name : processors.keySet()) {
                 BasicProcessor<T> processor = processors.get(name);
+                TraceScope span = Tracing.startProcessor(this.name, name, context);
+                long ts = (stages != null ? System.nanoTime() : 0);
                 try {
                     String condition = conditions.get(name);
+                    Object event = PipelineEvents.beginProcessor();
                     response = processor.execute(response.data, condition, context);
+                    PipelineEvents.endProcessor(event, this.name, name, getType(),
+                                                response.getState());
+                    Tracing.end(span, response.getState(), response.getError(),
+                                count(response.data));
                     if (response.hasError()) {
                         response = handleException(response);
                     }
@@ -127,6 +523,12 @@ public class BasicPipeline<T> extends BasicProcessor<T> implements Pipeline<T> {
                     } else if (response.getState() ==
                             EProcessorResponse.StopWithOk) {
                         break;
+                    } else if (response.getState() ==
+                            EProcessorResponse.DeadlineExceeded) {
+                        LogUtils.debug(getClass(), String.format(
+                                "Deadline exceeded, skipping remaining stages. [processor=%s]",
+                                processor.name));
+                        break;
                     }
                     if (response.data == null) {
                         LogUtils.debug(getClass(), String.format(
@@ -135,16 +537,269 @@ public class BasicPipeline<T> extends BasicProcessor<T> implements Pipeline<T> {
                         break;
                     }
                 } catch (ProcessorException e) {
+                    Tracing.end(span, EProcessorResponse.UnhandledError, e, 0);
                     LogUtils.error(getClass(), e);
                     response.setError(e);
+                } catch (RuntimeException | Error e) {
+                    // End the spans (restoring the parent span) before the
+                    // unchecked error propagates.
+                    Tracing.end(span, EProcessorResponse.UnhandledError, e, 0);
+                    Tracing.end(trace, EProcessorResponse.UnhandledError, e, 0);
+                    throw e;
+                } finally {
+                    if (stages != null) {
+                        stages[stage++] = System.nanoTime() - ts;
+                    }
                 }
             }
         } else {
             response.setState(EProcessorResponse.Skipped);
         }
+        PipelineEvents.endPipeline(run, this.name, getType(), response.getState());
+        if (recorder != null) {
+            recorder.record(data, 1, System.nanoTime() - start,
+                            processors.keySet(), stages, stage,
+                            response.getState());
+        }
+        Tracing.end(trace, response.getState(), response.getError(),
+                    count(response.data));
         return response;
     }
 
+    /**
+     * Execute the inlined plan on the passed data.
+     *
+     * @param plan     - Inlined Plan.
+     * @param data     - Entity Object.
+     * @param context  - Context Handle
+     * @param response - Processor Response.
+     * @return - Processor Response.
+     */
+    private ProcessorResponse<T> execute(Inlined<T> plan, T data,
+                                         Context context,
+                                         ProcessorResponse<T> response) {
+        Object run = PipelineEvents.beginPipeline();
+        if (context == null && Tracing.getTracer() != null) {
+            context = new Context();
+        }
+        TraceScope trace = Tracing.startPipeline(this.name, getType(), context);
+        OutlierRecorder recorder = outliers;
+        long start = (recorder != null ? System.nanoTime() : 0);
+        long[] times = (recorder != null ? new long[plan.names.size()] : null);
+        int count = 0;
+
+        Stage<T>[] stages = plan.stages;
+        // Group stages of the inlined pipelines being executed.
+        int[] open = new int[plan.depth];
+        int depth = 0;
+        int ii = 0;
+        response.setData(data);
+        try {
+            while (ii < stages.length || depth > 0) {
+                if (depth > 0 && ii >= stages[open[depth - 1]].end) {
+                    // Inlined pipeline done, the result is checked by the
+                    // referencing pipeline.
+                    Stage<T> group = stages[open[--depth]];
+                    group.processor.inFlight.decrement();
+                    response = group.scope.check(group.name, response);
+                    ii = (stopped(response) ? exit(stages, open, depth) : group.end);
+                    continue;
+                }
+                Stage<T> stage = stages[ii];
+                if (stage.end >= 0) {
+                    EProcessorResponse state = null;
+                    Exception error = null;
+                    if (context != null && context.isExpired()) {
+                        state = EProcessorResponse.DeadlineExceeded;
+                    } else if (stage.end == ii + 1) {
+                        state = EProcessorResponse.Skipped;
+                    } else {
+                        try {
+                            if (!stage.matches(response.data)) {
+                                state = EProcessorResponse.Skipped;
+                            }
+                        } catch (Exception ex) {
+                            // Same as a nested execution, the error is
+                            // checked by the referencing pipeline.
+                            state = EProcessorResponse.UnhandledError;
+                            error = ex;
+                        }
+                    }
+                    if (state == null) {
+                        // Counted before the availability check, as for
+                        // a nested execution.
+                        stage.processor.inFlight.increment();
+                        if (stage.processor.state.isAvailable()) {
+                            open[depth++] = ii++;
+                            continue;
+                        }
+                        stage.processor.inFlight.decrement();
+                        response = nested(stage, response, context);
+                    } else {
+                        ProcessorResponse<T> r = new ProcessorResponse<>();
+                        r.setData(response.data);
+                        if (error != null) {
+                            r.setError(state, error);
+                            LogUtils.error(stage.processor.getClass(), r.getError());
+                        } else {
+                            r.setState(state);
+                        }
+                        response = stage.scope.check(stage.name, r);
+                    }
+                    ii = (stopped(response) ? exit(stages, open, depth) : stage.end);
+                    continue;
+                }
+                BasicPipeline<T> scope = stage.scope;
+                TraceScope span = Tracing.startProcessor(scope.name, stage.name, context);
+                long ts = (times != null ? System.nanoTime() : 0);
+                boolean stop = false;
+                try {
+                    Object event = PipelineEvents.beginProcessor();
+                    response = stage.processor.execute(response.data, stage.condition,
+                                                       context);
+                    PipelineEvents.endProcessor(event, scope.name, stage.name,
+                                                getType(), response.getState());
+                    Tracing.end(span, response.getState(), response.getError(),
+                                count(response.data));
+                    response = scope.check(stage.name, response);
+                    stop = stopped(response);
+                } catch (ProcessorException e) {
+                    Tracing.end(span, EProcessorResponse.UnhandledError, e, 0);
+                    LogUtils.error(scope.getClass(), e);
+                    response.setError(e);
+                } catch (RuntimeException | Error e) {
+                    // End the spans (restoring the parent span) before the
+                    // unchecked error propagates.
+                    Tracing.end(span, EProcessorResponse.UnhandledError, e, 0);
+                    Tracing.end(trace, EProcessorResponse.UnhandledError, e, 0);
+                    throw e;
+                } finally {
+                    if (times != null) {
+                        times[stage.slot] = System.nanoTime() - ts;
+                        count = stage.slot + 1;
+                    }
+                }
+                ii = (stop ? exit(stages, open, depth) : ii + 1);
+            }
+        } finally {
+            // Unchecked error, close the open inlined pipelines.
+            while (depth > 0) {
+                stages[open[--depth]].processor.inFlight.decrement();
+            }
+        }
+        if (stages.length == 0) {
+            response.setState(EProcessorResponse.Skipped);
+        }
+        PipelineEvents.endPipeline(run, this.name, getType(), response.getState());
+        if (recorder != null) {
+            recorder.record(data, 1, System.nanoTime() - start, plan.names,
+                            times, count, response.getState());
+        }
+        Tracing.end(trace, response.getState(), response.getError(),
+                    count(response.data));
+        return response;
+    }
+
+    /**
+     * Execute an inlined pipeline that is no longer available (disposing
+     * or replaced) as a nested pipeline, the condition has been checked.
+     *
+     * @param group    - Group Stage.
+     * @param response - Current Response.
+     * @param context  - Context Handle
+     * @return - Processed Response.
+     */
+    private ProcessorResponse<T> nested(Stage<T> group,
+                                        ProcessorResponse<T> response,
+                                        Context context) {
+        try {
+            response = group.processor.execute(response.data, (String) null,
+                                               context);
+        } catch (ProcessorException e) {
+            LogUtils.error(group.scope.getClass(), e);
+            response.setError(e);
+        }
+        return group.scope.check(group.name, response);
+    }
+
+    /**
+     * Get the index to continue at when a stage stops the enclosing
+     * (inlined) pipeline.
+     *
+     * @param stages - Plan stages.
+     * @param open   - Open group stages.
+     * @param depth  - Open group count.
+     * @return - Next stage index.
+     */
+    private static int exit(Stage<?>[] stages, int[] open, int depth) {
+        return (depth > 0 ? stages[open[depth - 1]].end : stages.length);
+    }
+
+    /**
+     * Invoke the exception handlers for a stage response and log the
+     * error states (inlined plan).
+     * <p>
+     * Fatal/Unhandled errors are logged and set on the response, the
+     * execution continues with the next stage.
+     *
+     * @param stage    - Stage name.
+     * @param response - Stage Response.
+     * @return - Processed Response.
+     */
+    private ProcessorResponse<T> check(String stage,
+                                       ProcessorResponse<T> response) {
+        if (response.hasError()) {
+            response = handleException(response);
+        }
+        EProcessorResponse state = response.getState();
+        if (state == EProcessorResponse.FatalError ||
+                state == EProcessorResponse.UnhandledError) {
+            ProcessorException e = new ProcessorException(response.getError());
+            LogUtils.error(getClass(), e);
+            response.setError(e);
+        } else if (state == EProcessorResponse.StopWithError) {
+            LogUtils.error(getClass(), response.getError());
+        } else if (state == EProcessorResponse.ContinueWithError) {
+            LogUtils.warn(getClass(), response.getError());
+        } else if (state == EProcessorResponse.DeadlineExceeded) {
+            LogUtils.debug(getClass(), String.format(
+                    "Deadline exceeded, skipping remaining stages. [processor=%s]",
+                    stage));
+        } else if (response.data == null && state != EProcessorResponse.StopWithOk) {
+            LogUtils.debug(getClass(), String.format(
+                    "Response returned NULL data. [processor=%s]", stage));
+        }
+        return response;
+    }
+
+    /**
+     * Check if the response stops the (inlined) pipeline.
+     *
+     * @param response - Stage Response.
+     * @return - Stop?
+     */
+    private static boolean stopped(ProcessorResponse<?> response) {
+        EProcessorResponse state = response.getState();
+        if (state == EProcessorResponse.FatalError ||
+                state == EProcessorResponse.UnhandledError) {
+            return false;
+        }
+        return (state == EProcessorResponse.StopWithError ||
+                state == EProcessorResponse.StopWithOk ||
+                state == EProcessorResponse.DeadlineExceeded ||
+                response.getData() == null);
+    }
+
+    /**
+     * Get the number of entities in the response data.
+     *
+     * @param data - Response data.
+     * @return - Entity count.
+     */
+    private int count(T data) {
+        return (data != null ? 1 : 0);
+    }
+
     /**
      * Check and invoke the exception handlers.
      *
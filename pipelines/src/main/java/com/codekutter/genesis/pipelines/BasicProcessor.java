@@ -1,5 +1,8 @@
 package com.codekutter.genesis.pipelines;
 
+import com.codekutter.genesis.pipelines.limits.ConcurrencyLimiter;
+import com.codekutter.genesis.pipelines.metrics.Metrics;
+import com.codekutter.genesis.pipelines.metrics.ResourceAccounting;
 import com.codekutter.genesis.pipelines.utils.ConditionProcessor;
 import com.codekutter.genesis.pipelines.utils.ConditionProcessorFactory;
 import com.codekutter.zconfig.common.LogUtils;
@@ -62,39 +65,126 @@ public abstract class BasicProcessor<T> extends Processor<T> {
      * @return - Processor Response.
      * @throws ProcessorException
      */
-    @SuppressWarnings("unchecked")
     @Override
     public ProcessorResponse<T> execute(@Nonnull T data, String condition,
                                         Context context) throws ProcessorException {
+        inFlight.increment();
+        try {
+            return run(data, condition, context);
+        } finally {
+            inFlight.decrement();
+        }
+    }
+
+    /**
+     * Run the execution, the in-flight count is incremented before the
+     * availability check so dispose(timeout) waits for it. Executions on
+     * a replaced processor that stopped accepting executions are run by
+     * its successor.
+     *
+     * @param data      - Data Object
+     * @param condition - Query Condition to check if execution is required.
+     * @param context   - Context Handle.
+     * @return - Processor Response.
+     * @throws ProcessorException
+     */
+    @SuppressWarnings("unchecked")
+    private ProcessorResponse<T> run(@Nonnull T data, String condition,
+                                     Context context) throws ProcessorException {
+        Processor<?> next = successor;
+        if (next != null && !state.isAvailable()) {
+            // Replaced on reload, the caller held on to this instance.
+            return ((BasicProcessor<T>) next).execute(data, condition, context);
+        }
         isAvailable();
 
         ProcessorResponse<T> response = new ProcessorResponse<>();
         response.setState(EProcessorResponse.Unknown);
         response.setData(data);
+        boolean timed = Metrics.isEnabled();
+        if (context != null && context.isExpired()) {
+            response.setState(EProcessorResponse.DeadlineExceeded);
+            if (timed) {
+                metrics.recordResponse(response.getState());
+            }
+            return response;
+        }
+        // Evaluate the condition first, skipped executions don't take a
+        // permit (or count towards the limiter round trip times).
+        boolean matched;
         try {
-            if (!matchCondition(data, condition)) {
-                response.setState(EProcessorResponse.Skipped);
+            long cstart = (timed ? System.nanoTime() : 0);
+            matched = matchCondition(data, condition);
+            if (timed) {
+                metrics.recordCondition(System.nanoTime() - cstart);
+                if (!Strings.isNullOrEmpty(condition)) {
+                    metrics.recordSelectivity(1, (matched ? 1 : 0));
+                }
+            }
+        } catch (Exception ex) {
+            response.setError(EProcessorResponse.UnhandledError, ex);
+            LogUtils.error(getClass(), response.getError());
+            if (timed) {
+                metrics.recordResponse(response.getState());
+            }
+            return response;
+        }
+        if (!matched) {
+            response.setState(EProcessorResponse.Skipped);
+            if (timed) {
+                metrics.recordResponse(response.getState());
+            }
+            return response;
+        }
+        ConcurrencyLimiter permits = limiter;
+        if (permits != null && !permits.acquire(context)) {
+            response.setError(EProcessorResponse.UnhandledError,
+                              limitExceeded(permits));
+            LogUtils.debug(getClass(), response.getError());
+            if (timed) {
+                metrics.recordResponse(response.getState());
+            }
+            return response;
+        }
+        long start = System.nanoTime();
+        try {
+            boolean accounted = (timed && ResourceAccounting.isEnabled());
+            long cpu = (accounted ? ResourceAccounting.cpuTime() : 0);
+            long allocated = (accounted ? ResourceAccounting.allocatedBytes() : 0);
+            long pstart = (timed ? System.nanoTime() : 0);
+            ProcessorResponse<T> r = execute(data, context, response);
+            if (timed) {
+                metrics.recordProcess(System.nanoTime() - pstart);
+            }
+            if (accounted) {
+                metrics.recordResources(ResourceAccounting.cpuTime() - cpu,
+                                        ResourceAccounting.allocatedBytes() - allocated);
+            }
+            if (r == null) {
+                LogUtils.error(getClass(), String.format(
+                        "BasicProcessor returned NULL response. [type=%s]",
+                        getClass().getCanonicalName()));
+                response.setError(EProcessorResponse.FatalError,
+                                  new Exception(String.format(
+                                          "BasicProcessor returned NULL response. [type=%s]",
+                                          getClass().getCanonicalName())));
             } else {
-                ProcessorResponse<T> r = execute(data, context, response);
-                if (r == null) {
-                    LogUtils.error(getClass(), String.format(
-                            "BasicProcessor returned NULL response. [type=%s]",
-                            getClass().getCanonicalName()));
-                    response.setError(EProcessorResponse.FatalError,
-                                      new Exception(String.format(
-                                              "BasicProcessor returned NULL response. [type=%s]",
-                                              getClass().getCanonicalName())));
-                } else {
-                    response = r;
-                    if (response.getState() == EProcessorResponse.UnhandledError ||
-                            response.getState() == EProcessorResponse.FatalError) {
-                        LogUtils.error(getClass(), response.getError());
-                    }
+                response = r;
+                if (response.getState() == EProcessorResponse.UnhandledError ||
+                        response.getState() == EProcessorResponse.FatalError) {
+                    LogUtils.error(getClass(), response.getError());
                 }
             }
         } catch (Exception ex) {
             response.setError(EProcessorResponse.UnhandledError, ex);
             LogUtils.error(getClass(), response.getError());
+        } finally {
+            if (permits != null) {
+                permits.release(System.nanoTime() - start);
+            }
+            if (timed) {
+                metrics.recordResponse(response.getState());
+            }
         }
         return response;
     }
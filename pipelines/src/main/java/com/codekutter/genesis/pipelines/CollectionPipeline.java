@@ -1,5 +1,11 @@
 package com.codekutter.genesis.pipelines;
 
+import com.codekutter.genesis.pipelines.jfr.PipelineEvents;
+import com.codekutter.genesis.pipelines.limits.LimiterStats;
+import com.codekutter.genesis.pipelines.metrics.OutlierRecorder;
+import com.codekutter.genesis.pipelines.metrics.ProcessorMetricsSnapshot;
+import com.codekutter.genesis.pipelines.tracing.TraceScope;
+import com.codekutter.genesis.pipelines.tracing.Tracing;
 import com.codekutter.zconfig.common.ConfigurationException;
 import com.codekutter.zconfig.common.LogUtils;
 import com.codekutter.zconfig.common.model.nodes.AbstractConfigNode;
@@ -9,14 +15,16 @@ import com.google.common.base.Strings;
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 public class CollectionPipeline<T> extends CollectionProcessor<T>
         implements Pipeline<List<T>> {
-    private Map<String, CollectionProcessor<T>> processors = new HashMap<>();
+    private Map<String, CollectionProcessor<T>> processors = new LinkedHashMap<>();
     private Map<String, String> conditions = new HashMap<>();
     private List<ExceptionProcessor<List<T>>> exceptionProcessors;
+    private volatile OutlierRecorder outliers;
 
     /**
      * Add a processor to this pipeline.
@@ -40,6 +48,17 @@ public class CollectionPipeline<T> extends CollectionProcessor<T>
         return this;
     }
 
+    /**
+     * Remove a processor from this pipeline (without disposing it).
+     *
+     * @param name - Processor name.
+     * @return - Removed processor, NULL if not found.
+     */
+    CollectionProcessor<T> removeProcessor(@Nonnull String name) {
+        conditions.remove(name);
+        return processors.remove(name);
+    }
+
     /**
      * Add an exception processor for this pipeline.
      *
@@ -57,6 +76,91 @@ public class CollectionPipeline<T> extends CollectionProcessor<T>
         return this;
     }
 
+    /**
+     * Get the concurrency limiter counters (current/peak in-flight) of the
+     * processors in this pipeline, that have limits defined.
+     *
+     * @return - Map of processor name to limiter statistics.
+     */
+    public Map<String, LimiterStats> getLimiterStats() {
+        Map<String, LimiterStats> stats = new LinkedHashMap<>();
+        for (String name : processors.keySet()) {
+            CollectionProcessor<T> processor = processors.get(name);
+            if (processor.getLimiter() != null) {
+                stats.put(name, processor.getLimiter().getStats());
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Get the processors in this pipeline (in execution order).
+     *
+     * @return - List of processors.
+     */
+    @Override
+    public List<CollectionProcessor<T>> getProcessors() {
+        return new ArrayList<>(processors.values());
+    }
+
+    /**
+     * Get the condition for executing the specified processor.
+     *
+     * @param processor - Processor name.
+     * @return - Condition string, NULL if not set.
+     */
+    @Override
+    public String getCondition(String processor) {
+        return conditions.get(processor);
+    }
+
+    /**
+     * Get the exception handlers of this pipeline.
+     *
+     * @return - List of exception handlers.
+     */
+    @Override
+    public List<ExceptionProcessor<List<T>>> getErrorHandlers() {
+        if (exceptionProcessors == null) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(exceptionProcessors);
+    }
+
+    /**
+     * Get the execution metrics of the processors in this pipeline.
+     *
+     * @return - Map of processor name to metrics snapshot.
+     */
+    @Override
+    public Map<String, ProcessorMetricsSnapshot> getProcessorMetrics() {
+        Map<String, ProcessorMetricsSnapshot> snapshots = new LinkedHashMap<>();
+        for (String name : processors.keySet()) {
+            snapshots.put(name, processors.get(name).getMetrics());
+        }
+        return snapshots;
+    }
+
+    /**
+     * Get the recorder for the slowest executions of this pipeline.
+     *
+     * @return - Outlier Recorder, NULL if not enabled.
+     */
+    @Override
+    public OutlierRecorder getOutlierRecorder() {
+        return outliers;
+    }
+
+    /**
+     * Set the recorder for the slowest executions of this pipeline.
+     *
+     * @param recorder - Outlier Recorder (NULL to disable).
+     */
+    @Override
+    public void setOutlierRecorder(OutlierRecorder recorder) {
+        this.outliers = recorder;
+    }
+
     /**
      * Dispose this process instance.
      */
@@ -99,14 +203,30 @@ public class CollectionPipeline<T> extends CollectionProcessor<T>
                                                              CollectionProcessorResponse<T> response) {
         Preconditions.checkArgument(data != null);
         Preconditions.checkArgument(response != null);
+        Object run = PipelineEvents.beginPipeline();
+        if (context == null && Tracing.getTracer() != null) {
+            context = new Context();
+        }
+        TraceScope trace = Tracing.startPipeline(this.name, getType(), context);
+        OutlierRecorder recorder = outliers;
+        long start = (recorder != null ? System.nanoTime() : 0);
+        long[] stages = (recorder != null ? new long[processors.size()] : null);
+        int stage = 0;
         if (!processors.isEmpty()) {
             response.setData(data);
             for (String name : processors.keySet()) {
                 CollectionProcessor<T> processor = processors.get(name);
+                TraceScope span = Tracing.startProcessor(this.name, name, context);
+                long ts = (stages != null ? System.nanoTime() : 0);
                 try {
                     String condition = conditions.get(name);
+                    Object event = PipelineEvents.beginProcessor();
                     response = (CollectionProcessorResponse<T>) processor
                             .execute(response.data, condition, context);
+                    PipelineEvents.endProcessor(event, this.name, name, getType(),
+                                                response.getState());
+                    Tracing.end(span, response.getState(), response.getError(),
+                                count(response.data));
                     if (response.hasError()) {
                         response = handleException(response);
                     }
@@ -124,6 +244,12 @@ public class CollectionPipeline<T> extends CollectionProcessor<T>
                     } else if (response.getState() ==
                             EProcessorResponse.StopWithOk) {
                         break;
+                    } else if (response.getState() ==
+                            EProcessorResponse.DeadlineExceeded) {
+                        LogUtils.debug(getClass(), String.format(
+                                "Deadline exceeded, skipping remaining stages. [processor=%s]",
+                                processor.name));
+                        break;
                     }
                     if (response.data == null) {
                         LogUtils.debug(getClass(), String.format(
@@ -132,16 +258,45 @@ public class CollectionPipeline<T> extends CollectionProcessor<T>
                         break;
                     }
                 } catch (ProcessorException e) {
+                    Tracing.end(span, EProcessorResponse.UnhandledError, e, 0);
                     LogUtils.error(getClass(), e);
                     response.setError(e);
+                } catch (RuntimeException | Error e) {
+                    // End the spans (restoring the parent span) before the
+                    // unchecked error propagates.
+                    Tracing.end(span, EProcessorResponse.UnhandledError, e, 0);
+                    Tracing.end(trace, EProcessorResponse.UnhandledError, e, 0);
+                    throw e;
+                } finally {
+                    if (stages != null) {
+                        stages[stage++] = System.nanoTime() - ts;
+                    }
                 }
             }
         } else {
             response.setState(EProcessorResponse.Skipped);
         }
+        PipelineEvents.endPipeline(run, this.name, getType(), response.getState());
+        if (recorder != null) {
+            recorder.record(data, data.size(), System.nanoTime() - start,
+                            processors.keySet(), stages, stage,
+                            response.getState());
+        }
+        Tracing.end(trace, response.getState(), response.getError(),
+                    count(response.data));
         return response;
     }
 
+    /**
+     * Get the number of entities in the response data.
+     *
+     * @param data - Response data.
+     * @return - Entity count.
+     */
+    private int count(List<T> data) {
+        return (data != null ? data.size() : 0);
+    }
+
     /**
      * Check and invoke the exception handlers.
      *
@@ -1,5 +1,8 @@
 package com.codekutter.genesis.pipelines;
 
+import com.codekutter.genesis.pipelines.limits.ConcurrencyLimiter;
+import com.codekutter.genesis.pipelines.metrics.Metrics;
+import com.codekutter.genesis.pipelines.metrics.ResourceAccounting;
 import com.codekutter.genesis.pipelines.utils.ConditionProcessor;
 import com.codekutter.genesis.pipelines.utils.ConditionProcessorFactory;
 import com.codekutter.zconfig.common.LogUtils;
@@ -87,57 +90,146 @@ public abstract class CollectionProcessor<T> extends Processor<List<T>> {
     public ProcessorResponse<List<T>> execute(@Nonnull List<T> data,
                                               String condition, Context context)
     throws ProcessorException {
+        inFlight.increment();
+        try {
+            return run(data, condition, context);
+        } finally {
+            inFlight.decrement();
+        }
+    }
+
+    /**
+     * Run the execution, the in-flight count is incremented before the
+     * availability check so dispose(timeout) waits for it. Executions on
+     * a replaced processor that stopped accepting executions are run by
+     * its successor.
+     *
+     * @param data      - Data Object
+     * @param condition - Query Condition to check if execution is required.
+     * @param context   - Context Handle.
+     * @return - Processor Response.
+     * @throws ProcessorException
+     */
+    @SuppressWarnings("unchecked")
+    private ProcessorResponse<List<T>> run(@Nonnull List<T> data,
+                                           String condition, Context context)
+    throws ProcessorException {
+        Processor<?> next = successor;
+        if (next != null && !state.isAvailable()) {
+            // Replaced on reload, the caller held on to this instance.
+            return ((CollectionProcessor<T>) next).execute(data, condition, context);
+        }
         isAvailable();
 
         CollectionProcessorResponse<T> response =
                 new CollectionProcessorResponse<>();
         response.setState(EProcessorResponse.Unknown);
         response.setData(data);
+        boolean timed = Metrics.isEnabled();
+        if (context != null && context.isExpired()) {
+            response.setState(EProcessorResponse.DeadlineExceeded);
+            if (timed) {
+                metrics.recordResponse(response.getState());
+            }
+            return response;
+        }
+        // Filter the data set first, skipped executions don't take a
+        // permit (or count towards the limiter round trip times).
+        List<T> filtered;
         try {
-            List<T> filtered = filter(data, condition);
-            if (filtered == null || filtered.isEmpty()) {
-                response.setState(EProcessorResponse.Skipped);
-                if (includeFiltered) {
-                    response.data = data;
-                } else {
-                    response.data = null;
-                    response.setState(EProcessorResponse.NullData);
+            long cstart = (timed ? System.nanoTime() : 0);
+            filtered = filter(data, condition);
+            if (timed) {
+                metrics.recordCondition(System.nanoTime() - cstart);
+                if (!Strings.isNullOrEmpty(condition)) {
+                    metrics.recordSelectivity(data.size(),
+                                              (filtered != null ? filtered.size() : 0));
                 }
+            }
+        } catch (Exception ex) {
+            response.setError(EProcessorResponse.UnhandledError, ex);
+            LogUtils.error(getClass(), response.getError());
+            if (timed) {
+                metrics.recordResponse(response.getState());
+            }
+            return response;
+        }
+        if (filtered == null || filtered.isEmpty()) {
+            response.setState(EProcessorResponse.Skipped);
+            if (includeFiltered) {
+                response.data = data;
             } else {
-                List<T> removed = new ArrayList<>();
-                for (T d : data) {
-                    if (!filtered.contains(d)) {
-                        removed.add(d);
-                    }
+                response.data = null;
+                response.setState(EProcessorResponse.NullData);
+            }
+            if (timed) {
+                metrics.recordResponse(response.getState());
+            }
+            return response;
+        }
+        ConcurrencyLimiter permits = limiter;
+        if (permits != null && !permits.acquire(context)) {
+            response.setError(EProcessorResponse.UnhandledError,
+                              limitExceeded(permits));
+            LogUtils.debug(getClass(), response.getError());
+            if (timed) {
+                metrics.recordResponse(response.getState());
+            }
+            return response;
+        }
+        long start = System.nanoTime();
+        try {
+            List<T> removed = new ArrayList<>();
+            for (T d : data) {
+                if (!filtered.contains(d)) {
+                    removed.add(d);
                 }
+            }
 
-                CollectionProcessorResponse<T> r = execute(data, context, response);
-                if (r == null) {
-                    LogUtils.error(getClass(), String.format(
-                            "BasicProcessor returned NULL response. [type=%s]",
-                            getClass().getCanonicalName()));
-                    response.setError(EProcessorResponse.FatalError,
-                                      new Exception(String.format(
-                                              "BasicProcessor returned NULL response. [type=%s]",
-                                              getClass().getCanonicalName())));
-                } else {
-                    response = r;
-                    if (response.getState() == EProcessorResponse.UnhandledError ||
-                            response.getState() == EProcessorResponse.FatalError) {
-                        LogUtils.error(getClass(), response.getError());
-                    }
-                    if (includeFiltered) {
-                        if (r.data == null) {
-                            r.data = removed;
-                        } else {
-                            r.data.addAll(removed);
-                        }
+            boolean accounted = (timed && ResourceAccounting.isEnabled());
+            long cpu = (accounted ? ResourceAccounting.cpuTime() : 0);
+            long allocated = (accounted ? ResourceAccounting.allocatedBytes() : 0);
+            long pstart = (timed ? System.nanoTime() : 0);
+            CollectionProcessorResponse<T> r = execute(data, context, response);
+            if (timed) {
+                metrics.recordProcess(System.nanoTime() - pstart);
+            }
+            if (accounted) {
+                metrics.recordResources(ResourceAccounting.cpuTime() - cpu,
+                                        ResourceAccounting.allocatedBytes() - allocated);
+            }
+            if (r == null) {
+                LogUtils.error(getClass(), String.format(
+                        "BasicProcessor returned NULL response. [type=%s]",
+                        getClass().getCanonicalName()));
+                response.setError(EProcessorResponse.FatalError,
+                                  new Exception(String.format(
+                                          "BasicProcessor returned NULL response. [type=%s]",
+                                          getClass().getCanonicalName())));
+            } else {
+                response = r;
+                if (response.getState() == EProcessorResponse.UnhandledError ||
+                        response.getState() == EProcessorResponse.FatalError) {
+                    LogUtils.error(getClass(), response.getError());
+                }
+                if (includeFiltered) {
+                    if (r.data == null) {
+                        r.data = removed;
+                    } else {
+                        r.data.addAll(removed);
                     }
                 }
             }
         } catch (Exception ex) {
             response.setError(EProcessorResponse.UnhandledError, ex);
             LogUtils.error(getClass(), response.getError());
+        } finally {
+            if (permits != null) {
+                permits.release(System.nanoTime() - start);
+            }
+            if (timed) {
+                metrics.recordResponse(response.getState());
+            }
         }
         return response;
     }
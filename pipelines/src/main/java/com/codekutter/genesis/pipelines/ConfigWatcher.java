@@ -0,0 +1,164 @@
+package com.codekutter.genesis.pipelines;
+
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.LogUtils;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Watch a pipeline configuration file and reload the pipelines of the
+ * loader when the file changes.
+ * <p>
+ * Changes are collected for the configured delay before reloading, so
+ * an editor writing the file in several steps triggers a single reload.
+ * Reload errors are logged and the running pipelines are kept.
+ */
+public class ConfigWatcher implements Closeable {
+    private static final AtomicInteger COUNT = new AtomicInteger();
+
+    private final PipelineLoader loader;
+    private final Path file;
+    private final long delay;
+    private WatchService service;
+    private Thread thread;
+    private volatile boolean running = false;
+    private volatile long reloads = 0;
+    private volatile long failures = 0;
+
+    /**
+     * Constructor with the loader and the configuration file.
+     *
+     * @param loader - Pipeline loader to reload.
+     * @param file   - Configuration file.
+     * @param delay  - Delay after a change before reloading (in milliseconds).
+     */
+    public ConfigWatcher(@Nonnull PipelineLoader loader, @Nonnull File file,
+                         long delay) {
+        Preconditions.checkArgument(loader != null);
+        Preconditions.checkArgument(file != null);
+        Preconditions.checkArgument(delay >= 0);
+        this.loader = loader;
+        this.file = file.getAbsoluteFile().toPath();
+        this.delay = delay;
+    }
+
+    /**
+     * Get the number of successful reloads.
+     *
+     * @return - Reload count.
+     */
+    public long getReloads() {
+        return reloads;
+    }
+
+    /**
+     * Get the number of failed reloads.
+     *
+     * @return - Failure count.
+     */
+    public long getFailures() {
+        return failures;
+    }
+
+    /**
+     * Start watching the configuration file.
+     *
+     * @return - Self.
+     * @throws IOException
+     */
+    public synchronized ConfigWatcher start() throws IOException {
+        Preconditions.checkState(!running, "Watcher already started.");
+        service = FileSystems.getDefault().newWatchService();
+        file.getParent().register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                                  StandardWatchEventKinds.ENTRY_MODIFY);
+        running = true;
+        thread = new Thread(this::run, String.format("pipeline-watcher-%d",
+                                                     COUNT.incrementAndGet()));
+        thread.setDaemon(true);
+        thread.start();
+        LogUtils.info(getClass(), String.format(
+                "Watching configuration. [path=%s]", file));
+        return this;
+    }
+
+    /**
+     * Stop watching the configuration file.
+     */
+    @Override
+    public synchronized void close() {
+        running = false;
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException e) {
+                LogUtils.debug(getClass(), e);
+            }
+            service = null;
+        }
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    private void run() {
+        WatchService watcher = service;
+        try {
+            while (running) {
+                WatchKey key = watcher.take();
+                boolean changed = changed(key);
+                // Collect the changes written within the delay.
+                while (changed && delay > 0) {
+                    WatchKey next = watcher.poll(delay, TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    changed(next);
+                }
+                if (changed && running) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Watcher closed.
+        }
+    }
+
+    private boolean changed(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            Object context = event.context();
+            if (context instanceof Path &&
+                    file.getFileName().equals(context)) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    private void reload() {
+        try {
+            loader.reload();
+            reloads++;
+        } catch (ConfigurationException | RuntimeException e) {
+            failures++;
+            LogUtils.error(getClass(), String.format(
+                    "Reload failed, keeping the running pipelines. [path=%s][error=%s]",
+                    file, e.getLocalizedMessage()));
+        }
+    }
+}
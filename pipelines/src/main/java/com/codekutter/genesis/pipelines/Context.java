@@ -1,11 +1,14 @@
 package com.codekutter.genesis.pipelines;
 
+import com.codekutter.genesis.pipelines.tracing.Span;
+import com.codekutter.genesis.pipelines.utils.HashedWheelTimer;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 
 import javax.annotation.Nonnull;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A Context handle that can be passed around within an execution context.
@@ -14,6 +17,8 @@ import java.util.Map;
  */
 public class Context {
     private Map<String, Object> parameters = new HashMap<>();
+    private Deadline deadline;
+    private Span span;
 
     /**
      * Get a map of all the parameters defined.
@@ -65,4 +70,113 @@ public class Context {
     public boolean isEmpty() {
         return parameters.isEmpty();
     }
+
+    /**
+     * Get the execution deadline set for this context.
+     *
+     * @return - Deadline, NULL if not set.
+     */
+    public Deadline getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Set the execution deadline for this context.
+     * <p>
+     * Pipelines will skip the remaining stages once the deadline
+     * has expired.
+     *
+     * @param deadline - Deadline.
+     * @return - Self.
+     */
+    public Context setDeadline(Deadline deadline) {
+        this.deadline = deadline;
+        return this;
+    }
+
+    /**
+     * Set the execution deadline to expire after the specified timeout.
+     * If a deadline is already set, the earlier of the two is used.
+     *
+     * @param timeout - Timeout value.
+     * @param unit    - Timeout unit.
+     * @return - Self.
+     */
+    public Context withTimeout(long timeout, @Nonnull TimeUnit unit) {
+        Deadline d = Deadline.after(timeout, unit);
+        deadline = d.min(deadline);
+        return this;
+    }
+
+    /**
+     * Check if this context has a deadline set.
+     *
+     * @return - Has Deadline?
+     */
+    public boolean hasDeadline() {
+        return (deadline != null);
+    }
+
+    /**
+     * Check if the execution deadline has expired.
+     *
+     * @return - Is Expired? (false if no deadline is set)
+     */
+    public boolean isExpired() {
+        return (deadline != null && deadline.isExpired());
+    }
+
+    /**
+     * Get the remaining time budget for this execution. Data services should
+     * use this to bound their I/O timeouts.
+     *
+     * @param unit - Time unit.
+     * @return - Remaining time, Long.MAX_VALUE if no deadline is set.
+     */
+    public long getRemainingTime(@Nonnull TimeUnit unit) {
+        if (deadline == null) {
+            return Long.MAX_VALUE;
+        }
+        return deadline.getRemaining(unit);
+    }
+
+    /**
+     * Register a task to be run when the deadline expires. Tasks are run
+     * on the shared timer thread, hence should not block.
+     *
+     * @param task - Task to run on expiry.
+     * @return - Timeout handle (should be cancelled once the operation
+     * completes), NULL if no deadline is set.
+     */
+    public HashedWheelTimer.Timeout onExpiry(@Nonnull Runnable task) {
+        Preconditions.checkArgument(task != null);
+        if (deadline == null) {
+            return null;
+        }
+        return HashedWheelTimer.shared()
+                               .newTimeout(task,
+                                           deadline.getRemaining(
+                                                   TimeUnit.NANOSECONDS),
+                                           TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get the current tracing span of this execution.
+     *
+     * @return - Current Span, NULL if not traced.
+     */
+    public Span getSpan() {
+        return span;
+    }
+
+    /**
+     * Set the current tracing span of this execution.
+     *
+     * @param span - Current Span.
+     * @return - Self.
+     */
+    public Context setSpan(Span span) {
+        this.span = span;
+        return this;
+    }
 }
@@ -0,0 +1,74 @@
+package com.codekutter.genesis.pipelines;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Absolute deadline for an execution, based on the monotonic
+ * system clock (System.nanoTime()).
+ */
+public final class Deadline {
+    private final long deadline;
+
+    private Deadline(long deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * Get the remaining time before this deadline expires.
+     *
+     * @param unit - Time unit.
+     * @return - Remaining time (0 if expired).
+     */
+    public long getRemaining(@Nonnull TimeUnit unit) {
+        Preconditions.checkArgument(unit != null);
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            return 0;
+        }
+        return unit.convert(remaining, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Check if this deadline has expired.
+     *
+     * @return - Is Expired?
+     */
+    public boolean isExpired() {
+        return (deadline - System.nanoTime()) <= 0;
+    }
+
+    /**
+     * Get the earlier of this deadline and the passed deadline.
+     *
+     * @param other - Deadline to compare.
+     * @return - Earlier deadline.
+     */
+    public Deadline min(Deadline other) {
+        if (other == null || (deadline - other.deadline) <= 0) {
+            return this;
+        }
+        return other;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[remaining=%dms]",
+                             getRemaining(TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Create a deadline that expires after the specified timeout.
+     *
+     * @param timeout - Timeout value.
+     * @param unit    - Timeout unit.
+     * @return - Deadline.
+     */
+    public static Deadline after(long timeout, @Nonnull TimeUnit unit) {
+        Preconditions.checkArgument(timeout >= 0);
+        Preconditions.checkArgument(unit != null);
+        return new Deadline(System.nanoTime() + unit.toNanos(timeout));
+    }
+}
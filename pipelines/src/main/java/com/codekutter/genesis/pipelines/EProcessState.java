@@ -22,6 +22,11 @@ public enum EProcessState implements IStateEnum<EProcessState> {
      * BasicProcessor instance is not available due to errors
      */
     Error,
+    /**
+     * BasicProcessor instance is being disposed, waiting for the
+     * running executions to complete.
+     */
+    Disposing,
     /**
      * BasicProcessor instance has been disposed.
      */
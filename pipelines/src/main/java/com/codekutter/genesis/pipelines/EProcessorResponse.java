@@ -41,7 +41,11 @@ public enum EProcessorResponse implements IStateEnum<EProcessorResponse> {
     /**
      * BasicProcessor step was skipped due to defined condition.
      */
-    Skipped;
+    Skipped,
+    /**
+     * Processor step was skipped as the execution deadline was exceeded.
+     */
+    DeadlineExceeded;
 
 
     /**
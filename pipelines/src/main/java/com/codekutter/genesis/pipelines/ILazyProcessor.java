@@ -0,0 +1,21 @@
+package com.codekutter.genesis.pipelines;
+
+/**
+ * Interface implemented by processor handles that create the
+ * processor on first use (lazy="true").
+ */
+public interface ILazyProcessor {
+    /**
+     * Get the lazy processor instance.
+     *
+     * @return - Lazy instance.
+     */
+    LazyInstance<?> getTarget();
+
+    /**
+     * Get the class of the processor that will be created.
+     *
+     * @return - Processor class.
+     */
+    Class<?> getTargetType();
+}
@@ -0,0 +1,14 @@
+package com.codekutter.genesis.pipelines;
+
+/**
+ * Interface implemented by processor handles that lease a processor
+ * instance from a pool for each execution (see Pooled).
+ */
+public interface IPooledProcessor {
+    /**
+     * Get the pool of processor instances.
+     *
+     * @return - Instance pool.
+     */
+    InstancePool<?> getPool();
+}
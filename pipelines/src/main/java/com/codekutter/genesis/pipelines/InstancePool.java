@@ -0,0 +1,285 @@
+package com.codekutter.genesis.pipelines;
+
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.LogUtils;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded pool of processor instances, for processors that are not
+ * thread-safe (see Pooled).
+ * <p>
+ * The first instance is created with the pool, additional instances are
+ * created on demand until the pool size is reached: the executions that
+ * find all the created instances leased pay the creation (and
+ * initialization) cost of an instance. Use prestart() to create all the
+ * instances upfront. Once all instances are leased, executions wait for
+ * an instance to be released (bounded by the lease timeout and the
+ * context deadline).
+ *
+ * @param <P> - Processor Type.
+ */
+public class InstancePool<P extends Processor<?>> {
+    public static final long DEFAULT_TIMEOUT = 30000;
+
+    private final String name;
+    private final LazyInstance.IFactory<? extends P> factory;
+    private final int size;
+    private final long timeout;
+    private final BlockingQueue<P> idle;
+    private final List<P> instances = new CopyOnWriteArrayList<>();
+    private final AtomicInteger created = new AtomicInteger();
+    private final LongAdder leases = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder interrupts = new LongAdder();
+    private final P prototype;
+    private volatile boolean closed = false;
+
+    /**
+     * Constructor with the pool settings, creates the first instance.
+     *
+     * @param name    - Processor name.
+     * @param size    - Max number of instances.
+     * @param timeout - Max time to wait for an instance (in milliseconds).
+     * @param factory - Processor factory.
+     * @throws ConfigurationException - Error creating the first instance.
+     */
+    public InstancePool(@Nonnull String name, int size, long timeout,
+                        @Nonnull LazyInstance.IFactory<? extends P> factory)
+    throws ConfigurationException {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(name));
+        Preconditions.checkArgument(size > 0);
+        Preconditions.checkArgument(timeout >= 0);
+        Preconditions.checkArgument(factory != null);
+        this.name = name;
+        this.size = size;
+        this.timeout = timeout;
+        this.factory = factory;
+        this.idle = new ArrayBlockingQueue<>(size);
+
+        created.incrementAndGet();
+        prototype = create();
+        idle.add(prototype);
+    }
+
+    /**
+     * Get the processor name.
+     *
+     * @return - Processor name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the max number of instances.
+     *
+     * @return - Pool size.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Get the number of instances created.
+     *
+     * @return - Created instances.
+     */
+    public int getCreated() {
+        return instances.size();
+    }
+
+    /**
+     * Get the number of instances not leased.
+     *
+     * @return - Idle instances.
+     */
+    public int getIdle() {
+        return idle.size();
+    }
+
+    /**
+     * Get the number of leases.
+     *
+     * @return - Lease count.
+     */
+    public long getLeases() {
+        return leases.sum();
+    }
+
+    /**
+     * Get the number of leases that had to wait for an instance.
+     *
+     * @return - Wait count.
+     */
+    public long getWaits() {
+        return waits.sum();
+    }
+
+    /**
+     * Get the number of leases that timed out.
+     *
+     * @return - Timeout count.
+     */
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    /**
+     * Get the number of leases interrupted while waiting for an instance.
+     *
+     * @return - Interrupt count.
+     */
+    public long getInterrupts() {
+        return interrupts.sum();
+    }
+
+    /**
+     * Create the instances not created yet (up to the pool size), so
+     * executions don't pay the creation cost.
+     *
+     * @return - Number of instances created.
+     * @throws ConfigurationException - Error creating an instance.
+     */
+    public int prestart() throws ConfigurationException {
+        int count = 0;
+        while (!closed) {
+            int current = created.get();
+            if (current >= size) {
+                break;
+            }
+            if (created.compareAndSet(current, current + 1)) {
+                try {
+                    idle.add(create());
+                    count++;
+                } catch (ConfigurationException e) {
+                    created.decrementAndGet();
+                    throw e;
+                }
+            }
+        }
+        if (closed) {
+            dispose();
+        }
+        return count;
+    }
+
+    /**
+     * Get the first created instance (state, type and configuration
+     * are read from it).
+     *
+     * @return - Processor instance.
+     */
+    public P getPrototype() {
+        return prototype;
+    }
+
+    /**
+     * Lease an instance, the instance must be released once the
+     * execution is done.
+     *
+     * @param context - Context Handle (wait is bounded by the deadline).
+     * @return - Processor instance.
+     * @throws ProcessorException - Pool closed, timed out, interrupted or error creating an instance.
+     */
+    public P lease(Context context) throws ProcessorException {
+        if (closed) {
+            throw new ProcessorException(String.format(
+                    "Processor pool closed. [name=%s]", name));
+        }
+        leases.increment();
+        P instance = idle.poll();
+        if (instance != null) {
+            return instance;
+        }
+        while (true) {
+            int count = created.get();
+            if (count >= size) {
+                break;
+            }
+            if (created.compareAndSet(count, count + 1)) {
+                try {
+                    return create();
+                } catch (ConfigurationException e) {
+                    created.decrementAndGet();
+                    throw new ProcessorException(String.format(
+                            "Error creating pooled processor. [name=%s]", name), e);
+                }
+            }
+        }
+        waits.increment();
+        long wait = TimeUnit.MILLISECONDS.toNanos(timeout);
+        if (context != null && context.hasDeadline()) {
+            wait = Math.min(wait, context.getRemainingTime(TimeUnit.NANOSECONDS));
+        }
+        try {
+            instance = idle.poll(wait, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            interrupts.increment();
+            throw new ProcessorException(String.format(
+                    "Interrupted waiting for pooled processor. [name=%s]", name), e);
+        }
+        if (instance == null) {
+            timeouts.increment();
+            throw new ProcessorException(String.format(
+                    "Timeout waiting for pooled processor. [name=%s][size=%d]",
+                    name, size));
+        }
+        return instance;
+    }
+
+    /**
+     * Release a leased instance.
+     *
+     * @param instance - Processor instance.
+     */
+    public void release(@Nonnull P instance) {
+        Preconditions.checkArgument(instance != null);
+        if (closed) {
+            instance.dispose();
+            return;
+        }
+        idle.offer(instance);
+        if (closed) {
+            dispose();
+        }
+    }
+
+    /**
+     * Close the pool and dispose the idle instances, leased instances
+     * are disposed when released.
+     */
+    public void dispose() {
+        closed = true;
+        P instance;
+        while ((instance = idle.poll()) != null) {
+            instance.dispose();
+        }
+    }
+
+    private P create() throws ConfigurationException {
+        long start = System.nanoTime();
+        P instance = factory.create();
+        if (instance == null) {
+            throw new ConfigurationException(String.format(
+                    "Factory returned a NULL instance. [name=%s]", name));
+        }
+        instances.add(instance);
+        LogUtils.debug(getClass(), String.format(
+                "Created pooled processor. [name=%s][instances=%d/%d][time=%.3fms]",
+                name, instances.size(), size,
+                LoadTimings.millis(System.nanoTime() - start)));
+        return instance;
+    }
+}
@@ -0,0 +1,229 @@
+package com.codekutter.genesis.pipelines;
+
+import com.codekutter.genesis.pipelines.limits.ConcurrencyLimiter;
+import com.codekutter.genesis.pipelines.metrics.ProcessorMetricsSnapshot;
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.model.nodes.AbstractConfigNode;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+/**
+ * Collection processor (or pipeline reference) that is created and
+ * initialized on first execution (lazy="true").
+ * <p>
+ * Executions are passed to the created processor, metrics and state
+ * are read from the created processor once available.
+ *
+ * @param <T> - Entity Type.
+ */
+public class LazyCollectionProcessor<T> extends CollectionProcessor<T>
+        implements ILazyProcessor {
+    private final LazyInstance<CollectionProcessor<T>> target;
+    private final Class<?> targetType;
+
+    /**
+     * Constructor with the processor name, class and factory.
+     *
+     * @param name       - Processor name.
+     * @param targetType - Processor class.
+     * @param factory    - Processor factory.
+     */
+    public LazyCollectionProcessor(@Nonnull String name,
+                                   @Nonnull Class<?> targetType,
+                                   @Nonnull LazyInstance.IFactory<
+                                           ? extends CollectionProcessor<T>> factory) {
+        Preconditions.checkArgument(targetType != null);
+        Preconditions.checkArgument(factory != null);
+        this.name = name;
+        this.targetType = targetType;
+        this.target = new LazyInstance<>(name, () -> {
+            CollectionProcessor<T> processor = factory.create();
+            ConcurrencyLimiter permits = limiter;
+            if (permits != null) {
+                processor.setLimiter(permits);
+            }
+            return processor;
+        });
+        state.setState(EProcessState.Available);
+    }
+
+    /**
+     * Get the lazy processor instance.
+     *
+     * @return - Lazy instance.
+     */
+    @Override
+    public LazyInstance<CollectionProcessor<T>> getTarget() {
+        return target;
+    }
+
+    /**
+     * Get the class of the processor that will be created.
+     *
+     * @return - Processor class.
+     */
+    @Override
+    public Class<?> getTargetType() {
+        return targetType;
+    }
+
+    /**
+     * Get the processor, creating it on first call.
+     *
+     * @return - Processor instance.
+     * @throws ProcessorException - Error creating the processor.
+     */
+    private CollectionProcessor<T> processor() throws ProcessorException {
+        try {
+            return target.get();
+        } catch (ConfigurationException e) {
+            throw new ProcessorException(String.format(
+                    "Error creating lazy processor. [name=%s]", name), e);
+        }
+    }
+
+    /**
+     * Set the concurrency limiter, applied to the processor when created.
+     *
+     * @param limiter - Concurrency Limiter.
+     */
+    @Override
+    public void setLimiter(ConcurrencyLimiter limiter) {
+        super.setLimiter(limiter);
+        CollectionProcessor<T> processor = target.peek();
+        if (processor != null) {
+            processor.setLimiter(limiter);
+        }
+    }
+
+    /**
+     * Get the state of the processor, the state of this handle if the
+     * processor hasn't been created.
+     *
+     * @return - Processor State.
+     */
+    @Override
+    public EProcessState getState() {
+        CollectionProcessor<T> processor = target.peek();
+        return (processor != null ? processor.getState() : super.getState());
+    }
+
+    /**
+     * Get a snapshot of the execution metrics of the processor.
+     *
+     * @return - Metrics Snapshot.
+     */
+    @Override
+    public ProcessorMetricsSnapshot getMetrics() {
+        CollectionProcessor<T> processor = target.peek();
+        return (processor != null ? processor.getMetrics() : super.getMetrics());
+    }
+
+    /**
+     * Reset the execution metrics of the processor.
+     */
+    @Override
+    public void resetMetrics() {
+        CollectionProcessor<T> processor = target.peek();
+        if (processor != null) {
+            processor.resetMetrics();
+        }
+        super.resetMetrics();
+    }
+
+    /**
+     * Get the number of executions running through the processor.
+     *
+     * @return - In-flight executions.
+     */
+    @Override
+    public long getInFlight() {
+        CollectionProcessor<T> processor = target.peek();
+        return (processor != null ? processor.getInFlight() : super.getInFlight());
+    }
+
+    /**
+     * Wait for the executions running through the processor and dispose
+     * it, if created.
+     *
+     * @param timeout - Max time to wait (in milliseconds).
+     * @return - All executions completed?
+     */
+    @Override
+    public boolean dispose(long timeout) {
+        CollectionProcessor<T> processor = target.peek();
+        boolean drained = (processor == null || processor.dispose(timeout));
+        super.dispose();
+        return drained;
+    }
+
+    /**
+     * Dispose the processor, if created.
+     */
+    @Override
+    public void dispose() {
+        CollectionProcessor<T> processor = target.peek();
+        if (processor != null) {
+            processor.dispose();
+        }
+        super.dispose();
+    }
+
+    /**
+     * Nothing to initialize, the processor is configured when it is
+     * created.
+     *
+     * @param node - Configuration Node.
+     * @throws ConfigurationException
+     */
+    @Override
+    public void init(AbstractConfigNode node) throws ConfigurationException {
+        // Nothing to be done.
+    }
+
+    /**
+     * Execute the processor, creating it on first call. Executions on a
+     * handle that stopped accepting executions are run by its successor
+     * (replaced on reload), the processor isn't created.
+     *
+     * @param data      - Data Object
+     * @param condition - Query Condition to check if execution is required.
+     * @param context   - Context Handle.
+     * @return - Processor Response.
+     * @throws ProcessorException
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public ProcessorResponse<List<T>> execute(@Nonnull List<T> data,
+                                              String condition, Context context)
+    throws ProcessorException {
+        Processor<?> next = successor;
+        if (next != null && !state.isAvailable()) {
+            return ((CollectionProcessor<T>) next).execute(data, condition, context);
+        }
+        isAvailable();
+        return processor().execute(data, condition, context);
+    }
+
+    /**
+     * Execute the processor, creating it on first call.
+     *
+     * @param data     - List of Entity Object.
+     * @param context  - Context Handle
+     * @param response - Processor Response.
+     * @return - Processor Response.
+     */
+    @Override
+    protected CollectionProcessorResponse<T> execute(
+            @Nonnull List<T> data, Context context,
+            @Nonnull CollectionProcessorResponse<T> response) {
+        try {
+            return processor().execute(data, context, response);
+        } catch (ProcessorException e) {
+            response.setError(EProcessorResponse.FatalError, e);
+            return response;
+        }
+    }
+}
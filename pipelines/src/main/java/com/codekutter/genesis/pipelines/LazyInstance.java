@@ -0,0 +1,103 @@
+package com.codekutter.genesis.pipelines;
+
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.LogUtils;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Holder for an instance (processor/pipeline) that is created and
+ * initialized on first use.
+ * <p>
+ * The instance is created exactly once, concurrent callers wait for the
+ * creating thread. If creation fails the error is passed to the caller
+ * and the next call retries.
+ *
+ * @param <T> - Instance Type.
+ */
+public class LazyInstance<T> {
+    /**
+     * Create and initialize the instance.
+     *
+     * @param <T> - Instance Type.
+     */
+    @FunctionalInterface
+    public interface IFactory<T> {
+        T create() throws ConfigurationException;
+    }
+
+    private final String name;
+    private final IFactory<T> factory;
+    private volatile T instance;
+
+    /**
+     * Constructor with the instance name and factory.
+     *
+     * @param name    - Instance (processor/pipeline) name.
+     * @param factory - Instance factory.
+     */
+    public LazyInstance(@Nonnull String name, @Nonnull IFactory<T> factory) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(name));
+        Preconditions.checkArgument(factory != null);
+        this.name = name;
+        this.factory = factory;
+    }
+
+    /**
+     * Get the instance name.
+     *
+     * @return - Instance name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Check if the instance has been created.
+     *
+     * @return - Is created?
+     */
+    public boolean isCreated() {
+        return (instance != null);
+    }
+
+    /**
+     * Get the instance if it has been created.
+     *
+     * @return - Instance, NULL if not created yet.
+     */
+    public T peek() {
+        return instance;
+    }
+
+    /**
+     * Get the instance, creating it if required.
+     *
+     * @return - Instance.
+     * @throws ConfigurationException - Error creating the instance.
+     */
+    public T get() throws ConfigurationException {
+        T current = instance;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            current = instance;
+            if (current == null) {
+                long start = System.nanoTime();
+                current = factory.create();
+                if (current == null) {
+                    throw new ConfigurationException(String.format(
+                            "Factory returned a NULL instance. [name=%s]", name));
+                }
+                instance = current;
+                LogUtils.debug(getClass(), String.format(
+                        "Created lazy instance. [name=%s][time=%.3fms]", name,
+                        LoadTimings.millis(System.nanoTime() - start)));
+            }
+            return current;
+        }
+    }
+}
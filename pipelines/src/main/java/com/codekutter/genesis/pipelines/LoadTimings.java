@@ -0,0 +1,116 @@
+package com.codekutter.genesis.pipelines;
+
+import lombok.Data;
+import lombok.ToString;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time spent in each phase of loading a pipeline configuration.
+ */
+@Data
+@ToString
+public class LoadTimings {
+    /**
+     * Read and parse the configuration (incl. tracing settings).
+     */
+    public static final String PHASE_PARSE = "parse";
+    /**
+     * Read the pipeline and processor definitions.
+     */
+    public static final String PHASE_DEFINE = "define";
+    /**
+     * Resolve the pipeline reference graph.
+     */
+    public static final String PHASE_RESOLVE = "resolve";
+    /**
+     * Create and configure the pipelines and processors.
+     */
+    public static final String PHASE_BUILD = "build";
+    /**
+     * Add the processors and references to the pipelines.
+     */
+    public static final String PHASE_WIRE = "wire";
+    /**
+     * Read the pipeline schedules.
+     */
+    public static final String PHASE_SCHEDULE = "schedule";
+    /**
+     * Register the monitoring MBeans.
+     */
+    public static final String PHASE_REGISTER = "register";
+
+    /**
+     * Elapsed time of each phase (in milliseconds), in load order.
+     */
+    private Map<String, Double> phases = new LinkedHashMap<>();
+    /**
+     * Total load time (in milliseconds).
+     */
+    private double total;
+    /**
+     * Number of pipelines loaded.
+     */
+    private int pipelines;
+    /**
+     * Number of processors loaded (excl. pipeline references).
+     */
+    private int processors;
+    /**
+     * Number of lazy pipelines and processors (created on first use).
+     */
+    private int lazy;
+    /**
+     * Number of threads used to build the pipelines.
+     */
+    private int threads;
+    /**
+     * Loaded from a compiled snapshot?
+     */
+    private boolean snapshot;
+
+    /**
+     * Record the elapsed time of a phase.
+     *
+     * @param phase - Phase name.
+     * @param start - Start of the phase (nano time).
+     * @return - Current nano time (start of the next phase).
+     */
+    public long record(String phase, long start) {
+        long now = System.nanoTime();
+        phases.put(phase, millis(now - start));
+        return now;
+    }
+
+    /**
+     * Get the elapsed time of a phase.
+     *
+     * @param phase - Phase name.
+     * @return - Elapsed time (in milliseconds), -1 if not recorded.
+     */
+    public double getPhase(String phase) {
+        Double value = phases.get(phase);
+        return (value != null ? value : -1);
+    }
+
+    /**
+     * Format the timings as a log string.
+     *
+     * @return - Formatted timings.
+     */
+    public String format() {
+        StringBuilder buffer = new StringBuilder();
+        buffer.append(String.format("[pipelines=%d][processors=%d][lazy=%d][threads=%d][snapshot=%s][total=%.3fms]",
+                                    pipelines, processors, lazy, threads, snapshot, total));
+        for (Map.Entry<String, Double> entry : phases.entrySet()) {
+            buffer.append(String.format("[%s=%.3fms]", entry.getKey(), entry.getValue()));
+        }
+        return buffer.toString();
+    }
+
+    static double millis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
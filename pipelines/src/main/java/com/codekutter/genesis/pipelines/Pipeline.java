@@ -1,5 +1,11 @@
 package com.codekutter.genesis.pipelines;
 
+import com.codekutter.genesis.pipelines.metrics.OutlierRecorder;
+import com.codekutter.genesis.pipelines.metrics.ProcessorMetricsSnapshot;
+
+import java.util.List;
+import java.util.Map;
+
 /**
  * Interface to be implemented by Data Pipelines.
  *
@@ -20,8 +26,67 @@ public interface Pipeline<T> {
      */
     Class<?> getType();
 
+    /**
+     * Get the processors in this pipeline (in execution order).
+     *
+     * @return - List of processors.
+     */
+    List<? extends Processor<?>> getProcessors();
+
+    /**
+     * Get the condition for executing the specified processor.
+     *
+     * @param processor - Processor name.
+     * @return - Condition string, NULL if not set.
+     */
+    String getCondition(String processor);
+
+    /**
+     * Get the exception handlers of this pipeline.
+     *
+     * @return - List of exception handlers.
+     */
+    List<? extends ExceptionProcessor<?>> getErrorHandlers();
+
+    /**
+     * Get the execution metrics of the processors in this pipeline.
+     *
+     * @return - Map of processor name to metrics snapshot.
+     */
+    Map<String, ProcessorMetricsSnapshot> getProcessorMetrics();
+
+    /**
+     * Get the recorder for the slowest executions of this pipeline.
+     *
+     * @return - Outlier Recorder, NULL if not enabled.
+     */
+    OutlierRecorder getOutlierRecorder();
+
+    /**
+     * Set the recorder for the slowest executions of this pipeline.
+     *
+     * @param recorder - Outlier Recorder (NULL to disable).
+     */
+    void setOutlierRecorder(OutlierRecorder recorder);
+
+    /**
+     * Get the number of executions currently running through this pipeline.
+     *
+     * @return - In-flight executions.
+     */
+    long getInFlight();
+
     /**
      * Dispose this instance of the pipeline.
      */
     void dispose();
+
+    /**
+     * Stop accepting executions, wait for the running executions to
+     * complete (up to the timeout) and dispose this instance of the pipeline.
+     *
+     * @param timeout - Max time to wait (in milliseconds).
+     * @return - All executions completed?
+     */
+    boolean dispose(long timeout);
 }
@@ -1,5 +1,23 @@
 package com.codekutter.genesis.pipelines;
 
+import com.codekutter.genesis.pipelines.cache.ResultCache;
+import com.codekutter.genesis.pipelines.explain.PipelineExplainer;
+import com.codekutter.genesis.pipelines.factory.FactoryRegistry;
+import com.codekutter.genesis.pipelines.incremental.FingerprintStore;
+import com.codekutter.genesis.pipelines.incremental.Fingerprinter;
+import com.codekutter.genesis.pipelines.jmx.PipelineMBeans;
+import com.codekutter.genesis.pipelines.limits.ConcurrencyLimiter;
+import com.codekutter.genesis.pipelines.metrics.OutlierRecord;
+import com.codekutter.genesis.pipelines.metrics.OutlierRecorder;
+import com.codekutter.genesis.pipelines.metrics.ProcessorMetricsSnapshot;
+import com.codekutter.genesis.pipelines.scheduler.*;
+import com.codekutter.genesis.pipelines.snapshot.DefinitionNode;
+import com.codekutter.genesis.pipelines.snapshot.DefinitionReader;
+import com.codekutter.genesis.pipelines.snapshot.PipelineSnapshot;
+import com.codekutter.genesis.pipelines.snapshot.SnapshotBinder;
+import com.codekutter.genesis.pipelines.tracing.Tracer;
+import com.codekutter.genesis.pipelines.tracing.Tracing;
+import com.codekutter.genesis.pipelines.types.CollectionDataProducer;
 import com.codekutter.zconfig.common.ConfigProviderFactory;
 import com.codekutter.zconfig.common.ConfigurationAnnotationProcessor;
 import com.codekutter.zconfig.common.ConfigurationException;
@@ -19,12 +37,30 @@ import lombok.Data;
 import lombok.ToString;
 
 import javax.annotation.Nonnull;
+import java.io.File;
 import java.io.IOException;
+import java.lang.reflect.Method;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.UnaryOperator;
 
 /**
  * Loader class to read and parse pipeline definitions from a
@@ -56,6 +92,51 @@ public class PipelineLoader {
          */
         @ConfigAttribute(name = "type", required = true)
         private String type;
+        /**
+         * Number of slowest executions to record. (0 = disabled)
+         */
+        @ConfigAttribute(name = "outliers", required = false)
+        private int outliers = 0;
+        /**
+         * Execution time (in milliseconds) above which executions
+         * are logged. (0 = disabled)
+         */
+        @ConfigAttribute(name = "outlierThreshold", required = false)
+        private long outlierThreshold = 0;
+        /**
+         * Max number of cached pipeline results. (0 = disabled)
+         */
+        @ConfigAttribute(name = "cacheSize", required = false)
+        private long cacheSize = 0;
+        /**
+         * Time (in milliseconds) a cached result is valid. (0 = no expiry)
+         */
+        @ConfigAttribute(name = "cacheTtl", required = false)
+        private long cacheTtl = 0;
+        /**
+         * How cached results are copied, required with cacheSize:
+         * shared (immutable entities), clone (Cloneable entities) or the
+         * class of a UnaryOperator copying the entity.
+         */
+        @ConfigAttribute(name = "cacheCopy", required = false)
+        private String cacheCopy;
+        /**
+         * Fingerprint store file, producers only process new/changed
+         * entities if set (incremental mode).
+         */
+        @ConfigAttribute(name = "fingerprintStore", required = false)
+        private String fingerprintStore;
+        /**
+         * Entity fields (comma separated) covered by the fingerprint.
+         * (Default = all fields)
+         */
+        @ConfigAttribute(name = "fingerprintFields", required = false)
+        private String fingerprintFields;
+        /**
+         * Create the pipeline (and its processors) on first use.
+         */
+        @ConfigAttribute(name = "lazy", required = false)
+        private boolean lazy = false;
     }
 
     /**
@@ -92,6 +173,120 @@ public class PipelineLoader {
          */
         @ConfigAttribute(name = "reference", required = false)
         private String reference;
+        /**
+         * Max concurrent executions of this processor. (0 = unlimited)
+         */
+        @ConfigAttribute(name = "maxConcurrent", required = false)
+        private int maxConcurrent = 0;
+        /**
+         * Max executions that can wait for the processor once
+         * the concurrency limit is reached. (0 = fail fast)
+         */
+        @ConfigAttribute(name = "maxQueued", required = false)
+        private int maxQueued = 0;
+        /**
+         * Max time (in milliseconds) an execution can wait in the queue.
+         */
+        @ConfigAttribute(name = "queueTimeout", required = false)
+        private long queueTimeout = DEFAULT_QUEUE_TIMEOUT;
+        /**
+         * Concurrency limiter type (semaphore/adaptive).
+         */
+        @ConfigAttribute(name = "limiter", required = false)
+        private String limiter;
+        /**
+         * Create the processor on first execution.
+         */
+        @ConfigAttribute(name = "lazy", required = false)
+        private boolean lazy = false;
+        /**
+         * Max instances of a pooled (not thread-safe) processor,
+         * overrides the size set by the Pooled annotation. (0 = default)
+         */
+        @ConfigAttribute(name = "poolSize", required = false)
+        private int poolSize = 0;
+    }
+
+    /**
+     * Struct to read the scheduler settings from the configuration.
+     */
+    @ConfigPath(path = "scheduler")
+    @Data
+    @ToString
+    private static class SchedulerDef {
+        /**
+         * Directory to store the high-water marks in.
+         */
+        @ConfigAttribute(name = "stateDir", required = false)
+        private String stateDir;
+        /**
+         * Number of scheduler threads.
+         */
+        @ConfigAttribute(name = "threads", required = false)
+        private int threads = 1;
+    }
+
+    /**
+     * Struct to read a pipeline schedule from the configuration.
+     */
+    @ConfigPath(path = "schedule")
+    @Data
+    @ToString
+    private static class ScheduleDef {
+        /**
+         * Name of the (producer) pipeline to poll.
+         */
+        @ConfigAttribute(name = "pipeline", required = true)
+        private String pipeline;
+        /**
+         * Fixed poll interval (in milliseconds).
+         */
+        @ConfigAttribute(name = "interval", required = false)
+        private long interval = 0;
+        /**
+         * Cron expression (used if interval isn't set).
+         */
+        @ConfigAttribute(name = "cron", required = false)
+        private String cron;
+        /**
+         * Max random delay added to each poll (in milliseconds).
+         */
+        @ConfigAttribute(name = "jitter", required = false)
+        private long jitter = 0;
+        /**
+         * Deadline for each poll (in milliseconds).
+         */
+        @ConfigAttribute(name = "timeout", required = false)
+        private long timeout = 0;
+        /**
+         * Water mark provider class, for incremental polls.
+         */
+        @ConfigAttribute(name = "waterMark", required = false)
+        private String waterMark;
+        /**
+         * Base fetch query.
+         */
+        @ConfigValue(name = "query", required = false)
+        private String query;
+    }
+
+    /**
+     * Struct to read the tracing settings from the configuration.
+     */
+    @ConfigPath(path = "tracing")
+    @Data
+    @ToString
+    private static class TracingDef {
+        /**
+         * Tracer implementation class.
+         */
+        @ConfigAttribute(name = "tracer", required = true)
+        private String tracer;
+        /**
+         * Sample rate for new traces (0.0 - 1.0).
+         */
+        @ConfigAttribute(name = "sampleRate", required = false)
+        private double sampleRate = 1.0;
     }
 
     private static final String CONFIG_NODE_PIPELINES = "pipelines";
@@ -101,8 +296,134 @@ public class PipelineLoader {
     private static final String CONFIG_NODE_ERROR_PS = "errorHandlers";
     private static final String CONFIG_NODE_ERROR_P = "errorHandler";
     private static final String CONFIG_ATTR_ERROR_H_TYPE = "type";
+    private static final String CONFIG_NODE_SCHEDULER = "scheduler";
+    private static final String CONFIG_NODE_SCHEDULES = "schedules";
+    private static final String CONFIG_NODE_SCHEDULE = "schedule";
+    private static final String CONFIG_NODE_TRACING = "tracing";
+    private static final String CONFIG_ATTR_NAME = "name";
+    /**
+     * Snapshot attribute marking pipelines loaded from the configuration.
+     */
+    private static final String SNAPSHOT_ATTR_SOURCE = "source";
+    private static final String SNAPSHOT_SOURCE_CONFIG = "configuration";
+    private static final String CACHE_COPY_SHARED = "shared";
+    private static final String CACHE_COPY_CLONE = "clone";
+    private static final long DEFAULT_QUEUE_TIMEOUT = 1000;
+    private static final long DEFAULT_DRAIN_TIMEOUT = 30000;
+    private static final AtomicInteger DRAINS = new AtomicInteger();
+    private static final long DRAIN_WAIT_MIN = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long DRAIN_WAIT_MAX = TimeUnit.MILLISECONDS.toNanos(50);
+
+    /**
+     * Loaded pipelines. The plan is replaced as a whole on reload
+     * (copy-on-write), lookups read the current plan without locking.
+     */
+    private static final class Plan {
+        private final Map<String, Pipeline<?>> pipelines = new ConcurrentHashMap<>();
+        /**
+         * Handles of the lazy pipelines, by pipeline name.
+         */
+        private final Map<String, Processor<?>> deferred = new ConcurrentHashMap<>();
+        /**
+         * Lazy processors (excl. pipelines).
+         */
+        private final List<LazyInstance<?>> lazy = new CopyOnWriteArrayList<>();
+        /**
+         * Replaced by a reload (lazy pipelines created after are not
+         * registered).
+         */
+        private volatile boolean retired = false;
+    }
+
+    /**
+     * Pipeline and processor definitions read from the configuration.
+     */
+    private static final class PipelineNode {
+        private final PipelineDef def;
+        /**
+         * Configuration node, NULL if read from a snapshot.
+         */
+        private final ConfigPathNode node;
+        /**
+         * Snapshot element, NULL if read from the configuration.
+         */
+        private final DefinitionNode source;
+        private final List<ProcessorNode> processors = new ArrayList<>();
+        private Processor<?> pipeline;
+        /**
+         * Plan the pipeline is loaded into.
+         */
+        private Plan plan;
+
+        private PipelineNode(PipelineDef def, ConfigPathNode node,
+                             DefinitionNode source) {
+            this.def = def;
+            this.node = node;
+            this.source = source;
+        }
+    }
+
+    /**
+     * Processor definition read from the configuration.
+     */
+    private static final class ProcessorNode {
+        private final ProcessorDef def;
+        private final ConfigPathNode node;
+        private final DefinitionNode source;
+        /**
+         * Created processor, NULL for pipeline references.
+         */
+        private Processor<?> processor;
+
+        private ProcessorNode(ProcessorDef def, ConfigPathNode node,
+                              DefinitionNode source) {
+            this.def = def;
+            this.node = node;
+            this.source = source;
+        }
+    }
+
+    /**
+     * Load step run (in parallel) for each pipeline.
+     *
+     * @param <I> - Input Type.
+     * @param <O> - Output Type.
+     */
+    @FunctionalInterface
+    private interface LoadTask<I, O> {
+        O run(I input) throws ConfigurationException;
+    }
 
-    private Map<String, Pipeline<?>> pipelines = new HashMap<>();
+    private volatile Plan plan = new Plan();
+    /**
+     * Resolved classes, by name (shared with the loaders built on reload).
+     * Held per loader so the class loaders of the pipeline types can be
+     * collected once the loader is discarded.
+     */
+    private Map<String, Class<?>> classes = new ConcurrentHashMap<>();
+    private PipelineScheduler scheduler;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private LoadTimings timings;
+    private File snapshot;
+    private long drainTimeout = DEFAULT_DRAIN_TIMEOUT;
+    private boolean inline = false;
+    /**
+     * Register the MBeans on load (not set when building a reload).
+     */
+    private boolean register = true;
+    /**
+     * Tracer read from the configuration, registered once the load (or
+     * the swap on reload) succeeds. NULL if tracing isn't configured.
+     */
+    private Tracer tracer;
+    private double sampleRate;
+    /**
+     * Last loaded configuration (reloaded by reload()).
+     */
+    private String configName;
+    private String configUri;
+    private Version version;
+    private ConfigurationSettings settings;
 
     /**
      * Load the defined pipelines from the passed configuration.
@@ -113,100 +434,1297 @@ public class PipelineLoader {
      * @param settings   - Configuration Settings.
      * @throws ConfigurationException
      */
-    public void load(@Nonnull String configName,
-                     @Nonnull String configUri, @Nonnull Version version,
-                     ConfigurationSettings settings) throws ConfigurationException {
+    public synchronized void load(@Nonnull String configName,
+                                  @Nonnull String configUri,
+                                  @Nonnull Version version,
+                                  ConfigurationSettings settings)
+    throws ConfigurationException {
         Preconditions.checkArgument(!Strings.isNullOrEmpty(configName));
         Preconditions.checkArgument(!Strings.isNullOrEmpty(configUri));
         Preconditions.checkArgument(version != null);
 
-        Configuration configuration =
-                readConfig(configName, configUri, version, settings);
-        Preconditions.checkNotNull(configuration);
+        LoadTimings timings = new LoadTimings();
+        long loadStart = System.nanoTime();
+        PipelineSnapshot compiled = readSnapshot(configName, configUri, version);
+        Configuration configuration = null;
+        if (compiled == null) {
+            configuration = readConfig(configName, configUri, version, settings);
+            Preconditions.checkNotNull(configuration);
+            readTracing(configuration);
+        } else {
+            timings.setSnapshot(true);
+            readTracing(compiled.getNode(CONFIG_NODE_TRACING));
+            if (isConfigured(compiled.getNode(CONFIG_NODE_PIPELINES))) {
+                configuration = readConfig(configName, configUri, version, settings);
+                Preconditions.checkNotNull(configuration);
+            }
+        }
+        timings.record(LoadTimings.PHASE_PARSE, loadStart);
+        List<PipelineNode> loaded = new ArrayList<>();
+        PipelineScheduler current = scheduler;
+        long start;
+        try {
+            if (compiled == null) {
+                readPipelines(configuration, timings, loaded);
+            } else {
+                readPipelines(compiled.getNode(CONFIG_NODE_PIPELINES), configuration,
+                              timings, loaded);
+            }
+            start = System.nanoTime();
+            if (compiled == null) {
+                readScheduler(configuration);
+            } else {
+                readScheduler(compiled.getNode(CONFIG_NODE_SCHEDULER));
+            }
+        } catch (ConfigurationException | RuntimeException e) {
+            if (scheduler != current) {
+                scheduler.close();
+                scheduler = current;
+            }
+            discard(loaded);
+            throw e;
+        }
+        start = timings.record(LoadTimings.PHASE_SCHEDULE, start);
+        if (register) {
+            registerTracing();
+            registerMBeans();
+        }
+        long end = timings.record(LoadTimings.PHASE_REGISTER, start);
+        timings.setTotal(LoadTimings.millis(end - loadStart));
+        this.timings = timings;
+        this.configName = configName;
+        this.configUri = configUri;
+        this.version = version;
+        this.settings = settings;
+        LogUtils.info(getClass(), String.format("Loaded configuration. [name=%s]%s",
+                                                configName, timings.format()));
+    }
 
-        readPipelines(configuration);
+    /**
+     * Reload the last loaded configuration.
+     *
+     * @throws ConfigurationException
+     * @see #reload(String, String, Version, ConfigurationSettings)
+     */
+    public synchronized void reload() throws ConfigurationException {
+        if (Strings.isNullOrEmpty(configUri)) {
+            throw new ConfigurationException("No configuration loaded.");
+        }
+        reload(configName, configUri, version, settings);
     }
 
     /**
-     * Read and parse the pipeline definitions.
+     * Reload the pipelines from the passed configuration.
+     * <p>
+     * The new pipelines are built alongside the running ones and swapped
+     * in atomically, replacing all the pipelines of this loader. Executions
+     * already running finish on the old pipelines, which stop accepting
+     * executions and are disposed together once none of them has a running
+     * execution (or after the drain timeout). Executions started later by
+     * callers holding an old pipeline instance are forwarded to the pipeline
+     * replacing it (same name and type). If the load fails the running
+     * pipelines (and tracing settings) are kept, the pipelines built by the
+     * failed load are disposed.
      *
-     * @param configuration - Configuration handle.
+     * @param configName - Configuration Name.
+     * @param configUri  - Configuration URI (local file or remote URL)
+     * @param version    - Configuration Version (expected)
+     * @param settings   - Configuration Settings.
      * @throws ConfigurationException
      */
-    private void readPipelines(Configuration configuration)
+    public synchronized void reload(@Nonnull String configName,
+                                    @Nonnull String configUri,
+                                    @Nonnull Version version,
+                                    ConfigurationSettings settings)
     throws ConfigurationException {
-        AbstractConfigNode node =
-                configuration.find(String.format("*.%s", CONFIG_NODE_PIPELINES));
-        if (node == null) {
-            LogUtils.warn(getClass(),
-                          String.format("No pipelines found. [config=%s]",
-                                        configuration.getName()));
-            return;
+        PipelineLoader next = new PipelineLoader();
+        next.threads = threads;
+        next.classes = classes;
+        next.snapshot = snapshot;
+        next.inline = inline;
+        next.register = false;
+        next.load(configName, configUri, version, settings);
+
+        Plan retired = plan;
+        PipelineScheduler stopped = scheduler;
+        retired.retired = true;
+        plan = next.plan;
+        forward(retired, plan);
+        next.registerTracing();
+        scheduler = next.scheduler;
+        timings = next.timings;
+        this.configName = configName;
+        this.configUri = configUri;
+        this.version = version;
+        this.settings = settings;
+
+        if (stopped != null && stopped.isStarted()) {
+            stopped.close();
+            if (scheduler != null) {
+                scheduler.start();
+            }
         }
-        if (!(node instanceof ConfigPathNode) &&
-                !(node instanceof ConfigListElementNode)) {
-            throw new ConfigurationException(
-                    String.format("Invalid Configuration Node: [path=%s][type=%s]",
-                                  node.getSearchPath(),
-                                  node.getClass().getCanonicalName()));
+        Set<String> removed = new HashSet<>(retired.pipelines.keySet());
+        removed.addAll(retired.deferred.keySet());
+        removed.removeAll(plan.pipelines.keySet());
+        removed.removeAll(plan.deferred.keySet());
+        for (String name : removed) {
+            try {
+                PipelineMBeans.unregister(name);
+            } catch (Exception ex) {
+                LogUtils.warn(getClass(), String.format(
+                        "Error unregistering MBeans. [pipeline=%s][error=%s]",
+                        name, ex.getLocalizedMessage()));
+            }
         }
-        if (node instanceof ConfigPathNode) {
-            AbstractConfigNode pnode =
-                    ((ConfigPathNode) node).getChildNode(CONFIG_NODE_PIPELINE);
-            if (pnode instanceof ConfigPathNode) {
-                PipelineDef def = ConfigurationAnnotationProcessor
-                        .readConfigAnnotations(PipelineDef.class,
-                                               (ConfigPathNode) pnode);
-                if (def == null) {
-                    throw new ConfigurationException(String.format(
-                            "Error reading pipeline definition: [path=%s][type=%s]",
-                            pnode.getSearchPath(),
-                            pnode.getClass().getCanonicalName()));
-                }
-                readPipeline(def, (ConfigPathNode) pnode);
-            } else {
-                throw new ConfigurationException(
-                        String.format(
-                                "Invalid Configuration Node: [path=%s][type=%s]",
-                                pnode.getSearchPath(),
-                                pnode.getClass().getCanonicalName()));
+        registerMBeans();
+        retire(retired);
+        LogUtils.info(getClass(), String.format(
+                "Reloaded configuration. [name=%s][removed=%d]%s", configName,
+                removed.size(), timings.format()));
+    }
+
+    /**
+     * Get the max time to wait for executions on replaced pipelines
+     * to complete, before they are disposed.
+     *
+     * @return - Drain timeout (in milliseconds).
+     */
+    public long getDrainTimeout() {
+        return drainTimeout;
+    }
+
+    /**
+     * Set the max time to wait for executions on replaced pipelines
+     * to complete, before they are disposed.
+     *
+     * @param drainTimeout - Drain timeout (in milliseconds).
+     * @return - Self.
+     */
+    public PipelineLoader setDrainTimeout(long drainTimeout) {
+        Preconditions.checkArgument(drainTimeout >= 0);
+        this.drainTimeout = drainTimeout;
+        return this;
+    }
+
+    /**
+     * Check if referenced pipelines are inlined into the execution plan
+     * of the referencing pipelines.
+     *
+     * @return - Inline references?
+     */
+    public boolean isInline() {
+        return inline;
+    }
+
+    /**
+     * Inline the referenced pipelines into the execution plan of the
+     * referencing pipelines (see BasicPipeline.inline()). Applies to
+     * the pipelines created after it is set.
+     *
+     * @param inline - Inline references?
+     * @return - Self.
+     */
+    public PipelineLoader setInline(boolean inline) {
+        this.inline = inline;
+        return this;
+    }
+
+    /**
+     * Watch the configuration file and reload the pipelines when it
+     * changes. Only local (file) configurations can be watched.
+     *
+     * @param delay - Delay after a change before reloading, to let
+     *              further writes complete (in milliseconds).
+     * @return - Configuration watcher (close to stop watching).
+     * @throws ConfigurationException
+     */
+    public synchronized ConfigWatcher watch(long delay)
+    throws ConfigurationException {
+        if (Strings.isNullOrEmpty(configUri)) {
+            throw new ConfigurationException("No configuration loaded.");
+        }
+        try {
+            URI uri = new URI(configUri);
+            if (!"file".equalsIgnoreCase(uri.getScheme())) {
+                throw new ConfigurationException(String.format(
+                        "Only file configurations can be watched. [uri=%s]",
+                        configUri));
             }
+            return new ConfigWatcher(this, new File(uri), delay).start();
+        } catch (URISyntaxException | IOException e) {
+            throw new ConfigurationException(e);
+        }
+    }
+
+    /**
+     * Set the replacing pipelines (by name) as the successors of the
+     * pipelines of a replaced plan. Callers that got a pipeline before
+     * the plan was replaced have their executions forwarded once the
+     * replaced pipeline stops accepting executions.
+     *
+     * @param retired - Replaced plan.
+     * @param plan    - Current plan.
+     */
+    private void forward(Plan retired, Plan plan) {
+        for (Map.Entry<String, Pipeline<?>> entry : retired.pipelines.entrySet()) {
+            forward(entry.getKey(), (Processor<?>) entry.getValue(), plan);
+        }
+        // Handles of the lazy pipelines (not created yet).
+        for (Map.Entry<String, Processor<?>> entry : retired.deferred.entrySet()) {
+            forward(entry.getKey(), entry.getValue(), plan);
+        }
+    }
+
+    /**
+     * Set the pipeline (or lazy pipeline handle) of the new plan replacing
+     * a pipeline of the replaced plan, if of the same type.
+     *
+     * @param name    - Pipeline name.
+     * @param current - Replaced pipeline (or handle).
+     * @param plan    - New plan.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void forward(String name, Processor<?> current, Plan plan) {
+        Processor<?> next = reference(name, plan);
+        if (next == null) {
+            return;
+        }
+        boolean compatible = false;
+        if (current instanceof BasicProcessor<?> && next instanceof BasicProcessor<?>) {
+            compatible = Objects.equals(((BasicProcessor<?>) current).getType(),
+                                        ((BasicProcessor<?>) next).getType());
+        } else if (current instanceof CollectionProcessor<?>
+                && next instanceof CollectionProcessor<?>) {
+            compatible = Objects.equals(((CollectionProcessor<?>) current).getType(),
+                                        ((CollectionProcessor<?>) next).getType());
+        }
+        if (compatible) {
+            ((Processor) current).setSuccessor(next);
         } else {
-            ConfigListElementNode nodeList = (ConfigListElementNode) node;
-            List<ConfigElementNode> values = nodeList.getValues();
-            if (values != null && !values.isEmpty()) {
-                for (ConfigElementNode elem : values) {
-                    if (elem.getName().compareTo(CONFIG_NODE_PIPELINE) == 0) {
-                        PipelineDef def = ConfigurationAnnotationProcessor
-                                .readConfigAnnotations(PipelineDef.class,
-                                                       (ConfigPathNode) elem);
-                        if (def == null) {
-                            throw new ConfigurationException(String.format(
-                                    "Error reading pipeline definition: [path=%s][type=%s]",
-                                    node.getSearchPath(),
-                                    node.getClass().getCanonicalName()));
-                        }
-                        readPipeline(def, (ConfigPathNode) elem);
-                    }
-                }
+            LogUtils.warn(getClass(), String.format(
+                    "Replacing pipeline type changed, executions on the replaced pipeline are not forwarded. [name=%s]",
+                    name));
+        }
+    }
+
+    /**
+     * Dispose the pipelines of a replaced plan, once the executions
+     * running on them have completed (or after the drain timeout).
+     *
+     * @param retired - Replaced plan.
+     */
+    private void retire(Plan retired) {
+        if (retired.pipelines.isEmpty()) {
+            return;
+        }
+        long timeout = drainTimeout;
+        Thread thread = new Thread(() -> drain(retired, timeout),
+                                   String.format("pipeline-drain-%d",
+                                                 DRAINS.incrementAndGet()));
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void drain(Plan retired, long timeout) {
+        // Stop the whole plan first, executions started from here on are
+        // forwarded to the replacing pipelines. Pipelines of the plan call
+        // each other (references), wait for the whole plan to drain before
+        // disposing any of them.
+        for (Pipeline<?> pipeline : retired.pipelines.values()) {
+            ((Processor<?>) pipeline).stop();
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        long wait = DRAIN_WAIT_MIN;
+        long inFlight;
+        while ((inFlight = getInFlight(retired)) > 0) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || Thread.currentThread().isInterrupted()) {
+                break;
+            }
+            LockSupport.parkNanos(Math.min(wait, remaining));
+            wait = Math.min(wait * 2, DRAIN_WAIT_MAX);
+        }
+        if (inFlight > 0) {
+            LogUtils.warn(getClass(), String.format(
+                    "Drain timeout, disposing replaced pipelines with running executions. [in-flight=%d]",
+                    inFlight));
+        }
+        for (Pipeline<?> pipeline : retired.pipelines.values()) {
+            pipeline.dispose();
+        }
+        LogUtils.debug(getClass(), String.format(
+                "Disposed replaced pipelines. [count=%d]",
+                retired.pipelines.size()));
+    }
+
+    private static long getInFlight(Plan plan) {
+        long count = 0;
+        for (Pipeline<?> pipeline : plan.pipelines.values()) {
+            count += pipeline.getInFlight();
+        }
+        return count;
+    }
+
+    /**
+     * Get the number of threads used to build the pipelines.
+     *
+     * @return - Number of load threads.
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Set the number of threads used to build the pipelines
+     * (1 = load in the calling thread).
+     *
+     * @param threads - Number of load threads.
+     * @return - Self.
+     */
+    public PipelineLoader setThreads(int threads) {
+        Preconditions.checkArgument(threads > 0);
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * Get the compiled snapshot file.
+     *
+     * @return - Snapshot file, NULL if not set.
+     */
+    public File getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Set the compiled snapshot file to load the definitions from.
+     * The snapshot is used if it was compiled from the current
+     * configuration source, else the XML configuration is loaded.
+     *
+     * @param snapshot - Snapshot file (NULL to always load the XML).
+     * @return - Self.
+     */
+    public PipelineLoader setSnapshot(File snapshot) {
+        this.snapshot = snapshot;
+        return this;
+    }
+
+    /**
+     * Compile the pipeline definitions of the configuration into a
+     * binary snapshot.
+     * <p>
+     * Pipelines with types that can't be bound from a snapshot (see
+     * SnapshotBinder), such as types reading the configuration node in
+     * a @MethodInvoke method, are only referenced by the snapshot and
+     * loaded from the configuration.
+     *
+     * @param configName - Configuration Name.
+     * @param configUri  - Configuration URI (local file or remote URL)
+     * @param version    - Configuration Version (expected)
+     * @param settings   - Configuration Settings.
+     * @param output     - Snapshot file.
+     * @throws ConfigurationException
+     */
+    public void compile(@Nonnull String configName,
+                        @Nonnull String configUri, @Nonnull Version version,
+                        ConfigurationSettings settings, @Nonnull File output)
+    throws ConfigurationException {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(configName));
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(configUri));
+        Preconditions.checkArgument(version != null);
+        Preconditions.checkArgument(output != null);
+
+        Configuration configuration =
+                readConfig(configName, configUri, version, settings);
+        Preconditions.checkNotNull(configuration);
+        try {
+            byte[] source = PipelineSnapshot.readSource(new URI(configUri));
+            DefinitionNode root = DefinitionReader.read(source);
+            List<DefinitionNode> nodes = new ArrayList<>();
+            DefinitionNode node = root.find(CONFIG_NODE_TRACING);
+            if (node != null) {
+                nodes.add(node);
+            }
+            node = root.find(CONFIG_NODE_PIPELINES);
+            if (node != null) {
+                nodes.add(compilePipelines(node));
+            }
+            node = root.find(CONFIG_NODE_SCHEDULER);
+            if (node != null) {
+                nodes.add(node);
+            }
+            new PipelineSnapshot(configName, version.toString(),
+                                 PipelineSnapshot.hash(source),
+                                 System.currentTimeMillis(), nodes).write(output);
+            LogUtils.info(getClass(), String.format(
+                    "Compiled pipeline snapshot. [config=%s][path=%s]",
+                    configName, output.getAbsolutePath()));
+        } catch (URISyntaxException | IOException e) {
+            throw new ConfigurationException(e);
+        }
+    }
+
+    /**
+     * Resolve the pipeline definitions to compile, the pipelines are
+     * ordered with the referenced pipelines first.
+     *
+     * @param node - Pipelines element.
+     * @return - Resolved pipelines element.
+     * @throws ConfigurationException
+     */
+    private DefinitionNode compilePipelines(DefinitionNode node)
+    throws ConfigurationException {
+        List<PipelineNode> defs = new ArrayList<>();
+        for (DefinitionNode pnode : node.getChildren(CONFIG_NODE_PIPELINE)) {
+            defs.add(readDefinition(pnode));
+        }
+        DefinitionNode resolved = new DefinitionNode(node.getName());
+        try {
+            for (PipelineNode pn : resolve(defs)) {
+                if (isCompiled(pn)) {
+                    resolved.addChild(pn.source);
+                } else {
+                    LogUtils.info(getClass(), String.format(
+                            "Pipeline type(s) can't be loaded from a snapshot, loading from configuration. [pipeline=%s]",
+                            pn.def.name));
+                    resolved.addChild(new DefinitionNode(CONFIG_NODE_PIPELINE)
+                                              .setAttribute(CONFIG_ATTR_NAME,
+                                                            pn.def.name)
+                                              .setAttribute(SNAPSHOT_ATTR_SOURCE,
+                                                            SNAPSHOT_SOURCE_CONFIG));
+                }
+            }
+        } catch (ClassNotFoundException e) {
+            throw new ConfigurationException(e);
+        }
+        return resolved;
+    }
+
+    /**
+     * Check if the pipeline, its processors and error handlers can be
+     * loaded from a snapshot.
+     *
+     * @param pn - Pipeline definitions.
+     * @return - Can be compiled?
+     * @throws ClassNotFoundException
+     * @throws ConfigurationException
+     */
+    private boolean isCompiled(PipelineNode pn)
+    throws ClassNotFoundException, ConfigurationException {
+        if (!isCompiled(pn.def.type)) {
+            return false;
+        }
+        for (ProcessorNode processor : pn.processors) {
+            if (Strings.isNullOrEmpty(processor.def.reference)
+                    && !isCompiled(processor.def.type)) {
+                return false;
+            }
+        }
+        DefinitionNode enode = pn.source.getChild(CONFIG_NODE_ERROR_PS);
+        if (enode != null) {
+            for (DefinitionNode handler : enode.getChildren(CONFIG_NODE_ERROR_P)) {
+                if (!isCompiled(handler.getAttribute(CONFIG_ATTR_ERROR_H_TYPE))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean isCompiled(String type)
+    throws ClassNotFoundException, ConfigurationException {
+        if (Strings.isNullOrEmpty(type)) {
+            throw new ConfigurationException("Type not specified.");
+        }
+        return SnapshotBinder.supports(resolveClass(type));
+    }
+
+    /**
+     * Check if any of the snapshot pipelines is loaded from the configuration.
+     *
+     * @param node - Pipelines element, NULL if not defined.
+     * @return - Configuration required?
+     */
+    private boolean isConfigured(DefinitionNode node) {
+        if (node != null) {
+            for (DefinitionNode pnode : node.getChildren(CONFIG_NODE_PIPELINE)) {
+                if (SNAPSHOT_SOURCE_CONFIG.equals(
+                        pnode.getAttribute(SNAPSHOT_ATTR_SOURCE))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Read the compiled snapshot, if it is current for the configuration.
+     *
+     * @param configName - Configuration Name.
+     * @param configUri  - Configuration URI.
+     * @param version    - Configuration Version.
+     * @return - Snapshot, NULL if not set or not current.
+     */
+    private PipelineSnapshot readSnapshot(String configName, String configUri,
+                                          Version version) {
+        if (snapshot == null || !snapshot.exists()) {
+            return null;
+        }
+        try {
+            PipelineSnapshot compiled = PipelineSnapshot.read(snapshot);
+            byte[] hash = PipelineSnapshot.hash(
+                    PipelineSnapshot.readSource(new URI(configUri)));
+            if (compiled.isCurrent(configName, version.toString(), hash)) {
+                LogUtils.debug(getClass(), String.format(
+                        "Loading pipeline snapshot. [config=%s][path=%s]",
+                        configName, snapshot.getAbsolutePath()));
+                return compiled;
+            }
+            LogUtils.info(getClass(), String.format(
+                    "Pipeline snapshot not current, loading configuration. [config=%s][path=%s]",
+                    configName, snapshot.getAbsolutePath()));
+        } catch (IOException | URISyntaxException | ConfigurationException e) {
+            LogUtils.warn(getClass(), String.format(
+                    "Error reading pipeline snapshot, loading configuration. [path=%s][error=%s]",
+                    snapshot.getAbsolutePath(), e.getLocalizedMessage()));
+        }
+        return null;
+    }
+
+    /**
+     * Get the phase timings of the last load.
+     *
+     * @return - Load timings, NULL if not loaded.
+     */
+    public LoadTimings getLoadTimings() {
+        return timings;
+    }
+
+    /**
+     * Register the monitoring MBeans for the loaded pipelines.
+     * <p>
+     * Note: Registration failures are logged and do not fail the load.
+     */
+    private void registerMBeans() {
+        Map<String, Pipeline<?>> pipelines = plan.pipelines;
+        for (String name : pipelines.keySet()) {
+            registerMBeans(name, pipelines.get(name));
+        }
+    }
+
+    /**
+     * Register the monitoring MBeans for a pipeline.
+     *
+     * @param name     - Pipeline name.
+     * @param pipeline - Pipeline instance.
+     */
+    private void registerMBeans(String name, Pipeline<?> pipeline) {
+        try {
+            PipelineMBeans.register(name, pipeline);
+        } catch (Exception ex) {
+            LogUtils.warn(getClass(), String.format(
+                    "Error registering MBeans. [pipeline=%s][error=%s]", name,
+                    ex.getLocalizedMessage()));
+        }
+    }
+
+    /**
+     * Get the scheduler for the configured pipeline schedules.
+     * <p>
+     * Note: The scheduler needs to be started by the caller.
+     *
+     * @return - Pipeline Scheduler, NULL if no schedules defined.
+     */
+    public PipelineScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Read the tracing settings and register the tracer.
+     *
+     * @param configuration - Configuration handle.
+     * @throws ConfigurationException
+     */
+    private void readTracing(Configuration configuration)
+    throws ConfigurationException {
+        AbstractConfigNode node =
+                configuration.find(String.format("*.%s", CONFIG_NODE_TRACING));
+        if (node == null) {
+            return;
+        }
+        if (!(node instanceof ConfigPathNode)) {
+            throw new ConfigurationException(
+                    String.format("Invalid Configuration Node: [path=%s][type=%s]",
+                                  node.getSearchPath(),
+                                  node.getClass().getCanonicalName()));
+        }
+        TracingDef def = ConfigurationAnnotationProcessor
+                .readConfigAnnotations(TracingDef.class, (ConfigPathNode) node);
+        if (def == null) {
+            throw new ConfigurationException(String.format(
+                    "Error reading tracing definition: [path=%s]",
+                    node.getSearchPath()));
+        }
+        setupTracing(def, node.getSearchPath());
+    }
+
+    /**
+     * Read the tracing settings from a compiled snapshot and register
+     * the tracer.
+     *
+     * @param node - Tracing element, NULL if not defined.
+     * @throws ConfigurationException
+     */
+    private void readTracing(DefinitionNode node) throws ConfigurationException {
+        if (node == null) {
+            return;
+        }
+        setupTracing(SnapshotBinder.bind(TracingDef.class, node), node.getName());
+    }
+
+    /**
+     * Create the tracer with the tracing settings (registered by
+     * registerTracing()).
+     *
+     * @param def  - Tracing definition.
+     * @param path - Definition path.
+     * @throws ConfigurationException
+     */
+    private void setupTracing(TracingDef def, String path)
+    throws ConfigurationException {
+        if (def.sampleRate < 0 || def.sampleRate > 1.0) {
+            throw new ConfigurationException(String.format(
+                    "Invalid sample rate: [path=%s][rate=%f]",
+                    path, def.sampleRate));
+        }
+        try {
+            Class<?> cls = resolveClass(def.tracer);
+            if (!Tracer.class.isAssignableFrom(cls)) {
+                throw new ConfigurationException(String.format(
+                        "Invalid tracer type: [type=%s]", def.tracer));
+            }
+            tracer = (Tracer) cls.getDeclaredConstructor().newInstance();
+            sampleRate = def.sampleRate;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            throw new ConfigurationException(e);
+        }
+    }
+
+    /**
+     * Register the configured tracer (global), once the pipelines
+     * have been loaded.
+     */
+    private void registerTracing() {
+        if (tracer == null) {
+            return;
+        }
+        Tracing.setSampleRate(sampleRate);
+        Tracing.setTracer(tracer);
+        LogUtils.info(getClass(), String.format(
+                "Tracing enabled. [tracer=%s][sampleRate=%f]",
+                tracer.getClass().getCanonicalName(), sampleRate));
+    }
+
+    /**
+     * Read the scheduler settings and the pipeline schedules.
+     *
+     * @param configuration - Configuration handle.
+     * @throws ConfigurationException
+     */
+    private void readScheduler(Configuration configuration)
+    throws ConfigurationException {
+        AbstractConfigNode node =
+                configuration.find(String.format("*.%s", CONFIG_NODE_SCHEDULER));
+        if (node == null) {
+            return;
+        }
+        if (!(node instanceof ConfigPathNode)) {
+            throw new ConfigurationException(
+                    String.format("Invalid Configuration Node: [path=%s][type=%s]",
+                                  node.getSearchPath(),
+                                  node.getClass().getCanonicalName()));
+        }
+        SchedulerDef def = ConfigurationAnnotationProcessor
+                .readConfigAnnotations(SchedulerDef.class, (ConfigPathNode) node);
+        if (def == null) {
+            throw new ConfigurationException(String.format(
+                    "Error reading scheduler definition: [path=%s]",
+                    node.getSearchPath()));
+        }
+        createScheduler(def);
+
+        AbstractConfigNode snode =
+                ((ConfigPathNode) node).getChildNode(CONFIG_NODE_SCHEDULES);
+        if (snode instanceof ConfigPathNode) {
+            AbstractConfigNode cnode =
+                    ((ConfigPathNode) snode).getChildNode(CONFIG_NODE_SCHEDULE);
+            if (cnode instanceof ConfigPathNode) {
+                readSchedule((ConfigPathNode) cnode);
+            }
+        } else if (snode instanceof ConfigListElementNode) {
+            List<ConfigElementNode> values =
+                    ((ConfigListElementNode) snode).getValues();
+            if (values != null && !values.isEmpty()) {
+                for (ConfigElementNode elem : values) {
+                    if (elem.getName().compareTo(CONFIG_NODE_SCHEDULE) == 0) {
+                        readSchedule((ConfigPathNode) elem);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Read the scheduler settings and the pipeline schedules from a
+     * compiled snapshot.
+     *
+     * @param node - Scheduler element, NULL if not defined.
+     * @throws ConfigurationException
+     */
+    private void readScheduler(DefinitionNode node) throws ConfigurationException {
+        if (node == null) {
+            return;
+        }
+        createScheduler(SnapshotBinder.bind(SchedulerDef.class, node));
+        DefinitionNode snode = node.getChild(CONFIG_NODE_SCHEDULES);
+        if (snode != null) {
+            for (DefinitionNode cnode : snode.getChildren(CONFIG_NODE_SCHEDULE)) {
+                addSchedule(SnapshotBinder.bind(ScheduleDef.class, cnode));
+            }
+        }
+    }
+
+    /**
+     * Create the scheduler with the scheduler settings.
+     *
+     * @param def - Scheduler definition.
+     * @throws ConfigurationException
+     */
+    private void createScheduler(SchedulerDef def) throws ConfigurationException {
+        HighWaterMarkStore store = null;
+        if (!Strings.isNullOrEmpty(def.stateDir)) {
+            try {
+                store = new HighWaterMarkStore(def.stateDir);
+            } catch (IOException e) {
+                throw new ConfigurationException(e);
+            }
+        }
+        scheduler = new PipelineScheduler(store, def.threads);
+    }
+
+    /**
+     * Parse a pipeline schedule and add it to the scheduler.
+     *
+     * @param node - Configuration node.
+     * @throws ConfigurationException
+     */
+    private void readSchedule(ConfigPathNode node) throws ConfigurationException {
+        ScheduleDef def = ConfigurationAnnotationProcessor
+                .readConfigAnnotations(ScheduleDef.class, node);
+        if (def == null) {
+            throw new ConfigurationException(String.format(
+                    "Error reading schedule definition: [path=%s]",
+                    node.getSearchPath()));
+        }
+        addSchedule(def);
+    }
+
+    /**
+     * Add a pipeline schedule to the scheduler.
+     *
+     * @param def - Schedule definition.
+     * @throws ConfigurationException
+     */
+    @SuppressWarnings("unchecked")
+    private void addSchedule(ScheduleDef def) throws ConfigurationException {
+        // Lazy pipelines are created when scheduled, the polling job
+        // needs the producer instance.
+        Pipeline<?> pipeline = findPipeline(def.pipeline);
+        if (!(pipeline instanceof CollectionDataProducer)) {
+            throw new ConfigurationException(String.format(
+                    "Scheduled pipeline not found or not a producer. [pipeline=%s]",
+                    def.pipeline));
+        }
+        try {
+            Schedule schedule;
+            if (def.interval > 0) {
+                schedule = new FixedRateSchedule(def.interval);
+            } else if (!Strings.isNullOrEmpty(def.cron)) {
+                schedule = new CronSchedule(def.cron);
+            } else {
+                throw new ConfigurationException(String.format(
+                        "Schedule interval or cron not specified. [pipeline=%s]",
+                        def.pipeline));
+            }
+            PollingJob<Object> job =
+                    new PollingJob<>(def.pipeline,
+                                     (CollectionDataProducer<Object>) pipeline,
+                                     schedule)
+                            .withQuery(def.query)
+                            .withJitter(def.jitter)
+                            .withTimeout(def.timeout);
+            if (!Strings.isNullOrEmpty(def.waterMark)) {
+                if (scheduler.getStore() == null) {
+                    throw new ConfigurationException(String.format(
+                            "Water mark specified without a state directory. [pipeline=%s]",
+                            def.pipeline));
+                }
+                Class<?> cls = resolveClass(def.waterMark);
+                job.withWaterMark((IWaterMarkProvider<Object>) cls
+                        .getDeclaredConstructor().newInstance());
+            }
+            scheduler.schedule(job);
+        } catch (ReflectiveOperationException | IllegalArgumentException e) {
+            throw new ConfigurationException(e);
+        }
+    }
+
+    /**
+     * Read and parse the pipeline definitions.
+     * <p>
+     * Loading is done in phases: the definitions are read and the
+     * reference graph resolved first, the pipelines are then built
+     * in parallel and finally wired in reference order (referenced
+     * pipelines first).
+     *
+     * @param configuration - Configuration handle.
+     * @param timings       - Load timings.
+     * @param loaded        - Pipeline definitions loaded (out).
+     * @throws ConfigurationException
+     */
+    private void readPipelines(Configuration configuration, LoadTimings timings,
+                               List<PipelineNode> loaded)
+    throws ConfigurationException {
+        List<ConfigPathNode> nodes = readPipelineNodes(configuration);
+        if (nodes == null) {
+            LogUtils.warn(getClass(),
+                          String.format("No pipelines found. [config=%s]",
+                                        configuration.getName()));
+            return;
+        }
+        loadPipelines(nodes, this::readDefinition, timings, loaded);
+    }
+
+    /**
+     * Get the pipeline configuration nodes.
+     *
+     * @param configuration - Configuration handle.
+     * @return - Pipeline nodes, NULL if no pipelines are defined.
+     * @throws ConfigurationException
+     */
+    private List<ConfigPathNode> readPipelineNodes(Configuration configuration)
+    throws ConfigurationException {
+        AbstractConfigNode node =
+                configuration.find(String.format("*.%s", CONFIG_NODE_PIPELINES));
+        if (node == null) {
+            return null;
+        }
+        if (!(node instanceof ConfigPathNode) &&
+                !(node instanceof ConfigListElementNode)) {
+            throw new ConfigurationException(
+                    String.format("Invalid Configuration Node: [path=%s][type=%s]",
+                                  node.getSearchPath(),
+                                  node.getClass().getCanonicalName()));
+        }
+        List<ConfigPathNode> nodes = new ArrayList<>();
+        if (node instanceof ConfigPathNode) {
+            AbstractConfigNode pnode =
+                    ((ConfigPathNode) node).getChildNode(CONFIG_NODE_PIPELINE);
+            if (pnode instanceof ConfigPathNode) {
+                nodes.add((ConfigPathNode) pnode);
+            } else {
+                throw new ConfigurationException(
+                        String.format(
+                                "Invalid Configuration Node: [path=%s][type=%s]",
+                                pnode.getSearchPath(),
+                                pnode.getClass().getCanonicalName()));
+            }
+        } else {
+            ConfigListElementNode nodeList = (ConfigListElementNode) node;
+            List<ConfigElementNode> values = nodeList.getValues();
+            if (values != null && !values.isEmpty()) {
+                for (ConfigElementNode elem : values) {
+                    if (elem.getName().compareTo(CONFIG_NODE_PIPELINE) == 0) {
+                        nodes.add((ConfigPathNode) elem);
+                    }
+                }
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * Read the pipeline definitions from a compiled snapshot, pipelines
+     * marked as not compiled are read from the configuration.
+     *
+     * @param node          - Pipelines element, NULL if not defined.
+     * @param configuration - Configuration handle, NULL if all the
+     *                      pipelines are compiled.
+     * @param timings       - Load timings.
+     * @param loaded        - Pipeline definitions loaded (out).
+     * @throws ConfigurationException
+     */
+    private void readPipelines(DefinitionNode node, Configuration configuration,
+                               LoadTimings timings, List<PipelineNode> loaded)
+    throws ConfigurationException {
+        if (node == null) {
+            LogUtils.warn(getClass(), "No pipelines found in snapshot.");
+            return;
+        }
+        Map<String, ConfigPathNode> configured = new HashMap<>();
+        if (configuration != null) {
+            List<ConfigPathNode> nodes = readPipelineNodes(configuration);
+            if (nodes != null) {
+                for (ConfigPathNode cnode : nodes) {
+                    ConfigAttributesNode attrs = cnode.attributes();
+                    ConfigValueNode vn = (attrs != null ?
+                            attrs.getValue(CONFIG_ATTR_NAME) : null);
+                    if (vn != null) {
+                        configured.put(vn.getValue(), cnode);
+                    }
+                }
+            }
+        }
+        loadPipelines(node.getChildren(CONFIG_NODE_PIPELINE), (pnode) -> {
+            if (!SNAPSHOT_SOURCE_CONFIG.equals(
+                    pnode.getAttribute(SNAPSHOT_ATTR_SOURCE))) {
+                return readDefinition(pnode);
+            }
+            String name = pnode.getAttribute(CONFIG_ATTR_NAME);
+            ConfigPathNode cnode = configured.get(name);
+            if (cnode == null) {
+                throw new ConfigurationException(String.format(
+                        "Snapshot pipeline not found in configuration. [name=%s]",
+                        name));
+            }
+            return readDefinition(cnode);
+        }, timings, loaded);
+    }
+
+    /**
+     * Load the pipelines: read the definitions, resolve the reference
+     * graph, build the pipelines and wire them.
+     *
+     * @param nodes   - Pipeline nodes.
+     * @param reader  - Definition reader.
+     * @param timings - Load timings.
+     * @param loaded  - Pipeline definitions loaded (out, disposed by the
+     *                caller if the load fails).
+     * @param <N>     - Node Type.
+     * @throws ConfigurationException
+     */
+    private <N> void loadPipelines(List<N> nodes, LoadTask<N, PipelineNode> reader,
+                                   LoadTimings timings, List<PipelineNode> loaded)
+    throws ConfigurationException {
+        int count = Math.min(threads, nodes.size());
+        timings.setThreads(Math.max(count, 1));
+        ExecutorService executor = null;
+        if (count > 1) {
+            AtomicInteger index = new AtomicInteger();
+            ThreadFactory factory = (r) -> {
+                Thread thread = new Thread(r, String.format("pipeline-loader-%d",
+                                                            index.incrementAndGet()));
+                thread.setDaemon(true);
+                return thread;
+            };
+            executor = Executors.newFixedThreadPool(count, factory);
+        }
+        try {
+            long start = System.nanoTime();
+            List<PipelineNode> defs = invoke(executor, nodes, reader);
+            start = timings.record(LoadTimings.PHASE_DEFINE, start);
+            Plan plan = this.plan;
+            for (PipelineNode pn : defs) {
+                pn.plan = plan;
+            }
+            List<PipelineNode> ordered = resolve(defs);
+            loaded.addAll(ordered);
+            List<PipelineNode> eager = new ArrayList<>(ordered.size());
+            for (PipelineNode pn : ordered) {
+                if (pn.def.lazy) {
+                    deferPipeline(pn);
+                } else {
+                    eager.add(pn);
+                }
+            }
+            start = timings.record(LoadTimings.PHASE_RESOLVE, start);
+            invoke(executor, eager, this::buildPipeline);
+            // Before any pipeline is wired (and its references inlined).
+            setLimiters(ordered);
+            start = timings.record(LoadTimings.PHASE_BUILD, start);
+            int deferred = ordered.size() - eager.size();
+            for (PipelineNode pn : eager) {
+                wirePipeline(pn);
+                for (ProcessorNode processor : pn.processors) {
+                    if (processor.processor instanceof ILazyProcessor) {
+                        deferred++;
+                    } else if (processor.processor != null) {
+                        timings.setProcessors(timings.getProcessors() + 1);
+                    }
+                }
+            }
+            timings.setPipelines(eager.size());
+            timings.setLazy(deferred);
+            timings.record(LoadTimings.PHASE_WIRE, start);
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Dispose the pipelines and processors built by a load that failed,
+     * and remove them from the plan.
+     *
+     * @param loaded - Pipeline definitions of the failed load.
+     */
+    private void discard(List<PipelineNode> loaded) {
+        if (loaded.isEmpty()) {
+            return;
+        }
+        for (PipelineNode pn : loaded) {
+            pn.plan.deferred.remove(pn.def.name);
+            // The referenced pipelines of this load are disposed as
+            // part of the list.
+            release(pn);
+        }
+        LogUtils.warn(getClass(), String.format(
+                "Load failed, disposed the pipelines built. [count=%d]",
+                loaded.size()));
+    }
+
+    /**
+     * Dispose a pipeline that failed to load and the processors built for
+     * it, and remove it from the plan. Referenced pipelines are detached
+     * first, they are not disposed with it.
+     *
+     * @param pn - Pipeline definitions.
+     */
+    private void release(PipelineNode pn) {
+        Processor<?> pipeline = pn.pipeline;
+        if (pipeline != null) {
+            pn.plan.pipelines.remove(pn.def.name, (Pipeline<?>) pipeline);
+        }
+        for (ProcessorNode pd : pn.processors) {
+            if (!Strings.isNullOrEmpty(pd.def.reference)) {
+                if (pipeline instanceof BasicPipeline<?>) {
+                    ((BasicPipeline<?>) pipeline).removeProcessor(pd.def.reference);
+                } else if (pipeline instanceof CollectionPipeline<?>) {
+                    ((CollectionPipeline<?>) pipeline).removeProcessor(pd.def.reference);
+                }
+            } else if (pd.processor != null) {
+                pd.processor.dispose();
+                pd.processor = null;
+            }
+        }
+        if (pipeline != null) {
+            pipeline.dispose();
+        }
+    }
+
+    /**
+     * Run the load task for each of the inputs, in parallel if an
+     * executor is passed.
+     *
+     * @param executor - Executor (NULL to run in the calling thread).
+     * @param inputs   - Task inputs.
+     * @param task     - Load task.
+     * @param <I>      - Input Type.
+     * @param <O>      - Output Type.
+     * @return - Task outputs (in input order).
+     * @throws ConfigurationException
+     */
+    private <I, O> List<O> invoke(ExecutorService executor, List<I> inputs,
+                                  LoadTask<I, O> task)
+    throws ConfigurationException {
+        List<O> outputs = new ArrayList<>(inputs.size());
+        if (executor == null) {
+            for (I input : inputs) {
+                outputs.add(task.run(input));
+            }
+            return outputs;
+        }
+        List<Future<O>> futures = new ArrayList<>(inputs.size());
+        for (I input : inputs) {
+            futures.add(executor.submit(() -> task.run(input)));
+        }
+        try {
+            for (Future<O> future : futures) {
+                outputs.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            // Let the other tasks complete, so that everything built is
+            // visible to the caller (and disposed).
+            await(futures);
+            Throwable cause = e.getCause();
+            if (cause instanceof ConfigurationException) {
+                throw (ConfigurationException) cause;
+            }
+            throw new ConfigurationException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConfigurationException(e);
+        } finally {
+            for (Future<O> future : futures) {
+                future.cancel(true);
+            }
+        }
+        return outputs;
+    }
+
+    /**
+     * Wait for the running tasks to complete, ignoring their results.
+     *
+     * @param futures - Task futures.
+     * @param <O>     - Output Type.
+     */
+    private <O> void await(List<Future<O>> futures) {
+        for (Future<O> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                // Already failed, only the first error is reported.
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Read the definitions of a pipeline and its processors.
+     *
+     * @param node - Pipeline configuration node.
+     * @return - Pipeline definitions.
+     * @throws ConfigurationException
+     */
+    private PipelineNode readDefinition(ConfigPathNode node)
+    throws ConfigurationException {
+        PipelineDef def = ConfigurationAnnotationProcessor
+                .readConfigAnnotations(PipelineDef.class, node);
+        if (def == null) {
+            throw new ConfigurationException(String.format(
+                    "Error reading pipeline definition: [path=%s][type=%s]",
+                    node.getSearchPath(),
+                    node.getClass().getCanonicalName()));
+        }
+        PipelineNode pn = new PipelineNode(def, node, null);
+        readProcessors(pn, node);
+        return pn;
+    }
+
+    /**
+     * Read the definitions of a pipeline and its processors from a
+     * compiled snapshot.
+     *
+     * @param node - Pipeline element.
+     * @return - Pipeline definitions.
+     * @throws ConfigurationException
+     */
+    private PipelineNode readDefinition(DefinitionNode node)
+    throws ConfigurationException {
+        PipelineNode pn = new PipelineNode(
+                SnapshotBinder.bind(PipelineDef.class, node), null, node);
+        DefinitionNode pnode = node.getChild(CONFIG_NODE_PROCESSORS);
+        if (pnode != null) {
+            for (DefinitionNode cnode : pnode.getChildren(CONFIG_NODE_PROCESSOR)) {
+                pn.processors.add(new ProcessorNode(
+                        SnapshotBinder.bind(ProcessorDef.class, cnode), null, cnode));
+            }
+        }
+        return pn;
+    }
+
+    /**
+     * Resolve the pipeline reference graph.
+     *
+     * @param defs - Pipeline definitions.
+     * @return - Pipeline definitions, referenced pipelines first.
+     * @throws ConfigurationException
+     */
+    private List<PipelineNode> resolve(List<PipelineNode> defs)
+    throws ConfigurationException {
+        Map<String, PipelineNode> index = new LinkedHashMap<>();
+        Plan plan = this.plan;
+        for (PipelineNode pn : defs) {
+            if (index.put(pn.def.name, pn) != null ||
+                    plan.pipelines.containsKey(pn.def.name) ||
+                    plan.deferred.containsKey(pn.def.name)) {
+                throw new ConfigurationException(String.format(
+                        "Duplicate pipeline name. [name=%s]", pn.def.name));
+            }
+        }
+        List<PipelineNode> ordered = new ArrayList<>(defs.size());
+        Set<String> visiting = new HashSet<>();
+        Set<String> visited = new HashSet<>();
+        for (PipelineNode pn : defs) {
+            resolve(pn, index, plan, visiting, visited, ordered);
+        }
+        return ordered;
+    }
+
+    /**
+     * Add the pipeline after the pipelines it references (depth first).
+     *
+     * @param pn       - Pipeline definitions.
+     * @param index    - Pipeline definitions by name.
+     * @param plan     - Loaded pipelines.
+     * @param visiting - Pipelines on the current reference path.
+     * @param visited  - Pipelines already added.
+     * @param ordered  - Ordered pipeline definitions.
+     * @throws ConfigurationException
+     */
+    private void resolve(PipelineNode pn, Map<String, PipelineNode> index,
+                         Plan plan, Set<String> visiting, Set<String> visited,
+                         List<PipelineNode> ordered)
+    throws ConfigurationException {
+        String name = pn.def.name;
+        if (visited.contains(name)) {
+            return;
+        }
+        visiting.add(name);
+        for (ProcessorNode processor : pn.processors) {
+            String reference = processor.def.reference;
+            if (Strings.isNullOrEmpty(reference) ||
+                    plan.pipelines.containsKey(reference) ||
+                    plan.deferred.containsKey(reference)) {
+                continue;
+            }
+            PipelineNode ref = index.get(reference);
+            if (ref == null) {
+                throw new ConfigurationException(
+                        String.format("No pipeline reference found. [name=%s]",
+                                      reference));
+            }
+            if (visiting.contains(reference)) {
+                throw new ConfigurationException(String.format(
+                        "Circular pipeline reference. [pipeline=%s][reference=%s]",
+                        name, reference));
             }
+            resolve(ref, index, plan, visiting, visited, ordered);
         }
+        visiting.remove(name);
+        visited.add(name);
+        ordered.add(pn);
     }
 
     /**
-     * Parse a pipeline definition from the node.
+     * Create the pipeline and its processors (excl. pipeline references).
      *
-     * @param def  - Pipeline Definition
-     * @param node - Configuration Node.
+     * @param pn - Pipeline definitions.
+     * @return - Pipeline definitions.
      * @throws ConfigurationException
      */
     @SuppressWarnings("unchecked")
-    private void readPipeline(PipelineDef def, ConfigPathNode node)
+    private PipelineNode buildPipeline(PipelineNode pn)
     throws ConfigurationException {
+        PipelineDef def = pn.def;
+        ConfigPathNode node = pn.node;
         try {
-            Class<?> cls = Class.forName(def.type);
-            Object obj = ConfigurationAnnotationProcessor
-                    .readConfigAnnotations(cls, node);
+            Class<?> cls = resolveClass(def.type);
+            Object obj = bind(cls, pn.node, pn.source);
             if (obj == null) {
                 throw new ConfigurationException(
                         "Annotation processor returned a NULL object");
@@ -218,31 +1736,265 @@ public class PipelineLoader {
             }
             Processor<?> pipeline = (Processor<?>) obj;
             pipeline.setName(def.name);
-            Class<?> eType = Class.forName(def.entityType);
+            // Set before the processors are built, disposed if the load fails.
+            pn.pipeline = pipeline;
+            Class<?> eType = resolveClass(def.entityType);
             if (pipeline instanceof BasicPipeline<?>) {
                 ((BasicProcessor) pipeline).setType(eType);
             } else if (pipeline instanceof CollectionPipeline<?>) {
                 ((CollectionPipeline) pipeline).setType(eType);
             }
-            readProcessors((Pipeline<?>) pipeline, node);
+            for (ProcessorNode processor : pn.processors) {
+                buildProcessor(processor, pn.plan);
+            }
+            if (def.outliers > 0) {
+                ((Pipeline<?>) pipeline).setOutlierRecorder(
+                        new OutlierRecorder(def.name, def.outliers,
+                                            def.outlierThreshold,
+                                            TimeUnit.MILLISECONDS));
+            } else if (def.outlierThreshold > 0) {
+                throw new ConfigurationException(String.format(
+                        "Outlier threshold requires outliers to be set. [pipeline=%s]",
+                        def.name));
+            }
+            if (def.cacheSize > 0) {
+                if (!(pipeline instanceof BasicPipeline<?>)) {
+                    throw new ConfigurationException(String.format(
+                            "Result cache is only supported by entity pipelines. [pipeline=%s]",
+                            def.name));
+                }
+                // Entities that aren't versioned are keyed by their content
+                // fingerprint.
+                ((BasicPipeline) pipeline).setResultCache(
+                        new ResultCache<>(def.cacheSize, def.cacheTtl,
+                                          TimeUnit.MILLISECONDS),
+                        new Fingerprinter<>(eType), cacheCopy(def, eType));
+            } else if (def.cacheTtl > 0 || !Strings.isNullOrEmpty(def.cacheCopy)) {
+                throw new ConfigurationException(String.format(
+                        "Cache TTL/copy requires cacheSize to be set. [pipeline=%s]",
+                        def.name));
+            }
+            if (!Strings.isNullOrEmpty(def.fingerprintStore)) {
+                if (!(pipeline instanceof CollectionDataProducer<?>)) {
+                    throw new ConfigurationException(String.format(
+                            "Fingerprint store is only supported by producer pipelines. [pipeline=%s]",
+                            def.name));
+                }
+                String[] fields = (Strings.isNullOrEmpty(def.fingerprintFields)
+                        ? new String[0] : def.fingerprintFields.split(","));
+                Fingerprinter<?> fingerprinter = new Fingerprinter<>(eType, fields);
+                try {
+                    ((CollectionDataProducer) pipeline).setIncremental(
+                            FingerprintStore.open(new File(def.fingerprintStore)),
+                            fingerprinter);
+                } catch (IOException e) {
+                    throw new ConfigurationException(e);
+                }
+            } else if (!Strings.isNullOrEmpty(def.fingerprintFields)) {
+                throw new ConfigurationException(String.format(
+                        "Fingerprint fields require fingerprintStore to be set. [pipeline=%s]",
+                        def.name));
+            }
 
-            AbstractConfigNode enode = node.getChildNode(CONFIG_NODE_ERROR_PS);
-            if (enode != null) {
-                if (enode instanceof ConfigPathNode) {
-                    readErrorHandlers((Pipeline<?>) pipeline,
-                                      enode);
+            if (pn.source != null) {
+                DefinitionNode enode = pn.source.getChild(CONFIG_NODE_ERROR_PS);
+                if (enode != null) {
+                    for (DefinitionNode handler :
+                            enode.getChildren(CONFIG_NODE_ERROR_P)) {
+                        readErrorHandler((Pipeline<?>) pipeline, handler);
+                    }
+                }
+            } else {
+                AbstractConfigNode enode = node.getChildNode(CONFIG_NODE_ERROR_PS);
+                if (enode != null) {
+                    if (enode instanceof ConfigPathNode) {
+                        readErrorHandlers((Pipeline<?>) pipeline,
+                                          enode);
+                    }
                 }
             }
-            pipelines.put(pipeline.name, (Pipeline<?>) pipeline);
-            LogUtils.info(getClass(),
-                          String.format("Added pipeline : [name=%s][type=%s]",
-                                        pipeline.name,
-                                        pipeline.getClass().getCanonicalName()));
+            return pn;
         } catch (ClassNotFoundException e) {
             throw new ConfigurationException(e);
         }
     }
 
+    /**
+     * Create the copy function of the cached results.
+     *
+     * @param def   - Pipeline definition.
+     * @param eType - Entity type.
+     * @return - Copy function, NULL if the results are shared.
+     * @throws ConfigurationException
+     */
+    @SuppressWarnings("unchecked")
+    private UnaryOperator<Object> cacheCopy(PipelineDef def, Class<?> eType)
+    throws ConfigurationException {
+        if (Strings.isNullOrEmpty(def.cacheCopy)) {
+            throw new ConfigurationException(String.format(
+                    "Result cache requires cacheCopy to be set. [pipeline=%s]",
+                    def.name));
+        }
+        if (CACHE_COPY_SHARED.equals(def.cacheCopy)) {
+            return null;
+        }
+        try {
+            if (CACHE_COPY_CLONE.equals(def.cacheCopy)) {
+                if (!Cloneable.class.isAssignableFrom(eType)) {
+                    throw new ConfigurationException(String.format(
+                            "Entity type isn't cloneable. [pipeline=%s][type=%s]",
+                            def.name, eType.getCanonicalName()));
+                }
+                Method clone = eType.getMethod("clone");
+                return (entity) -> {
+                    try {
+                        return clone.invoke(entity);
+                    } catch (ReflectiveOperationException e) {
+                        throw new IllegalStateException(e);
+                    }
+                };
+            }
+            Class<?> cls = resolveClass(def.cacheCopy);
+            if (!UnaryOperator.class.isAssignableFrom(cls)) {
+                throw new ConfigurationException(String.format(
+                        "Invalid cache copy type: [pipeline=%s][type=%s]",
+                        def.name, def.cacheCopy));
+            }
+            return (UnaryOperator<Object>) cls.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            throw new ConfigurationException(e);
+        }
+    }
+
+    /**
+     * Set the concurrency limits defined on pipeline references (incl.
+     * the references of lazy pipelines) on the referenced pipelines.
+     * <p>
+     * Set before the pipelines are wired, a limited pipeline is never
+     * inlined into a referencing pipeline. The limit applies to the
+     * referenced pipeline (shared by all the references), references
+     * setting different limits on the same pipeline are rejected.
+     *
+     * @param ordered - Pipeline definitions (built, or deferred if lazy).
+     * @throws ConfigurationException - Conflicting limits.
+     */
+    private void setLimiters(List<PipelineNode> ordered)
+    throws ConfigurationException {
+        Map<String, ProcessorDef> limits = new HashMap<>();
+        Map<String, Processor<?>> built = new HashMap<>();
+        for (PipelineNode pn : ordered) {
+            if (pn.pipeline != null) {
+                built.put(pn.def.name, pn.pipeline);
+            }
+        }
+        for (PipelineNode pn : ordered) {
+            for (ProcessorNode pd : pn.processors) {
+                ProcessorDef def = pd.def;
+                if (Strings.isNullOrEmpty(def.reference) || def.maxConcurrent <= 0) {
+                    continue;
+                }
+                Processor<?> processor = built.get(def.reference);
+                if (processor == null) {
+                    processor = reference(def.reference, pn.plan);
+                }
+                if (processor == null) {
+                    // Reported when the pipeline is wired.
+                    continue;
+                }
+                ProcessorDef limit = limits.get(def.reference);
+                if (limit != null) {
+                    if (!sameLimits(limit, def)) {
+                        throw new ConfigurationException(String.format(
+                                "Conflicting concurrency limits on pipeline reference. [name=%s][pipeline=%s]",
+                                def.reference, pn.def.name));
+                    }
+                    continue;
+                }
+                limits.put(def.reference, def);
+                LogUtils.warn(getClass(), String.format(
+                        "Concurrency limit set on shared pipeline reference. [name=%s]",
+                        def.reference));
+                try {
+                    processor.setLimiter(ConcurrencyLimiter
+                                                 .create(def.limiter,
+                                                         def.maxConcurrent,
+                                                         def.maxQueued,
+                                                         def.queueTimeout));
+                } catch (IllegalArgumentException e) {
+                    throw new ConfigurationException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Check if two references set the same concurrency limits.
+     *
+     * @param def   - Reference definition.
+     * @param other - Reference definition.
+     * @return - Same limits?
+     */
+    private static boolean sameLimits(ProcessorDef def, ProcessorDef other) {
+        return def.maxConcurrent == other.maxConcurrent
+                && def.maxQueued == other.maxQueued
+                && def.queueTimeout == other.queueTimeout
+                && Objects.equals(def.limiter, other.limiter);
+    }
+
+    /**
+     * Add the processors (and referenced pipelines) to the pipeline and
+     * register the pipeline with this loader.
+     *
+     * @param pn - Pipeline definitions.
+     * @throws ConfigurationException
+     */
+    @SuppressWarnings("unchecked")
+    private void wirePipeline(PipelineNode pn) throws ConfigurationException {
+        Processor<?> pipeline = pn.pipeline;
+        try {
+            for (ProcessorNode pd : pn.processors) {
+                ProcessorDef def = pd.def;
+                Processor<?> processor = pd.processor;
+                if (processor == null) {
+                    processor = reference(def.reference, pn.plan);
+                    if (processor == null) {
+                        throw new ConfigurationException(
+                                String.format("No pipeline reference found. [name=%s]",
+                                              def.reference));
+                    }
+                }
+                if (pipeline instanceof BasicPipeline<?>) {
+                    ((BasicPipeline<?>) pipeline)
+                            .addProcessor((BasicProcessor<?>) processor,
+                                          def.condition);
+                } else if (pipeline instanceof CollectionPipeline<?>) {
+                    ((CollectionPipeline) pipeline)
+                            .addProcessor((CollectionProcessor<?>) processor,
+                                          def.condition);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            throw new ConfigurationException(e);
+        }
+        if (inline && pipeline instanceof BasicPipeline<?>) {
+            int count = ((BasicPipeline<?>) pipeline).inline();
+            if (count > 0) {
+                LogUtils.debug(getClass(), String.format(
+                        "Inlined pipeline references. [name=%s][count=%d]",
+                        pipeline.name, count));
+            }
+        }
+        pn.plan.pipelines.put(pipeline.name, (Pipeline<?>) pipeline);
+        LogUtils.info(getClass(),
+                      String.format("Added pipeline : [name=%s][type=%s]",
+                                    pipeline.name,
+                                    pipeline.getClass().getCanonicalName()));
+        LogUtils.debug(getClass(), String.format(
+                "Pipeline plan : [name=%s]\n%s", pipeline.name,
+                PipelineExplainer.format(PipelineExplainer.explain(
+                        (Pipeline<?>) pipeline, false))));
+    }
+
     /**
      * Read all the exception handlers specified in the configuration for
      * a pipeline.
@@ -303,7 +2055,7 @@ public class PipelineLoader {
                                     CONFIG_ATTR_ERROR_H_TYPE));
                 }
                 String type = vn.getValue();
-                Class<?> cls = Class.forName(type);
+                Class<?> cls = resolveClass(type);
                 Object ep = ConfigurationAnnotationProcessor
                         .readConfigAnnotations(cls, (ConfigPathNode) node);
                 if (pipeline instanceof BasicPipeline<?>) {
@@ -337,13 +2089,75 @@ public class PipelineLoader {
     }
 
     /**
-     * Read and parse the processor definitions for the pipeline.
+     * Read an exception handler from a compiled snapshot.
      *
      * @param pipeline - Parent Pipeline.
+     * @param node     - Error handler element.
+     * @throws ConfigurationException
+     */
+    private void readErrorHandler(Pipeline<?> pipeline, DefinitionNode node)
+    throws ConfigurationException {
+        String type = node.getAttribute(CONFIG_ATTR_ERROR_H_TYPE);
+        if (Strings.isNullOrEmpty(type)) {
+            throw new ConfigurationException(
+                    String.format(
+                            "Required Attribute not found. [element=%s][attribute=%s]",
+                            node.getName(), CONFIG_ATTR_ERROR_H_TYPE));
+        }
+        try {
+            Object ep = SnapshotBinder.bind(resolveClass(type), node);
+            if (pipeline instanceof BasicPipeline<?>) {
+                if (ep instanceof ExceptionProcessor<?>) {
+                    ExceptionProcessor<?> processor = (ExceptionProcessor<?>) ep;
+                    processor.setType(pipeline.getType());
+                    ((BasicPipeline<?>) pipeline).addErrorHandler(processor);
+                    LogUtils.debug(getClass(), String.format(
+                            "Added exception processor. [type=%s]", type));
+                } else {
+                    throw new ConfigurationException(String.format(
+                            "Invalid Exception Processor: [type=%s]", type));
+                }
+            }
+        } catch (ClassNotFoundException e) {
+            throw new ConfigurationException(e);
+        }
+    }
+
+    /**
+     * Create an instance of the type and bind the configuration, from
+     * the snapshot element if loaded from a snapshot.
+     *
+     * @param type   - Type to create.
+     * @param node   - Configuration node.
+     * @param source - Snapshot element.
+     * @return - Configured instance.
+     * @throws ConfigurationException
+     */
+    @SuppressWarnings("unchecked")
+    private Object bind(Class<?> type, ConfigPathNode node, DefinitionNode source)
+    throws ConfigurationException {
+        if (source != null) {
+            return SnapshotBinder.bind(type, source);
+        }
+        FactoryRegistry registry = FactoryRegistry.get();
+        Class<Object> cls = (Class<Object>) type;
+        if (registry.getBinder(cls) != null) {
+            // Generated binders are only created for types that don't
+            // read the configuration node in an init method.
+            return ConfigurationAnnotationProcessor
+                    .readConfigAnnotations(cls, node, registry.getFactory(cls).create());
+        }
+        return ConfigurationAnnotationProcessor.readConfigAnnotations(type, node);
+    }
+
+    /**
+     * Read the processor definitions for the pipeline.
+     *
+     * @param pipeline - Parent Pipeline definitions.
      * @param node     - Configuration node.
      * @throws ConfigurationException
      */
-    private void readProcessors(Pipeline<?> pipeline, ConfigPathNode node)
+    private void readProcessors(PipelineNode pipeline, ConfigPathNode node)
     throws ConfigurationException {
         AbstractConfigNode pnode =
                 node.find(String.format("*.%s", CONFIG_NODE_PROCESSORS));
@@ -373,7 +2187,7 @@ public class PipelineLoader {
                             node.getSearchPath(),
                             node.getClass().getCanonicalName()));
                 }
-                readProcessor(pipeline, def, (ConfigPathNode) cnode);
+                pipeline.processors.add(new ProcessorNode(def, (ConfigPathNode) cnode, null));
             } else {
                 throw new ConfigurationException(
                         String.format(
@@ -396,7 +2210,7 @@ public class PipelineLoader {
                                     node.getSearchPath(),
                                     node.getClass().getCanonicalName()));
                         }
-                        readProcessor(pipeline, def, (ConfigPathNode) elem);
+                        pipeline.processors.add(new ProcessorNode(def, (ConfigPathNode) elem, null));
                     }
                 }
             }
@@ -404,73 +2218,408 @@ public class PipelineLoader {
     }
 
     /**
-     * Parse the processor definition and add it to the parent pipeline.
+     * Create the processor from the processor definition, lazy processors
+     * are created on first execution. Pipeline references are resolved
+     * when the pipeline is wired.
      *
-     * @param pipeline - Parent Pipeline.
-     * @param def      - Processor Definition.
-     * @param node     - Configuration node.
+     * @param pn   - Processor definition.
+     * @param plan - Plan the pipeline is loaded into.
      * @throws ConfigurationException
      */
-    @SuppressWarnings("unchecked")
-    private void readProcessor(Pipeline<?> pipeline, ProcessorDef def,
-                               ConfigPathNode node) throws ConfigurationException {
-        Processor<?> processor = null;
+    private void buildProcessor(ProcessorNode pn, Plan plan)
+    throws ConfigurationException {
+        ProcessorDef def = pn.def;
+        if (!Strings.isNullOrEmpty(def.reference)) {
+            return;
+        }
+        Processor<?> processor;
+        LazyInstance.IFactory<Processor<?>> factory = processorFactory(pn);
+        if (def.lazy) {
+            processor = lazyProcessor(def.name, def.type, def.entityType,
+                                      factory);
+            plan.lazy.add(((ILazyProcessor) processor).getTarget());
+        } else {
+            processor = factory.create();
+        }
+        if (def.maxConcurrent > 0) {
+            try {
+                processor.setLimiter(ConcurrencyLimiter
+                                             .create(def.limiter,
+                                                     def.maxConcurrent,
+                                                     def.maxQueued,
+                                                     def.queueTimeout));
+            } catch (IllegalArgumentException e) {
+                throw new ConfigurationException(e);
+            }
+        }
+        pn.processor = processor;
+    }
+
+    /**
+     * Get the factory for the processor, processors declared as not
+     * thread-safe (Pooled) are created as a pool of instances.
+     *
+     * @param pn - Processor definition.
+     * @return - Processor factory.
+     * @throws ConfigurationException
+     */
+    private LazyInstance.IFactory<Processor<?>> processorFactory(ProcessorNode pn)
+    throws ConfigurationException {
         try {
-            if (!Strings.isNullOrEmpty(def.reference)) {
-                Pipeline<?> ref = getPipeline(def.reference);
-                if (ref == null) {
-                    throw new ConfigurationException(
-                            String.format("No pipeline reference found. [name=%s]",
-                                          def.reference));
-                }
-                processor = (Processor<?>) ref;
-            } else {
-                Class<?> cls = Class.forName(def.type);
-                Object obj = ConfigurationAnnotationProcessor
-                        .readConfigAnnotations(cls, node);
-                if (obj == null) {
-                    throw new ConfigurationException(
-                            "Annotation processor returned a NULL object");
-                }
-                if (!(obj instanceof Processor<?>)) {
-                    throw new ConfigurationException(
-                            String.format("Invalid Pipeline Type: [type=%s]",
-                                          obj.getClass().getCanonicalName()));
-                }
-                processor = (Processor<?>) obj;
-                processor.setName(def.name);
-                Class<?> eType = Class.forName(def.entityType);
-                if (processor instanceof BasicProcessor<?>) {
-                    ((BasicProcessor) processor).setType(eType);
-                } else if (processor instanceof CollectionProcessor<?>) {
-                    ((CollectionPipeline) processor).setType(eType);
+            Pooled pooled = resolveClass(pn.def.type).getAnnotation(Pooled.class);
+            if (pooled != null) {
+                return () -> pooledProcessor(pn, pooled);
+            }
+            return () -> createProcessor(pn);
+        } catch (ClassNotFoundException e) {
+            throw new ConfigurationException(e);
+        }
+    }
+
+    /**
+     * Create the pool of instances for a processor that is not
+     * thread-safe, each instance is created from the processor configuration.
+     *
+     * @param pn     - Processor definition.
+     * @param pooled - Pool settings.
+     * @return - Processor handle.
+     * @throws ConfigurationException
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Processor<?> pooledProcessor(ProcessorNode pn, Pooled pooled)
+    throws ConfigurationException {
+        ProcessorDef def = pn.def;
+        int size = (def.poolSize > 0 ? def.poolSize : pooled.size());
+        if (size <= 0) {
+            size = Runtime.getRuntime().availableProcessors();
+        }
+        try {
+            InstancePool pool = new InstancePool(def.name, size, pooled.timeout(),
+                                                 () -> createProcessor(pn));
+            if (pooled.prestart()) {
+                try {
+                    pool.prestart();
+                } catch (ConfigurationException e) {
+                    pool.dispose();
+                    throw e;
                 }
             }
+            Object prototype = pool.getPrototype();
+            if (prototype instanceof CollectionProcessor<?>) {
+                return new PooledCollectionProcessor(pool);
+            } else if (prototype instanceof BasicProcessor<?>) {
+                return new PooledBasicProcessor(pool);
+            }
+            pool.dispose();
+            throw new ConfigurationException(
+                    String.format("Invalid Processor Type: [type=%s]", def.type));
+        } catch (IllegalArgumentException e) {
+            throw new ConfigurationException(e);
+        }
+    }
 
-            if (pipeline instanceof BasicPipeline<?>) {
-                ((BasicPipeline<?>) pipeline)
-                        .addProcessor((BasicProcessor<?>) processor,
-                                      def.condition);
-            } else if (pipeline instanceof CollectionPipeline<?>) {
-                ((CollectionPipeline) pipeline)
-                        .addProcessor((CollectionProcessor<?>) processor,
-                                      def.condition);
+    /**
+     * Create and configure the processor instance.
+     *
+     * @param pn - Processor definition.
+     * @return - Processor instance.
+     * @throws ConfigurationException
+     */
+    @SuppressWarnings("unchecked")
+    private Processor<?> createProcessor(ProcessorNode pn)
+    throws ConfigurationException {
+        ProcessorDef def = pn.def;
+        try {
+            Class<?> cls = resolveClass(def.type);
+            Object obj = bind(cls, pn.node, pn.source);
+            if (obj == null) {
+                throw new ConfigurationException(
+                        "Annotation processor returned a NULL object");
+            }
+            if (!(obj instanceof Processor<?>)) {
+                throw new ConfigurationException(
+                        String.format("Invalid Pipeline Type: [type=%s]",
+                                      obj.getClass().getCanonicalName()));
+            }
+            Processor<?> processor = (Processor<?>) obj;
+            processor.setName(def.name);
+            Class<?> eType = resolveClass(def.entityType);
+            if (processor instanceof BasicProcessor<?>) {
+                ((BasicProcessor) processor).setType(eType);
+            } else if (processor instanceof CollectionProcessor<?>) {
+                ((CollectionProcessor) processor).setType(eType);
+            }
+            return processor;
+        } catch (ClassNotFoundException | IllegalArgumentException e) {
+            throw new ConfigurationException(e);
+        }
+    }
+
+    /**
+     * Create the handle for a lazy processor (or pipeline). Only the
+     * class is resolved, the processor is created by the factory on
+     * first use.
+     *
+     * @param name       - Processor name.
+     * @param type       - Processor class (Canonical class name).
+     * @param entityType - Entity Type (Canonical class name).
+     * @param factory    - Processor factory.
+     * @return - Processor handle.
+     * @throws ConfigurationException
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Processor<?> lazyProcessor(String name, String type, String entityType,
+                                       LazyInstance.IFactory<Processor<?>> factory)
+    throws ConfigurationException {
+        try {
+            Class<?> cls = resolveClass(type);
+            Class<?> eType = resolveClass(entityType);
+            if (CollectionProcessor.class.isAssignableFrom(cls)) {
+                LazyCollectionProcessor processor =
+                        new LazyCollectionProcessor(name, cls,
+                                                    (LazyInstance.IFactory) factory);
+                processor.setType(eType);
+                return processor;
+            } else if (BasicProcessor.class.isAssignableFrom(cls)) {
+                LazyBasicProcessor processor =
+                        new LazyBasicProcessor(name, cls,
+                                               (LazyInstance.IFactory) factory);
+                processor.setType(eType);
+                return processor;
             }
+            throw new ConfigurationException(
+                    String.format("Invalid Processor Type: [type=%s]", type));
         } catch (ClassNotFoundException e) {
             throw new ConfigurationException(e);
         }
     }
 
     /**
-     * Get an instance of a pipeline.
+     * Register the handle for a lazy pipeline, the pipeline is built
+     * and wired on first use.
+     *
+     * @param pn - Pipeline definitions.
+     * @throws ConfigurationException
+     */
+    private void deferPipeline(PipelineNode pn) throws ConfigurationException {
+        Processor<?> handle = lazyProcessor(pn.def.name, pn.def.type,
+                                            pn.def.entityType,
+                                            () -> createPipeline(pn));
+        pn.plan.deferred.put(pn.def.name, handle);
+        LogUtils.info(getClass(),
+                      String.format("Deferred pipeline : [name=%s][type=%s]",
+                                    pn.def.name, pn.def.type));
+    }
+
+    /**
+     * Build and wire a lazy pipeline.
+     *
+     * @param pn - Pipeline definitions.
+     * @return - Pipeline instance.
+     * @throws ConfigurationException
+     */
+    private Processor<?> createPipeline(PipelineNode pn)
+    throws ConfigurationException {
+        try {
+            buildPipeline(pn);
+            wirePipeline(pn);
+        } catch (ConfigurationException | RuntimeException e) {
+            // The handle creates a new instance on the next use.
+            release(pn);
+            pn.pipeline = null;
+            throw e;
+        }
+        if (!pn.plan.retired) {
+            registerMBeans(pn.def.name, (Pipeline<?>) pn.pipeline);
+        }
+        return pn.pipeline;
+    }
+
+    /**
+     * Get the processor for a pipeline reference, the handle if the
+     * pipeline is lazy and not created yet.
+     *
+     * @param name - Pipeline name.
+     * @param plan - Plan the pipeline is loaded into.
+     * @return - Pipeline (or handle), NULL if not found.
+     */
+    private Processor<?> reference(String name, Plan plan) {
+        Pipeline<?> pipeline = plan.pipelines.get(name);
+        if (pipeline != null) {
+            return (Processor<?>) pipeline;
+        }
+        return plan.deferred.get(name);
+    }
+
+    /**
+     * Get a pipeline, creating it if lazy.
+     *
+     * @param name - Pipeline name.
+     * @return - Pipeline instance, NULL if not found.
+     * @throws ConfigurationException - Error creating the pipeline.
+     */
+    private Pipeline<?> findPipeline(String name) throws ConfigurationException {
+        Plan plan = this.plan;
+        Pipeline<?> pipeline = plan.pipelines.get(name);
+        if (pipeline == null) {
+            Processor<?> handle = plan.deferred.get(name);
+            if (handle != null) {
+                pipeline = (Pipeline<?>) ((ILazyProcessor) handle).getTarget().get();
+            }
+        }
+        return pipeline;
+    }
+
+    /**
+     * Create all the lazy pipelines and processors (warm-up).
+     *
+     * @throws ConfigurationException - Error creating a pipeline/processor.
+     */
+    public void preload() throws ConfigurationException {
+        long start = System.nanoTime();
+        int count = 0;
+        Plan plan = this.plan;
+        for (Processor<?> handle : plan.deferred.values()) {
+            count += preload(((ILazyProcessor) handle).getTarget());
+        }
+        // Processors of the pipelines created above are included.
+        for (LazyInstance<?> instance : plan.lazy) {
+            count += preload(instance);
+        }
+        LogUtils.info(getClass(), String.format(
+                "Preloaded lazy pipelines/processors. [count=%d][time=%.3fms]",
+                count, LoadTimings.millis(System.nanoTime() - start)));
+    }
+
+    /**
+     * Create the pipeline (if lazy), its lazy processors and the
+     * referenced pipelines.
+     *
+     * @param name - Pipeline name.
+     * @throws ConfigurationException - Pipeline not found or error
+     *                                creating a pipeline/processor.
+     */
+    public void preload(@Nonnull String name) throws ConfigurationException {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(name));
+        Pipeline<?> pipeline = findPipeline(name);
+        if (pipeline == null) {
+            throw new ConfigurationException(
+                    String.format("Pipeline not found. [name=%s]", name));
+        }
+        preload(pipeline);
+    }
+
+    private void preload(Pipeline<?> pipeline) throws ConfigurationException {
+        for (Processor<?> processor : pipeline.getProcessors()) {
+            Object target = processor;
+            if (processor instanceof ILazyProcessor) {
+                target = ((ILazyProcessor) processor).getTarget().get();
+            }
+            if (target instanceof Pipeline<?>) {
+                preload((Pipeline<?>) target);
+            }
+        }
+    }
+
+    private int preload(LazyInstance<?> instance) throws ConfigurationException {
+        if (instance.isCreated()) {
+            return 0;
+        }
+        instance.get();
+        return 1;
+    }
+
+    /**
+     * Resolve a class by name, from the generated factory registry if
+     * registered. Resolved classes are cached by this loader, across loads.
+     *
+     * @param name - Canonical class name.
+     * @return - Class instance.
+     * @throws ClassNotFoundException
+     */
+    private Class<?> resolveClass(String name)
+    throws ClassNotFoundException {
+        Class<?> cls = FactoryRegistry.get().getType(name);
+        if (cls != null) {
+            return cls;
+        }
+        cls = classes.get(name);
+        if (cls == null) {
+            cls = Class.forName(name);
+            Class<?> current = classes.putIfAbsent(name, cls);
+            if (current != null) {
+                cls = current;
+            }
+        }
+        return cls;
+    }
+
+    /**
+     * Get the processor execution metrics of all the loaded pipelines.
+     *
+     * @return - Map of pipeline name to processor metrics.
+     */
+    public Map<String, Map<String, ProcessorMetricsSnapshot>> getMetrics() {
+        Map<String, Map<String, ProcessorMetricsSnapshot>> metrics =
+                new LinkedHashMap<>();
+        Map<String, Pipeline<?>> pipelines = plan.pipelines;
+        for (String name : pipelines.keySet()) {
+            metrics.put(name, pipelines.get(name).getProcessorMetrics());
+        }
+        return metrics;
+    }
+
+    /**
+     * Describe the resolved execution plan of a pipeline.
+     *
+     * @param name  - Pipeline name.
+     * @param stats - Include the observed runtime stats?
+     * @return - Formatted plan, NULL if pipeline not found.
+     */
+    public String explain(@Nonnull String name, boolean stats) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(name));
+        Pipeline<?> pipeline = plan.pipelines.get(name);
+        if (pipeline == null) {
+            return null;
+        }
+        return PipelineExplainer.format(PipelineExplainer.explain(pipeline, stats));
+    }
+
+    /**
+     * Log the recorded slowest executions of the loaded pipelines.
+     *
+     * @return - Map of pipeline name to recorded executions (slowest first).
+     */
+    public Map<String, List<OutlierRecord>> dumpOutliers() {
+        Map<String, List<OutlierRecord>> outliers = new LinkedHashMap<>();
+        Map<String, Pipeline<?>> pipelines = plan.pipelines;
+        for (String name : pipelines.keySet()) {
+            OutlierRecorder recorder = pipelines.get(name).getOutlierRecorder();
+            if (recorder != null) {
+                outliers.put(name, recorder.dump());
+            }
+        }
+        return outliers;
+    }
+
+    /**
+     * Get an instance of a pipeline, lazy pipelines are created on
+     * first call.
      *
      * @param name - Pipeline name.
      * @param <T>  - Entity Type.
-     * @return - Pipeline instance.
+     * @return - Pipeline instance, NULL if not found or creation failed.
      */
     @SuppressWarnings("unchecked")
     public <T> Pipeline<T> getPipeline(String name) {
-        return (Pipeline<T>) pipelines.get(name);
+        try {
+            return (Pipeline<T>) findPipeline(name);
+        } catch (ConfigurationException e) {
+            LogUtils.error(getClass(), String.format(
+                    "Error creating lazy pipeline. [name=%s][error=%s]", name,
+                    e.getLocalizedMessage()));
+            return null;
+        }
     }
 
     /**
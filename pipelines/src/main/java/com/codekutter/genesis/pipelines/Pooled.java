@@ -0,0 +1,45 @@
+package com.codekutter.genesis.pipelines;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declare a processor as not thread-safe (keeps per-call state).
+ * <p>
+ * The loader creates a bounded pool of instances of the processor, each
+ * initialized from the processor configuration, and every execution
+ * leases an instance from the pool. The pool size can be overridden by
+ * the poolSize attribute of the processor definition.
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Pooled {
+    /**
+     * Max number of instances (0 = number of available CPUs).
+     *
+     * @return - Pool size.
+     */
+    int size() default 0;
+
+    /**
+     * Max time (in milliseconds) an execution waits for an instance
+     * (bounded by the context deadline).
+     *
+     * @return - Lease timeout.
+     */
+    long timeout() default InstancePool.DEFAULT_TIMEOUT;
+
+    /**
+     * Create all the instances when the processor is loaded, instead of on
+     * demand by the executions that find all the instances leased.
+     *
+     * @return - Create instances upfront?
+     */
+    boolean prestart() default false;
+}
@@ -0,0 +1,120 @@
+package com.codekutter.genesis.pipelines;
+
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.model.nodes.AbstractConfigNode;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Entity processor handle for processors that are not thread-safe
+ * (see Pooled), each execution leases an instance from the pool.
+ * <p>
+ * Conditions, limits and metrics are handled by this handle, the state is
+ * read from the first instance of the pool.
+ *
+ * @param <T> - Entity type.
+ */
+public class PooledBasicProcessor<T> extends BasicProcessor<T>
+        implements IPooledProcessor {
+    private final InstancePool<BasicProcessor<T>> pool;
+
+    /**
+     * Constructor with the instance pool.
+     *
+     * @param pool - Processor instance pool.
+     */
+    public PooledBasicProcessor(@Nonnull InstancePool<BasicProcessor<T>> pool) {
+        Preconditions.checkArgument(pool != null);
+        this.pool = pool;
+        this.name = pool.getName();
+        setType(pool.getPrototype().getType());
+    }
+
+    /**
+     * Get the pool of processor instances.
+     *
+     * @return - Instance pool.
+     */
+    @Override
+    public InstancePool<BasicProcessor<T>> getPool() {
+        return pool;
+    }
+
+    /**
+     * Get the state of the processor (first instance), Disposing/Disposed
+     * once this handle is being disposed.
+     *
+     * @return - Processor State.
+     */
+    @Override
+    public EProcessState getState() {
+        EProcessState current = state.getState();
+        if (current == EProcessState.Disposing ||
+                current == EProcessState.Disposed) {
+            return current;
+        }
+        return pool.getPrototype().getState();
+    }
+
+    /**
+     * Check if the processor is available.
+     *
+     * @throws ProcessorException - Will throw exception if processor is not available.
+     */
+    @Override
+    protected void isAvailable() throws ProcessorException {
+        EProcessState current = getState();
+        if (current != EProcessState.Available) {
+            throw new ProcessorException(
+                    String.format("Processor is not available. [actual=%s]",
+                                  current.name()));
+        }
+    }
+
+    /**
+     * Dispose the pooled instances.
+     */
+    @Override
+    public void dispose() {
+        pool.dispose();
+        super.dispose();
+    }
+
+    /**
+     * Nothing to initialize, the instances are configured when they
+     * are created.
+     *
+     * @param node - Configuration Node.
+     * @throws ConfigurationException
+     */
+    @Override
+    public void init(AbstractConfigNode node) throws ConfigurationException {
+        // Nothing to be done.
+    }
+
+    /**
+     * Execute on an instance leased from the pool.
+     *
+     * @param data     - Entity Object.
+     * @param context  - Context Handle
+     * @param response - Processor Response.
+     * @return - Processor Response.
+     */
+    @Override
+    protected ProcessorResponse<T> execute(@Nonnull T data, Context context,
+                                           @Nonnull ProcessorResponse<T> response) {
+        BasicProcessor<T> processor;
+        try {
+            processor = pool.lease(context);
+        } catch (ProcessorException e) {
+            response.setError(EProcessorResponse.UnhandledError, e);
+            return response;
+        }
+        try {
+            return processor.execute(data, context, response);
+        } finally {
+            pool.release(processor);
+        }
+    }
+}
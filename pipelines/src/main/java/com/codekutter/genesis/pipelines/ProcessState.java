@@ -2,10 +2,84 @@ package com.codekutter.genesis.pipelines;
 
 import com.codekutter.zconfig.common.AbstractState;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 /**
  * State handle for storing the state/exceptions, for the process instance.
+ * <p>
+ * The state is held in an atomic reference, so state changes (dispose)
+ * are visible to the executing threads without locking.
  */
 public class ProcessState extends AbstractState<EProcessState> {
+    private final AtomicReference<EProcessState> current = new AtomicReference<>();
+    private volatile Throwable cause;
+
+    /**
+     * Get the current state.
+     *
+     * @return - Process State.
+     */
+    @Override
+    public EProcessState getState() {
+        return current.get();
+    }
+
+    /**
+     * Set the current state.
+     *
+     * @param state - Process State.
+     * @return - Self.
+     */
+    @Override
+    public ProcessState setState(EProcessState state) {
+        current.set(state);
+        return this;
+    }
+
+    /**
+     * Set the state to the update state, if the current state is the expected state.
+     *
+     * @param expect - Expected State.
+     * @param update - State to set.
+     * @return - State updated?
+     */
+    public boolean compareAndSet(EProcessState expect, EProcessState update) {
+        return current.compareAndSet(expect, update);
+    }
+
+    /**
+     * Set the exception handle and move to the error state.
+     *
+     * @param error - Exception handle.
+     * @return - Self.
+     */
+    @Override
+    public ProcessState setError(Throwable error) {
+        cause = error;
+        current.set(EProcessState.Error);
+        return this;
+    }
+
+    /**
+     * Get the exception handle, if in error state.
+     *
+     * @return - Exception handle, null if state is not error.
+     */
+    @Override
+    public Throwable getError() {
+        return (hasError() ? cause : null);
+    }
+
+    /**
+     * Check if the state is in Error State.
+     *
+     * @return - In error state?
+     */
+    @Override
+    public boolean hasError() {
+        return (current.get() == EProcessState.Error);
+    }
+
     public boolean isAvailable() {
         return (getState() == EProcessState.Available);
     }
@@ -17,6 +91,4 @@ public class ProcessState extends AbstractState<EProcessState> {
     public boolean isDisposed() {
         return (getState() == EProcessState.Disposed);
     }
-
-
 }
@@ -1,11 +1,19 @@
 package com.codekutter.genesis.pipelines;
 
+import com.codekutter.genesis.pipelines.limits.ConcurrencyLimiter;
+import com.codekutter.genesis.pipelines.limits.LimitExceededException;
+import com.codekutter.genesis.pipelines.metrics.ProcessorMetrics;
+import com.codekutter.genesis.pipelines.metrics.ProcessorMetricsSnapshot;
 import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.LogUtils;
 import com.codekutter.zconfig.common.model.annotations.ConfigAttribute;
 import com.codekutter.zconfig.common.model.nodes.AbstractConfigNode;
 import com.google.common.base.Preconditions;
 
 import javax.annotation.Nonnull;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Abstract base class for defining processors.
@@ -13,6 +21,9 @@ import javax.annotation.Nonnull;
  * @param <T> - Entity type this processor handles.
  */
 public abstract class Processor<T> {
+    private static final long DRAIN_WAIT_MIN = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long DRAIN_WAIT_MAX = TimeUnit.MILLISECONDS.toNanos(50);
+
     /**
      * State of this processor instance.
      */
@@ -24,6 +35,28 @@ public abstract class Processor<T> {
     @ConfigAttribute(name = "name", required = true)
     protected String name;
 
+    /**
+     * Concurrency limiter (bulkhead) for this processor, NULL if unlimited.
+     */
+    protected ConcurrencyLimiter limiter;
+
+    /**
+     * Execution metrics of this processor.
+     */
+    protected final ProcessorMetrics metrics = new ProcessorMetrics();
+
+    /**
+     * Executions currently running through this processor.
+     */
+    protected final LongAdder inFlight = new LongAdder();
+
+    /**
+     * Processor replacing this one (set when the pipelines are reloaded),
+     * executions started once this processor stops accepting executions
+     * are forwarded to it.
+     */
+    protected volatile Processor<T> successor;
+
     /**
      * Get the name of this processor.
      *
@@ -42,6 +75,49 @@ public abstract class Processor<T> {
         this.name = name;
     }
 
+    /**
+     * Get the concurrency limiter for this processor.
+     *
+     * @return - Concurrency Limiter, NULL if unlimited.
+     */
+    public ConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+
+    /**
+     * Set the concurrency limiter for this processor.
+     *
+     * @param limiter - Concurrency Limiter.
+     */
+    public void setLimiter(ConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    /**
+     * Get a snapshot of the execution metrics of this processor.
+     *
+     * @return - Metrics Snapshot.
+     */
+    public ProcessorMetricsSnapshot getMetrics() {
+        return metrics.getSnapshot(name);
+    }
+
+    /**
+     * Reset the execution metrics of this processor.
+     */
+    public void resetMetrics() {
+        metrics.reset();
+    }
+
+    /**
+     * Get the number of executions currently running through this processor.
+     *
+     * @return - In-flight executions.
+     */
+    public long getInFlight() {
+        return inFlight.sum();
+    }
+
     /**
      * Get the state of this processor.
      *
@@ -80,6 +156,18 @@ public abstract class Processor<T> {
         }
     }
 
+    /**
+     * Create the exception for an execution rejected by the concurrency limiter.
+     *
+     * @param limiter - Concurrency Limiter.
+     * @return - Limit Exceeded Exception.
+     */
+    protected LimitExceededException limitExceeded(ConcurrencyLimiter limiter) {
+        return new LimitExceededException(
+                String.format("Concurrency limit exceeded. [processor=%s][limit=%d][queued=%d]",
+                              name, limiter.getLimit(), limiter.getQueued()));
+    }
+
     /**
      * Dispose this process instance.
      */
@@ -89,6 +177,81 @@ public abstract class Processor<T> {
         }
     }
 
+    /**
+     * Stop accepting executions, wait for the running executions to
+     * complete and dispose this process instance.
+     * <p>
+     * The instance is disposed once the timeout expires, even if
+     * executions are still running.
+     *
+     * @param timeout - Max time to wait for the running executions (in milliseconds).
+     * @return - All executions completed?
+     */
+    public boolean dispose(long timeout) {
+        Preconditions.checkArgument(timeout >= 0);
+        if (!stop()) {
+            return true;
+        }
+        boolean drained = drain(timeout);
+        if (!drained) {
+            LogUtils.warn(getClass(), String.format(
+                    "Drain timeout, disposing processor. [name=%s][in-flight=%d]",
+                    name, getInFlight()));
+        }
+        dispose();
+        return drained;
+    }
+
+    /**
+     * Stop accepting executions (move to Disposing), executions already
+     * running are not affected.
+     *
+     * @return - Stopped, FALSE if already disposed.
+     */
+    protected boolean stop() {
+        while (true) {
+            EProcessState current = state.getState();
+            if (current == EProcessState.Disposed) {
+                return false;
+            }
+            if (current == EProcessState.Disposing ||
+                    current == EProcessState.Error ||
+                    state.compareAndSet(current, EProcessState.Disposing)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Set the processor replacing this one, executions started after this
+     * processor stopped accepting executions are forwarded to it.
+     *
+     * @param successor - Replacing processor.
+     */
+    void setSuccessor(Processor<T> successor) {
+        this.successor = successor;
+    }
+
+    /**
+     * Wait for the running executions to complete.
+     *
+     * @param timeout - Max time to wait (in milliseconds).
+     * @return - All executions completed?
+     */
+    protected boolean drain(long timeout) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        long wait = DRAIN_WAIT_MIN;
+        while (getInFlight() > 0) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+            LockSupport.parkNanos(Math.min(wait, remaining));
+            wait = Math.min(wait * 2, DRAIN_WAIT_MAX);
+        }
+        return true;
+    }
+
     /**
      * Method to initialize the processor from the configuration.
      *
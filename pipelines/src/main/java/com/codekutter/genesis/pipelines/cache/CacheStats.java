@@ -0,0 +1,46 @@
+package com.codekutter.genesis.pipelines.cache;
+
+import lombok.Data;
+import lombok.ToString;
+
+/**
+ * Snapshot of the counters of a result cache.
+ */
+@Data
+@ToString
+public class CacheStats {
+    /**
+     * Lookups that returned a cached result.
+     */
+    private long hits;
+    /**
+     * Lookups that didn't find a (valid) cached result.
+     */
+    private long misses;
+    /**
+     * Entries evicted by the size/weight bound.
+     */
+    private long evictions;
+    /**
+     * Entries removed once the TTL expired.
+     */
+    private long expirations;
+    /**
+     * Cached entries.
+     */
+    private long size;
+    /**
+     * Total weight of the cached entries.
+     */
+    private long weight;
+
+    /**
+     * Get the ratio of lookups that returned a cached result.
+     *
+     * @return - Hit rate (0 - 1).
+     */
+    public double getHitRate() {
+        long requests = hits + misses;
+        return (requests > 0 ? (double) hits / requests : 0);
+    }
+}
@@ -0,0 +1,107 @@
+package com.codekutter.genesis.pipelines.cache;
+
+/**
+ * Count-Min sketch of 4-bit counters, estimating the access frequency of
+ * the cache keys (TinyLFU admission).
+ * <p>
+ * Each key maps to a counter in 4 rows, the estimate is the minimum of the
+ * counters. Once the number of increments reaches the sample size all the
+ * counters are halved, so the frequencies age over time.
+ * <p>
+ * Note: Not thread-safe, access is guarded by the cache eviction lock.
+ */
+class FrequencySketch {
+    private static final long[] SEED = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L,
+            0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long ONE_MASK = 0x1111111111111111L;
+    private static final int MAX_CAPACITY = 1 << 24;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int size;
+
+    /**
+     * Constructor with the expected number of keys.
+     *
+     * @param maximum - Max number of cached keys.
+     */
+    FrequencySketch(long maximum) {
+        int capacity = (int) Math.min(Math.max(maximum, 16), MAX_CAPACITY);
+        capacity = Integer.highestOneBit(capacity - 1) << 1;
+        table = new long[capacity];
+        tableMask = capacity - 1;
+        sampleSize = 10 * capacity;
+    }
+
+    /**
+     * Get the estimated access frequency of the key (0 - 15).
+     *
+     * @param key - Cache key.
+     * @return - Estimated frequency.
+     */
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        int frequency = Integer.MAX_VALUE;
+        for (int ii = 0; ii < 4; ii++) {
+            int index = indexOf(hash, ii);
+            int count = (int) ((table[index] >>> ((start + ii) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Increment the access frequency of the key.
+     *
+     * @param key - Cache key.
+     */
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int ii = 0; ii < 4; ii++) {
+            added |= incrementAt(indexOf(hash, ii), start + ii);
+        }
+        if (added && ++size >= sampleSize) {
+            reset();
+        }
+    }
+
+    private boolean incrementAt(int index, int counter) {
+        int offset = counter << 2;
+        long mask = (0xfL << offset);
+        if ((table[index] & mask) != mask) {
+            table[index] += (1L << offset);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Halve all the counters.
+     */
+    private void reset() {
+        int odd = 0;
+        for (int ii = 0; ii < table.length; ii++) {
+            odd += Long.bitCount(table[ii] & ONE_MASK);
+            table[ii] = (table[ii] >>> 1) & RESET_MASK;
+        }
+        size = (size >>> 1) - (odd >>> 2);
+    }
+
+    private int indexOf(int hash, int row) {
+        long h = (hash + SEED[row]) * SEED[row];
+        h += (h >>> 32);
+        return ((int) h) & tableMask;
+    }
+
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+}
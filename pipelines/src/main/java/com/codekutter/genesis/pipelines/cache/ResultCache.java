@@ -0,0 +1,402 @@
+package com.codekutter.genesis.pipelines.cache;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded cache with W-TinyLFU eviction and expiry after write.
+ * <p>
+ * New entries are added to a small LRU window (1% of the max weight),
+ * entries leaving the window are admitted to the main segmented LRU
+ * (probation/protected) only if their estimated access frequency is higher
+ * than the frequency of the probation victim. This keeps frequently used
+ * entries cached when scans of one-off entries pass through.
+ * <p>
+ * Lookups are lock free, the access order is updated only if the eviction
+ * lock is free (the reordering is skipped under contention).
+ *
+ * @param <K> - Key Type.
+ * @param <V> - Value Type.
+ */
+public class ResultCache<K, V> {
+    /**
+     * Weight of a cached value.
+     *
+     * @param <V> - Value Type.
+     */
+    @FunctionalInterface
+    public interface IWeigher<V> {
+        int weigh(V value);
+    }
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    private static final class Node<K, V> {
+        private final K key;
+        private volatile V value;
+        private volatile long written;
+        private int weight;
+        private int queue;
+        /**
+         * Entry moved from the window, not yet compared to a victim.
+         */
+        private boolean candidate;
+        private Node<K, V> prev;
+        private Node<K, V> next;
+
+        private Node(K key, V value, int weight, long written) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.written = written;
+        }
+    }
+
+    /**
+     * Access ordered queue (LRU first).
+     */
+    private static final class AccessQueue<K, V> {
+        private Node<K, V> first;
+        private Node<K, V> last;
+        private long weight;
+
+        private void add(Node<K, V> node) {
+            node.prev = last;
+            node.next = null;
+            if (last == null) {
+                first = node;
+            } else {
+                last.next = node;
+            }
+            last = node;
+            weight += node.weight;
+        }
+
+        private void remove(Node<K, V> node) {
+            if (node.prev == null) {
+                first = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                last = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            weight -= node.weight;
+        }
+
+        private void moveToBack(Node<K, V> node) {
+            if (node != last) {
+                remove(node);
+                add(node);
+            }
+        }
+    }
+
+    private final ConcurrentHashMap<K, Node<K, V>> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AccessQueue<K, V> window = new AccessQueue<>();
+    private final AccessQueue<K, V> probation = new AccessQueue<>();
+    private final AccessQueue<K, V> protect = new AccessQueue<>();
+    private final FrequencySketch sketch;
+    private final IWeigher<? super V> weigher;
+    private final long maxWeight;
+    private final long windowMax;
+    private final long protectedMax;
+    private final long ttl;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * Constructor with the max number of entries and the TTL.
+     *
+     * @param maxSize - Max number of entries.
+     * @param ttl     - Time to live after write (0 = no expiry).
+     * @param unit    - TTL unit.
+     */
+    public ResultCache(long maxSize, long ttl, @Nonnull TimeUnit unit) {
+        this(maxSize, null, ttl, unit);
+    }
+
+    /**
+     * Constructor with the max weight, the weigher and the TTL.
+     *
+     * @param maxWeight - Max total weight of the entries.
+     * @param weigher   - Entry weigher (NULL = weight 1 per entry).
+     * @param ttl       - Time to live after write (0 = no expiry).
+     * @param unit      - TTL unit.
+     */
+    public ResultCache(long maxWeight, IWeigher<? super V> weigher, long ttl,
+                       @Nonnull TimeUnit unit) {
+        Preconditions.checkArgument(maxWeight > 0);
+        Preconditions.checkArgument(ttl >= 0);
+        Preconditions.checkArgument(unit != null);
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.ttl = unit.toNanos(ttl);
+        this.windowMax = Math.max(1, maxWeight / 100);
+        this.protectedMax = (maxWeight - windowMax) * 80 / 100;
+        this.sketch = new FrequencySketch(maxWeight);
+    }
+
+    /**
+     * Get the cached value for the key.
+     *
+     * @param key - Cache key.
+     * @return - Cached value, NULL if not cached or expired.
+     */
+    public V get(@Nonnull K key) {
+        Preconditions.checkArgument(key != null);
+        Node<K, V> node = entries.get(key);
+        if (node == null) {
+            misses.increment();
+            return null;
+        }
+        if (isExpired(node, System.nanoTime())) {
+            misses.increment();
+            lock.lock();
+            try {
+                if (entries.get(key) == node && isExpired(node, System.nanoTime())) {
+                    remove(node);
+                    expirations.increment();
+                }
+            } finally {
+                lock.unlock();
+            }
+            return null;
+        }
+        V value = node.value;
+        hits.increment();
+        if (lock.tryLock()) {
+            try {
+                if (entries.get(key) == node) {
+                    sketch.increment(key);
+                    onAccess(node);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Add/replace the cached value for the key. Values heavier than the
+     * max weight are not cached.
+     *
+     * @param key   - Cache key.
+     * @param value - Value to cache.
+     */
+    public void put(@Nonnull K key, @Nonnull V value) {
+        Preconditions.checkArgument(key != null);
+        Preconditions.checkArgument(value != null);
+        int weight = (weigher != null ? weigher.weigh(value) : 1);
+        Preconditions.checkArgument(weight >= 0);
+        if (weight > maxWeight) {
+            return;
+        }
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            sketch.increment(key);
+            Node<K, V> node = entries.get(key);
+            if (node != null) {
+                AccessQueue<K, V> queue = queueOf(node);
+                queue.remove(node);
+                node.value = value;
+                node.written = now;
+                node.weight = weight;
+                queue.add(node);
+            } else {
+                node = new Node<>(key, value, weight, now);
+                node.queue = WINDOW;
+                window.add(node);
+                entries.put(key, node);
+            }
+            evict();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove the cached value for the key.
+     *
+     * @param key - Cache key.
+     */
+    public void invalidate(@Nonnull K key) {
+        Preconditions.checkArgument(key != null);
+        lock.lock();
+        try {
+            Node<K, V> node = entries.get(key);
+            if (node != null) {
+                remove(node);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove all the cached values.
+     */
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            for (Node<K, V> node : entries.values()) {
+                remove(node);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of cached entries.
+     *
+     * @return - Entry count.
+     */
+    public long size() {
+        return entries.size();
+    }
+
+    /**
+     * Get the max total weight of the entries.
+     *
+     * @return - Max weight.
+     */
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * Get the time to live of the entries.
+     *
+     * @param unit - Time unit.
+     * @return - TTL (0 = no expiry).
+     */
+    public long getTtl(@Nonnull TimeUnit unit) {
+        return unit.convert(ttl, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get a snapshot of the cache counters.
+     *
+     * @return - Cache Stats.
+     */
+    public CacheStats getStats() {
+        CacheStats stats = new CacheStats();
+        stats.setHits(hits.sum());
+        stats.setMisses(misses.sum());
+        stats.setEvictions(evictions.sum());
+        stats.setExpirations(expirations.sum());
+        stats.setSize(entries.size());
+        lock.lock();
+        try {
+            stats.setWeight(window.weight + probation.weight + protect.weight);
+        } finally {
+            lock.unlock();
+        }
+        return stats;
+    }
+
+    /**
+     * Reset the hit/miss/eviction counters.
+     */
+    public void resetStats() {
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+        expirations.reset();
+    }
+
+    private boolean isExpired(Node<K, V> node, long now) {
+        return (ttl > 0 && now - node.written >= ttl);
+    }
+
+    private AccessQueue<K, V> queueOf(Node<K, V> node) {
+        if (node.queue == WINDOW) {
+            return window;
+        } else if (node.queue == PROBATION) {
+            return probation;
+        }
+        return protect;
+    }
+
+    private void remove(Node<K, V> node) {
+        queueOf(node).remove(node);
+        entries.remove(node.key, node);
+    }
+
+    /**
+     * Update the access order, entries accessed in probation are promoted
+     * to the protected segment.
+     *
+     * @param node - Accessed entry.
+     */
+    private void onAccess(Node<K, V> node) {
+        if (node.queue == PROBATION) {
+            probation.remove(node);
+            node.queue = PROTECTED;
+            node.candidate = false;
+            protect.add(node);
+            while (protect.weight > protectedMax && protect.first != node) {
+                Node<K, V> demoted = protect.first;
+                protect.remove(demoted);
+                demoted.queue = PROBATION;
+                probation.add(demoted);
+            }
+        } else {
+            queueOf(node).moveToBack(node);
+        }
+    }
+
+    /**
+     * Move the entries over the window bound to probation and evict
+     * until the cache is within the max weight.
+     */
+    private void evict() {
+        while (window.weight > windowMax && window.first != null) {
+            Node<K, V> node = window.first;
+            window.remove(node);
+            node.queue = PROBATION;
+            node.candidate = true;
+            probation.add(node);
+        }
+        long now = System.nanoTime();
+        while (window.weight + probation.weight + protect.weight > maxWeight) {
+            Node<K, V> victim = probation.first;
+            if (victim == null) {
+                victim = (protect.first != null ? protect.first : window.first);
+            } else {
+                Node<K, V> candidate = probation.last;
+                if (candidate != victim && candidate.candidate &&
+                        !isExpired(victim, now)) {
+                    // TinyLFU admission - keep the more frequently used entry.
+                    candidate.candidate = false;
+                    if (sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+                        victim = candidate;
+                    }
+                }
+            }
+            if (isExpired(victim, now)) {
+                expirations.increment();
+            } else {
+                evictions.increment();
+            }
+            remove(victim);
+        }
+    }
+}
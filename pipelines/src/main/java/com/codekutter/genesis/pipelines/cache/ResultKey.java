@@ -0,0 +1,115 @@
+package com.codekutter.genesis.pipelines.cache;
+
+import com.codekutter.genesis.pipelines.incremental.Fingerprinter;
+import com.codekutter.genesis.pipelines.types.Entity;
+import com.codekutter.genesis.pipelines.types.IVersioned;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Result cache key - Entity key and version.
+ * <p>
+ * The version is read from versioned entities (IVersioned), or computed
+ * as the 64-bit content fingerprint of the entity (see Fingerprinter).
+ * The hash code of the entity is not used, a collision would return the
+ * result of a different entity state.
+ */
+public final class ResultKey {
+    private final Object key;
+    private final long version;
+
+    /**
+     * Constructor with the entity key and version.
+     *
+     * @param key     - Entity Key.
+     * @param version - Entity version/content hash.
+     */
+    public ResultKey(Object key, long version) {
+        this.key = key;
+        this.version = version;
+    }
+
+    /**
+     * Get the entity key.
+     *
+     * @return - Entity Key.
+     */
+    public Object getKey() {
+        return key;
+    }
+
+    /**
+     * Get the entity version/content hash.
+     *
+     * @return - Version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Get the cache key for the passed entity, only versioned entities
+     * (IVersioned) are cached.
+     *
+     * @param data - Entity Object.
+     * @return - Cache key, NULL if the entity isn't keyed or versioned.
+     */
+    public static ResultKey of(Object data) {
+        if (!(data instanceof IVersioned)) {
+            return null;
+        }
+        Object key = key(data);
+        if (key == null) {
+            return null;
+        }
+        return new ResultKey(key, ((IVersioned) data).getVersion());
+    }
+
+    /**
+     * Get the cache key for the passed entity, the version is the
+     * fingerprint of the entity (the version if IVersioned and the
+     * fingerprinter covers all the fields).
+     *
+     * @param data          - Entity Object.
+     * @param fingerprinter - Entity Fingerprinter.
+     * @param <T>           - Entity Type.
+     * @return - Cache key, NULL if the entity isn't keyed.
+     */
+    public static <T> ResultKey of(@Nonnull T data,
+                                   @Nonnull Fingerprinter<T> fingerprinter) {
+        Object key = key(data);
+        if (key == null) {
+            return null;
+        }
+        return new ResultKey(key, fingerprinter.fingerprint(data));
+    }
+
+    private static Object key(Object data) {
+        if (!(data instanceof Entity<?>)) {
+            return null;
+        }
+        return ((Entity<?>) data).getKey();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ResultKey)) {
+            return false;
+        }
+        ResultKey other = (ResultKey) o;
+        return version == other.version && key.equals(other.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * key.hashCode() + Long.hashCode(version);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[key=%s][version=%d]", key, version);
+    }
+}
@@ -0,0 +1,302 @@
+package com.codekutter.genesis.pipelines.explain;
+
+import com.codekutter.genesis.pipelines.BasicPipeline;
+import com.codekutter.genesis.pipelines.CollectionPipeline;
+import com.codekutter.genesis.pipelines.ExceptionProcessor;
+import com.codekutter.genesis.pipelines.Pipeline;
+import com.codekutter.genesis.pipelines.Processor;
+import com.codekutter.genesis.pipelines.limits.ConcurrencyLimiter;
+import com.codekutter.genesis.pipelines.metrics.HistogramSnapshot;
+import com.codekutter.genesis.pipelines.metrics.ProcessorMetricsSnapshot;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+
+import javax.annotation.Nonnull;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Utility class to describe the resolved execution plan of a pipeline.
+ * <p>
+ * The plan lists the stages in execution order, with nested pipeline
+ * references, stage conditions, limiters and exception handlers. If
+ * stats are included, the observed cost, share of the pipeline cost
+ * and condition selectivity are added from the processor metrics.
+ */
+public class PipelineExplainer {
+    public static final String MODE_ENTITY = "sequential (per entity)";
+    public static final String MODE_BATCH = "sequential (batch)";
+    /**
+     * Conditions are evaluated on an un-indexed collection of the
+     * input entities.
+     */
+    public static final String INDEX_NONE = "none (scan)";
+
+    private static final Pattern QUOTED = Pattern.compile("'([^']|'')*'");
+
+    private PipelineExplainer() {
+    }
+
+    /**
+     * Build the plan for the passed pipeline.
+     *
+     * @param pipeline - Pipeline instance.
+     * @param stats    - Include the observed runtime stats?
+     * @return - Plan root node.
+     */
+    public static PlanNode explain(@Nonnull Pipeline<?> pipeline, boolean stats) {
+        Preconditions.checkArgument(pipeline != null);
+        return explain(pipeline, stats,
+                       Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    /**
+     * Build the plan for the passed pipeline.
+     *
+     * @param pipeline - Pipeline instance.
+     * @param stats    - Include the observed runtime stats?
+     * @param visited  - Pipelines on the current path (to guard against cycles).
+     * @return - Plan node.
+     */
+    private static PlanNode explain(Pipeline<?> pipeline, boolean stats,
+                                    Set<Pipeline<?>> visited) {
+        PlanNode node = new PlanNode();
+        node.setName(((Processor<?>) pipeline).getName());
+        node.setType(pipeline.getClass().getSimpleName());
+        node.setPipeline(true);
+        Class<?> type = pipeline.getType();
+        node.setEntityType(type != null ? type.getSimpleName() : null);
+        if (pipeline instanceof CollectionPipeline<?>) {
+            node.setMode(MODE_BATCH);
+        } else if (pipeline instanceof BasicPipeline<?>) {
+            node.setMode(MODE_ENTITY);
+        }
+        node.setLimiter(describe(((Processor<?>) pipeline).getLimiter()));
+        for (ExceptionProcessor<?> handler : pipeline.getErrorHandlers()) {
+            if (Strings.isNullOrEmpty(handler.getCondition())) {
+                node.getErrorHandlers().add(handler.getClass().getSimpleName());
+            } else {
+                node.getErrorHandlers().add(
+                        String.format("%s [condition=%s]",
+                                      handler.getClass().getSimpleName(),
+                                      handler.getCondition()));
+            }
+        }
+        if (!visited.add(pipeline)) {
+            return node;
+        }
+        Set<String> fields = fields(type);
+        Map<String, ProcessorMetricsSnapshot> metrics =
+                (stats ? pipeline.getProcessorMetrics() : null);
+        int position = 1;
+        for (Processor<?> processor : pipeline.getProcessors()) {
+            PlanNode stage;
+            if (processor instanceof Pipeline<?>) {
+                stage = explain((Pipeline<?>) processor, stats, visited);
+                stage.setReference(true);
+            } else {
+                stage = new PlanNode();
+                stage.setName(processor.getName());
+                stage.setType(processor.getClass().getSimpleName());
+                stage.setEntityType(node.getEntityType());
+                stage.setLimiter(describe(processor.getLimiter()));
+            }
+            stage.setPosition(position++);
+            String condition = pipeline.getCondition(processor.getName());
+            if (!Strings.isNullOrEmpty(condition)) {
+                stage.setCondition(condition);
+                stage.setAttributes(attributes(condition, fields));
+                stage.setIndex(INDEX_NONE);
+            }
+            if (metrics != null) {
+                ProcessorMetricsSnapshot snapshot =
+                        metrics.get(processor.getName());
+                if (snapshot != null) {
+                    setStats(stage, snapshot);
+                }
+            }
+            node.getStages().add(stage);
+        }
+        visited.remove(pipeline);
+        if (stats) {
+            setShares(node);
+        }
+        return node;
+    }
+
+    /**
+     * Set the observed stats of a stage from the metrics snapshot.
+     *
+     * @param stage    - Stage node.
+     * @param snapshot - Processor metrics.
+     */
+    private static void setStats(PlanNode stage, ProcessorMetricsSnapshot snapshot) {
+        long calls = 0;
+        if (snapshot.getResponses() != null) {
+            for (Long count : snapshot.getResponses().values()) {
+                calls += count;
+            }
+        }
+        stage.setCalls(calls);
+        if (calls > 0) {
+            stage.setCost((total(snapshot.getCondition()) +
+                    total(snapshot.getProcess())) / calls);
+        }
+        stage.setCpuTime(snapshot.getCpuTimeMean());
+        stage.setAllocated(snapshot.getAllocatedMean());
+        stage.setSelectivity(snapshot.getSelectivity());
+    }
+
+    /**
+     * Set the share of the pipeline cost for the stages.
+     *
+     * @param node - Pipeline node.
+     */
+    private static void setShares(PlanNode node) {
+        double sum = 0;
+        for (PlanNode stage : node.getStages()) {
+            if (stage.getCost() > 0) {
+                sum += stage.getCost() * stage.getCalls();
+            }
+        }
+        if (sum <= 0) {
+            return;
+        }
+        for (PlanNode stage : node.getStages()) {
+            if (stage.getCost() > 0) {
+                stage.setCostShare(stage.getCost() * stage.getCalls() / sum);
+            }
+        }
+    }
+
+    private static double total(HistogramSnapshot snapshot) {
+        if (snapshot == null) {
+            return 0;
+        }
+        return snapshot.getMean() * snapshot.getCount();
+    }
+
+    private static String describe(ConcurrencyLimiter limiter) {
+        if (limiter == null) {
+            return null;
+        }
+        return String.format("%s [limit=%d]", limiter.getClass().getSimpleName(),
+                             limiter.getLimit());
+    }
+
+    /**
+     * Get the field names of the entity type (including super classes).
+     *
+     * @param type - Entity type.
+     * @return - Set of field names.
+     */
+    private static Set<String> fields(Class<?> type) {
+        Set<String> fields = new LinkedHashSet<>();
+        Class<?> cls = type;
+        while (cls != null && cls != Object.class) {
+            for (Field field : cls.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    fields.add(field.getName());
+                }
+            }
+            cls = cls.getSuperclass();
+        }
+        return fields;
+    }
+
+    /**
+     * Get the entity attributes referenced by the condition.
+     *
+     * @param condition - Condition string.
+     * @param fields    - Entity field names.
+     * @return - List of referenced attributes.
+     */
+    private static List<String> attributes(String condition, Set<String> fields) {
+        String text = QUOTED.matcher(condition).replaceAll(" ");
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : text.split("[^A-Za-z0-9_$]+")) {
+            if (fields.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    /**
+     * Format the plan as an indented text tree.
+     *
+     * @param plan - Plan root node.
+     * @return - Formatted plan.
+     */
+    public static String format(@Nonnull PlanNode plan) {
+        Preconditions.checkArgument(plan != null);
+        StringBuilder buffer = new StringBuilder();
+        format(plan, "", buffer);
+        return buffer.toString();
+    }
+
+    private static void format(PlanNode node, String indent, StringBuilder buffer) {
+        buffer.append(indent);
+        if (node.getPosition() > 0) {
+            buffer.append(node.getPosition()).append(". ");
+        }
+        buffer.append(node.getName()).append(" [").append(node.getType());
+        if (node.getEntityType() != null) {
+            buffer.append("<").append(node.getEntityType()).append(">");
+        }
+        buffer.append("]");
+        if (node.isReference()) {
+            buffer.append(" (reference)");
+        }
+        if (node.getCalls() >= 0) {
+            buffer.append(String.format(" calls=%d", node.getCalls()));
+        }
+        if (node.getCost() >= 0) {
+            buffer.append(String.format(" cost=%.1fus", node.getCost() / 1000));
+        }
+        if (node.getCostShare() >= 0) {
+            buffer.append(String.format(" share=%.1f%%", node.getCostShare() * 100));
+        }
+        if (node.getCpuTime() >= 0) {
+            buffer.append(String.format(" cpu=%.1fus", node.getCpuTime() / 1000));
+        }
+        if (node.getAllocated() >= 0) {
+            buffer.append(String.format(" alloc=%.0fB", node.getAllocated()));
+        }
+        buffer.append("\n");
+        String detail = indent + "     ";
+        if (node.getMode() != null) {
+            buffer.append(detail).append("mode: ").append(node.getMode())
+                  .append("\n");
+        }
+        if (node.getCondition() != null) {
+            buffer.append(detail).append("condition: ").append(node.getCondition())
+                  .append(" attributes=").append(node.getAttributes())
+                  .append(" index=").append(node.getIndex());
+            if (node.getSelectivity() >= 0) {
+                buffer.append(String.format(" selectivity=%.3f",
+                                            node.getSelectivity()));
+            }
+            buffer.append("\n");
+        }
+        if (node.getLimiter() != null) {
+            buffer.append(detail).append("limiter: ").append(node.getLimiter())
+                  .append("\n");
+        }
+        for (PlanNode stage : node.getStages()) {
+            format(stage, detail, buffer);
+        }
+        for (String handler : node.getErrorHandlers()) {
+            buffer.append(detail).append("on error: ").append(handler)
+                  .append("\n");
+        }
+    }
+}
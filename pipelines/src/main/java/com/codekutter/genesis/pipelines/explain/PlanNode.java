@@ -0,0 +1,92 @@
+package com.codekutter.genesis.pipelines.explain;
+
+import lombok.Data;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Node of a resolved pipeline plan (a pipeline or a processor stage).
+ */
+@Data
+@ToString
+public class PlanNode {
+    /**
+     * Stage position within the parent pipeline (0 for the root).
+     */
+    private int position;
+    /**
+     * Pipeline/Processor name.
+     */
+    private String name;
+    /**
+     * Processor class (simple name).
+     */
+    private String type;
+    /**
+     * Entity type (simple name).
+     */
+    private String entityType;
+    /**
+     * Is this node a pipeline?
+     */
+    private boolean pipeline = false;
+    /**
+     * Is this node a reference to another pipeline?
+     */
+    private boolean reference = false;
+    /**
+     * Execution mode of the pipeline stages.
+     */
+    private String mode;
+    /**
+     * Condition for executing this stage.
+     */
+    private String condition;
+    /**
+     * Entity attributes referenced by the condition.
+     */
+    private List<String> attributes;
+    /**
+     * Index used to evaluate the condition.
+     */
+    private String index;
+    /**
+     * Concurrency limiter description.
+     */
+    private String limiter;
+    /**
+     * Exception handlers (type and condition).
+     */
+    private List<String> errorHandlers = new ArrayList<>();
+    /**
+     * Nested stages (for pipelines).
+     */
+    private List<PlanNode> stages = new ArrayList<>();
+    /**
+     * Observed executions (-1 if no stats).
+     */
+    private long calls = -1;
+    /**
+     * Observed mean cost per execution (in nanoseconds), including
+     * condition evaluation.
+     */
+    private double cost = -1;
+    /**
+     * Share of the parent pipeline cost (0.0 - 1.0).
+     */
+    private double costShare = -1;
+    /**
+     * Observed mean thread CPU time per execution (in nanoseconds).
+     */
+    private double cpuTime = -1;
+    /**
+     * Observed mean heap allocated per execution (in bytes).
+     */
+    private double allocated = -1;
+    /**
+     * Observed fraction of entities that matched the condition.
+     */
+    private double selectivity = -1;
+}
@@ -0,0 +1,28 @@
+package com.codekutter.genesis.pipelines.extensions;
+
+import java.util.Map;
+
+/**
+ * Interface to be implemented by data services that expose
+ * connection state and operation counters for monitoring.
+ */
+public interface IDataServiceMonitor {
+    /**
+     * Check if the data service is currently connected.
+     *
+     * @return - Is connected?
+     */
+    boolean isConnected();
+
+    /**
+     * Get the operation counters of the data service.
+     *
+     * @return - Map of operation name to count.
+     */
+    Map<String, Long> getOperationCounts();
+
+    /**
+     * Reset the operation counters.
+     */
+    void resetOperationCounts();
+}
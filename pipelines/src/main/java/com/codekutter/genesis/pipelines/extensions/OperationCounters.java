@@ -0,0 +1,62 @@
+package com.codekutter.genesis.pipelines.extensions;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Named operation counters for data services.
+ */
+public class OperationCounters {
+    public static final String OP_ERRORS = "errors";
+    public static final String OP_CONNECT = "connect";
+
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Increment the counter for the specified operation.
+     *
+     * @param operation - Operation name.
+     */
+    public void increment(@Nonnull String operation) {
+        add(operation, 1);
+    }
+
+    /**
+     * Add to the counter for the specified operation.
+     *
+     * @param operation - Operation name.
+     * @param count     - Count to add.
+     */
+    public void add(@Nonnull String operation, long count) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(operation));
+        counters.computeIfAbsent(operation, (k) -> new LongAdder()).add(count);
+    }
+
+    /**
+     * Get the current counts (sorted by operation name).
+     *
+     * @return - Map of operation name to count.
+     */
+    public Map<String, Long> getCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> entry : counters.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().sum());
+        }
+        return counts;
+    }
+
+    /**
+     * Reset all the counters.
+     */
+    public void reset() {
+        for (LongAdder adder : counters.values()) {
+            adder.reset();
+        }
+    }
+}
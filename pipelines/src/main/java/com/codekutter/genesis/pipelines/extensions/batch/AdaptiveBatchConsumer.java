@@ -0,0 +1,128 @@
+package com.codekutter.genesis.pipelines.extensions.batch;
+
+import com.codekutter.genesis.pipelines.Context;
+import com.codekutter.genesis.pipelines.extensions.DataServiceException;
+import com.codekutter.genesis.pipelines.extensions.IDataConsumer;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data consumer wrapper that splits the passed data set into batches,
+ * sized by an adaptive batch controller.
+ *
+ * @param <T> - Entity Type
+ * @param <O> - Operation Type
+ */
+public class AdaptiveBatchConsumer<T, O> implements IDataConsumer<T, O> {
+    private final IDataConsumer<T, O> consumer;
+    private final BatchSizeController controller;
+
+    /**
+     * Constructor with the consumer to wrap and the batch controller.
+     *
+     * @param consumer   - Data Consumer.
+     * @param controller - Batch Size Controller.
+     */
+    public AdaptiveBatchConsumer(@Nonnull IDataConsumer<T, O> consumer,
+                                 @Nonnull BatchSizeController controller) {
+        Preconditions.checkArgument(consumer != null);
+        Preconditions.checkArgument(controller != null);
+        this.consumer = consumer;
+        this.controller = controller;
+    }
+
+    /**
+     * Get the batch controller used by this consumer.
+     *
+     * @return - Batch Size Controller.
+     */
+    public BatchSizeController getController() {
+        return controller;
+    }
+
+    /**
+     * Process an entity instance.
+     *
+     * @param data      - Entity instance
+     * @param operation - Operation to be performed.
+     * @param context   - Context Handle.
+     * @return - Modified Entity.
+     * @throws DataServiceException
+     */
+    @Override
+    public T process(T data, O operation, Context context)
+    throws DataServiceException {
+        return consumer.process(data, operation, context);
+    }
+
+    /**
+     * Process the list of entities passed, in batches.
+     *
+     * @param dataSet   - List of Entities
+     * @param operation - Operation to be performed.
+     * @param context   - Context Handle.
+     * @return - Updated List of Entities.
+     * @throws DataServiceException
+     */
+    @Override
+    public List<T> process(List<T> dataSet, O operation, Context context)
+    throws DataServiceException {
+        return process(consumer, controller, dataSet, operation, context);
+    }
+
+    /**
+     * Close the wrapped consumer.
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        consumer.close();
+    }
+
+    /**
+     * Process the list of entities using the passed consumer, splitting the
+     * list into batches sized by the controller.
+     *
+     * @param consumer   - Data Consumer.
+     * @param controller - Batch Size Controller.
+     * @param dataSet    - List of Entities
+     * @param operation  - Operation to be performed.
+     * @param context    - Context Handle.
+     * @param <T>        - Entity Type
+     * @param <O>        - Operation Type
+     * @return - Updated List of Entities.
+     * @throws DataServiceException
+     */
+    public static <T, O> List<T> process(@Nonnull IDataConsumer<T, O> consumer,
+                                         @Nonnull BatchSizeController controller,
+                                         List<T> dataSet, O operation,
+                                         Context context)
+    throws DataServiceException {
+        Preconditions.checkArgument(dataSet != null);
+        if (dataSet.isEmpty()) {
+            return dataSet;
+        }
+
+        List<T> result = new ArrayList<>(dataSet.size());
+        int offset = 0;
+        while (offset < dataSet.size()) {
+            int size = controller.getBatchSize();
+            int end = Math.min(dataSet.size(), offset + size);
+            List<T> batch = dataSet.subList(offset, end);
+
+            long start = System.nanoTime();
+            List<T> r = consumer.process(batch, operation, context);
+            controller.record(batch.size(), System.nanoTime() - start);
+            if (r != null) {
+                result.addAll(r);
+            }
+            offset = end;
+        }
+        return result;
+    }
+}
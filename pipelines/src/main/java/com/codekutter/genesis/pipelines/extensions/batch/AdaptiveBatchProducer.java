@@ -0,0 +1,100 @@
+package com.codekutter.genesis.pipelines.extensions.batch;
+
+import com.codekutter.genesis.pipelines.Context;
+import com.codekutter.genesis.pipelines.extensions.DataServiceException;
+import com.codekutter.genesis.pipelines.extensions.IDataProducer;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Data producer wrapper that passes the adaptive batch size to the
+ * wrapped producer and records the fetch latency.
+ * <p>
+ * The batch size is passed as a hint in the context (key = data.producer.batchSize),
+ * producers that support paged fetches should limit the number of records
+ * returned to this size. CollectionDataProducer fetches through this
+ * wrapper when batching is configured with pagedFetch="true".
+ *
+ * @param <T> - Entity Type.
+ */
+public class AdaptiveBatchProducer<T> implements IDataProducer<T> {
+    public static final String CONTEXT_KEY_BATCH_SIZE = "data.producer.batchSize";
+
+    private final IDataProducer<T> producer;
+    private final BatchSizeController controller;
+
+    /**
+     * Constructor with the producer to wrap and the batch controller.
+     *
+     * @param producer   - Data Producer.
+     * @param controller - Batch Size Controller.
+     */
+    public AdaptiveBatchProducer(@Nonnull IDataProducer<T> producer,
+                                 @Nonnull BatchSizeController controller) {
+        Preconditions.checkArgument(producer != null);
+        Preconditions.checkArgument(controller != null);
+        this.producer = producer;
+        this.controller = controller;
+    }
+
+    /**
+     * Get the batch controller used by this producer.
+     *
+     * @return - Batch Size Controller.
+     */
+    public BatchSizeController getController() {
+        return controller;
+    }
+
+    /**
+     * Fetch a data set based on the passed query.
+     *
+     * @param query   - Query Condition.
+     * @param context - Context Handle.
+     * @return - Fetched entities.
+     * @throws DataServiceException
+     */
+    @Override
+    public List<T> fetch(String query, Context context)
+    throws DataServiceException {
+        if (context != null) {
+            context.addParameter(CONTEXT_KEY_BATCH_SIZE,
+                                 controller.getBatchSize());
+        }
+        long start = System.nanoTime();
+        List<T> data = producer.fetch(query, context);
+        controller.record((data == null ? 0 : data.size()),
+                          System.nanoTime() - start);
+        return data;
+    }
+
+    /**
+     * Close the wrapped producer.
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        producer.close();
+    }
+
+    /**
+     * Get the batch size hint from the context, if set.
+     *
+     * @param context      - Context Handle.
+     * @param defaultValue - Value to return if not set.
+     * @return - Batch Size.
+     */
+    public static int getBatchSize(Context context, int defaultValue) {
+        if (context != null) {
+            Object value = context.getParameter(CONTEXT_KEY_BATCH_SIZE);
+            if (value instanceof Integer) {
+                return (Integer) value;
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,266 @@
+package com.codekutter.genesis.pipelines.extensions.batch;
+
+import com.codekutter.zconfig.common.ConfigurationAnnotationProcessor;
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.model.annotations.ConfigAttribute;
+import com.codekutter.zconfig.common.model.annotations.ConfigPath;
+import com.codekutter.zconfig.common.model.nodes.AbstractConfigNode;
+import com.codekutter.zconfig.common.model.nodes.ConfigPathNode;
+import com.google.common.base.Preconditions;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adaptive batch size controller.
+ * <p>
+ * Batch size is adjusted using AIMD (additive increase, multiplicative decrease)
+ * based on the observed latency of each batch: while batches complete within
+ * the target latency the size is grown by a fixed step, once the target is
+ * exceeded the size is cut by the decrease factor.
+ * <p>
+ * The settings can be changed while batches are recorded, changes apply
+ * from the next recorded batch (min/max size apply immediately).
+ * <p>
+ * Sample Configuration:
+ * &lt;batching minSize="16" maxSize="10000" initialSize="256" targetLatency="500"/&gt;
+ */
+@Data
+@ConfigPath(path = "batching")
+public class BatchSizeController {
+    public static final String CONFIG_NODE_BATCHING = "batching";
+
+    private static final int DEFAULT_MIN_SIZE = 16;
+    private static final int DEFAULT_MAX_SIZE = 10000;
+    private static final int DEFAULT_INITIAL_SIZE = 256;
+    private static final long DEFAULT_TARGET_LATENCY = 500;
+    private static final int DEFAULT_INCREASE_STEP = 32;
+    private static final double DEFAULT_DECREASE_FACTOR = 0.5;
+    /**
+     * Smoothing factor for the moving averages.
+     */
+    private static final double EWMA_ALPHA = 0.2;
+
+    /**
+     * Minimum batch size.
+     */
+    @ConfigAttribute(name = "minSize", required = false)
+    private volatile int minSize = DEFAULT_MIN_SIZE;
+    /**
+     * Maximum batch size.
+     */
+    @ConfigAttribute(name = "maxSize", required = false)
+    private volatile int maxSize = DEFAULT_MAX_SIZE;
+    /**
+     * Batch size to start with.
+     */
+    @ConfigAttribute(name = "initialSize", required = false)
+    private volatile int initialSize = DEFAULT_INITIAL_SIZE;
+    /**
+     * Target latency per batch (in milliseconds).
+     */
+    @ConfigAttribute(name = "targetLatency", required = false)
+    private volatile long targetLatency = DEFAULT_TARGET_LATENCY;
+    /**
+     * Target throughput (records/sec), batch size will not be grown
+     * once the throughput goal has been reached. (0 = no goal)
+     */
+    @ConfigAttribute(name = "targetThroughput", required = false)
+    private volatile double targetThroughput = 0;
+    /**
+     * Additive increase step.
+     */
+    @ConfigAttribute(name = "increaseStep", required = false)
+    private volatile int increaseStep = DEFAULT_INCREASE_STEP;
+    /**
+     * Multiplicative decrease factor (0 &lt; factor &lt; 1).
+     */
+    @ConfigAttribute(name = "decreaseFactor", required = false)
+    private volatile double decreaseFactor = DEFAULT_DECREASE_FACTOR;
+    /**
+     * Size the fetches instead of splitting the fetched records: the batch
+     * size is passed to the producer as a hint and the fetch latency is
+     * recorded (see AdaptiveBatchProducer).
+     */
+    @ConfigAttribute(name = "pagedFetch", required = false)
+    private volatile boolean pagedFetch = false;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile int batchSize = -1;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long batches = 0;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long increases = 0;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long decreases = 0;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private int lastRecords = 0;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private double lastLatency = 0;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private double avgLatency = 0;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private double avgThroughput = 0;
+
+    /**
+     * Get the batch size to use for the next batch.
+     *
+     * @return - Current Batch Size.
+     */
+    public int getBatchSize() {
+        int size = batchSize;
+        if (size < 0) {
+            synchronized (this) {
+                if (batchSize < 0) {
+                    batchSize = clamp(initialSize);
+                }
+                size = batchSize;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Set the minimum batch size, the current size is clamped to it.
+     *
+     * @param minSize - Minimum batch size.
+     */
+    public synchronized void setMinSize(int minSize) {
+        this.minSize = minSize;
+        if (batchSize >= 0) {
+            batchSize = clamp(batchSize);
+        }
+    }
+
+    /**
+     * Set the maximum batch size, the current size is clamped to it.
+     *
+     * @param maxSize - Maximum batch size.
+     */
+    public synchronized void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+        if (batchSize >= 0) {
+            batchSize = clamp(batchSize);
+        }
+    }
+
+    /**
+     * Record the measurement for a completed batch and adjust the
+     * batch size.
+     *
+     * @param records - Number of records in the batch.
+     * @param elapsed - Elapsed time (in nanoseconds).
+     */
+    public synchronized void record(int records, long elapsed) {
+        Preconditions.checkArgument(records >= 0);
+        Preconditions.checkArgument(elapsed >= 0);
+
+        int current = getBatchSize();
+        double latency = (double) elapsed / TimeUnit.MILLISECONDS.toNanos(1);
+        double throughput = 0;
+        if (elapsed > 0) {
+            throughput = (records * (double) TimeUnit.SECONDS.toNanos(1)) / elapsed;
+        }
+        if (batches == 0) {
+            avgLatency = latency;
+            avgThroughput = throughput;
+        } else {
+            avgLatency = (EWMA_ALPHA * latency) + ((1 - EWMA_ALPHA) * avgLatency);
+            avgThroughput =
+                    (EWMA_ALPHA * throughput) + ((1 - EWMA_ALPHA) * avgThroughput);
+        }
+        batches++;
+        lastRecords = records;
+        lastLatency = latency;
+
+        if (latency > targetLatency) {
+            int size = clamp((int) (current * decreaseFactor));
+            if (size < current) {
+                batchSize = size;
+                decreases++;
+            }
+        } else if (records >= current) {
+            // Only grow if the batch was full, a partial batch doesn't tell
+            // us anything about how a larger one would behave.
+            if (targetThroughput <= 0 || avgThroughput < targetThroughput) {
+                int size = clamp(current + increaseStep);
+                if (size > current) {
+                    batchSize = size;
+                    increases++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reset the batch size and the recorded measurements.
+     */
+    public synchronized void reset() {
+        batchSize = clamp(initialSize);
+        batches = 0;
+        increases = 0;
+        decreases = 0;
+        lastRecords = 0;
+        lastLatency = 0;
+        avgLatency = 0;
+        avgThroughput = 0;
+    }
+
+    /**
+     * Get a snapshot of the current batch size and the measurements
+     * it was based on.
+     *
+     * @return - Batch Statistics.
+     */
+    public synchronized BatchStats getStats() {
+        BatchStats stats = new BatchStats();
+        stats.setBatchSize(getBatchSize());
+        stats.setBatches(batches);
+        stats.setIncreases(increases);
+        stats.setDecreases(decreases);
+        stats.setLastRecords(lastRecords);
+        stats.setLastLatency(lastLatency);
+        stats.setAverageLatency(avgLatency);
+        stats.setAverageThroughput(avgThroughput);
+        stats.setTargetLatency(targetLatency);
+        return stats;
+    }
+
+    private int clamp(int size) {
+        int min = Math.max(1, minSize);
+        int max = Math.max(min, maxSize);
+        return Math.max(min, Math.min(max, size));
+    }
+
+    /**
+     * Read the batch controller settings defined under the passed node.
+     *
+     * @param node - Parent Configuration Node.
+     * @return - Batch Controller or NULL if batching is not configured.
+     * @throws ConfigurationException
+     */
+    public static BatchSizeController read(AbstractConfigNode node)
+    throws ConfigurationException {
+        if (node instanceof ConfigPathNode) {
+            AbstractConfigNode cnode =
+                    ((ConfigPathNode) node).getChildNode(CONFIG_NODE_BATCHING);
+            if (cnode != null) {
+                return ConfigurationAnnotationProcessor
+                        .readConfigAnnotations(BatchSizeController.class,
+                                               (ConfigPathNode) node);
+            }
+        }
+        return null;
+    }
+}
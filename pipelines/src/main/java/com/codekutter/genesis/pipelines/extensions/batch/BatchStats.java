@@ -0,0 +1,48 @@
+package com.codekutter.genesis.pipelines.extensions.batch;
+
+import lombok.Data;
+import lombok.ToString;
+
+/**
+ * Snapshot of the state of an adaptive batch controller.
+ */
+@Data
+@ToString
+public class BatchStats {
+    /**
+     * Current batch size.
+     */
+    private int batchSize;
+    /**
+     * Number of batches recorded.
+     */
+    private long batches;
+    /**
+     * Number of times the batch size was increased.
+     */
+    private long increases;
+    /**
+     * Number of times the batch size was decreased.
+     */
+    private long decreases;
+    /**
+     * Number of records in the last batch.
+     */
+    private int lastRecords;
+    /**
+     * Latency of the last batch (in milliseconds).
+     */
+    private double lastLatency;
+    /**
+     * Moving average of the batch latency (in milliseconds).
+     */
+    private double averageLatency;
+    /**
+     * Moving average of the throughput (records/sec).
+     */
+    private double averageThroughput;
+    /**
+     * Target latency (in milliseconds).
+     */
+    private long targetLatency;
+}
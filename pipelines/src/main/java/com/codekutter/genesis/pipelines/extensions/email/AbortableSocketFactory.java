@@ -0,0 +1,110 @@
+package com.codekutter.genesis.pipelines.extensions.email;
+
+import com.codekutter.zconfig.common.LogUtils;
+
+import javax.net.SocketFactory;
+import javax.net.ssl.SSLSocketFactory;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Socket factory for the JavaMail session that keeps track of the opened
+ * sockets, so a blocked IMAP call can be aborted (see abort) once the
+ * deadline of the execution expires.
+ * <p>
+ * Note: Registered as both the plain and the SSL socket factory of the
+ * store protocol, sockets are created by the default (SSL) factory.
+ */
+class AbortableSocketFactory extends SSLSocketFactory {
+    private final SocketFactory delegate;
+    private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor with the transport type.
+     *
+     * @param ssl - Create SSL sockets?
+     */
+    AbortableSocketFactory(boolean ssl) {
+        this.delegate = (ssl ? SSLSocketFactory.getDefault() : SocketFactory.getDefault());
+    }
+
+    /**
+     * Close all the open sockets, calls blocked on them fail with
+     * a socket error.
+     *
+     * @return - Number of sockets closed.
+     */
+    int abort() {
+        int count = 0;
+        for (Socket socket : sockets) {
+            sockets.remove(socket);
+            if (!socket.isClosed()) {
+                try {
+                    socket.close();
+                    count++;
+                } catch (IOException e) {
+                    LogUtils.debug(getClass(), e);
+                }
+            }
+        }
+        return count;
+    }
+
+    private Socket track(Socket socket) {
+        sockets.removeIf(Socket::isClosed);
+        sockets.add(socket);
+        return socket;
+    }
+
+    @Override
+    public Socket createSocket() throws IOException {
+        return track(delegate.createSocket());
+    }
+
+    @Override
+    public Socket createSocket(String host, int port) throws IOException {
+        return track(delegate.createSocket(host, port));
+    }
+
+    @Override
+    public Socket createSocket(String host, int port, InetAddress localHost,
+                               int localPort) throws IOException {
+        return track(delegate.createSocket(host, port, localHost, localPort));
+    }
+
+    @Override
+    public Socket createSocket(InetAddress host, int port) throws IOException {
+        return track(delegate.createSocket(host, port));
+    }
+
+    @Override
+    public Socket createSocket(InetAddress address, int port,
+                               InetAddress localAddress, int localPort)
+    throws IOException {
+        return track(delegate.createSocket(address, port, localAddress, localPort));
+    }
+
+    @Override
+    public Socket createSocket(Socket socket, String host, int port,
+                               boolean autoClose) throws IOException {
+        // Layered (STARTTLS) sockets wrap a tracked socket.
+        return track(ssl().createSocket(socket, host, port, autoClose));
+    }
+
+    @Override
+    public String[] getDefaultCipherSuites() {
+        return ssl().getDefaultCipherSuites();
+    }
+
+    @Override
+    public String[] getSupportedCipherSuites() {
+        return ssl().getSupportedCipherSuites();
+    }
+
+    private static SSLSocketFactory ssl() {
+        return (SSLSocketFactory) SSLSocketFactory.getDefault();
+    }
+}
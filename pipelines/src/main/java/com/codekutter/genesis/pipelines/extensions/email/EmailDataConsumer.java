@@ -4,6 +4,11 @@ import com.codekutter.genesis.pipelines.Context;
 import com.codekutter.genesis.pipelines.extensions.DataServiceException;
 import com.codekutter.genesis.pipelines.extensions.EEmailOperations;
 import com.codekutter.genesis.pipelines.extensions.IDataConsumer;
+import com.codekutter.genesis.pipelines.extensions.IDataServiceMonitor;
+import com.codekutter.genesis.pipelines.extensions.OperationCounters;
+import com.codekutter.genesis.pipelines.jfr.PipelineEvents;
+import com.codekutter.genesis.pipelines.tracing.TraceScope;
+import com.codekutter.genesis.pipelines.tracing.Tracing;
 import com.codekutter.zconfig.common.ConfigurationAnnotationProcessor;
 import com.codekutter.zconfig.common.ConfigurationException;
 import com.codekutter.zconfig.common.GlobalConstants;
@@ -12,13 +17,18 @@ import com.codekutter.zconfig.common.model.annotations.*;
 import com.codekutter.zconfig.common.model.nodes.AbstractConfigNode;
 import com.codekutter.zconfig.common.model.nodes.ConfigPathNode;
 import com.google.common.base.Preconditions;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 
 import javax.mail.Message;
+import javax.mail.Session;
 import javax.mail.Transport;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 /**
@@ -26,7 +36,8 @@ import java.util.Properties;
  */
 @ConfigPath(path = "emailDataConsumer")
 @Data
-public class EmailDataConsumer implements IDataConsumer<Message, EEmailOperations> {
+public class EmailDataConsumer implements IDataConsumer<Message, EEmailOperations>,
+                                          IDataServiceMonitor {
     @ConfigAttribute(name = "server", required = true)
     private String server;
     @ConfigAttribute(name = "port", required = false)
@@ -38,6 +49,12 @@ public class EmailDataConsumer implements IDataConsumer<Message, EEmailOperation
     private boolean initialized = false;
     private Properties properties = new Properties();
     private EmailDataProducer producer;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Session session;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final OperationCounters counters = new OperationCounters();
 
     /**
      * Initialize this Consumer instance.
@@ -47,11 +64,14 @@ public class EmailDataConsumer implements IDataConsumer<Message, EEmailOperation
     private synchronized void init() throws DataServiceException {
         if (initialized)
             return;
-        properties.put("mail.smtp.auth", true);
+        properties.put("mail.smtp.auth", "true");
         properties.put("mail.smtp.starttls.enable", "true");
         properties.put("mail.smtp.host", server);
-        properties.put("mail.smtp.port", port);
+        if (port > 0) {
+            properties.put("mail.smtp.port", String.valueOf(port));
+        }
         properties.put("mail.smtp.ssl.trust", server);
+        session = Session.getInstance(properties);
 
         initialized = true;
     }
@@ -83,6 +103,39 @@ public class EmailDataConsumer implements IDataConsumer<Message, EEmailOperation
 
     }
 
+    /**
+     * Check if the consumer is connected. Messages are sent using a
+     * connection per send, hence this reports the state of the
+     * IMAP producer used for flag updates (or initialized if none).
+     *
+     * @return - Is connected?
+     */
+    @Override
+    public boolean isConnected() {
+        if (producer != null) {
+            return producer.isConnected();
+        }
+        return initialized;
+    }
+
+    /**
+     * Get the operation counters of this consumer.
+     *
+     * @return - Map of operation name to count.
+     */
+    @Override
+    public Map<String, Long> getOperationCounts() {
+        return counters.getCounts();
+    }
+
+    /**
+     * Reset the operation counters.
+     */
+    @Override
+    public void resetOperationCounts() {
+        counters.reset();
+    }
+
     /**
      * Process an entity instance.
      *
@@ -95,27 +148,72 @@ public class EmailDataConsumer implements IDataConsumer<Message, EEmailOperation
     @Override
     public Message process(Message data, EEmailOperations operation,
                            Context context)
+    throws DataServiceException {
+        Object event = PipelineEvents.beginDataCall();
+        TraceScope span = startSpan(operation, context);
+        Throwable error = null;
+        try {
+            return execute(data, operation, context);
+        } catch (DataServiceException | RuntimeException ex) {
+            error = ex;
+            throw ex;
+        } finally {
+            PipelineEvents.endDataCall(event, getClass(),
+                                       (operation != null ? operation.name() : null),
+                                       1, error != null);
+            Tracing.end(span, 1, error);
+        }
+    }
+
+    /**
+     * Execute the operation on an entity instance.
+     *
+     * @param data      - Entity instance
+     * @param operation - Operation to be performed.
+     * @param context   - Context Handle.
+     * @return - Modified Entity.
+     * @throws DataServiceException
+     */
+    private Message execute(Message data, EEmailOperations operation,
+                            Context context)
     throws DataServiceException {
         Preconditions.checkArgument(data != null);
         Preconditions.checkArgument(
                 operation != null && operation != EEmailOperations.Receive);
+        if (context != null && context.isExpired()) {
+            throw new DataServiceException(
+                    String.format("Deadline exceeded. [operation=%s]",
+                                  operation.name()));
+        }
         if (!initialized) {
             init();
         }
 
-        switch (operation) {
-            case Send:
-                return send(data);
-            case Delete:
-                return delete(data);
-            case Answered:
-                return answered(data);
-            case MarkAsRead:
-                return markAsRead(data);
-            case MarkAsUnread:
-                return markAsUnread(data);
+        try {
+            Message result = null;
+            switch (operation) {
+                case Send:
+                    result = send(data);
+                    break;
+                case Delete:
+                    result = delete(data);
+                    break;
+                case Answered:
+                    result = answered(data);
+                    break;
+                case MarkAsRead:
+                    result = markAsRead(data);
+                    break;
+                case MarkAsUnread:
+                    result = markAsUnread(data);
+                    break;
+            }
+            counters.increment(operation.name());
+            return result;
+        } catch (DataServiceException ex) {
+            counters.increment(OperationCounters.OP_ERRORS);
+            throw ex;
         }
-        return null;
     }
 
     /**
@@ -132,18 +230,48 @@ public class EmailDataConsumer implements IDataConsumer<Message, EEmailOperation
                                  Context context) throws DataServiceException {
         Preconditions.checkArgument(dataSet != null && !dataSet.isEmpty());
         Preconditions.checkArgument(operation != null);
-        List<Message> result = new ArrayList<>();
-        for (Message email : dataSet) {
-            Message e = process(email, operation, context);
-            if (e != null) {
-                result.add(e);
+        Object event = PipelineEvents.beginDataCall();
+        TraceScope span = startSpan(operation, context);
+        Throwable error = null;
+        try {
+            List<Message> result = new ArrayList<>();
+            for (Message email : dataSet) {
+                Message e = execute(email, operation, context);
+                if (e != null) {
+                    result.add(e);
+                }
             }
+            return result;
+        } catch (DataServiceException | RuntimeException ex) {
+            error = ex;
+            throw ex;
+        } finally {
+            PipelineEvents.endDataCall(event, getClass(), operation.name(),
+                                       dataSet.size(), error != null);
+            Tracing.end(span, dataSet.size(), error);
         }
-        return result;
     }
 
     /**
-     * Send the message.
+     * Start the tracing span for an operation. Send is traced
+     * as an SMTP call, flag updates as IMAP calls.
+     *
+     * @param operation - Operation to be performed.
+     * @param context   - Context Handle.
+     * @return - Trace scope, NULL if not traced.
+     */
+    private TraceScope startSpan(EEmailOperations operation, Context context) {
+        if (operation == null) {
+            return null;
+        }
+        String name = (operation == EEmailOperations.Send ? "smtp.send" :
+                String.format("imap.%s", operation.name().toLowerCase()));
+        return Tracing.startDataCall(name, operation.name(), server, context);
+    }
+
+    /**
+     * Send the message using the SMTP server configured for this
+     * consumer.
      *
      * @param email - Message to send.
      * @return - Message handle.
@@ -151,7 +279,14 @@ public class EmailDataConsumer implements IDataConsumer<Message, EEmailOperation
      */
     private Message send(Message email) throws DataServiceException {
         try {
-            Transport.send(email);
+            Transport transport = session.getTransport("smtp");
+            try {
+                transport.connect(username, password);
+                email.saveChanges();
+                transport.sendMessage(email, email.getAllRecipients());
+            } finally {
+                transport.close();
+            }
             return email;
         } catch (Exception ex) {
             LogUtils.debug(getClass(), ex);
@@ -3,6 +3,13 @@ package com.codekutter.genesis.pipelines.extensions.email;
 import com.codekutter.genesis.pipelines.Context;
 import com.codekutter.genesis.pipelines.extensions.DataServiceException;
 import com.codekutter.genesis.pipelines.extensions.IDataProducer;
+import com.codekutter.genesis.pipelines.extensions.IDataServiceMonitor;
+import com.codekutter.genesis.pipelines.extensions.OperationCounters;
+import com.codekutter.genesis.pipelines.extensions.batch.AdaptiveBatchProducer;
+import com.codekutter.genesis.pipelines.jfr.PipelineEvents;
+import com.codekutter.genesis.pipelines.tracing.TraceScope;
+import com.codekutter.genesis.pipelines.tracing.Tracing;
+import com.codekutter.genesis.pipelines.utils.HashedWheelTimer;
 import com.codekutter.zconfig.common.ConfigurationAnnotationProcessor;
 import com.codekutter.zconfig.common.LogUtils;
 import com.codekutter.zconfig.common.model.annotations.*;
@@ -30,6 +37,7 @@ import javax.mail.search.SearchTerm;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
 /**
@@ -38,10 +46,21 @@ import java.util.regex.Pattern;
  */
 @Data
 @ConfigPath(path = "emailDataProducer")
-public class EmailDataProducer implements IDataProducer<Message> {
+public class EmailDataProducer implements IDataProducer<Message>,
+                                          IDataServiceMonitor {
     private static final int DEFAULT_SSL_PORT = 993;
     private static final int DEFAULT_IMAP_PORT = 143;
     private static final String DEFAULT_IMAP_FOLDER = "INBOX";
+    private static final int DEFAULT_TIMEOUT = 10000;
+    private static final String PROTOCOL_IMAP = "imap";
+    private static final String PROTOCOL_IMAPS = "imaps";
+    private static final String OP_FETCH = "fetch";
+    private static final String OP_FETCHED = "fetched";
+    private static final String OP_DELETE = "delete";
+    private static final String OP_MARK_READ = "markAsRead";
+    private static final String OP_MARK_UNREAD = "markAsUnread";
+    private static final String OP_ANSWERED = "answered";
+    private static final String OP_ABORTED = "aborted";
 
     @ConfigAttribute(name = "server", required = true)
     private String server;
@@ -56,6 +75,11 @@ public class EmailDataProducer implements IDataProducer<Message> {
     private String password;
     @ConfigAttribute(name = "folder")
     private String folder = DEFAULT_IMAP_FOLDER;
+    /**
+     * IMAP connection/socket timeout (in milliseconds).
+     */
+    @ConfigAttribute(name = "timeout", required = false)
+    private int timeout = DEFAULT_TIMEOUT;
     private EmailQueryParser queryParser = new EmailQueryParser();
 
     @Getter(AccessLevel.NONE)
@@ -73,6 +97,12 @@ public class EmailDataProducer implements IDataProducer<Message> {
     @Getter(AccessLevel.NONE)
     @Setter(AccessLevel.NONE)
     private Folder currentFolder;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile AbortableSocketFactory sockets;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final OperationCounters counters = new OperationCounters();
 
     /**
      * Get the date format supported by the Query parser.
@@ -94,6 +124,52 @@ public class EmailDataProducer implements IDataProducer<Message> {
     throws DataServiceException {
         if (initialized)
             return;
+        try {
+            connect(null);
+            if (config != null) {
+                queryParser = ConfigurationAnnotationProcessor
+                        .readConfigAnnotations(queryParser.getClass(),
+                                               (ConfigPathNode) config,
+                                               queryParser);
+            }
+
+            initialized = true;
+        } catch (DataServiceException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new DataServiceException(ex);
+        }
+    }
+
+    private void init() throws DataServiceException {
+        init((Context) null);
+    }
+
+    /**
+     * (Re)connect to the IMAP store, the connection timeouts are bounded
+     * by the remaining execution budget of the context.
+     *
+     * @param context - Context handle.
+     * @throws DataServiceException
+     */
+    private synchronized void init(Context context) throws DataServiceException {
+        counters.increment(OperationCounters.OP_CONNECT);
+        connect(context);
+        initialized = true;
+    }
+
+    /**
+     * Open the IMAP store and folder, unless already connected.
+     *
+     * @param context - Context handle.
+     * @throws DataServiceException
+     */
+    private synchronized void connect(Context context)
+    throws DataServiceException {
+        if (messageStore != null && messageStore.isConnected()
+                && currentFolder != null && currentFolder.isOpen()) {
+            return;
+        }
         try {
             if (Strings.isNullOrEmpty(server)) {
                 throw new DataServiceException("IMAP Server Host not set.");
@@ -101,28 +177,28 @@ public class EmailDataProducer implements IDataProducer<Message> {
             if (!useSSL && port == DEFAULT_SSL_PORT) {
                 port = DEFAULT_IMAP_PORT;
             }
+            disconnect();
+            String protocol = protocol();
             // server setting
             // properties.put("mail.debug", "true");
-            properties.put("mail.store.protocol", "imaps");
-            properties.put("mail.imaps.host", server);
-            properties.put("mail.imaps.port", String.valueOf(port));
-            properties.put("mail.imaps.timeout", "10000");
-
-
-            if (useSSL) {
-                // SSL setting
-                properties.setProperty("mail.imap.socketFactory.class",
-                                       "javax.net.ssl.SSLSocketFactory");
-                properties.setProperty("mail.imap.socketFactory.fallback", "false");
-                properties.setProperty("mail.imap.socketFactory.port",
-                                       String.valueOf(port));
-            }
+            properties.put("mail.store.protocol", protocol);
+            properties.put(String.format("mail.%s.host", protocol), server);
+            properties.put(String.format("mail.%s.port", protocol),
+                           String.valueOf(port));
+            applyTimeouts(context);
+            sockets = new AbortableSocketFactory(useSSL);
+            properties.put(String.format("mail.%s.socketFactory", protocol),
+                           sockets);
+            properties.put(String.format("mail.%s.ssl.socketFactory", protocol),
+                           sockets);
 
             session = Session.getInstance(properties);
-            messageStore = session.getStore("imaps");
+            messageStore = session.getStore(protocol);
             if (messageStore == null) {
                 throw new DataServiceException(
-                        "Error getting store handle for protocol. [protocol=imaps]");
+                        String.format(
+                                "Error getting store handle for protocol. [protocol=%s]",
+                                protocol));
             }
             messageStore.connect(username, password);
             currentFolder = messageStore.getFolder(folder);
@@ -132,21 +208,105 @@ public class EmailDataProducer implements IDataProducer<Message> {
                                       folder));
             }
             currentFolder.open(Folder.READ_WRITE);
-            if (config != null) {
-                queryParser = ConfigurationAnnotationProcessor
-                        .readConfigAnnotations(queryParser.getClass(),
-                                               (ConfigPathNode) config,
-                                               queryParser);
-            }
-
-            initialized = true;
+        } catch (DataServiceException ex) {
+            throw ex;
         } catch (Exception ex) {
             throw new DataServiceException(ex);
         }
     }
 
-    private void init() throws DataServiceException {
-        init(null);
+    /**
+     * Close the stale store handle (if any) before reconnecting.
+     */
+    private void disconnect() {
+        if (messageStore != null) {
+            try {
+                messageStore.close();
+            } catch (Exception ex) {
+                LogUtils.debug(getClass(), ex);
+            }
+            messageStore = null;
+            currentFolder = null;
+        }
+    }
+
+    /**
+     * Abort the IMAP calls in progress by closing the open sockets,
+     * invoked when the deadline of a fetch expires.
+     */
+    private void abort() {
+        AbortableSocketFactory factory = sockets;
+        if (factory != null) {
+            int count = factory.abort();
+            if (count > 0) {
+                counters.increment(OP_ABORTED);
+                LogUtils.warn(getClass(), String.format(
+                        "Deadline exceeded, aborted IMAP call. [server=%s][folder=%s][sockets=%d]",
+                        server, folder, count));
+            }
+        }
+    }
+
+    /**
+     * Get the JavaMail store protocol - IMAP over SSL (imaps) or
+     * plain IMAP.
+     *
+     * @return - Store protocol.
+     */
+    private String protocol() {
+        return (useSSL ? PROTOCOL_IMAPS : PROTOCOL_IMAP);
+    }
+
+    /**
+     * Check if the IMAP store is currently connected.
+     *
+     * @return - Is connected?
+     */
+    @Override
+    public boolean isConnected() {
+        Store store = messageStore;
+        return (store != null && store.isConnected());
+    }
+
+    /**
+     * Get the operation counters of this producer.
+     *
+     * @return - Map of operation name to count.
+     */
+    @Override
+    public Map<String, Long> getOperationCounts() {
+        return counters.getCounts();
+    }
+
+    /**
+     * Reset the operation counters.
+     */
+    @Override
+    public void resetOperationCounts() {
+        counters.reset();
+    }
+
+    /**
+     * Bound the IMAP connection timeouts by the remaining execution budget
+     * of the context.
+     * <p>
+     * Note: JavaMail reads the timeouts when a connection is opened, hence
+     * the budget only applies to new connections. Calls on an open
+     * connection are aborted when the deadline expires (see fetch).
+     *
+     * @param context - Context handle.
+     */
+    private void applyTimeouts(Context context) {
+        long t = timeout;
+        if (context != null && context.hasDeadline()) {
+            t = Math.max(1, Math.min(t, context.getRemainingTime(
+                    TimeUnit.MILLISECONDS)));
+        }
+        String protocol = protocol();
+        properties.put(String.format("mail.%s.timeout", protocol),
+                       String.valueOf(t));
+        properties.put(String.format("mail.%s.connectiontimeout", protocol),
+                       String.valueOf(t));
     }
 
     /**
@@ -167,6 +327,10 @@ public class EmailDataProducer implements IDataProducer<Message> {
 
     /**
      * Fetch a data set based on the passed query.
+     * <p>
+     * If a batch size hint is set in the context (see AdaptiveBatchProducer)
+     * at most that many messages are returned, the most recently received
+     * ones. Only the returned messages are fetched from the server.
      *
      * @param query   - Query Condition.
      * @param context - Context Handle.
@@ -176,13 +340,52 @@ public class EmailDataProducer implements IDataProducer<Message> {
     @Override
     public List<Message> fetch(String query, Context context)
     throws DataServiceException {
-        if (!initialized || !messageStore.isConnected()) {
-            init();
+        if (context != null && context.isExpired()) {
+            throw new DataServiceException(
+                    String.format("Deadline exceeded. [server=%s][folder=%s]",
+                                  server, folder));
         }
-        if (Strings.isNullOrEmpty(query)) {
-            return fetchUnread();
-        } else {
-            return searchEmails(query, context);
+        Object event = PipelineEvents.beginDataCall();
+        TraceScope span = Tracing.startDataCall("imap.fetch", OP_FETCH, server,
+                                                context);
+        HashedWheelTimer.Timeout expiry = null;
+        try {
+            if (!initialized || !messageStore.isConnected()) {
+                init(context);
+            }
+            if (context != null && context.hasDeadline()) {
+                expiry = context.onExpiry(this::abort);
+            }
+            int limit = AdaptiveBatchProducer.getBatchSize(context, 0);
+            List<Message> messages;
+            if (Strings.isNullOrEmpty(query)) {
+                messages = fetchUnread(limit);
+            } else {
+                messages = searchEmails(query, limit, context);
+            }
+            counters.increment(OP_FETCH);
+            int count = 0;
+            if (messages != null) {
+                count = messages.size();
+                counters.add(OP_FETCHED, count);
+            }
+            PipelineEvents.endDataCall(event, getClass(), OP_FETCH, count, false);
+            Tracing.end(span, count, null);
+            return messages;
+        } catch (DataServiceException | RuntimeException ex) {
+            counters.increment(OperationCounters.OP_ERRORS);
+            PipelineEvents.endDataCall(event, getClass(), OP_FETCH, 0, true);
+            Tracing.end(span, 0, ex);
+            if (expiry != null && context.isExpired()) {
+                throw new DataServiceException(
+                        String.format("Deadline exceeded. [server=%s][folder=%s]",
+                                      server, folder), ex);
+            }
+            throw ex;
+        } finally {
+            if (expiry != null) {
+                expiry.cancel();
+            }
         }
     }
 
@@ -200,9 +403,11 @@ public class EmailDataProducer implements IDataProducer<Message> {
                 init();
             }
             message.setFlag(Flags.Flag.DELETED, true);
+            counters.increment(OP_DELETE);
             return message;
         } catch (Exception e) {
             LogUtils.debug(getClass(), e);
+            counters.increment(OperationCounters.OP_ERRORS);
             throw new DataServiceException(e);
         }
     }
@@ -221,9 +426,11 @@ public class EmailDataProducer implements IDataProducer<Message> {
                 init();
             }
             message.setFlag(Flags.Flag.SEEN, true);
+            counters.increment(OP_MARK_READ);
             return message;
         } catch (Exception e) {
             LogUtils.debug(getClass(), e);
+            counters.increment(OperationCounters.OP_ERRORS);
             throw new DataServiceException(e);
         }
     }
@@ -242,9 +449,11 @@ public class EmailDataProducer implements IDataProducer<Message> {
                 init();
             }
             message.setFlag(Flags.Flag.SEEN, false);
+            counters.increment(OP_MARK_UNREAD);
             return message;
         } catch (Exception e) {
             LogUtils.debug(getClass(), e);
+            counters.increment(OperationCounters.OP_ERRORS);
             throw new DataServiceException(e);
         }
     }
@@ -263,9 +472,11 @@ public class EmailDataProducer implements IDataProducer<Message> {
                 init();
             }
             message.setFlag(Flags.Flag.ANSWERED, true);
+            counters.increment(OP_ANSWERED);
             return message;
         } catch (Exception e) {
             LogUtils.debug(getClass(), e);
+            counters.increment(OperationCounters.OP_ERRORS);
             throw new DataServiceException(e);
         }
     }
@@ -273,10 +484,11 @@ public class EmailDataProducer implements IDataProducer<Message> {
     /**
      * Fetch all the unread emails on the server.
      *
+     * @param limit - Max messages to return (0 = no limit).
      * @return - List of fetched messages.
      * @throws DataServiceException
      */
-    private List<Message> fetchUnread() throws DataServiceException {
+    private List<Message> fetchUnread(int limit) throws DataServiceException {
         try {
             if (!initialized || !messageStore.isConnected()) {
                 init();
@@ -284,69 +496,69 @@ public class EmailDataProducer implements IDataProducer<Message> {
             // Fetch unseen messages from inbox folder
             Message[] messages = currentFolder.search(
                     new FlagTerm(new Flags(Flags.Flag.SEEN), false));
-
-            /* Use a suitable FetchProfile    */
-            FetchProfile fp = new FetchProfile();
-            fp.add(FetchProfile.Item.ENVELOPE);
-            fp.add(FetchProfile.Item.CONTENT_INFO);
-            currentFolder.fetch(messages, fp);
-
-            if (messages != null && messages.length > 0) {
-                // Sort messages from recent to oldest
-                Arrays.sort(messages, (m1, m2) -> {
-                    try {
-                        return m2.getSentDate().compareTo(m1.getSentDate());
-                    } catch (MessagingException e) {
-                        throw new RuntimeException(e);
-                    }
-                });
-                return Arrays.asList(messages);
-            }
-
+            return fetchMessages(messages, limit);
         } catch (Exception e) {
             LogUtils.debug(getClass(), e);
             throw new DataServiceException(e);
         }
-        return null;
     }
 
     /**
-     * Fetch all emails that match the search condition. (currently not supported)
-     * <p>
+     * Fetch all emails that match the search condition.
      *
      * @param query   - Search Condition.
+     * @param limit   - Max messages to return (0 = no limit).
      * @param context - Context handle.
-     * @return - List of fetched messages.
+     * @return - List of fetched messages, NULL if none matched.
      * @throws DataServiceException
      */
-    private List<Message> searchEmails(String query, Context context)
+    private List<Message> searchEmails(String query, int limit, Context context)
     throws DataServiceException {
         try {
             SearchTerm searchTerm = queryParser.parse(query);
-            // Fetch unseen messages from inbox folder
             Message[] messages = currentFolder.search(searchTerm);
-
-            /* Use a suitable FetchProfile    */
-            FetchProfile fp = new FetchProfile();
-            fp.add(FetchProfile.Item.ENVELOPE);
-            fp.add(FetchProfile.Item.CONTENT_INFO);
-            currentFolder.fetch(messages, fp);
-
-            if (messages != null && messages.length > 0) {
-                // Sort messages from recent to oldest
-                Arrays.sort(messages, (m1, m2) -> {
-                    try {
-                        return m2.getSentDate().compareTo(m1.getSentDate());
-                    } catch (MessagingException e) {
-                        throw new RuntimeException(e);
-                    }
-                });
-                return Arrays.asList(messages);
-            }
+            return fetchMessages(messages, limit);
         } catch (Exception ex) {
             throw new DataServiceException(ex);
         }
-        throw new DataServiceException("Search not implemented.");
+    }
+
+    /**
+     * Fetch the headers of the matched messages, sorted from recent
+     * to oldest.
+     * <p>
+     * If a limit is set only the last messages (highest sequence numbers,
+     * most recently received) are fetched.
+     *
+     * @param messages - Matched messages.
+     * @param limit    - Max messages to return (0 = no limit).
+     * @return - List of fetched messages, NULL if none matched.
+     * @throws MessagingException
+     */
+    private List<Message> fetchMessages(Message[] messages, int limit)
+    throws MessagingException {
+        if (messages == null || messages.length == 0) {
+            return null;
+        }
+        if (limit > 0 && messages.length > limit) {
+            messages = Arrays.copyOfRange(messages, messages.length - limit,
+                                          messages.length);
+        }
+        /* Use a suitable FetchProfile    */
+        FetchProfile fp = new FetchProfile();
+        fp.add(FetchProfile.Item.ENVELOPE);
+        fp.add(FetchProfile.Item.CONTENT_INFO);
+        currentFolder.fetch(messages, fp);
+
+        // Sort messages from recent to oldest
+        Arrays.sort(messages, (m1, m2) -> {
+            try {
+                return m2.getSentDate().compareTo(m1.getSentDate());
+            } catch (MessagingException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        return Arrays.asList(messages);
     }
 
     /**
@@ -101,12 +101,37 @@ public class EmailQueryParser implements IQueryParser<SearchTerm> {
             SpelNode lr = operator.getChild(1);
             Preconditions.checkNotNull(lr);
             return processCompare(ComparisonTerm.EQ, ln, lr);
+        } else if (node instanceof OpGE) {
+            return processCompare(ComparisonTerm.GE, (Operator) node);
+        } else if (node instanceof OpGT) {
+            return processCompare(ComparisonTerm.GT, (Operator) node);
+        } else if (node instanceof OpLE) {
+            return processCompare(ComparisonTerm.LE, (Operator) node);
+        } else if (node instanceof OpLT) {
+            return processCompare(ComparisonTerm.LT, (Operator) node);
         }
         throw new QueryParseException(
                 String.format("Unsupported search construct: [type=%s]",
                               node.getClass().getCanonicalName()));
     }
 
+    /**
+     * Process a relational (&gt;=, &gt;, &lt;=, &lt;) condition.
+     *
+     * @param comparison - Comparison Term type.
+     * @param operator   - Operator AST node.
+     * @return - Processed Search Term
+     * @throws QueryParseException
+     */
+    private SearchTerm processCompare(int comparison, Operator operator)
+    throws QueryParseException {
+        SpelNode ln = operator.getChild(0);
+        Preconditions.checkNotNull(ln);
+        SpelNode lr = operator.getChild(1);
+        Preconditions.checkNotNull(lr);
+        return processCompare(comparison, ln, lr);
+    }
+
     /**
      * Process the between condition.
      *
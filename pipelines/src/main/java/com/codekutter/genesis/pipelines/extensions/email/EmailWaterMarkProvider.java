@@ -0,0 +1,91 @@
+package com.codekutter.genesis.pipelines.extensions.email;
+
+import com.codekutter.genesis.pipelines.impl.EmailProducer;
+import com.codekutter.genesis.pipelines.scheduler.IWaterMarkProvider;
+import com.codekutter.genesis.pipelines.types.CollectionDataProducer;
+import com.codekutter.zconfig.common.LogUtils;
+import com.google.common.base.Strings;
+
+import javax.annotation.Nonnull;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Water mark provider for email producers, based on the received date.
+ * <p>
+ * Note: IMAP date searches are day granular, messages at or
+ * before the water mark are dropped after the fetch.
+ */
+public class EmailWaterMarkProvider implements IWaterMarkProvider<Message> {
+    private String dateFormat = EmailQueryParser.DEFAULT_DATE_FORMAT;
+
+    /**
+     * Initialize the provider for the producer being polled.
+     *
+     * @param producer - Data Producer pipeline.
+     */
+    @Override
+    public void init(@Nonnull CollectionDataProducer<Message> producer) {
+        if (producer instanceof EmailProducer) {
+            String format = ((EmailProducer) producer).getDateFormat();
+            if (!Strings.isNullOrEmpty(format)) {
+                dateFormat = format;
+            }
+        }
+    }
+
+    /**
+     * Get the received date (as epoch milliseconds) of the message.
+     *
+     * @param entity - Message instance.
+     * @return - Water mark, NULL if not available.
+     */
+    @Override
+    public String getWaterMark(@Nonnull Message entity) {
+        try {
+            Date date = entity.getReceivedDate();
+            if (date != null) {
+                return String.valueOf(date.getTime());
+            }
+        } catch (MessagingException e) {
+            LogUtils.debug(getClass(), e);
+        }
+        return null;
+    }
+
+    /**
+     * Build the fetch query to only read messages received after the water mark.
+     *
+     * @param query     - Base Query (can be NULL).
+     * @param waterMark - Current water mark (NULL if none).
+     * @return - Fetch Query.
+     */
+    @Override
+    public String buildQuery(String query, String waterMark) {
+        if (Strings.isNullOrEmpty(waterMark)) {
+            return query;
+        }
+        SimpleDateFormat df = new SimpleDateFormat(dateFormat);
+        String filter = String.format("%s >= '%s'",
+                                      EmailQueryParser.SEARCH_TERM_RECVD_DATE,
+                                      df.format(new Date(Long.parseLong(waterMark))));
+        if (Strings.isNullOrEmpty(query)) {
+            return filter;
+        }
+        return String.format("(%s) and %s", query, filter);
+    }
+
+    /**
+     * Compare two water marks (epoch milliseconds).
+     *
+     * @param source - Source water mark.
+     * @param target - Target water mark.
+     * @return - Compare result.
+     */
+    @Override
+    public int compare(@Nonnull String source, @Nonnull String target) {
+        return Long.compare(Long.parseLong(source), Long.parseLong(target));
+    }
+}
@@ -0,0 +1,268 @@
+package com.codekutter.genesis.pipelines.extensions.resilience;
+
+import com.codekutter.zconfig.common.LogUtils;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Circuit breaker tracking call outcomes over a rolling time window.
+ * <p>
+ * The window is split into buckets, the circuit opens once the failure
+ * rate in the window crosses the threshold (and the minimum number of
+ * calls has been seen). After the open duration a limited number of
+ * trial calls are allowed (half-open), a successful trial closes the
+ * circuit, a failed trial opens it again.
+ */
+public class CircuitBreaker {
+    private final String name;
+    private final int failureRateThreshold;
+    private final int minimumCalls;
+    private final long openDuration;
+    private final int halfOpenCalls;
+    private final long bucketDuration;
+    private final long[] bucketStart;
+    private final long[] bucketCalls;
+    private final long[] bucketFailures;
+
+    private volatile ECircuitState state = ECircuitState.Closed;
+    private long openUntil = 0;
+    private int halfOpenPermits = 0;
+    private long lastStateChange = System.currentTimeMillis();
+
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder halfOpened = new LongAdder();
+    private final LongAdder closed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+
+    /**
+     * Constructor with circuit name and settings.
+     *
+     * @param name   - Circuit name (used for logging/stats).
+     * @param config - Resilience settings.
+     */
+    public CircuitBreaker(@Nonnull String name,
+                          @Nonnull ResilienceConfig config) {
+        Preconditions.checkArgument(name != null);
+        Preconditions.checkArgument(config != null);
+        Preconditions.checkArgument(config.getWindow() > 0);
+        Preconditions.checkArgument(config.getWindowBuckets() > 0);
+        Preconditions.checkArgument(config.getFailureRateThreshold() > 0
+                                            &&
+                                            config.getFailureRateThreshold() <=
+                                                    100);
+
+        this.name = name;
+        this.failureRateThreshold = config.getFailureRateThreshold();
+        this.minimumCalls = Math.max(1, config.getMinimumCalls());
+        this.openDuration = TimeUnit.MILLISECONDS.toNanos(config.getOpenDuration());
+        this.halfOpenCalls = Math.max(1, config.getHalfOpenCalls());
+        int buckets = config.getWindowBuckets();
+        this.bucketDuration = Math.max(1, TimeUnit.MILLISECONDS
+                .toNanos(config.getWindow()) / buckets);
+        this.bucketStart = new long[buckets];
+        this.bucketCalls = new long[buckets];
+        this.bucketFailures = new long[buckets];
+    }
+
+    /**
+     * Get the circuit name.
+     *
+     * @return - Circuit name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the current circuit state.
+     *
+     * @return - Circuit state.
+     */
+    public ECircuitState getState() {
+        return state;
+    }
+
+    /**
+     * Check if a call is allowed to proceed. Calls rejected by
+     * this method are counted as rejected.
+     *
+     * @return - Call allowed?
+     */
+    public boolean allowRequest() {
+        if (state == ECircuitState.Closed) {
+            return true;
+        }
+        synchronized (this) {
+            if (state == ECircuitState.Open) {
+                if (System.nanoTime() - openUntil >= 0) {
+                    transition(ECircuitState.HalfOpen);
+                    halfOpenPermits = halfOpenCalls;
+                } else {
+                    rejected.increment();
+                    return false;
+                }
+            }
+            if (state == ECircuitState.HalfOpen) {
+                if (halfOpenPermits > 0) {
+                    halfOpenPermits--;
+                    return true;
+                }
+                rejected.increment();
+                return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Record a successful call.
+     */
+    public void onSuccess() {
+        record(false);
+    }
+
+    /**
+     * Record a failed call.
+     */
+    public void onFailure() {
+        record(true);
+    }
+
+    /**
+     * Record a retry attempt.
+     */
+    public void onRetry() {
+        retries.increment();
+    }
+
+    /**
+     * Get a snapshot of the circuit state and counters.
+     *
+     * @return - Circuit Stats.
+     */
+    public synchronized CircuitStats getStats() {
+        long now = System.nanoTime();
+        CircuitStats stats = new CircuitStats();
+        stats.setName(name);
+        stats.setState(state);
+        stats.setWindowCalls(windowCalls(now));
+        stats.setWindowFailures(windowFailures(now));
+        stats.setOpened(opened.sum());
+        stats.setHalfOpened(halfOpened.sum());
+        stats.setClosed(closed.sum());
+        stats.setRejected(rejected.sum());
+        stats.setRetries(retries.sum());
+        stats.setLastStateChange(lastStateChange);
+        return stats;
+    }
+
+    private synchronized void record(boolean failure) {
+        long now = System.nanoTime();
+        if (state == ECircuitState.HalfOpen) {
+            if (failure) {
+                open(now);
+            } else {
+                transition(ECircuitState.Closed);
+                clear();
+            }
+            return;
+        }
+        if (state == ECircuitState.Open) {
+            // Call admitted before the circuit opened.
+            return;
+        }
+        int index = bucket(now);
+        bucketCalls[index]++;
+        if (failure) {
+            bucketFailures[index]++;
+            long calls = windowCalls(now);
+            if (calls >= minimumCalls) {
+                long failures = windowFailures(now);
+                if (failures * 100 >= calls * failureRateThreshold) {
+                    open(now);
+                }
+            }
+        }
+    }
+
+    private void open(long now) {
+        transition(ECircuitState.Open);
+        openUntil = now + openDuration;
+        halfOpenPermits = 0;
+        clear();
+    }
+
+    private void transition(ECircuitState next) {
+        if (state == next) {
+            return;
+        }
+        ECircuitState previous = state;
+        state = next;
+        lastStateChange = System.currentTimeMillis();
+        switch (next) {
+            case Open:
+                opened.increment();
+                LogUtils.warn(getClass(),
+                              String.format("Circuit opened. [name=%s][previous=%s]",
+                                            name, previous.name()));
+                break;
+            case HalfOpen:
+                halfOpened.increment();
+                LogUtils.info(getClass(),
+                              String.format("Circuit half-open. [name=%s]", name));
+                break;
+            case Closed:
+                closed.increment();
+                LogUtils.info(getClass(),
+                              String.format("Circuit closed. [name=%s]", name));
+                break;
+        }
+    }
+
+    private int bucket(long now) {
+        long slot = now / bucketDuration;
+        int index = (int) Math.floorMod(slot, (long) bucketStart.length);
+        long start = slot * bucketDuration;
+        if (bucketStart[index] != start) {
+            bucketStart[index] = start;
+            bucketCalls[index] = 0;
+            bucketFailures[index] = 0;
+        }
+        return index;
+    }
+
+    private boolean inWindow(int index, long now) {
+        return now - bucketStart[index] < bucketDuration * bucketStart.length;
+    }
+
+    private long windowCalls(long now) {
+        long calls = 0;
+        for (int ii = 0; ii < bucketCalls.length; ii++) {
+            if (inWindow(ii, now)) {
+                calls += bucketCalls[ii];
+            }
+        }
+        return calls;
+    }
+
+    private long windowFailures(long now) {
+        long failures = 0;
+        for (int ii = 0; ii < bucketFailures.length; ii++) {
+            if (inWindow(ii, now)) {
+                failures += bucketFailures[ii];
+            }
+        }
+        return failures;
+    }
+
+    private void clear() {
+        for (int ii = 0; ii < bucketStart.length; ii++) {
+            bucketCalls[ii] = 0;
+            bucketFailures[ii] = 0;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.codekutter.genesis.pipelines.extensions.resilience;
+
+import com.codekutter.genesis.pipelines.extensions.DataServiceException;
+
+/**
+ * Exception raised when a data service call is rejected by an
+ * open circuit breaker.
+ */
+public class CircuitOpenException extends DataServiceException {
+    /**
+     * Exception constructor with error message string.
+     *
+     * @param s - Error message string.
+     */
+    public CircuitOpenException(String s) {
+        super(s);
+    }
+
+    /**
+     * Check if the error was caused by an open circuit (the exception
+     * or one of its causes is a CircuitOpenException).
+     *
+     * @param error - Error to check.
+     * @return - Caused by an open circuit?
+     */
+    public static boolean isCause(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof CircuitOpenException) {
+                return true;
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,52 @@
+package com.codekutter.genesis.pipelines.extensions.resilience;
+
+import lombok.Data;
+import lombok.ToString;
+
+/**
+ * Snapshot of the state and counters of a circuit breaker.
+ */
+@Data
+@ToString
+public class CircuitStats {
+    /**
+     * Circuit name.
+     */
+    private String name;
+    /**
+     * Current state.
+     */
+    private ECircuitState state;
+    /**
+     * Calls in the rolling window.
+     */
+    private long windowCalls;
+    /**
+     * Failed calls in the rolling window.
+     */
+    private long windowFailures;
+    /**
+     * Number of times the circuit was opened.
+     */
+    private long opened;
+    /**
+     * Number of times the circuit was half-opened.
+     */
+    private long halfOpened;
+    /**
+     * Number of times the circuit was closed (recovered).
+     */
+    private long closed;
+    /**
+     * Calls rejected while the circuit was open.
+     */
+    private long rejected;
+    /**
+     * Calls retried.
+     */
+    private long retries;
+    /**
+     * Timestamp of the last state change.
+     */
+    private long lastStateChange;
+}
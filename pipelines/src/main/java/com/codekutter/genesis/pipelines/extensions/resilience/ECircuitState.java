@@ -0,0 +1,19 @@
+package com.codekutter.genesis.pipelines.extensions.resilience;
+
+/**
+ * Enumeration to define the states of a circuit breaker.
+ */
+public enum ECircuitState {
+    /**
+     * Calls are allowed, failures are being tracked.
+     */
+    Closed,
+    /**
+     * Calls are rejected (fail fast).
+     */
+    Open,
+    /**
+     * Trial calls are allowed to check if the service has recovered.
+     */
+    HalfOpen
+}
@@ -0,0 +1,98 @@
+package com.codekutter.genesis.pipelines.extensions.resilience;
+
+import com.codekutter.zconfig.common.ConfigurationAnnotationProcessor;
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.model.annotations.ConfigAttribute;
+import com.codekutter.zconfig.common.model.annotations.ConfigPath;
+import com.codekutter.zconfig.common.model.nodes.AbstractConfigNode;
+import com.codekutter.zconfig.common.model.nodes.ConfigPathNode;
+import lombok.Data;
+import lombok.ToString;
+
+/**
+ * Circuit breaker and retry settings for data services.
+ * <p>
+ * Sample Configuration:
+ * &lt;resilience failureRateThreshold="50" window="10000" minimumCalls="10"
+ * openDuration="30000" maxRetries="2" initialBackoff="100" maxBackoff="2000"/&gt;
+ */
+@Data
+@ToString
+@ConfigPath(path = "resilience")
+public class ResilienceConfig {
+    public static final String CONFIG_NODE_RESILIENCE = "resilience";
+
+    /**
+     * Failure rate (percentage) in the rolling window at which
+     * the circuit is opened.
+     */
+    @ConfigAttribute(name = "failureRateThreshold", required = false)
+    private int failureRateThreshold = 50;
+    /**
+     * Rolling window duration (in milliseconds).
+     */
+    @ConfigAttribute(name = "window", required = false)
+    private long window = 10000;
+    /**
+     * Number of buckets the rolling window is split into.
+     */
+    @ConfigAttribute(name = "windowBuckets", required = false)
+    private int windowBuckets = 10;
+    /**
+     * Minimum calls in the window before the failure rate is evaluated.
+     */
+    @ConfigAttribute(name = "minimumCalls", required = false)
+    private int minimumCalls = 10;
+    /**
+     * Time the circuit stays open before trial calls are allowed
+     * (in milliseconds).
+     */
+    @ConfigAttribute(name = "openDuration", required = false)
+    private long openDuration = 30000;
+    /**
+     * Number of trial calls allowed when half-open.
+     */
+    @ConfigAttribute(name = "halfOpenCalls", required = false)
+    private int halfOpenCalls = 1;
+    /**
+     * Max number of retries for transient errors. (0 = no retries)
+     */
+    @ConfigAttribute(name = "maxRetries", required = false)
+    private int maxRetries = 2;
+    /**
+     * Initial retry backoff (in milliseconds).
+     */
+    @ConfigAttribute(name = "initialBackoff", required = false)
+    private long initialBackoff = 100;
+    /**
+     * Max retry backoff (in milliseconds).
+     */
+    @ConfigAttribute(name = "maxBackoff", required = false)
+    private long maxBackoff = 2000;
+    /**
+     * Backoff multiplier applied per retry.
+     */
+    @ConfigAttribute(name = "backoffMultiplier", required = false)
+    private double backoffMultiplier = 2.0;
+
+    /**
+     * Read the resilience settings defined under the passed node.
+     *
+     * @param node - Parent Configuration Node.
+     * @return - Resilience settings or NULL if not configured.
+     * @throws ConfigurationException
+     */
+    public static ResilienceConfig read(AbstractConfigNode node)
+    throws ConfigurationException {
+        if (node instanceof ConfigPathNode) {
+            AbstractConfigNode cnode =
+                    ((ConfigPathNode) node).getChildNode(CONFIG_NODE_RESILIENCE);
+            if (cnode != null) {
+                return ConfigurationAnnotationProcessor
+                        .readConfigAnnotations(ResilienceConfig.class,
+                                               (ConfigPathNode) node);
+            }
+        }
+        return null;
+    }
+}
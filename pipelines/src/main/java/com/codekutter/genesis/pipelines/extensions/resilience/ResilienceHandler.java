@@ -0,0 +1,105 @@
+package com.codekutter.genesis.pipelines.extensions.resilience;
+
+import com.codekutter.genesis.pipelines.Context;
+import com.codekutter.genesis.pipelines.extensions.DataServiceException;
+import com.codekutter.zconfig.common.LogUtils;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Executes data service calls through a circuit breaker and retry policy.
+ */
+public class ResilienceHandler {
+    /**
+     * Data service call to be executed.
+     *
+     * @param <R> - Result Type.
+     */
+    public interface ServiceCall<R> {
+        R call() throws DataServiceException;
+    }
+
+    private final CircuitBreaker breaker;
+    private final RetryPolicy retryPolicy;
+
+    /**
+     * Constructor with name and settings.
+     *
+     * @param name   - Circuit name.
+     * @param config - Resilience settings.
+     */
+    public ResilienceHandler(@Nonnull String name,
+                             @Nonnull ResilienceConfig config) {
+        this.breaker = new CircuitBreaker(name, config);
+        this.retryPolicy = new RetryPolicy(config);
+    }
+
+    /**
+     * Get the circuit breaker.
+     *
+     * @return - Circuit Breaker.
+     */
+    public CircuitBreaker getBreaker() {
+        return breaker;
+    }
+
+    /**
+     * Get the retry policy.
+     *
+     * @return - Retry Policy.
+     */
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Execute the call, failing fast if the circuit is open and
+     * retrying transient errors.
+     *
+     * @param call    - Service call.
+     * @param context - Context Handle.
+     * @param <R>     - Result Type.
+     * @return - Call result.
+     * @throws DataServiceException
+     */
+    public <R> R execute(@Nonnull ServiceCall<R> call, Context context)
+    throws DataServiceException {
+        Preconditions.checkArgument(call != null);
+        int retry = 0;
+        Exception last = null;
+        while (true) {
+            if (!breaker.allowRequest()) {
+                // A retry rejected because the failure (re)opened the circuit
+                // (e.g. a failed half-open trial) reports the actual failure.
+                if (last instanceof DataServiceException) {
+                    throw (DataServiceException) last;
+                } else if (last != null) {
+                    throw (RuntimeException) last;
+                }
+                throw new CircuitOpenException(
+                        String.format("Circuit open. [name=%s]",
+                                      breaker.getName()));
+            }
+            try {
+                R result = call.call();
+                breaker.onSuccess();
+                return result;
+            } catch (DataServiceException | RuntimeException ex) {
+                last = ex;
+                breaker.onFailure();
+                if (retry >= retryPolicy.getMaxRetries()
+                        || !retryPolicy.isTransient(ex)
+                        || !retryPolicy.backoff(retry, context)) {
+                    throw ex;
+                }
+                retry++;
+                breaker.onRetry();
+                LogUtils.debug(getClass(),
+                               String.format("Retrying call. [name=%s][retry=%d][error=%s]",
+                                             breaker.getName(), retry,
+                                             ex.getLocalizedMessage()));
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.codekutter.genesis.pipelines.extensions.resilience;
+
+import com.codekutter.genesis.pipelines.Context;
+import com.codekutter.genesis.pipelines.extensions.DataServiceException;
+import com.codekutter.genesis.pipelines.extensions.IDataConsumer;
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.model.nodes.AbstractConfigNode;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Data consumer wrapper that executes calls through a circuit
+ * breaker and retry policy.
+ *
+ * @param <T> - Entity Type
+ * @param <O> - Operation Type
+ */
+public class ResilientDataConsumer<T, O> implements IDataConsumer<T, O> {
+    private final IDataConsumer<T, O> consumer;
+    private final ResilienceHandler handler;
+
+    /**
+     * Constructor with the consumer to wrap and the resilience settings.
+     *
+     * @param consumer - Data Consumer.
+     * @param config   - Resilience settings.
+     */
+    public ResilientDataConsumer(@Nonnull IDataConsumer<T, O> consumer,
+                                 @Nonnull ResilienceConfig config) {
+        Preconditions.checkArgument(consumer != null);
+        this.consumer = consumer;
+        this.handler = new ResilienceHandler(consumer.getClass().getCanonicalName(),
+                                             config);
+    }
+
+    /**
+     * Get the resilience handler used by this consumer.
+     *
+     * @return - Resilience Handler.
+     */
+    public ResilienceHandler getHandler() {
+        return handler;
+    }
+
+    /**
+     * Process an entity instance.
+     *
+     * @param data      - Entity instance
+     * @param operation - Operation to be performed.
+     * @param context   - Context Handle.
+     * @return - Modified Entity.
+     * @throws DataServiceException
+     */
+    @Override
+    public T process(T data, O operation, Context context)
+    throws DataServiceException {
+        return handler.execute(() -> consumer.process(data, operation, context),
+                               context);
+    }
+
+    /**
+     * Process the list of entities passed.
+     *
+     * @param dataSet   - List of Entities
+     * @param operation - Operation to be performed.
+     * @param context   - Context Handle.
+     * @return - Updated List of Entities.
+     * @throws DataServiceException
+     */
+    @Override
+    public List<T> process(List<T> dataSet, O operation, Context context)
+    throws DataServiceException {
+        return handler.execute(() -> consumer.process(dataSet, operation, context),
+                               context);
+    }
+
+    /**
+     * Close the wrapped consumer.
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        consumer.close();
+    }
+
+    /**
+     * Wrap the consumer if resilience settings are defined under the passed node.
+     *
+     * @param consumer - Data Consumer.
+     * @param node     - Configuration Node.
+     * @param <T>      - Entity Type
+     * @param <O>      - Operation Type
+     * @return - Wrapped consumer or the passed consumer if not configured.
+     * @throws ConfigurationException
+     */
+    public static <T, O> IDataConsumer<T, O> wrap(
+            @Nonnull IDataConsumer<T, O> consumer,
+            @Nonnull AbstractConfigNode node) throws ConfigurationException {
+        ResilienceConfig config = ResilienceConfig.read(node);
+        if (config != null) {
+            return new ResilientDataConsumer<>(consumer, config);
+        }
+        return consumer;
+    }
+}
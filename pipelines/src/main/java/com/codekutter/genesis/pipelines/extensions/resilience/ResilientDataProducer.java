@@ -0,0 +1,89 @@
+package com.codekutter.genesis.pipelines.extensions.resilience;
+
+import com.codekutter.genesis.pipelines.Context;
+import com.codekutter.genesis.pipelines.extensions.DataServiceException;
+import com.codekutter.genesis.pipelines.extensions.IDataProducer;
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.model.nodes.AbstractConfigNode;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Data producer wrapper that executes fetches through a circuit
+ * breaker and retry policy.
+ *
+ * @param <T> - Entity Type
+ */
+public class ResilientDataProducer<T> implements IDataProducer<T> {
+    private final IDataProducer<T> producer;
+    private final ResilienceHandler handler;
+
+    /**
+     * Constructor with the producer to wrap and the resilience settings.
+     *
+     * @param producer - Data Producer.
+     * @param config   - Resilience settings.
+     */
+    public ResilientDataProducer(@Nonnull IDataProducer<T> producer,
+                                 @Nonnull ResilienceConfig config) {
+        Preconditions.checkArgument(producer != null);
+        this.producer = producer;
+        this.handler = new ResilienceHandler(producer.getClass().getCanonicalName(),
+                                             config);
+    }
+
+    /**
+     * Get the resilience handler used by this producer.
+     *
+     * @return - Resilience Handler.
+     */
+    public ResilienceHandler getHandler() {
+        return handler;
+    }
+
+    /**
+     * Fetch a data set based on the passed query.
+     *
+     * @param query   - Query Condition.
+     * @param context - Context Handle.
+     * @return - Fetched entities.
+     * @throws DataServiceException
+     */
+    @Override
+    public List<T> fetch(String query, Context context)
+    throws DataServiceException {
+        return handler.execute(() -> producer.fetch(query, context), context);
+    }
+
+    /**
+     * Close the wrapped producer.
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        producer.close();
+    }
+
+    /**
+     * Wrap the producer if resilience settings are defined under the passed node.
+     *
+     * @param producer - Data Producer.
+     * @param node     - Configuration Node.
+     * @param <T>      - Entity Type
+     * @return - Wrapped producer or the passed producer if not configured.
+     * @throws ConfigurationException
+     */
+    public static <T> IDataProducer<T> wrap(@Nonnull IDataProducer<T> producer,
+                                            @Nonnull AbstractConfigNode node)
+    throws ConfigurationException {
+        ResilienceConfig config = ResilienceConfig.read(node);
+        if (config != null) {
+            return new ResilientDataProducer<>(producer, config);
+        }
+        return producer;
+    }
+}
@@ -0,0 +1,111 @@
+package com.codekutter.genesis.pipelines.extensions.resilience;
+
+import com.codekutter.genesis.pipelines.Context;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Retry policy with exponential backoff and full jitter.
+ * <p>
+ * Only transient errors (I/O and timeout failures in the cause chain)
+ * are retried, retries are bounded by the context deadline.
+ */
+public class RetryPolicy {
+    private final int maxRetries;
+    private final long initialBackoff;
+    private final long maxBackoff;
+    private final double multiplier;
+
+    /**
+     * Constructor with the resilience settings.
+     *
+     * @param config - Resilience settings.
+     */
+    public RetryPolicy(@Nonnull ResilienceConfig config) {
+        Preconditions.checkArgument(config != null);
+        Preconditions.checkArgument(config.getMaxRetries() >= 0);
+        Preconditions.checkArgument(config.getBackoffMultiplier() >= 1.0);
+
+        this.maxRetries = config.getMaxRetries();
+        this.initialBackoff = Math.max(0, config.getInitialBackoff());
+        this.maxBackoff = Math.max(initialBackoff, config.getMaxBackoff());
+        this.multiplier = config.getBackoffMultiplier();
+    }
+
+    /**
+     * Get the max number of retries.
+     *
+     * @return - Max retries.
+     */
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * Get the (jittered) backoff before the specified retry.
+     *
+     * @param retry - Retry number (0 based).
+     * @return - Backoff in milliseconds.
+     */
+    public long getBackoff(int retry) {
+        double cap = initialBackoff * Math.pow(multiplier, retry);
+        long bound = (long) Math.min(maxBackoff, cap);
+        if (bound <= 0) {
+            return 0;
+        }
+        return ThreadLocalRandom.current().nextLong(bound + 1);
+    }
+
+    /**
+     * Check if the error should be retried.
+     *
+     * @param error - Error raised by the call.
+     * @return - Is transient?
+     */
+    public boolean isTransient(Throwable error) {
+        Throwable cause = error;
+        while (cause != null) {
+            if (cause instanceof CircuitOpenException) {
+                return false;
+            }
+            if (cause instanceof IOException
+                    || cause instanceof TimeoutException) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+            cause = cause.getCause();
+        }
+        return false;
+    }
+
+    /**
+     * Wait for the backoff before the specified retry.
+     *
+     * @param retry   - Retry number (0 based).
+     * @param context - Context Handle (deadline bounds the wait).
+     * @return - False if the deadline doesn't leave room for the retry.
+     */
+    public boolean backoff(int retry, Context context) {
+        long wait = getBackoff(retry);
+        if (context != null && context.hasDeadline()
+                && context.getRemainingTime(TimeUnit.MILLISECONDS) <= wait) {
+            return false;
+        }
+        if (wait > 0) {
+            try {
+                Thread.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,141 @@
+package com.codekutter.genesis.pipelines.factory;
+
+import com.codekutter.zconfig.common.LogUtils;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the build-time generated factories and config binders,
+ * keyed by class name. The generated providers are loaded (once) using
+ * the ServiceLoader.
+ */
+public final class FactoryRegistry {
+    /**
+     * Registered factory and binder of a type.
+     *
+     * @param <T> - Type.
+     */
+    private static final class Entry<T> {
+        private final Class<T> type;
+        private final IObjectFactory<T> factory;
+        private final IConfigBinder<T> binder;
+
+        private Entry(Class<T> type, IObjectFactory<T> factory,
+                      IConfigBinder<T> binder) {
+            this.type = type;
+            this.factory = factory;
+            this.binder = binder;
+        }
+    }
+
+    private static final class Holder {
+        private static final FactoryRegistry REGISTRY = load();
+    }
+
+    private final Map<String, Entry<?>> entries = new ConcurrentHashMap<>();
+
+    private FactoryRegistry() {
+    }
+
+    /**
+     * Get the registry instance, the generated providers are loaded on
+     * first access.
+     *
+     * @return - Factory registry.
+     */
+    public static FactoryRegistry get() {
+        return Holder.REGISTRY;
+    }
+
+    /**
+     * Register the factory (and binder) for a type.
+     *
+     * @param type    - Type.
+     * @param factory - Instance factory.
+     * @param binder  - Config binder, NULL if fields need to be bound
+     *                using reflection.
+     * @param <T>     - Type.
+     */
+    public <T> void register(@Nonnull Class<T> type,
+                             @Nonnull IObjectFactory<T> factory,
+                             IConfigBinder<T> binder) {
+        Preconditions.checkArgument(type != null);
+        Preconditions.checkArgument(factory != null);
+        entries.put(type.getName(), new Entry<>(type, factory, binder));
+    }
+
+    /**
+     * Get the registered type for a class name.
+     *
+     * @param name - Class name.
+     * @return - Type, NULL if not registered.
+     */
+    public Class<?> getType(@Nonnull String name) {
+        Entry<?> entry = entries.get(name);
+        return (entry != null ? entry.type : null);
+    }
+
+    /**
+     * Get the factory for a type.
+     *
+     * @param type - Type.
+     * @param <T>  - Type.
+     * @return - Factory, NULL if not registered.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> IObjectFactory<T> getFactory(@Nonnull Class<T> type) {
+        Entry<?> entry = entries.get(type.getName());
+        if (entry != null && entry.type == type) {
+            return (IObjectFactory<T>) entry.factory;
+        }
+        return null;
+    }
+
+    /**
+     * Get the config binder for a type.
+     *
+     * @param type - Type.
+     * @param <T>  - Type.
+     * @return - Binder, NULL if not registered.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> IConfigBinder<T> getBinder(@Nonnull Class<T> type) {
+        Entry<?> entry = entries.get(type.getName());
+        if (entry != null && entry.type == type) {
+            return (IConfigBinder<T>) entry.binder;
+        }
+        return null;
+    }
+
+    /**
+     * Get the number of registered types.
+     *
+     * @return - Registered types.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private static FactoryRegistry load() {
+        FactoryRegistry registry = new FactoryRegistry();
+        try {
+            for (IFactoryProvider provider :
+                    ServiceLoader.load(IFactoryProvider.class,
+                                       FactoryRegistry.class.getClassLoader())) {
+                provider.register(registry);
+            }
+        } catch (ServiceConfigurationError e) {
+            LogUtils.warn(FactoryRegistry.class, String.format(
+                    "Error loading factory providers. [error=%s]",
+                    e.getLocalizedMessage()));
+        }
+        LogUtils.debug(FactoryRegistry.class, String.format(
+                "Loaded generated factories. [types=%d]", registry.size()));
+        return registry;
+    }
+}
@@ -0,0 +1,25 @@
+package com.codekutter.genesis.pipelines.factory;
+
+import com.codekutter.genesis.pipelines.snapshot.DefinitionNode;
+import com.codekutter.zconfig.common.ConfigurationException;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Binder to set the configuration fields of a type from a compiled
+ * definition element without reflection.
+ *
+ * @param <T> - Bound Type.
+ */
+@FunctionalInterface
+public interface IConfigBinder<T> {
+    /**
+     * Set the configuration fields of the target.
+     *
+     * @param target - Instance to configure.
+     * @param node   - Definition element.
+     * @throws ConfigurationException
+     */
+    void bind(@Nonnull T target, @Nonnull DefinitionNode node)
+    throws ConfigurationException;
+}
@@ -0,0 +1,17 @@
+package com.codekutter.genesis.pipelines.factory;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Provider of generated factories, loaded as a service by the
+ * factory registry. Implementations are generated at build time by the
+ * pipelines-codegen annotation processor.
+ */
+public interface IFactoryProvider {
+    /**
+     * Register the factories of this provider.
+     *
+     * @param registry - Factory registry.
+     */
+    void register(@Nonnull FactoryRegistry registry);
+}
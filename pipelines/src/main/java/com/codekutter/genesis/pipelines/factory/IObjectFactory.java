@@ -0,0 +1,16 @@
+package com.codekutter.genesis.pipelines.factory;
+
+/**
+ * Factory to create instances of a configured type without reflection.
+ *
+ * @param <T> - Created Type.
+ */
+@FunctionalInterface
+public interface IObjectFactory<T> {
+    /**
+     * Create a new (un-configured) instance.
+     *
+     * @return - New instance.
+     */
+    T create();
+}
@@ -2,7 +2,9 @@ package com.codekutter.genesis.pipelines.impl;
 
 import com.codekutter.genesis.pipelines.*;
 import com.codekutter.genesis.pipelines.extensions.EEmailOperations;
+import com.codekutter.genesis.pipelines.extensions.IDataServiceMonitor;
 import com.codekutter.genesis.pipelines.extensions.email.EmailDataConsumer;
+import com.codekutter.genesis.pipelines.extensions.resilience.ResilientDataConsumer;
 import com.codekutter.genesis.pipelines.types.DataConsumer;
 import com.codekutter.zconfig.common.ConfigurationAnnotationProcessor;
 import com.codekutter.zconfig.common.ConfigurationException;
@@ -14,11 +16,15 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 
 import javax.mail.Message;
+import java.util.Collections;
+import java.util.Map;
 
 /**
  * Email consumer processor implementation - Used for sending/updating emails.
  */
-public class EmailConsumer extends DataConsumer<Message, EEmailOperations> {
+public class EmailConsumer extends DataConsumer<Message, EEmailOperations>
+        implements IDataServiceMonitor {
+    private EmailDataConsumer dataService;
 
     /**
      * Parse the operation type based on the input context object.
@@ -50,9 +56,10 @@ public class EmailConsumer extends DataConsumer<Message, EEmailOperations> {
         Preconditions
                 .checkArgument(node != null && (node instanceof ConfigPathNode));
         try {
-            consumer = ConfigurationAnnotationProcessor
+            dataService = ConfigurationAnnotationProcessor
                     .readConfigAnnotations(EmailDataConsumer.class,
                                            (ConfigPathNode) node);
+            consumer = ResilientDataConsumer.wrap(dataService, node);
             state.setState(EProcessState.Available);
         } catch (Exception ex) {
             state.setError(ex);
@@ -60,4 +67,37 @@ public class EmailConsumer extends DataConsumer<Message, EEmailOperations> {
             throw new ConfigurationException(ex);
         }
     }
+
+    /**
+     * Check if the email data service is connected.
+     *
+     * @return - Is connected?
+     */
+    @Override
+    public boolean isConnected() {
+        return (dataService != null && dataService.isConnected());
+    }
+
+    /**
+     * Get the operation counters of the email data service.
+     *
+     * @return - Map of operation name to count.
+     */
+    @Override
+    public Map<String, Long> getOperationCounts() {
+        if (dataService != null) {
+            return dataService.getOperationCounts();
+        }
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Reset the operation counters of the email data service.
+     */
+    @Override
+    public void resetOperationCounts() {
+        if (dataService != null) {
+            dataService.resetOperationCounts();
+        }
+    }
 }
@@ -1,6 +1,8 @@
 package com.codekutter.genesis.pipelines.impl;
 
+import com.codekutter.genesis.pipelines.extensions.IDataServiceMonitor;
 import com.codekutter.genesis.pipelines.extensions.email.EmailDataProducer;
+import com.codekutter.genesis.pipelines.extensions.resilience.ResilientDataProducer;
 import com.codekutter.genesis.pipelines.types.CollectionDataProducer;
 import com.codekutter.zconfig.common.ConfigurationAnnotationProcessor;
 import com.codekutter.zconfig.common.ConfigurationException;
@@ -10,11 +12,25 @@ import com.codekutter.zconfig.common.model.nodes.AbstractConfigNode;
 import com.codekutter.zconfig.common.model.nodes.ConfigPathNode;
 
 import javax.mail.Message;
+import java.util.Collections;
+import java.util.Map;
 
 /**
  * Producer pipeline to read and process emails.
  */
-public class EmailProducer extends CollectionDataProducer<Message> {
+public class EmailProducer extends CollectionDataProducer<Message>
+        implements IDataServiceMonitor {
+    private String dateFormat;
+    private EmailDataProducer dataService;
+
+    /**
+     * Get the date format supported by the email query parser.
+     *
+     * @return - Supported Date format.
+     */
+    public String getDateFormat() {
+        return dateFormat;
+    }
 
     /**
      * Method to initialize the processor from the configuration.
@@ -30,13 +46,48 @@ public class EmailProducer extends CollectionDataProducer<Message> {
     public void init(AbstractConfigNode node) throws ConfigurationException {
         super.init(node);
         try {
-            producer = ConfigurationAnnotationProcessor
+            dataService = ConfigurationAnnotationProcessor
                     .readConfigAnnotations(EmailDataProducer.class,
                                            (ConfigPathNode) node);
+            dateFormat = dataService.getDateFormat();
+            producer = ResilientDataProducer.wrap(dataService, node);
         } catch (Exception ex) {
             state.setError(ex);
             LogUtils.debug(getClass(), ex);
             throw new ConfigurationException(ex);
         }
     }
+
+    /**
+     * Check if the email data service is connected.
+     *
+     * @return - Is connected?
+     */
+    @Override
+    public boolean isConnected() {
+        return (dataService != null && dataService.isConnected());
+    }
+
+    /**
+     * Get the operation counters of the email data service.
+     *
+     * @return - Map of operation name to count.
+     */
+    @Override
+    public Map<String, Long> getOperationCounts() {
+        if (dataService != null) {
+            return dataService.getOperationCounts();
+        }
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Reset the operation counters of the email data service.
+     */
+    @Override
+    public void resetOperationCounts() {
+        if (dataService != null) {
+            dataService.resetOperationCounts();
+        }
+    }
 }
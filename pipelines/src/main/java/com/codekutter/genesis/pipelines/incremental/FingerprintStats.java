@@ -0,0 +1,36 @@
+package com.codekutter.genesis.pipelines.incremental;
+
+import lombok.Data;
+import lombok.ToString;
+
+/**
+ * Snapshot of the size and counters of a fingerprint store.
+ */
+@Data
+@ToString
+public class FingerprintStats {
+    /**
+     * Entity keys with a stored fingerprint.
+     */
+    private long entries;
+    /**
+     * Records in the store file (including superseded records).
+     */
+    private long records;
+    /**
+     * Size of the store file (in bytes).
+     */
+    private long fileSize;
+    /**
+     * Number of compactions of the store file.
+     */
+    private long compactions;
+    /**
+     * Entities checked that were new or changed.
+     */
+    private long changed;
+    /**
+     * Entities checked that were unchanged (skipped).
+     */
+    private long unchanged;
+}
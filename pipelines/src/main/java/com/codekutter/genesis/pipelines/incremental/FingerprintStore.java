@@ -0,0 +1,360 @@
+package com.codekutter.genesis.pipelines.incremental;
+
+import com.codekutter.zconfig.common.LogUtils;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Local, memory-mapped store of the content fingerprints of processed
+ * entities (entity key to fingerprint).
+ * <p>
+ * The store file is an append only log of fixed size records (key hash,
+ * fingerprint), mapped in memory and indexed by an open addressing hash
+ * table. Updates append a record, the file is compacted (rewritten with
+ * the latest record of each key) once the superseded records outnumber
+ * the live ones.
+ * <p>
+ * Stores are shared by file (see open), so pipelines swapped on reload
+ * update the same store.
+ * <p>
+ * Keys are hashed by value with the Fingerprinter encoding (numbers,
+ * strings, enums, dates, arrays and collections), keys of other types
+ * are hashed by their toString(), which must then be value based.
+ */
+public class FingerprintStore {
+    private static final int MAGIC = 0x47465053;
+    private static final int FORMAT = 1;
+    private static final int HEADER = 32;
+    private static final int COUNT_OFFSET = 8;
+    private static final int RECORD = 16;
+    private static final long INITIAL_SIZE = 1024 * 1024;
+    private static final long COMPACT_MIN_RECORDS = 8192;
+    private static final long KEY_SEED = 0x27D4EB2F165667C5L;
+
+    private static final Map<String, FingerprintStore> STORES = new HashMap<>();
+
+    /**
+     * Open addressing map of key hash to fingerprint (0 = empty slot).
+     */
+    private static final class Index {
+        private long[] keys = new long[1024];
+        private long[] values = new long[1024];
+        private int size;
+
+        private int slot(long[] table, long key) {
+            int mask = table.length - 1;
+            int index = (int) (key ^ (key >>> 32)) & mask;
+            while (table[index] != 0 && table[index] != key) {
+                index = (index + 1) & mask;
+            }
+            return index;
+        }
+
+        private boolean contains(long key) {
+            return keys[slot(keys, key)] == key;
+        }
+
+        private long get(long key) {
+            return values[slot(keys, key)];
+        }
+
+        private void put(long key, long value) {
+            int index = slot(keys, key);
+            if (keys[index] == 0) {
+                keys[index] = key;
+                size++;
+                values[index] = value;
+                if (size * 2 > keys.length) {
+                    resize();
+                }
+            } else {
+                values[index] = value;
+            }
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            long[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new long[oldKeys.length * 2];
+            for (int ii = 0; ii < oldKeys.length; ii++) {
+                if (oldKeys[ii] != 0) {
+                    int index = slot(keys, oldKeys[ii]);
+                    keys[index] = oldKeys[ii];
+                    values[index] = oldValues[ii];
+                }
+            }
+        }
+    }
+
+    private final File file;
+    private final Index index = new Index();
+    private RandomAccessFile raf;
+    private MappedByteBuffer buffer;
+    private long records;
+    private long compactions;
+    private long changed;
+    private long unchanged;
+    private int references;
+
+    private FingerprintStore(File file) throws IOException {
+        this.file = file;
+        open();
+    }
+
+    /**
+     * Open the store for the specified file, the store is shared by all
+     * the callers opening the same file until closed by all of them.
+     *
+     * @param file - Store file (created if it doesn't exist).
+     * @return - Fingerprint store.
+     * @throws IOException
+     */
+    public static FingerprintStore open(@Nonnull File file) throws IOException {
+        Preconditions.checkArgument(file != null);
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) {
+            throw new IOException(
+                    String.format("Error creating directory. [path=%s]",
+                                  dir.getAbsolutePath()));
+        }
+        String path = file.getCanonicalPath();
+        synchronized (STORES) {
+            FingerprintStore store = STORES.get(path);
+            if (store == null) {
+                store = new FingerprintStore(new File(path));
+                STORES.put(path, store);
+            }
+            store.references++;
+            return store;
+        }
+    }
+
+    /**
+     * Get the store file.
+     *
+     * @return - Store file.
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Check if the entity is new or changed since its fingerprint
+     * was stored.
+     *
+     * @param key         - Entity key.
+     * @param fingerprint - Current fingerprint.
+     * @return - Is new/changed?
+     */
+    public synchronized boolean isChanged(@Nonnull Object key, long fingerprint) {
+        long hash = hashKey(key);
+        if (index.contains(hash) && index.get(hash) == fingerprint) {
+            unchanged++;
+            return false;
+        }
+        changed++;
+        return true;
+    }
+
+    /**
+     * Store the fingerprint of a processed entity.
+     *
+     * @param key         - Entity key.
+     * @param fingerprint - Processed fingerprint.
+     * @throws IOException
+     */
+    public synchronized void put(@Nonnull Object key, long fingerprint)
+    throws IOException {
+        checkOpen();
+        long hash = hashKey(key);
+        if (index.contains(hash) && index.get(hash) == fingerprint) {
+            return;
+        }
+        long position = HEADER + records * RECORD;
+        if (position + RECORD > buffer.capacity()) {
+            remap(Math.max(buffer.capacity() * 2L, position + RECORD));
+        }
+        buffer.putLong((int) position, hash);
+        buffer.putLong((int) position + 8, fingerprint);
+        records++;
+        buffer.putLong(COUNT_OFFSET, records);
+        index.put(hash, fingerprint);
+
+        if (records >= COMPACT_MIN_RECORDS && records > 2L * index.size) {
+            compact();
+        }
+    }
+
+    /**
+     * Get the number of stored entity fingerprints.
+     *
+     * @return - Entry count.
+     */
+    public synchronized long size() {
+        return index.size;
+    }
+
+    /**
+     * Rewrite the store file with the latest fingerprint of each key.
+     *
+     * @throws IOException
+     */
+    public synchronized void compact() throws IOException {
+        checkOpen();
+        long start = System.nanoTime();
+        long before = records;
+        File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+        long size = Math.max(INITIAL_SIZE, HEADER + (long) index.size * RECORD);
+        try (RandomAccessFile out = new RandomAccessFile(temp, "rw")) {
+            out.setLength(0);
+            MappedByteBuffer target =
+                    out.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+            writeHeader(target);
+            int position = HEADER;
+            for (int ii = 0; ii < index.keys.length; ii++) {
+                if (index.keys[ii] != 0) {
+                    target.putLong(position, index.keys[ii]);
+                    target.putLong(position + 8, index.values[ii]);
+                    position += RECORD;
+                }
+            }
+            target.putLong(COUNT_OFFSET, index.size);
+            target.force();
+        }
+        buffer.force();
+        raf.close();
+        Path source = temp.toPath();
+        Path destination = file.toPath();
+        try {
+            Files.move(source, destination, StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            Files.move(source, destination, StandardCopyOption.REPLACE_EXISTING);
+        }
+        index.keys = new long[index.keys.length];
+        index.values = new long[index.values.length];
+        index.size = 0;
+        open();
+        compactions++;
+        LogUtils.debug(getClass(), String.format(
+                "Compacted fingerprint store. [file=%s][records=%d->%d][time=%dms]",
+                file.getAbsolutePath(), before, records,
+                (System.nanoTime() - start) / 1000000));
+    }
+
+    /**
+     * Flush the mapped updates to the store file.
+     */
+    public synchronized void flush() {
+        if (buffer != null) {
+            buffer.force();
+        }
+    }
+
+    /**
+     * Get a snapshot of the store size and counters.
+     *
+     * @return - Fingerprint Stats.
+     */
+    public synchronized FingerprintStats getStats() {
+        FingerprintStats stats = new FingerprintStats();
+        stats.setEntries(index.size);
+        stats.setRecords(records);
+        stats.setFileSize(file.length());
+        stats.setCompactions(compactions);
+        stats.setChanged(changed);
+        stats.setUnchanged(unchanged);
+        return stats;
+    }
+
+    /**
+     * Release the store, the file is flushed and closed once
+     * released by all the callers that opened it.
+     */
+    public void close() {
+        synchronized (STORES) {
+            if (references <= 0 || --references > 0) {
+                return;
+            }
+            STORES.remove(file.getPath());
+        }
+        synchronized (this) {
+            try {
+                flush();
+                raf.close();
+            } catch (IOException e) {
+                LogUtils.error(getClass(), e);
+            }
+            buffer = null;
+            raf = null;
+        }
+    }
+
+    private void checkOpen() throws IOException {
+        if (buffer == null) {
+            throw new IOException(String.format(
+                    "Fingerprint store closed. [file=%s]", file.getAbsolutePath()));
+        }
+    }
+
+    /**
+     * Map the store file and load the index from the records.
+     */
+    private void open() throws IOException {
+        boolean exists = file.exists() && file.length() >= HEADER;
+        raf = new RandomAccessFile(file, "rw");
+        long size = Math.max(INITIAL_SIZE, raf.length());
+        buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        if (!exists) {
+            writeHeader(buffer);
+            records = 0;
+            return;
+        }
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT) {
+            raf.close();
+            buffer = null;
+            throw new IOException(String.format(
+                    "Invalid fingerprint store. [file=%s]", file.getAbsolutePath()));
+        }
+        records = Math.min(buffer.getLong(COUNT_OFFSET), (size - HEADER) / RECORD);
+        for (long ii = 0; ii < records; ii++) {
+            int position = (int) (HEADER + ii * RECORD);
+            index.put(buffer.getLong(position), buffer.getLong(position + 8));
+        }
+    }
+
+    private void remap(long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException(String.format(
+                    "Fingerprint store full. [file=%s][records=%d]",
+                    file.getAbsolutePath(), records));
+        }
+        buffer.force();
+        buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    private static void writeHeader(MappedByteBuffer target) {
+        target.putInt(0, MAGIC);
+        target.putInt(4, FORMAT);
+        target.putLong(COUNT_OFFSET, 0);
+    }
+
+    private static long hashKey(Object key) {
+        Preconditions.checkArgument(key != null);
+        long hash = Fingerprinter.hash(key, KEY_SEED);
+        // 0 marks an empty index slot.
+        return (hash != 0 ? hash : 1);
+    }
+}
@@ -0,0 +1,272 @@
+package com.codekutter.genesis.pipelines.incremental;
+
+import com.codekutter.genesis.pipelines.types.IVersioned;
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+
+import javax.annotation.Nonnull;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes a content fingerprint (XXH64) of entities from their field values.
+ * <p>
+ * The fingerprint covers the specified fields, or all the non-static,
+ * non-transient fields of the entity type (and its super types) if no
+ * fields are specified. If no fields are specified and the entity is
+ * IVersioned, the version is used as the fingerprint.
+ * <p>
+ * Values are encoded by type (primitives, strings, enums, dates, arrays,
+ * collections and maps), other objects are encoded by their toString().
+ *
+ * @param <T> - Entity Type.
+ */
+public class Fingerprinter<T> {
+    private static final long SEED = 0x5DEECE66DL;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_BOOLEAN = 1;
+    private static final byte TAG_INTEGRAL = 2;
+    private static final byte TAG_DECIMAL = 3;
+    private static final byte TAG_STRING = 4;
+    private static final byte TAG_DATE = 5;
+    private static final byte TAG_BYTES = 6;
+    private static final byte TAG_LIST = 7;
+    private static final byte TAG_MAP = 8;
+    private static final byte TAG_OBJECT = 9;
+
+    /**
+     * Reusable encoding buffer.
+     */
+    private static final class Encoder {
+        private byte[] buffer = new byte[256];
+        private int position;
+
+        private void ensure(int size) {
+            if (position + size > buffer.length) {
+                byte[] grown = new byte[Math.max(buffer.length * 2, position + size)];
+                System.arraycopy(buffer, 0, grown, 0, position);
+                buffer = grown;
+            }
+        }
+
+        private void writeByte(byte value) {
+            ensure(1);
+            buffer[position++] = value;
+        }
+
+        private void writeLong(long value) {
+            ensure(8);
+            for (int ii = 0; ii < 8; ii++) {
+                buffer[position++] = (byte) (value >>> (ii << 3));
+            }
+        }
+
+        private void writeChars(CharSequence value) {
+            int length = value.length();
+            writeLong(length);
+            ensure(length * 2);
+            for (int ii = 0; ii < length; ii++) {
+                char c = value.charAt(ii);
+                buffer[position++] = (byte) c;
+                buffer[position++] = (byte) (c >>> 8);
+            }
+        }
+
+        private void writeBytes(byte[] value) {
+            writeLong(value.length);
+            ensure(value.length);
+            System.arraycopy(value, 0, buffer, position, value.length);
+            position += value.length;
+        }
+    }
+
+    private static final ThreadLocal<Encoder> ENCODER =
+            ThreadLocal.withInitial(Encoder::new);
+
+    private final Class<T> type;
+    private final Field[] fields;
+    private final boolean versioned;
+
+    /**
+     * Constructor with the entity type and the fields to fingerprint.
+     *
+     * @param type   - Entity type.
+     * @param fields - Field names (empty = all fields).
+     * @throws ConfigurationException - Field not found.
+     */
+    public Fingerprinter(@Nonnull Class<T> type, String... fields)
+    throws ConfigurationException {
+        Preconditions.checkArgument(type != null);
+        this.type = type;
+        List<Field> resolved = new ArrayList<>();
+        if (fields != null && fields.length > 0) {
+            for (String name : fields) {
+                Preconditions.checkArgument(!Strings.isNullOrEmpty(name));
+                Field field = findField(type, name.trim());
+                if (field == null) {
+                    throw new ConfigurationException(String.format(
+                            "Fingerprint field not found. [type=%s][field=%s]",
+                            type.getCanonicalName(), name));
+                }
+                resolved.add(field);
+            }
+            versioned = false;
+        } else {
+            for (Class<?> cls = type; cls != null && cls != Object.class;
+                 cls = cls.getSuperclass()) {
+                List<Field> declared = new ArrayList<>();
+                for (Field field : cls.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (!Modifier.isStatic(modifiers)
+                            && !Modifier.isTransient(modifiers)
+                            && !field.isSynthetic()) {
+                        declared.add(field);
+                    }
+                }
+                // Declaration order isn't guaranteed, keep the fingerprint stable.
+                declared.sort(Comparator.comparing(Field::getName));
+                resolved.addAll(declared);
+            }
+            versioned = IVersioned.class.isAssignableFrom(type);
+        }
+        for (Field field : resolved) {
+            field.setAccessible(true);
+        }
+        this.fields = resolved.toArray(new Field[0]);
+    }
+
+    /**
+     * Get the entity type.
+     *
+     * @return - Entity type.
+     */
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * Get the names of the fingerprinted fields.
+     *
+     * @return - Field names.
+     */
+    public String[] getFields() {
+        String[] names = new String[fields.length];
+        for (int ii = 0; ii < names.length; ii++) {
+            names[ii] = fields[ii].getName();
+        }
+        return names;
+    }
+
+    /**
+     * Compute the content fingerprint of the entity.
+     *
+     * @param entity - Entity instance.
+     * @return - Fingerprint.
+     */
+    public long fingerprint(@Nonnull T entity) {
+        Preconditions.checkArgument(entity != null);
+        if (versioned) {
+            return ((IVersioned) entity).getVersion();
+        }
+        Encoder encoder = ENCODER.get();
+        encoder.position = 0;
+        try {
+            for (Field field : fields) {
+                write(encoder, field.get(entity));
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+        return XXHash64.hash(encoder.buffer, 0, encoder.position, SEED);
+    }
+
+    /**
+     * Compute the hash of a single value, encoded by type the same way as
+     * the entity fields (other objects are encoded by their toString()).
+     *
+     * @param value - Value to hash.
+     * @param seed  - Hash seed.
+     * @return - Hash.
+     */
+    public static long hash(Object value, long seed) {
+        Encoder encoder = ENCODER.get();
+        encoder.position = 0;
+        write(encoder, value);
+        return XXHash64.hash(encoder.buffer, 0, encoder.position, seed);
+    }
+
+    private static void write(Encoder encoder, Object value) {
+        if (value == null) {
+            encoder.writeByte(TAG_NULL);
+        } else if (value instanceof Boolean) {
+            encoder.writeByte(TAG_BOOLEAN);
+            encoder.writeByte((byte) ((Boolean) value ? 1 : 0));
+        } else if (value instanceof Long || value instanceof Integer
+                || value instanceof Short || value instanceof Byte) {
+            encoder.writeByte(TAG_INTEGRAL);
+            encoder.writeLong(((Number) value).longValue());
+        } else if (value instanceof Character) {
+            encoder.writeByte(TAG_INTEGRAL);
+            encoder.writeLong((Character) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            encoder.writeByte(TAG_DECIMAL);
+            encoder.writeLong(Double.doubleToLongBits(((Number) value).doubleValue()));
+        } else if (value instanceof CharSequence) {
+            encoder.writeByte(TAG_STRING);
+            encoder.writeChars((CharSequence) value);
+        } else if (value instanceof Enum) {
+            encoder.writeByte(TAG_STRING);
+            encoder.writeChars(((Enum<?>) value).name());
+        } else if (value instanceof Date) {
+            encoder.writeByte(TAG_DATE);
+            encoder.writeLong(((Date) value).getTime());
+        } else if (value instanceof byte[]) {
+            encoder.writeByte(TAG_BYTES);
+            encoder.writeBytes((byte[]) value);
+        } else if (value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            encoder.writeByte(TAG_LIST);
+            encoder.writeLong(length);
+            for (int ii = 0; ii < length; ii++) {
+                write(encoder, Array.get(value, ii));
+            }
+        } else if (value instanceof Collection) {
+            encoder.writeByte(TAG_LIST);
+            encoder.writeLong(((Collection<?>) value).size());
+            for (Object element : (Collection<?>) value) {
+                write(encoder, element);
+            }
+        } else if (value instanceof Map) {
+            encoder.writeByte(TAG_MAP);
+            encoder.writeLong(((Map<?, ?>) value).size());
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                write(encoder, entry.getKey());
+                write(encoder, entry.getValue());
+            }
+        } else {
+            encoder.writeByte(TAG_OBJECT);
+            encoder.writeChars(value.toString());
+        }
+    }
+
+    private static Field findField(Class<?> type, String name) {
+        for (Class<?> cls = type; cls != null && cls != Object.class;
+             cls = cls.getSuperclass()) {
+            try {
+                return cls.getDeclaredField(name);
+            } catch (NoSuchFieldException e) {
+                // Check the super type.
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,123 @@
+package com.codekutter.genesis.pipelines.incremental;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+
+/**
+ * XXH64 non-cryptographic hash (little-endian reads), used to fingerprint
+ * the content of entities.
+ */
+public final class XXHash64 {
+    private static final long PRIME64_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME64_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME64_3 = 0x165667B19E3779F9L;
+    private static final long PRIME64_4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME64_5 = 0x27D4EB2F165667C5L;
+
+    private XXHash64() {
+    }
+
+    /**
+     * Hash the byte array.
+     *
+     * @param input - Input bytes.
+     * @param seed  - Hash seed.
+     * @return - 64-bit hash.
+     */
+    public static long hash(@Nonnull byte[] input, long seed) {
+        return hash(input, 0, input.length, seed);
+    }
+
+    /**
+     * Hash a range of the byte array.
+     *
+     * @param input  - Input bytes.
+     * @param offset - Range start.
+     * @param length - Range length.
+     * @param seed   - Hash seed.
+     * @return - 64-bit hash.
+     */
+    public static long hash(@Nonnull byte[] input, int offset, int length,
+                            long seed) {
+        Preconditions.checkArgument(input != null);
+        Preconditions.checkArgument(offset >= 0 && length >= 0
+                                            && offset + length <= input.length);
+        int end = offset + length;
+        int index = offset;
+        long h;
+        if (length >= 32) {
+            long v1 = seed + PRIME64_1 + PRIME64_2;
+            long v2 = seed + PRIME64_2;
+            long v3 = seed;
+            long v4 = seed - PRIME64_1;
+            int limit = end - 32;
+            do {
+                v1 = round(v1, readLong(input, index));
+                v2 = round(v2, readLong(input, index + 8));
+                v3 = round(v3, readLong(input, index + 16));
+                v4 = round(v4, readLong(input, index + 24));
+                index += 32;
+            } while (index <= limit);
+            h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7)
+                    + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            h = merge(h, v1);
+            h = merge(h, v2);
+            h = merge(h, v3);
+            h = merge(h, v4);
+        } else {
+            h = seed + PRIME64_5;
+        }
+        h += length;
+        while (index + 8 <= end) {
+            h ^= round(0, readLong(input, index));
+            h = Long.rotateLeft(h, 27) * PRIME64_1 + PRIME64_4;
+            index += 8;
+        }
+        if (index + 4 <= end) {
+            h ^= (readInt(input, index) & 0xFFFFFFFFL) * PRIME64_1;
+            h = Long.rotateLeft(h, 23) * PRIME64_2 + PRIME64_3;
+            index += 4;
+        }
+        while (index < end) {
+            h ^= (input[index] & 0xFFL) * PRIME64_5;
+            h = Long.rotateLeft(h, 11) * PRIME64_1;
+            index++;
+        }
+        h ^= h >>> 33;
+        h *= PRIME64_2;
+        h ^= h >>> 29;
+        h *= PRIME64_3;
+        h ^= h >>> 32;
+        return h;
+    }
+
+    private static long round(long acc, long input) {
+        acc += input * PRIME64_2;
+        acc = Long.rotateLeft(acc, 31);
+        return acc * PRIME64_1;
+    }
+
+    private static long merge(long acc, long value) {
+        acc ^= round(0, value);
+        return acc * PRIME64_1 + PRIME64_4;
+    }
+
+    private static long readLong(byte[] input, int index) {
+        return (input[index] & 0xFFL)
+                | (input[index + 1] & 0xFFL) << 8
+                | (input[index + 2] & 0xFFL) << 16
+                | (input[index + 3] & 0xFFL) << 24
+                | (input[index + 4] & 0xFFL) << 32
+                | (input[index + 5] & 0xFFL) << 40
+                | (input[index + 6] & 0xFFL) << 48
+                | (input[index + 7] & 0xFFL) << 56;
+    }
+
+    private static int readInt(byte[] input, int index) {
+        return (input[index] & 0xFF)
+                | (input[index + 1] & 0xFF) << 8
+                | (input[index + 2] & 0xFF) << 16
+                | (input[index + 3] & 0xFF) << 24;
+    }
+}
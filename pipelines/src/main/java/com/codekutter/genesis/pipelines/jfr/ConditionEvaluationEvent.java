@@ -0,0 +1,23 @@
+package com.codekutter.genesis.pipelines.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Flight recorder event for a processor condition evaluation.
+ */
+@Name("com.codekutter.genesis.pipelines.ConditionEvaluation")
+@Label("Condition Evaluation")
+@Category({"Genesis", "Pipelines"})
+@Description("Evaluation of a processor condition query")
+@Threshold("5 ms")
+@StackTrace(false)
+public class ConditionEvaluationEvent extends Event {
+    @Label("Condition")
+    public String condition;
+    @Label("Entity Type")
+    public String entityType;
+    @Label("Records")
+    public int records;
+    @Label("Matched")
+    public int matched;
+}
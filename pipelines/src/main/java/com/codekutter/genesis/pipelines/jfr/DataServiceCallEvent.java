@@ -0,0 +1,23 @@
+package com.codekutter.genesis.pipelines.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Flight recorder event for a data service (producer/consumer) call.
+ */
+@Name("com.codekutter.genesis.pipelines.DataServiceCall")
+@Label("Data Service Call")
+@Category({"Genesis", "Pipelines"})
+@Description("Call to an external data service")
+@Threshold("20 ms")
+@StackTrace(false)
+public class DataServiceCallEvent extends Event {
+    @Label("Service")
+    public String service;
+    @Label("Operation")
+    public String operation;
+    @Label("Batch Size")
+    public int batchSize;
+    @Label("Failed")
+    public boolean failed;
+}
@@ -0,0 +1,85 @@
+package com.codekutter.genesis.pipelines.jfr;
+
+/**
+ * Flight recorder event factory, only loaded if JFR is available
+ * (see PipelineEvents).
+ */
+final class JfrEvents {
+    private JfrEvents() {
+    }
+
+    static Object beginPipeline() {
+        return begin(new PipelineRunEvent());
+    }
+
+    static void endPipeline(Object handle, String pipeline, String entityType,
+                            String state) {
+        PipelineRunEvent event = (PipelineRunEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.pipeline = pipeline;
+            event.entityType = entityType;
+            event.state = state;
+            event.commit();
+        }
+    }
+
+    static Object beginProcessor() {
+        return begin(new ProcessorExecutionEvent());
+    }
+
+    static void endProcessor(Object handle, String pipeline, String processor,
+                             String entityType, String state) {
+        ProcessorExecutionEvent event = (ProcessorExecutionEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.pipeline = pipeline;
+            event.processor = processor;
+            event.entityType = entityType;
+            event.state = state;
+            event.commit();
+        }
+    }
+
+    static Object beginCondition() {
+        return begin(new ConditionEvaluationEvent());
+    }
+
+    static void endCondition(Object handle, String condition, String entityType,
+                             int records, int matched) {
+        ConditionEvaluationEvent event = (ConditionEvaluationEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.condition = condition;
+            event.entityType = entityType;
+            event.records = records;
+            event.matched = matched;
+            event.commit();
+        }
+    }
+
+    static Object beginDataCall() {
+        return begin(new DataServiceCallEvent());
+    }
+
+    static void endDataCall(Object handle, String service, String operation,
+                            int batchSize, boolean failed) {
+        DataServiceCallEvent event = (DataServiceCallEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.service = service;
+            event.operation = operation;
+            event.batchSize = batchSize;
+            event.failed = failed;
+            event.commit();
+        }
+    }
+
+    private static Object begin(jdk.jfr.Event event) {
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,152 @@
+package com.codekutter.genesis.pipelines.jfr;
+
+import com.codekutter.genesis.pipelines.EProcessorResponse;
+
+/**
+ * Entry point to emit Java Flight Recorder events for pipeline execution.
+ * <p>
+ * Events are only emitted if the runtime provides JFR (jdk.jfr) and the
+ * event type is enabled in the active recording. Each event type has
+ * a default threshold so only slow executions are recorded, thresholds
+ * can be changed in the recording settings (.jfc). The begin methods
+ * return NULL if the event is not to be recorded, end methods ignore
+ * NULL handles.
+ */
+public final class PipelineEvents {
+    private static final boolean AVAILABLE = detect();
+
+    private PipelineEvents() {
+    }
+
+    /**
+     * Check if flight recorder events are supported by the runtime.
+     *
+     * @return - Is available?
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * Begin a pipeline run event.
+     *
+     * @return - Event handle, NULL if not recorded.
+     */
+    public static Object beginPipeline() {
+        return (AVAILABLE ? JfrEvents.beginPipeline() : null);
+    }
+
+    /**
+     * End and commit (if over threshold) a pipeline run event.
+     *
+     * @param handle     - Event handle.
+     * @param pipeline   - Pipeline name.
+     * @param entityType - Entity Type.
+     * @param state      - Response State.
+     */
+    public static void endPipeline(Object handle, String pipeline,
+                                   Class<?> entityType, EProcessorResponse state) {
+        if (handle != null) {
+            JfrEvents.endPipeline(handle, pipeline, typeName(entityType),
+                                  stateName(state));
+        }
+    }
+
+    /**
+     * Begin a processor execution event.
+     *
+     * @return - Event handle, NULL if not recorded.
+     */
+    public static Object beginProcessor() {
+        return (AVAILABLE ? JfrEvents.beginProcessor() : null);
+    }
+
+    /**
+     * End and commit (if over threshold) a processor execution event.
+     *
+     * @param handle     - Event handle.
+     * @param pipeline   - Pipeline name.
+     * @param processor  - Processor name.
+     * @param entityType - Entity Type.
+     * @param state      - Response State.
+     */
+    public static void endProcessor(Object handle, String pipeline,
+                                    String processor, Class<?> entityType,
+                                    EProcessorResponse state) {
+        if (handle != null) {
+            JfrEvents.endProcessor(handle, pipeline, processor,
+                                   typeName(entityType), stateName(state));
+        }
+    }
+
+    /**
+     * Begin a condition evaluation event.
+     *
+     * @return - Event handle, NULL if not recorded.
+     */
+    public static Object beginCondition() {
+        return (AVAILABLE ? JfrEvents.beginCondition() : null);
+    }
+
+    /**
+     * End and commit (if over threshold) a condition evaluation event.
+     *
+     * @param handle     - Event handle.
+     * @param condition  - Condition query.
+     * @param entityType - Entity Type.
+     * @param records    - Number of records evaluated.
+     * @param matched    - Number of records matched.
+     */
+    public static void endCondition(Object handle, String condition,
+                                    Class<?> entityType, int records,
+                                    int matched) {
+        if (handle != null) {
+            JfrEvents.endCondition(handle, condition, typeName(entityType),
+                                   records, matched);
+        }
+    }
+
+    /**
+     * Begin a data service call event.
+     *
+     * @return - Event handle, NULL if not recorded.
+     */
+    public static Object beginDataCall() {
+        return (AVAILABLE ? JfrEvents.beginDataCall() : null);
+    }
+
+    /**
+     * End and commit (if over threshold) a data service call event.
+     *
+     * @param handle    - Event handle.
+     * @param service   - Data service type.
+     * @param operation - Operation name.
+     * @param batchSize - Number of records read/processed.
+     * @param failed    - Did the call fail?
+     */
+    public static void endDataCall(Object handle, Class<?> service,
+                                   String operation, int batchSize,
+                                   boolean failed) {
+        if (handle != null) {
+            JfrEvents.endDataCall(handle, typeName(service), operation,
+                                  batchSize, failed);
+        }
+    }
+
+    private static String typeName(Class<?> type) {
+        return (type != null ? type.getName() : null);
+    }
+
+    private static String stateName(EProcessorResponse state) {
+        return (state != null ? state.name() : null);
+    }
+
+    private static boolean detect() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        } catch (Throwable t) {
+            return false;
+        }
+    }
+}
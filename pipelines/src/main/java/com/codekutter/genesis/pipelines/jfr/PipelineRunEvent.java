@@ -0,0 +1,21 @@
+package com.codekutter.genesis.pipelines.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Flight recorder event for a pipeline run.
+ */
+@Name("com.codekutter.genesis.pipelines.PipelineRun")
+@Label("Pipeline Run")
+@Category({"Genesis", "Pipelines"})
+@Description("Execution of a pipeline on an entity/entity set")
+@Threshold("20 ms")
+@StackTrace(false)
+public class PipelineRunEvent extends Event {
+    @Label("Pipeline")
+    public String pipeline;
+    @Label("Entity Type")
+    public String entityType;
+    @Label("Response State")
+    public String state;
+}
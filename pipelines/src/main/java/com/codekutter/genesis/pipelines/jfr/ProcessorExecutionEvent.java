@@ -0,0 +1,23 @@
+package com.codekutter.genesis.pipelines.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Flight recorder event for a processor execution within a pipeline.
+ */
+@Name("com.codekutter.genesis.pipelines.ProcessorExecution")
+@Label("Processor Execution")
+@Category({"Genesis", "Pipelines"})
+@Description("Execution of a processor stage within a pipeline")
+@Threshold("10 ms")
+@StackTrace(false)
+public class ProcessorExecutionEvent extends Event {
+    @Label("Pipeline")
+    public String pipeline;
+    @Label("Processor")
+    public String processor;
+    @Label("Entity Type")
+    public String entityType;
+    @Label("Response State")
+    public String state;
+}
@@ -0,0 +1,34 @@
+package com.codekutter.genesis.pipelines.jmx;
+
+import java.util.Map;
+
+/**
+ * Management interface for monitoring a data service.
+ */
+public interface DataServiceMXBean {
+    /**
+     * Get the name of the processor using the data service.
+     *
+     * @return - Processor name.
+     */
+    String getName();
+
+    /**
+     * Check if the data service is connected.
+     *
+     * @return - Is connected?
+     */
+    boolean isConnected();
+
+    /**
+     * Get the operation counters.
+     *
+     * @return - Map of operation name to count.
+     */
+    Map<String, Long> getOperationCounts();
+
+    /**
+     * Reset the operation counters.
+     */
+    void resetStats();
+}
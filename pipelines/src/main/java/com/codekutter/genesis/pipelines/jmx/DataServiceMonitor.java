@@ -0,0 +1,49 @@
+package com.codekutter.genesis.pipelines.jmx;
+
+import com.codekutter.genesis.pipelines.extensions.IDataServiceMonitor;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+
+/**
+ * MBean implementation exposing the state of a data service.
+ */
+public class DataServiceMonitor implements DataServiceMXBean {
+    private final String name;
+    private final IDataServiceMonitor service;
+
+    /**
+     * Constructor with the processor name and the data service.
+     *
+     * @param name    - Processor name.
+     * @param service - Data service monitor.
+     */
+    public DataServiceMonitor(@Nonnull String name,
+                              @Nonnull IDataServiceMonitor service) {
+        Preconditions.checkArgument(name != null);
+        Preconditions.checkArgument(service != null);
+        this.name = name;
+        this.service = service;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean isConnected() {
+        return service.isConnected();
+    }
+
+    @Override
+    public Map<String, Long> getOperationCounts() {
+        return service.getOperationCounts();
+    }
+
+    @Override
+    public void resetStats() {
+        service.resetOperationCounts();
+    }
+}
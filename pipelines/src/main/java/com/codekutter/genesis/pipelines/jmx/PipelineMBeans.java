@@ -0,0 +1,109 @@
+package com.codekutter.genesis.pipelines.jmx;
+
+import com.codekutter.genesis.pipelines.Pipeline;
+import com.codekutter.genesis.pipelines.Processor;
+import com.codekutter.genesis.pipelines.extensions.IDataServiceMonitor;
+import com.codekutter.zconfig.common.LogUtils;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+
+import javax.annotation.Nonnull;
+import javax.management.*;
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+
+/**
+ * Helper to register/unregister the MBeans for a pipeline, its
+ * processors and data services with the platform MBean server.
+ * <p>
+ * Object Names:
+ * com.codekutter.genesis.pipelines:type=Pipeline,name=[pipeline]
+ * com.codekutter.genesis.pipelines:type=Processor,pipeline=[pipeline],name=[processor]
+ * com.codekutter.genesis.pipelines:type=DataService,pipeline=[pipeline],name=[processor]
+ */
+public final class PipelineMBeans {
+    public static final String DOMAIN = "com.codekutter.genesis.pipelines";
+
+    private PipelineMBeans() {
+    }
+
+    /**
+     * Register the MBeans for the passed pipeline. Existing MBeans
+     * registered for the pipeline name are replaced.
+     *
+     * @param name     - Pipeline name.
+     * @param pipeline - Pipeline instance.
+     * @throws JMException
+     */
+    public static void register(@Nonnull String name,
+                                @Nonnull Pipeline<?> pipeline)
+    throws JMException {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(name));
+        Preconditions.checkArgument(pipeline instanceof Processor);
+
+        unregister(name);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        server.registerMBean(new PipelineMonitor(pipeline),
+                             pipelineName(name));
+        if (pipeline instanceof IDataServiceMonitor) {
+            server.registerMBean(
+                    new DataServiceMonitor(name, (IDataServiceMonitor) pipeline),
+                    name("DataService", name, name));
+        }
+        for (Processor<?> processor : pipeline.getProcessors()) {
+            server.registerMBean(new ProcessorMonitor(processor),
+                                 name("Processor", name, processor.getName()));
+            if (processor instanceof IDataServiceMonitor) {
+                server.registerMBean(
+                        new DataServiceMonitor(processor.getName(),
+                                               (IDataServiceMonitor) processor),
+                        name("DataService", name, processor.getName()));
+            }
+        }
+        LogUtils.debug(PipelineMBeans.class,
+                       String.format("Registered MBeans. [pipeline=%s]", name));
+    }
+
+    /**
+     * Unregister all the MBeans registered for the pipeline name.
+     *
+     * @param name - Pipeline name.
+     * @throws JMException
+     */
+    public static void unregister(@Nonnull String name) throws JMException {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(name));
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName pn = pipelineName(name);
+        if (server.isRegistered(pn)) {
+            server.unregisterMBean(pn);
+        }
+        Set<ObjectName> names = server.queryNames(new ObjectName(
+                String.format("%s:pipeline=%s,*", DOMAIN, ObjectName.quote(name))),
+                                                  null);
+        for (ObjectName on : names) {
+            server.unregisterMBean(on);
+        }
+    }
+
+    /**
+     * Get the MBean object name for the pipeline.
+     *
+     * @param name - Pipeline name.
+     * @return - Object Name.
+     * @throws MalformedObjectNameException
+     */
+    public static ObjectName pipelineName(@Nonnull String name)
+    throws MalformedObjectNameException {
+        return new ObjectName(String.format("%s:type=Pipeline,name=%s", DOMAIN,
+                                            ObjectName.quote(name)));
+    }
+
+    private static ObjectName name(String type, String pipeline, String name)
+    throws MalformedObjectNameException {
+        return new ObjectName(String.format("%s:type=%s,pipeline=%s,name=%s",
+                                            DOMAIN, type,
+                                            ObjectName.quote(pipeline),
+                                            ObjectName.quote(name)));
+    }
+}
@@ -0,0 +1,108 @@
+package com.codekutter.genesis.pipelines.jmx;
+
+import java.util.Map;
+
+/**
+ * Management interface for monitoring a pipeline.
+ */
+public interface PipelineMXBean extends ProcessorMXBean {
+    /**
+     * Get the entity type handled by the pipeline.
+     *
+     * @return - Entity type.
+     */
+    String getEntityType();
+
+    /**
+     * Get the names of the processors (in execution order).
+     *
+     * @return - Processor names.
+     */
+    String[] getProcessors();
+
+    /**
+     * Get the number of executions currently running through the pipeline.
+     *
+     * @return - In-flight executions.
+     */
+    long getInFlight();
+
+    /**
+     * Describe the resolved execution plan, with the observed stats.
+     *
+     * @return - Formatted plan.
+     */
+    String explain();
+
+    /**
+     * Get the recorded slowest executions (slowest first).
+     *
+     * @return - Formatted records, empty if not enabled.
+     */
+    String[] getOutliers();
+
+    /**
+     * Get the ratio of executions answered from the result cache.
+     *
+     * @return - Hit rate (0 - 1), 0 if not enabled.
+     */
+    double getCacheHitRate();
+
+    /**
+     * Get the result cache counters (hits/misses/evictions/expirations/size).
+     *
+     * @return - Map of counter name to value, empty if not enabled.
+     */
+    Map<String, Long> getCacheStats();
+
+    /**
+     * Remove all the cached results.
+     */
+    void invalidateCache();
+
+    /**
+     * Get the fingerprint store size and counters of an incremental producer
+     * (entries/records/fileSize/compactions/changed/unchanged).
+     *
+     * @return - Map of counter name to value, empty if not enabled.
+     */
+    Map<String, Long> getFingerprintStats();
+
+    /**
+     * Compact the fingerprint store file of an incremental producer.
+     */
+    void compactFingerprints();
+
+    /**
+     * Check if detailed timing (latency histograms/counters) is enabled.
+     * <p>
+     * Note: Detailed timing is a global switch for all pipelines.
+     *
+     * @return - Is enabled?
+     */
+    boolean isDetailedTiming();
+
+    /**
+     * Enable/Disable detailed timing.
+     *
+     * @param enabled - Enable?
+     */
+    void setDetailedTiming(boolean enabled);
+
+    /**
+     * Check if CPU time/allocation accounting is enabled.
+     * <p>
+     * Note: Resource accounting is a global switch for all pipelines and
+     * requires detailed timing to be enabled.
+     *
+     * @return - Is enabled?
+     */
+    boolean isResourceAccounting();
+
+    /**
+     * Enable/Disable CPU time/allocation accounting.
+     *
+     * @param enabled - Enable?
+     */
+    void setResourceAccounting(boolean enabled);
+}
@@ -0,0 +1,185 @@
+package com.codekutter.genesis.pipelines.jmx;
+
+import com.codekutter.genesis.pipelines.BasicPipeline;
+import com.codekutter.genesis.pipelines.Pipeline;
+import com.codekutter.genesis.pipelines.Processor;
+import com.codekutter.genesis.pipelines.cache.CacheStats;
+import com.codekutter.genesis.pipelines.cache.ResultCache;
+import com.codekutter.genesis.pipelines.explain.PipelineExplainer;
+import com.codekutter.genesis.pipelines.incremental.FingerprintStats;
+import com.codekutter.genesis.pipelines.incremental.FingerprintStore;
+import com.codekutter.genesis.pipelines.metrics.Metrics;
+import com.codekutter.genesis.pipelines.metrics.OutlierRecord;
+import com.codekutter.genesis.pipelines.metrics.OutlierRecorder;
+import com.codekutter.genesis.pipelines.metrics.ResourceAccounting;
+import com.codekutter.genesis.pipelines.types.CollectionDataProducer;
+import com.codekutter.zconfig.common.LogUtils;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MBean implementation exposing the state and metrics of a pipeline.
+ */
+public class PipelineMonitor extends ProcessorMonitor implements PipelineMXBean {
+    private final Pipeline<?> pipeline;
+
+    /**
+     * Constructor with the pipeline to monitor.
+     *
+     * @param pipeline - Pipeline instance (must also be a processor).
+     */
+    public PipelineMonitor(@Nonnull Pipeline<?> pipeline) {
+        super((Processor<?>) pipeline);
+        this.pipeline = pipeline;
+    }
+
+    @Override
+    public String getEntityType() {
+        Class<?> type = pipeline.getType();
+        return (type != null ? type.getCanonicalName() : null);
+    }
+
+    @Override
+    public String[] getProcessors() {
+        List<? extends Processor<?>> processors = pipeline.getProcessors();
+        String[] names = new String[processors.size()];
+        for (int ii = 0; ii < names.length; ii++) {
+            names[ii] = processors.get(ii).getName();
+        }
+        return names;
+    }
+
+    @Override
+    public long getInFlight() {
+        return pipeline.getInFlight();
+    }
+
+    @Override
+    public String explain() {
+        return PipelineExplainer.format(PipelineExplainer.explain(pipeline, true));
+    }
+
+    @Override
+    public String[] getOutliers() {
+        OutlierRecorder recorder = pipeline.getOutlierRecorder();
+        if (recorder == null) {
+            return new String[0];
+        }
+        List<OutlierRecord> records = recorder.getOutliers();
+        String[] values = new String[records.size()];
+        for (int ii = 0; ii < values.length; ii++) {
+            values[ii] = records.get(ii).format();
+        }
+        return values;
+    }
+
+    @Override
+    public double getCacheHitRate() {
+        ResultCache<?, ?> cache = cache();
+        return (cache != null ? cache.getStats().getHitRate() : 0);
+    }
+
+    @Override
+    public Map<String, Long> getCacheStats() {
+        Map<String, Long> values = new LinkedHashMap<>();
+        ResultCache<?, ?> cache = cache();
+        if (cache != null) {
+            CacheStats stats = cache.getStats();
+            values.put("hits", stats.getHits());
+            values.put("misses", stats.getMisses());
+            values.put("evictions", stats.getEvictions());
+            values.put("expirations", stats.getExpirations());
+            values.put("size", stats.getSize());
+        }
+        return values;
+    }
+
+    @Override
+    public void invalidateCache() {
+        ResultCache<?, ?> cache = cache();
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    private ResultCache<?, ?> cache() {
+        if (pipeline instanceof BasicPipeline<?>) {
+            return ((BasicPipeline<?>) pipeline).getResultCache();
+        }
+        return null;
+    }
+
+    @Override
+    public Map<String, Long> getFingerprintStats() {
+        Map<String, Long> values = new LinkedHashMap<>();
+        FingerprintStore store = fingerprints();
+        if (store != null) {
+            FingerprintStats stats = store.getStats();
+            values.put("entries", stats.getEntries());
+            values.put("records", stats.getRecords());
+            values.put("fileSize", stats.getFileSize());
+            values.put("compactions", stats.getCompactions());
+            values.put("changed", stats.getChanged());
+            values.put("unchanged", stats.getUnchanged());
+        }
+        return values;
+    }
+
+    @Override
+    public void compactFingerprints() {
+        FingerprintStore store = fingerprints();
+        if (store != null) {
+            try {
+                store.compact();
+            } catch (IOException e) {
+                LogUtils.error(getClass(), e);
+                throw new IllegalStateException(e.getLocalizedMessage());
+            }
+        }
+    }
+
+    private FingerprintStore fingerprints() {
+        if (pipeline instanceof CollectionDataProducer<?>) {
+            return ((CollectionDataProducer<?>) pipeline).getFingerprints();
+        }
+        return null;
+    }
+
+    @Override
+    public boolean isDetailedTiming() {
+        return Metrics.isEnabled();
+    }
+
+    @Override
+    public void setDetailedTiming(boolean enabled) {
+        Metrics.setEnabled(enabled);
+    }
+
+    @Override
+    public boolean isResourceAccounting() {
+        return ResourceAccounting.isEnabled();
+    }
+
+    @Override
+    public void setResourceAccounting(boolean enabled) {
+        ResourceAccounting.setEnabled(enabled);
+    }
+
+    /**
+     * Reset the statistics of the pipeline and its processors.
+     */
+    @Override
+    public void resetStats() {
+        super.resetStats();
+        if (pipeline.getOutlierRecorder() != null) {
+            pipeline.getOutlierRecorder().reset();
+        }
+        for (Processor<?> p : pipeline.getProcessors()) {
+            p.resetMetrics();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.codekutter.genesis.pipelines.jmx;
+
+import java.util.Map;
+
+/**
+ * Management interface for monitoring a processor.
+ */
+public interface ProcessorMXBean {
+    /**
+     * Get the processor name.
+     *
+     * @return - Processor name.
+     */
+    String getName();
+
+    /**
+     * Get the processor implementation type.
+     *
+     * @return - Class name.
+     */
+    String getType();
+
+    /**
+     * Get the processor state.
+     *
+     * @return - Processor State.
+     */
+    String getState();
+
+    /**
+     * Get the number of executions since the last reset.
+     *
+     * @return - Execution count.
+     */
+    long getExecutions();
+
+    /**
+     * Get the executions per second since the last reset.
+     *
+     * @return - Throughput.
+     */
+    double getThroughput();
+
+    /**
+     * Get the number of executions that ended in an error state.
+     *
+     * @return - Error count.
+     */
+    long getErrors();
+
+    /**
+     * Get the execution counts by response state.
+     *
+     * @return - Map of response state to count.
+     */
+    Map<String, Long> getResponseCounts();
+
+    /**
+     * Get the mean processing latency (in milliseconds).
+     *
+     * @return - Mean latency.
+     */
+    double getLatencyMean();
+
+    /**
+     * Get the median processing latency (in milliseconds).
+     *
+     * @return - 50th percentile latency.
+     */
+    double getLatencyP50();
+
+    /**
+     * Get the 90th percentile processing latency (in milliseconds).
+     *
+     * @return - 90th percentile latency.
+     */
+    double getLatencyP90();
+
+    /**
+     * Get the 99th percentile processing latency (in milliseconds).
+     *
+     * @return - 99th percentile latency.
+     */
+    double getLatencyP99();
+
+    /**
+     * Get the max processing latency (in milliseconds).
+     *
+     * @return - Max latency.
+     */
+    double getLatencyMax();
+
+    /**
+     * Get the 99th percentile condition evaluation latency (in milliseconds).
+     *
+     * @return - 99th percentile latency.
+     */
+    double getConditionLatencyP99();
+
+    /**
+     * Get the mean thread CPU time per execution (in milliseconds).
+     *
+     * @return - Mean CPU time, -1 if resource accounting is disabled.
+     */
+    double getCpuTimeMean();
+
+    /**
+     * Get the mean heap allocated per execution.
+     *
+     * @return - Mean allocated bytes, -1 if resource accounting is disabled.
+     */
+    double getAllocatedBytesMean();
+
+    /**
+     * Get the total heap allocated by the accounted executions.
+     *
+     * @return - Allocated bytes.
+     */
+    long getAllocatedBytes();
+
+    /**
+     * Reset the collected statistics.
+     */
+    void resetStats();
+}
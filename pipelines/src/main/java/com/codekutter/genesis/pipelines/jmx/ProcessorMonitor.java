@@ -0,0 +1,148 @@
+package com.codekutter.genesis.pipelines.jmx;
+
+import com.codekutter.genesis.pipelines.EProcessorResponse;
+import com.codekutter.genesis.pipelines.Processor;
+import com.codekutter.genesis.pipelines.metrics.HistogramSnapshot;
+import com.codekutter.genesis.pipelines.metrics.ProcessorMetricsSnapshot;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MBean implementation exposing the metrics of a processor.
+ */
+public class ProcessorMonitor implements ProcessorMXBean {
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    protected final Processor<?> processor;
+    private volatile long resetTime = System.nanoTime();
+
+    /**
+     * Constructor with the processor to monitor.
+     *
+     * @param processor - Processor instance.
+     */
+    public ProcessorMonitor(@Nonnull Processor<?> processor) {
+        Preconditions.checkArgument(processor != null);
+        this.processor = processor;
+    }
+
+    @Override
+    public String getName() {
+        return processor.getName();
+    }
+
+    @Override
+    public String getType() {
+        return processor.getClass().getCanonicalName();
+    }
+
+    @Override
+    public String getState() {
+        return processor.getState().name();
+    }
+
+    @Override
+    public long getExecutions() {
+        return executions(processor.getMetrics());
+    }
+
+    @Override
+    public double getThroughput() {
+        double elapsed = (System.nanoTime() - resetTime) / (NANOS_PER_MILLI * 1000);
+        if (elapsed <= 0) {
+            return 0;
+        }
+        return getExecutions() / elapsed;
+    }
+
+    @Override
+    public long getErrors() {
+        ProcessorMetricsSnapshot snapshot = processor.getMetrics();
+        return snapshot.getCount(EProcessorResponse.FatalError)
+                + snapshot.getCount(EProcessorResponse.UnhandledError)
+                + snapshot.getCount(EProcessorResponse.StopWithError)
+                + snapshot.getCount(EProcessorResponse.ContinueWithError);
+    }
+
+    @Override
+    public Map<String, Long> getResponseCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        Map<EProcessorResponse, Long> responses = processor.getMetrics().getResponses();
+        if (responses != null) {
+            for (Map.Entry<EProcessorResponse, Long> entry : responses.entrySet()) {
+                counts.put(entry.getKey().name(), entry.getValue());
+            }
+        }
+        return counts;
+    }
+
+    @Override
+    public double getLatencyMean() {
+        return processLatency().getMean() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getLatencyP50() {
+        return processLatency().getP50() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getLatencyP90() {
+        return processLatency().getP90() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getLatencyP99() {
+        return processLatency().getP99() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getLatencyMax() {
+        return processLatency().getMax() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getConditionLatencyP99() {
+        return processor.getMetrics().getCondition().getP99() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getCpuTimeMean() {
+        double mean = processor.getMetrics().getCpuTimeMean();
+        return (mean < 0 ? mean : mean / NANOS_PER_MILLI);
+    }
+
+    @Override
+    public double getAllocatedBytesMean() {
+        return processor.getMetrics().getAllocatedMean();
+    }
+
+    @Override
+    public long getAllocatedBytes() {
+        return processor.getMetrics().getAllocatedBytes();
+    }
+
+    @Override
+    public void resetStats() {
+        processor.resetMetrics();
+        resetTime = System.nanoTime();
+    }
+
+    private HistogramSnapshot processLatency() {
+        return processor.getMetrics().getProcess();
+    }
+
+    private static long executions(ProcessorMetricsSnapshot snapshot) {
+        long count = 0;
+        if (snapshot.getResponses() != null) {
+            for (long value : snapshot.getResponses().values()) {
+                count += value;
+            }
+        }
+        return count;
+    }
+}
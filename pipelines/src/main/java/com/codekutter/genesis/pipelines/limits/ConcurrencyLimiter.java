@@ -0,0 +1,235 @@
+package com.codekutter.genesis.pipelines.limits;
+
+import com.codekutter.genesis.pipelines.Context;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Abstract base class for processor concurrency limiters (bulkheads).
+ * <p>
+ * Executions are admitted while the number of in-flight executions is below
+ * the current limit. Executions over the limit wait in a bounded queue
+ * (max queued, with timeout) or are rejected immediately if the queue is full.
+ * <p>
+ * The admission path is lock free, the lock is only used by
+ * waiting (queued) executions.
+ */
+public abstract class ConcurrencyLimiter {
+    public static final String LIMITER_SEMAPHORE = "semaphore";
+    public static final String LIMITER_ADAPTIVE = "adaptive";
+
+    private final int maxQueued;
+    private final long queueTimeout;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+
+    /**
+     * Constructor with the queue settings.
+     *
+     * @param maxQueued    - Max number of executions that can wait for a permit.
+     * @param queueTimeout - Max time to wait for a permit (in milliseconds).
+     */
+    protected ConcurrencyLimiter(int maxQueued, long queueTimeout) {
+        Preconditions.checkArgument(maxQueued >= 0);
+        Preconditions.checkArgument(queueTimeout >= 0);
+        this.maxQueued = maxQueued;
+        this.queueTimeout = queueTimeout;
+    }
+
+    /**
+     * Get the current concurrency limit.
+     *
+     * @return - Concurrency Limit.
+     */
+    public abstract int getLimit();
+
+    /**
+     * Callback on completion of an execution.
+     *
+     * @param rtt      - Execution time (in nanoseconds).
+     * @param inFlight - Executions in-flight when this execution was started.
+     */
+    protected abstract void onComplete(long rtt, int inFlight);
+
+    /**
+     * Acquire a permit to execute. Will wait in the queue if the limit
+     * has been reached and the queue isn't full.
+     *
+     * @param context - Context Handle (queue wait is bounded by the deadline).
+     * @return - Permit acquired? (false if rejected)
+     */
+    public boolean acquire(Context context) {
+        if (tryAcquire()) {
+            return true;
+        }
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        try {
+            long wait = TimeUnit.MILLISECONDS.toNanos(queueTimeout);
+            if (context != null && context.hasDeadline()) {
+                wait = Math.min(wait,
+                                context.getRemainingTime(TimeUnit.NANOSECONDS));
+            }
+            lock.lock();
+            try {
+                while (!tryAcquire()) {
+                    if (wait <= 0) {
+                        rejected.increment();
+                        return false;
+                    }
+                    wait = available.awaitNanos(wait);
+                }
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejected.increment();
+            return false;
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    /**
+     * Release an acquired permit.
+     *
+     * @param rtt - Execution time (in nanoseconds).
+     */
+    public void release(long rtt) {
+        int current = inFlight.getAndDecrement();
+        onComplete(rtt, current);
+        if (queued.get() > 0) {
+            lock.lock();
+            try {
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                admitted.increment();
+                int peak = peakInFlight.get();
+                while (current + 1 > peak) {
+                    if (peakInFlight.compareAndSet(peak, current + 1)) {
+                        break;
+                    }
+                    peak = peakInFlight.get();
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Get the number of executions currently in-flight.
+     *
+     * @return - In-flight count.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Get the peak number of in-flight executions.
+     *
+     * @return - Peak in-flight count.
+     */
+    public int getPeakInFlight() {
+        return peakInFlight.get();
+    }
+
+    /**
+     * Get the number of executions waiting for a permit.
+     *
+     * @return - Queued count.
+     */
+    public int getQueued() {
+        return queued.get();
+    }
+
+    /**
+     * Get the number of executions admitted.
+     *
+     * @return - Admitted count.
+     */
+    public long getAdmitted() {
+        return admitted.sum();
+    }
+
+    /**
+     * Get the number of executions rejected.
+     *
+     * @return - Rejected count.
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Reset the peak in-flight count to the current in-flight count.
+     */
+    public void resetPeak() {
+        peakInFlight.set(inFlight.get());
+    }
+
+    /**
+     * Get a snapshot of the limiter counters.
+     *
+     * @return - Limiter Statistics.
+     */
+    public LimiterStats getStats() {
+        LimiterStats stats = new LimiterStats();
+        stats.setLimit(getLimit());
+        stats.setInFlight(getInFlight());
+        stats.setPeakInFlight(getPeakInFlight());
+        stats.setQueued(getQueued());
+        stats.setAdmitted(getAdmitted());
+        stats.setRejected(getRejected());
+        return stats;
+    }
+
+    /**
+     * Create a limiter instance.
+     *
+     * @param type          - Limiter type (semaphore/adaptive), defaults to semaphore.
+     * @param maxConcurrent - Max concurrent executions.
+     * @param maxQueued     - Max queued executions.
+     * @param queueTimeout  - Max time to wait in the queue (in milliseconds).
+     * @return - Limiter instance.
+     */
+    public static ConcurrencyLimiter create(String type, int maxConcurrent,
+                                            int maxQueued, long queueTimeout) {
+        if (Strings.isNullOrEmpty(type) ||
+                type.compareToIgnoreCase(LIMITER_SEMAPHORE) == 0) {
+            return new SemaphoreLimiter(maxConcurrent, maxQueued, queueTimeout);
+        } else if (type.compareToIgnoreCase(LIMITER_ADAPTIVE) == 0) {
+            return new VegasLimiter(maxConcurrent, maxQueued, queueTimeout);
+        }
+        throw new IllegalArgumentException(
+                String.format("Invalid limiter type. [type=%s]", type));
+    }
+}
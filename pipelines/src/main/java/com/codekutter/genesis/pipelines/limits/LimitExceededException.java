@@ -0,0 +1,18 @@
+package com.codekutter.genesis.pipelines.limits;
+
+import com.codekutter.genesis.pipelines.ProcessorException;
+
+/**
+ * Exception raised when an execution is rejected by a
+ * processor concurrency limit.
+ */
+public class LimitExceededException extends ProcessorException {
+    /**
+     * Exception constructor with error message string.
+     *
+     * @param s - Error message string.
+     */
+    public LimitExceededException(String s) {
+        super(s);
+    }
+}
@@ -0,0 +1,36 @@
+package com.codekutter.genesis.pipelines.limits;
+
+import lombok.Data;
+import lombok.ToString;
+
+/**
+ * Snapshot of the counters of a concurrency limiter.
+ */
+@Data
+@ToString
+public class LimiterStats {
+    /**
+     * Current concurrency limit.
+     */
+    private int limit;
+    /**
+     * Executions in-flight.
+     */
+    private int inFlight;
+    /**
+     * Peak executions in-flight.
+     */
+    private int peakInFlight;
+    /**
+     * Executions waiting for a permit.
+     */
+    private int queued;
+    /**
+     * Executions admitted.
+     */
+    private long admitted;
+    /**
+     * Executions rejected.
+     */
+    private long rejected;
+}
@@ -0,0 +1,38 @@
+package com.codekutter.genesis.pipelines.limits;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Concurrency limiter with a fixed limit.
+ */
+public class SemaphoreLimiter extends ConcurrencyLimiter {
+    private final int limit;
+
+    /**
+     * Constructor with the limits.
+     *
+     * @param limit        - Max concurrent executions.
+     * @param maxQueued    - Max queued executions.
+     * @param queueTimeout - Max time to wait in the queue (in milliseconds).
+     */
+    public SemaphoreLimiter(int limit, int maxQueued, long queueTimeout) {
+        super(maxQueued, queueTimeout);
+        Preconditions.checkArgument(limit > 0);
+        this.limit = limit;
+    }
+
+    /**
+     * Get the current concurrency limit.
+     *
+     * @return - Concurrency Limit.
+     */
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    protected void onComplete(long rtt, int inFlight) {
+        // Nothing to do, limit is fixed.
+    }
+}
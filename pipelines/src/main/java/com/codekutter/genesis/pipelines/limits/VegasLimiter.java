@@ -0,0 +1,73 @@
+package com.codekutter.genesis.pipelines.limits;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Adaptive concurrency limiter based on TCP Vegas.
+ * <p>
+ * The minimum observed latency is used as the no-load latency, the queue
+ * size is estimated as limit * (1 - rttNoLoad/rtt). The limit is increased
+ * while the estimated queue is small (&lt; alpha) and decreased when it
+ * grows large (&gt; beta). The limit is bounded by the configured max.
+ */
+public class VegasLimiter extends ConcurrencyLimiter {
+    private static final int ALPHA = 3;
+    private static final int BETA = 6;
+    /**
+     * Number of samples after which the no-load latency is re-probed.
+     */
+    private static final int PROBE_INTERVAL = 1000;
+
+    private final int maxLimit;
+    private volatile int limit;
+    private long rttNoLoad = 0;
+    private int samples = 0;
+
+    /**
+     * Constructor with the limits.
+     *
+     * @param maxLimit     - Max concurrent executions.
+     * @param maxQueued    - Max queued executions.
+     * @param queueTimeout - Max time to wait in the queue (in milliseconds).
+     */
+    public VegasLimiter(int maxLimit, int maxQueued, long queueTimeout) {
+        super(maxQueued, queueTimeout);
+        Preconditions.checkArgument(maxLimit > 0);
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(1, maxLimit / 2);
+    }
+
+    /**
+     * Get the current concurrency limit.
+     *
+     * @return - Concurrency Limit.
+     */
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    protected synchronized void onComplete(long rtt, int inFlight) {
+        if (rtt <= 0) {
+            return;
+        }
+        if (++samples >= PROBE_INTERVAL) {
+            samples = 0;
+            rttNoLoad = rtt;
+        } else if (rttNoLoad == 0 || rtt < rttNoLoad) {
+            rttNoLoad = rtt;
+        }
+        int current = limit;
+        // Don't adjust if the limit isn't being used.
+        if (inFlight * 2 < current) {
+            return;
+        }
+        double queue = Math.ceil(current * (1 - ((double) rttNoLoad / rtt)));
+        if (queue < ALPHA) {
+            limit = Math.min(maxLimit, current + 1);
+        } else if (queue > BETA) {
+            limit = Math.max(1, current - 1);
+        }
+    }
+}
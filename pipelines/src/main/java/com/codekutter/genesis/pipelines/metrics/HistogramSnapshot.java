@@ -0,0 +1,44 @@
+package com.codekutter.genesis.pipelines.metrics;
+
+import lombok.Data;
+import lombok.ToString;
+
+/**
+ * Snapshot of a latency histogram (values in nanoseconds).
+ */
+@Data
+@ToString
+public class HistogramSnapshot {
+    /**
+     * Number of recorded values.
+     */
+    private long count;
+    /**
+     * Min recorded value.
+     */
+    private long min;
+    /**
+     * Max recorded value.
+     */
+    private long max;
+    /**
+     * Mean of the recorded values.
+     */
+    private double mean;
+    /**
+     * 50th percentile.
+     */
+    private long p50;
+    /**
+     * 90th percentile.
+     */
+    private long p90;
+    /**
+     * 99th percentile.
+     */
+    private long p99;
+    /**
+     * 99.9th percentile.
+     */
+    private long p999;
+}
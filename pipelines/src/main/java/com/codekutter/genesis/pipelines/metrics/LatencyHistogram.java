@@ -0,0 +1,120 @@
+package com.codekutter.genesis.pipelines.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with log-linear buckets (HdrHistogram style).
+ * <p>
+ * Each power of two range is split into 32 sub-buckets, giving ~3% value
+ * precision. Values are recorded in nanoseconds, values above ~18 minutes
+ * are recorded in the last bucket.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS =
+            (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + SUB_BUCKETS;
+    private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(0);
+
+    /**
+     * Record a latency value.
+     *
+     * @param nanos - Latency (in nanoseconds).
+     */
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+        counts.incrementAndGet(index(value));
+        count.increment();
+        sum.add(value);
+        long current = min.get();
+        while (value < current && !min.compareAndSet(current, value)) {
+            current = min.get();
+        }
+        current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * Reset the recorded values.
+     * <p>
+     * Note: Values recorded concurrently with a reset may be partially retained.
+     */
+    public void reset() {
+        for (int ii = 0; ii < BUCKETS; ii++) {
+            counts.set(ii, 0);
+        }
+        count.reset();
+        sum.reset();
+        min.set(Long.MAX_VALUE);
+        max.set(0);
+    }
+
+    /**
+     * Get a snapshot of the recorded values.
+     *
+     * @return - Histogram Snapshot.
+     */
+    public HistogramSnapshot getSnapshot() {
+        long[] values = new long[BUCKETS];
+        long total = 0;
+        for (int ii = 0; ii < BUCKETS; ii++) {
+            values[ii] = counts.get(ii);
+            total += values[ii];
+        }
+        HistogramSnapshot snapshot = new HistogramSnapshot();
+        snapshot.setCount(total);
+        if (total == 0) {
+            return snapshot;
+        }
+        long vmax = max.get();
+        snapshot.setMin(min.get());
+        snapshot.setMax(vmax);
+        snapshot.setMean((double) sum.sum() / count.sum());
+        snapshot.setP50(Math.min(vmax, percentile(values, total, 0.50)));
+        snapshot.setP90(Math.min(vmax, percentile(values, total, 0.90)));
+        snapshot.setP99(Math.min(vmax, percentile(values, total, 0.99)));
+        snapshot.setP999(Math.min(vmax, percentile(values, total, 0.999)));
+        return snapshot;
+    }
+
+    private static long percentile(long[] values, long total, double percentile) {
+        long rank = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int ii = 0; ii < values.length; ii++) {
+            seen += values[ii];
+            if (seen >= rank && values[ii] > 0) {
+                return highestValue(ii);
+            }
+        }
+        return highestValue(values.length - 1);
+    }
+
+    static int index(long value) {
+        if (value < (SUB_BUCKETS << 1)) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return (shift * SUB_BUCKETS) + (int) (value >>> shift);
+    }
+
+    static long highestValue(int index) {
+        if (index < (SUB_BUCKETS << 1)) {
+            return index;
+        }
+        int shift = (index / SUB_BUCKETS) - 1;
+        long sub = (index % SUB_BUCKETS) + SUB_BUCKETS;
+        return (sub << shift) + (1L << shift) - 1;
+    }
+}
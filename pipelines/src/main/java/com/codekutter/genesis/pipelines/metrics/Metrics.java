@@ -0,0 +1,31 @@
+package com.codekutter.genesis.pipelines.metrics;
+
+/**
+ * Global switch for processor metrics collection.
+ * <p>
+ * When disabled processors skip all timing/counter updates.
+ */
+public final class Metrics {
+    private static volatile boolean enabled = true;
+
+    private Metrics() {
+    }
+
+    /**
+     * Check if metrics collection is enabled.
+     *
+     * @return - Is enabled?
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enable/Disable metrics collection.
+     *
+     * @param enabled - Enable?
+     */
+    public static void setEnabled(boolean enabled) {
+        Metrics.enabled = enabled;
+    }
+}
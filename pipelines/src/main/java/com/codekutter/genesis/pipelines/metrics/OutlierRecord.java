@@ -0,0 +1,64 @@
+package com.codekutter.genesis.pipelines.metrics;
+
+import com.codekutter.genesis.pipelines.EProcessorResponse;
+import lombok.Data;
+import lombok.ToString;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Record of a slow pipeline execution (values in nanoseconds).
+ */
+@Data
+@ToString
+public class OutlierRecord {
+    /**
+     * Pipeline name.
+     */
+    private String pipeline;
+    /**
+     * Entity key(s), NULL if the entity isn't keyed.
+     */
+    private String key;
+    /**
+     * Number of entities in the execution.
+     */
+    private int entities;
+    /**
+     * Execution start time (epoch milliseconds).
+     */
+    private long timestamp;
+    /**
+     * Total elapsed time.
+     */
+    private long elapsed;
+    /**
+     * Elapsed time of the executed stages (in execution order).
+     */
+    private Map<String, Long> stages;
+    /**
+     * Response state of the execution.
+     */
+    private EProcessorResponse state;
+
+    /**
+     * Get a single line description of this record (times in microseconds).
+     *
+     * @return - Formatted record.
+     */
+    public String format() {
+        StringBuilder buffer = new StringBuilder();
+        if (stages != null) {
+            for (Map.Entry<String, Long> entry : stages.entrySet()) {
+                buffer.append(String.format("[%s=%dus]", entry.getKey(),
+                                            TimeUnit.NANOSECONDS.toMicros(
+                                                    entry.getValue())));
+            }
+        }
+        return String.format(
+                "[pipeline=%s][key=%s][entities=%d][elapsed=%dus][state=%s]%s",
+                pipeline, key, entities,
+                TimeUnit.NANOSECONDS.toMicros(elapsed), state, buffer);
+    }
+}
@@ -0,0 +1,252 @@
+package com.codekutter.genesis.pipelines.metrics;
+
+import com.codekutter.genesis.pipelines.EProcessorResponse;
+import com.codekutter.genesis.pipelines.types.Entity;
+import com.codekutter.zconfig.common.LogUtils;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Recorder to keep the N slowest executions of a pipeline.
+ * <p>
+ * Records are kept in a fixed array of slots updated by CAS, executions
+ * faster than the current slowest N are rejected by a single volatile
+ * read, the record is only built when the execution is admitted.
+ * Executions above the (optional) threshold are also logged, at most
+ * once per dump interval.
+ */
+public class OutlierRecorder {
+    /**
+     * Min interval between threshold dumps (in milliseconds).
+     */
+    public static final long DUMP_INTERVAL = 1000;
+    /**
+     * Max entity keys included in a collection record.
+     */
+    public static final int MAX_KEYS = 8;
+
+    private final String pipeline;
+    private final AtomicReferenceArray<OutlierRecord> slots;
+    private final long threshold;
+    private final AtomicLong floor = new AtomicLong(0);
+    private final AtomicLong lastDump = new AtomicLong(0);
+
+    /**
+     * Constructor with the number of records to keep.
+     *
+     * @param pipeline  - Pipeline name.
+     * @param size      - Number of slowest executions to keep.
+     * @param threshold - Threshold to log slow executions (0 = disabled)
+     * @param unit      - Threshold time unit.
+     */
+    public OutlierRecorder(@Nonnull String pipeline, int size, long threshold,
+                           @Nonnull TimeUnit unit) {
+        Preconditions.checkArgument(size > 0);
+        Preconditions.checkArgument(threshold >= 0);
+        this.pipeline = pipeline;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.threshold = unit.toNanos(threshold);
+    }
+
+    /**
+     * Get the number of records kept.
+     *
+     * @return - Max records.
+     */
+    public int getSize() {
+        return slots.length();
+    }
+
+    /**
+     * Get the threshold to log slow executions.
+     *
+     * @return - Threshold (in nanoseconds), 0 if disabled.
+     */
+    public long getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Record a pipeline execution.
+     *
+     * @param data     - Input entity (or list of entities).
+     * @param entities - Number of entities.
+     * @param elapsed  - Total elapsed time (in nanoseconds).
+     * @param names    - Stage names (in execution order).
+     * @param times    - Elapsed time of the executed stages.
+     * @param count    - Number of executed stages.
+     * @param state    - Response state.
+     */
+    public void record(Object data, int entities, long elapsed,
+                       Collection<String> names, long[] times, int count,
+                       EProcessorResponse state) {
+        boolean slow = (threshold > 0 && elapsed >= threshold);
+        if (elapsed <= floor.get() && !slow) {
+            return;
+        }
+        OutlierRecord record = new OutlierRecord();
+        record.setPipeline(pipeline);
+        record.setKey(keyOf(data));
+        record.setEntities(entities);
+        record.setTimestamp(System.currentTimeMillis() -
+                                    TimeUnit.NANOSECONDS.toMillis(elapsed));
+        record.setElapsed(elapsed);
+        record.setState(state);
+        Map<String, Long> stages = new LinkedHashMap<>();
+        if (names != null && times != null) {
+            Iterator<String> iter = names.iterator();
+            for (int ii = 0; ii < count && iter.hasNext(); ii++) {
+                stages.put(iter.next(), times[ii]);
+            }
+        }
+        record.setStages(stages);
+
+        if (elapsed > floor.get()) {
+            insert(record);
+        }
+        if (slow) {
+            long now = System.currentTimeMillis();
+            long last = lastDump.get();
+            if (now - last >= DUMP_INTERVAL && lastDump.compareAndSet(last, now)) {
+                LogUtils.warn(getClass(), String.format(
+                        "Execution exceeded threshold. [threshold=%dus]%s",
+                        TimeUnit.NANOSECONDS.toMicros(threshold),
+                        record.format()));
+            }
+        }
+    }
+
+    /**
+     * Replace the fastest record (or an empty slot) with the passed record.
+     *
+     * @param record - Record to insert.
+     */
+    private void insert(OutlierRecord record) {
+        while (true) {
+            int index = -1;
+            OutlierRecord min = null;
+            for (int ii = 0; ii < slots.length(); ii++) {
+                OutlierRecord r = slots.get(ii);
+                if (r == null) {
+                    index = ii;
+                    min = null;
+                    break;
+                }
+                if (min == null || r.getElapsed() < min.getElapsed()) {
+                    index = ii;
+                    min = r;
+                }
+            }
+            if (min != null && min.getElapsed() >= record.getElapsed()) {
+                return;
+            }
+            if (slots.compareAndSet(index, min, record)) {
+                updateFloor();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Update the admission floor to the fastest recorded execution.
+     * Slots are only replaced by slower records, hence a stale value
+     * is always lower than the actual minimum.
+     */
+    private void updateFloor() {
+        long min = Long.MAX_VALUE;
+        for (int ii = 0; ii < slots.length(); ii++) {
+            OutlierRecord r = slots.get(ii);
+            if (r == null) {
+                min = 0;
+                break;
+            }
+            min = Math.min(min, r.getElapsed());
+        }
+        floor.set(min);
+    }
+
+    /**
+     * Get the recorded executions, slowest first.
+     *
+     * @return - List of records.
+     */
+    public List<OutlierRecord> getOutliers() {
+        List<OutlierRecord> records = new ArrayList<>(slots.length());
+        for (int ii = 0; ii < slots.length(); ii++) {
+            OutlierRecord r = slots.get(ii);
+            if (r != null) {
+                records.add(r);
+            }
+        }
+        records.sort(Comparator.comparingLong(OutlierRecord::getElapsed)
+                               .reversed());
+        return records;
+    }
+
+    /**
+     * Log the recorded executions, slowest first.
+     *
+     * @return - List of records.
+     */
+    public List<OutlierRecord> dump() {
+        List<OutlierRecord> records = getOutliers();
+        for (OutlierRecord record : records) {
+            LogUtils.info(getClass(), String.format("Slow execution: %s",
+                                                    record.format()));
+        }
+        return records;
+    }
+
+    /**
+     * Clear the recorded executions.
+     */
+    public void reset() {
+        for (int ii = 0; ii < slots.length(); ii++) {
+            slots.set(ii, null);
+        }
+        floor.set(0);
+    }
+
+    /**
+     * Get the key(s) of the passed entity (or list of entities).
+     *
+     * @param data - Entity or List of entities.
+     * @return - Key string, NULL if not keyed.
+     */
+    private static String keyOf(Object data) {
+        if (data instanceof Entity<?>) {
+            return String.valueOf(((Entity<?>) data).getKey());
+        } else if (data instanceof List<?>) {
+            List<?> list = (List<?>) data;
+            StringBuilder buffer = new StringBuilder("[");
+            int count = 0;
+            for (Object e : list) {
+                if (!(e instanceof Entity<?>)) {
+                    return null;
+                }
+                if (count >= MAX_KEYS) {
+                    buffer.append(", ...");
+                    break;
+                }
+                if (count > 0) {
+                    buffer.append(", ");
+                }
+                buffer.append(((Entity<?>) e).getKey());
+                count++;
+            }
+            return buffer.append("]").toString();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,127 @@
+package com.codekutter.genesis.pipelines.metrics;
+
+import com.codekutter.genesis.pipelines.EProcessorResponse;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Execution metrics of a processor: latency histograms for the condition
+ * evaluation and processing, and counters for each response state.
+ */
+public class ProcessorMetrics {
+    private final LatencyHistogram condition = new LatencyHistogram();
+    private final LatencyHistogram process = new LatencyHistogram();
+    private final LongAdder[] responses =
+            new LongAdder[EProcessorResponse.values().length];
+    private final LongAdder evaluated = new LongAdder();
+    private final LongAdder matched = new LongAdder();
+    private final LongAdder accounted = new LongAdder();
+    private final LongAdder cpuTime = new LongAdder();
+    private final LongAdder allocated = new LongAdder();
+
+    /**
+     * Default constructor.
+     */
+    public ProcessorMetrics() {
+        for (int ii = 0; ii < responses.length; ii++) {
+            responses[ii] = new LongAdder();
+        }
+    }
+
+    /**
+     * Record the time taken to evaluate the condition.
+     *
+     * @param nanos - Elapsed time (in nanoseconds).
+     */
+    public void recordCondition(long nanos) {
+        condition.record(nanos);
+    }
+
+    /**
+     * Record the time taken to process the entity.
+     *
+     * @param nanos - Elapsed time (in nanoseconds).
+     */
+    public void recordProcess(long nanos) {
+        process.record(nanos);
+    }
+
+    /**
+     * Record the resources used to process the entity.
+     *
+     * @param cpuTime   - Thread CPU time (in nanoseconds).
+     * @param allocated - Allocated heap (in bytes).
+     */
+    public void recordResources(long cpuTime, long allocated) {
+        accounted.increment();
+        this.cpuTime.add(cpuTime);
+        this.allocated.add(allocated);
+    }
+
+    /**
+     * Record the result of a condition evaluation.
+     *
+     * @param evaluated - Number of entities the condition was evaluated on.
+     * @param matched   - Number of entities that matched.
+     */
+    public void recordSelectivity(long evaluated, long matched) {
+        this.evaluated.add(evaluated);
+        this.matched.add(matched);
+    }
+
+    /**
+     * Record the response state of an execution.
+     *
+     * @param state - Response State.
+     */
+    public void recordResponse(EProcessorResponse state) {
+        if (state != null) {
+            responses[state.ordinal()].increment();
+        }
+    }
+
+    /**
+     * Reset all the metrics.
+     */
+    public void reset() {
+        condition.reset();
+        process.reset();
+        evaluated.reset();
+        matched.reset();
+        accounted.reset();
+        cpuTime.reset();
+        allocated.reset();
+        for (LongAdder adder : responses) {
+            adder.reset();
+        }
+    }
+
+    /**
+     * Get a snapshot of the metrics.
+     *
+     * @param name - Processor name.
+     * @return - Metrics Snapshot.
+     */
+    public ProcessorMetricsSnapshot getSnapshot(String name) {
+        ProcessorMetricsSnapshot snapshot = new ProcessorMetricsSnapshot();
+        snapshot.setName(name);
+        snapshot.setCondition(condition.getSnapshot());
+        snapshot.setProcess(process.getSnapshot());
+        snapshot.setEvaluated(evaluated.sum());
+        snapshot.setMatched(matched.sum());
+        snapshot.setAccounted(accounted.sum());
+        snapshot.setCpuTime(cpuTime.sum());
+        snapshot.setAllocatedBytes(allocated.sum());
+        Map<EProcessorResponse, Long> counts = new EnumMap<>(EProcessorResponse.class);
+        for (EProcessorResponse state : EProcessorResponse.values()) {
+            long count = responses[state.ordinal()].sum();
+            if (count > 0) {
+                counts.put(state, count);
+            }
+        }
+        snapshot.setResponses(counts);
+        return snapshot;
+    }
+}
@@ -0,0 +1,98 @@
+package com.codekutter.genesis.pipelines.metrics;
+
+import com.codekutter.genesis.pipelines.EProcessorResponse;
+import lombok.Data;
+import lombok.ToString;
+
+import java.util.Map;
+
+/**
+ * Snapshot of the execution metrics of a processor.
+ */
+@Data
+@ToString
+public class ProcessorMetricsSnapshot {
+    /**
+     * Processor name.
+     */
+    private String name;
+    /**
+     * Condition evaluation latency.
+     */
+    private HistogramSnapshot condition;
+    /**
+     * Processing latency.
+     */
+    private HistogramSnapshot process;
+    /**
+     * Execution count by response state.
+     */
+    private Map<EProcessorResponse, Long> responses;
+    /**
+     * Number of entities the condition was evaluated on.
+     */
+    private long evaluated;
+    /**
+     * Number of entities that matched the condition.
+     */
+    private long matched;
+    /**
+     * Number of executions with resource accounting.
+     */
+    private long accounted;
+    /**
+     * Total thread CPU time of the accounted executions (in nanoseconds).
+     */
+    private long cpuTime;
+    /**
+     * Total heap allocated by the accounted executions (in bytes).
+     */
+    private long allocatedBytes;
+
+    /**
+     * Get the execution count for the specified response state.
+     *
+     * @param state - Response State.
+     * @return - Execution count.
+     */
+    public long getCount(EProcessorResponse state) {
+        Long count = (responses != null ? responses.get(state) : null);
+        return (count != null ? count : 0);
+    }
+
+    /**
+     * Get the fraction of entities that matched the condition.
+     *
+     * @return - Selectivity (0.0 - 1.0), -1 if no condition was evaluated.
+     */
+    public double getSelectivity() {
+        if (evaluated <= 0) {
+            return -1;
+        }
+        return (double) matched / evaluated;
+    }
+
+    /**
+     * Get the mean thread CPU time per accounted execution.
+     *
+     * @return - Mean CPU time (in nanoseconds), -1 if not accounted.
+     */
+    public double getCpuTimeMean() {
+        if (accounted <= 0) {
+            return -1;
+        }
+        return (double) cpuTime / accounted;
+    }
+
+    /**
+     * Get the mean heap allocated per accounted execution.
+     *
+     * @return - Mean allocated bytes, -1 if not accounted.
+     */
+    public double getAllocatedMean() {
+        if (accounted <= 0) {
+            return -1;
+        }
+        return (double) allocatedBytes / accounted;
+    }
+}
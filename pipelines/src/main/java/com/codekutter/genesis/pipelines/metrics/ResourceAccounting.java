@@ -0,0 +1,102 @@
+package com.codekutter.genesis.pipelines.metrics;
+
+import com.codekutter.zconfig.common.LogUtils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Global switch and probes for accounting the thread CPU time and the
+ * heap allocated by processor executions.
+ * <p>
+ * Accounting is disabled by default and requires the HotSpot thread
+ * management extensions (com.sun.management.ThreadMXBean). Values are
+ * read for the executing thread, hence are valid for any thread the
+ * processor is invoked on.
+ */
+public final class ResourceAccounting {
+    private static final com.sun.management.ThreadMXBean threads = probe();
+    private static volatile boolean enabled = false;
+
+    private ResourceAccounting() {
+    }
+
+    /**
+     * Get the thread management bean, if CPU time and allocation
+     * accounting are supported by the JVM.
+     *
+     * @return - Thread MXBean, NULL if not supported.
+     */
+    private static com.sun.management.ThreadMXBean probe() {
+        try {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean tb =
+                        (com.sun.management.ThreadMXBean) bean;
+                if (tb.isThreadAllocatedMemorySupported() &&
+                        tb.isCurrentThreadCpuTimeSupported()) {
+                    return tb;
+                }
+            }
+        } catch (Throwable t) {
+            LogUtils.debug(ResourceAccounting.class, t);
+        }
+        return null;
+    }
+
+    /**
+     * Check if resource accounting is supported by the JVM.
+     *
+     * @return - Is supported?
+     */
+    public static boolean isSupported() {
+        return (threads != null);
+    }
+
+    /**
+     * Check if resource accounting is enabled.
+     *
+     * @return - Is enabled?
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enable/Disable resource accounting. Enabling is ignored
+     * if not supported by the JVM.
+     *
+     * @param enabled - Enable?
+     */
+    public static void setEnabled(boolean enabled) {
+        if (enabled && threads != null) {
+            if (!threads.isThreadCpuTimeEnabled()) {
+                threads.setThreadCpuTimeEnabled(true);
+            }
+            if (!threads.isThreadAllocatedMemoryEnabled()) {
+                threads.setThreadAllocatedMemoryEnabled(true);
+            }
+            ResourceAccounting.enabled = true;
+        } else {
+            ResourceAccounting.enabled = false;
+        }
+    }
+
+    /**
+     * Get the CPU time used by the current thread.
+     *
+     * @return - CPU time (in nanoseconds).
+     */
+    public static long cpuTime() {
+        return threads.getCurrentThreadCpuTime();
+    }
+
+    /**
+     * Get the heap allocated by the current thread.
+     *
+     * @return - Allocated bytes.
+     */
+    public static long allocatedBytes() {
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
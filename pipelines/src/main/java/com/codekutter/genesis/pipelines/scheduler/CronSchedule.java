@@ -0,0 +1,177 @@
+package com.codekutter.genesis.pipelines.scheduler;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+
+import javax.annotation.Nonnull;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+
+/**
+ * Cron like schedule, supports the standard five fields
+ * (minute hour day-of-month month day-of-week) with
+ * wildcards, ranges, lists and steps (eg. "*&#47;15 8-18 * * 1-5").
+ */
+public class CronSchedule implements Schedule {
+    private static final int MAX_YEARS = 5;
+
+    private final String expression;
+    private final ZoneId zone;
+    private final BitSet minutes;
+    private final BitSet hours;
+    private final BitSet days;
+    private final BitSet months;
+    private final BitSet weekDays;
+    private final boolean anyDay;
+    private final boolean anyWeekDay;
+
+    /**
+     * Constructor with the cron expression, uses the system time zone.
+     *
+     * @param expression - Cron expression.
+     */
+    public CronSchedule(@Nonnull String expression) {
+        this(expression, ZoneId.systemDefault());
+    }
+
+    /**
+     * Constructor with the cron expression and time zone.
+     *
+     * @param expression - Cron expression.
+     * @param zone       - Time Zone.
+     */
+    public CronSchedule(@Nonnull String expression, @Nonnull ZoneId zone) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(expression));
+        Preconditions.checkArgument(zone != null);
+
+        String[] fields = expression.trim().split("\\s+");
+        if (fields.length != 5) {
+            throw new IllegalArgumentException(
+                    String.format("Invalid cron expression, expected 5 fields. [expression=%s]",
+                                  expression));
+        }
+        this.expression = expression;
+        this.zone = zone;
+        minutes = parse(fields[0], 0, 59);
+        hours = parse(fields[1], 0, 23);
+        days = parse(fields[2], 1, 31);
+        months = parse(fields[3], 1, 12);
+        weekDays = parse(fields[4], 0, 7);
+        // Both 0 and 7 are Sunday.
+        if (weekDays.get(7)) {
+            weekDays.set(0);
+        }
+        anyDay = fields[2].equals("*");
+        anyWeekDay = fields[4].equals("*");
+    }
+
+    /**
+     * Get the cron expression.
+     *
+     * @return - Cron expression.
+     */
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * Get the next fire time after the passed time.
+     *
+     * @param after - Time (in milliseconds).
+     * @return - Next fire time (in milliseconds).
+     */
+    @Override
+    public long next(long after) {
+        ZonedDateTime time = ZonedDateTime.ofInstant(Instant.ofEpochMilli(after), zone)
+                                          .truncatedTo(ChronoUnit.MINUTES)
+                                          .plusMinutes(1);
+        ZonedDateTime limit = time.plusYears(MAX_YEARS);
+        while (time.isBefore(limit)) {
+            if (!months.get(time.getMonthValue())) {
+                time = time.withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS)
+                           .plusMonths(1);
+                continue;
+            }
+            if (!matchesDay(time)) {
+                time = time.truncatedTo(ChronoUnit.DAYS).plusDays(1);
+                continue;
+            }
+            if (!hours.get(time.getHour())) {
+                time = time.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+                continue;
+            }
+            if (!minutes.get(time.getMinute())) {
+                time = time.plusMinutes(1);
+                continue;
+            }
+            return time.toInstant().toEpochMilli();
+        }
+        throw new IllegalStateException(
+                String.format("No fire time found for cron expression. [expression=%s]",
+                              expression));
+    }
+
+    private boolean matchesDay(ZonedDateTime time) {
+        boolean day = days.get(time.getDayOfMonth());
+        boolean weekDay = weekDays.get(time.getDayOfWeek().getValue() % 7);
+        if (anyDay || anyWeekDay) {
+            return day && weekDay;
+        }
+        // Standard cron semantics: if both are restricted either can match.
+        return day || weekDay;
+    }
+
+    private static BitSet parse(String field, int min, int max) {
+        BitSet bits = new BitSet(max + 1);
+        for (String part : field.split(",")) {
+            int step = 1;
+            String range = part;
+            int si = part.indexOf('/');
+            if (si >= 0) {
+                step = parseValue(part.substring(si + 1), 1, max, field);
+                range = part.substring(0, si);
+            }
+            int start;
+            int end;
+            if (range.equals("*")) {
+                start = min;
+                end = max;
+            } else {
+                int ri = range.indexOf('-');
+                if (ri > 0) {
+                    start = parseValue(range.substring(0, ri), min, max, field);
+                    end = parseValue(range.substring(ri + 1), min, max, field);
+                } else {
+                    start = parseValue(range, min, max, field);
+                    end = (si >= 0 ? max : start);
+                }
+            }
+            if (start > end) {
+                throw new IllegalArgumentException(
+                        String.format("Invalid cron range. [field=%s]", field));
+            }
+            for (int ii = start; ii <= end; ii += step) {
+                bits.set(ii);
+            }
+        }
+        return bits;
+    }
+
+    private static int parseValue(String value, int min, int max, String field) {
+        try {
+            int v = Integer.parseInt(value);
+            if (v < min || v > max) {
+                throw new IllegalArgumentException(
+                        String.format("Cron value out of range. [field=%s][range=%d-%d]",
+                                      field, min, max));
+            }
+            return v;
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(
+                    String.format("Invalid cron value. [field=%s]", field), ex);
+        }
+    }
+}
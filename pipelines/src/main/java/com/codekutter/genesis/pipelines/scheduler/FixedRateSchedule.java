@@ -0,0 +1,40 @@
+package com.codekutter.genesis.pipelines.scheduler;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Schedule firing at a fixed interval.
+ */
+public class FixedRateSchedule implements Schedule {
+    private final long interval;
+
+    /**
+     * Constructor with the fire interval.
+     *
+     * @param interval - Interval (in milliseconds).
+     */
+    public FixedRateSchedule(long interval) {
+        Preconditions.checkArgument(interval > 0);
+        this.interval = interval;
+    }
+
+    /**
+     * Get the fire interval.
+     *
+     * @return - Interval (in milliseconds).
+     */
+    public long getInterval() {
+        return interval;
+    }
+
+    /**
+     * Get the next fire time after the passed time.
+     *
+     * @param after - Time (in milliseconds).
+     * @return - Next fire time (in milliseconds).
+     */
+    @Override
+    public long next(long after) {
+        return after + interval;
+    }
+}
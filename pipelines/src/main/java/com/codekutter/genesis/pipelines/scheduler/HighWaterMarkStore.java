@@ -0,0 +1,86 @@
+package com.codekutter.genesis.pipelines.scheduler;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+
+import javax.annotation.Nonnull;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Local file based store for the high-water marks of polled pipelines.
+ * <p>
+ * Marks are kept in a properties file, updates are written to
+ * a temporary file and atomically moved in place.
+ */
+public class HighWaterMarkStore {
+    private static final String STORE_FILE = "watermarks.properties";
+
+    private final File file;
+    private final Properties marks = new Properties();
+
+    /**
+     * Constructor with the store directory.
+     *
+     * @param directory - Directory to store the marks in.
+     * @throws IOException
+     */
+    public HighWaterMarkStore(@Nonnull String directory) throws IOException {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(directory));
+        File dir = new File(directory);
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException(
+                    String.format("Error creating directory. [path=%s]",
+                                  dir.getAbsolutePath()));
+        }
+        file = new File(dir, STORE_FILE);
+        if (file.exists()) {
+            try (Reader reader = new InputStreamReader(new FileInputStream(file),
+                                                       StandardCharsets.UTF_8)) {
+                marks.load(reader);
+            }
+        }
+    }
+
+    /**
+     * Get the water mark for the specified pipeline.
+     *
+     * @param name - Pipeline name.
+     * @return - Water mark, NULL if not set.
+     */
+    public synchronized String get(@Nonnull String name) {
+        return marks.getProperty(name);
+    }
+
+    /**
+     * Update and persist the water mark for the specified pipeline.
+     *
+     * @param name      - Pipeline name.
+     * @param waterMark - Water mark.
+     * @throws IOException
+     */
+    public synchronized void put(@Nonnull String name,
+                                 @Nonnull String waterMark) throws IOException {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(name));
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(waterMark));
+
+        marks.setProperty(name, waterMark);
+        File temp = new File(file.getParentFile(), STORE_FILE + ".tmp");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(temp),
+                                                    StandardCharsets.UTF_8)) {
+            marks.store(writer, "Pipeline high-water marks");
+        }
+        Path source = temp.toPath();
+        Path target = file.toPath();
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.codekutter.genesis.pipelines.scheduler;
+
+import com.codekutter.genesis.pipelines.types.CollectionDataProducer;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Interface to extract and apply high-water marks for incremental polling.
+ * <p>
+ * Water marks are stored as strings and are expected to be
+ * comparable using the compare method.
+ *
+ * @param <T> - Entity Type.
+ */
+public interface IWaterMarkProvider<T> {
+    /**
+     * Initialize the provider for the producer being polled.
+     *
+     * @param producer - Data Producer pipeline.
+     */
+    default void init(@Nonnull CollectionDataProducer<T> producer) {
+    }
+
+    /**
+     * Get the water mark (last key or timestamp) for an entity.
+     *
+     * @param entity - Entity instance.
+     * @return - Water mark, NULL if not available.
+     */
+    String getWaterMark(@Nonnull T entity);
+
+    /**
+     * Build the fetch query to only read data after the water mark.
+     *
+     * @param query     - Base Query (can be NULL).
+     * @param waterMark - Current water mark (NULL if none).
+     * @return - Fetch Query.
+     */
+    String buildQuery(String query, String waterMark);
+
+    /**
+     * Compare two water marks.
+     *
+     * @param source - Source water mark.
+     * @param target - Target water mark.
+     * @return - Compare result.
+     */
+    default int compare(@Nonnull String source, @Nonnull String target) {
+        return source.compareTo(target);
+    }
+}
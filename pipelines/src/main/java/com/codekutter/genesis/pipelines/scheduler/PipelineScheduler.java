@@ -0,0 +1,137 @@
+package com.codekutter.genesis.pipelines.scheduler;
+
+import com.codekutter.zconfig.common.LogUtils;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import java.io.Closeable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Scheduler to run producer pipelines on fixed rate or cron schedules.
+ * <p>
+ * Each job is re-scheduled only after the previous poll completes,
+ * so polls of the same pipeline never overlap.
+ */
+public class PipelineScheduler implements Closeable {
+    private static final int DEFAULT_THREADS = 1;
+
+    private final Map<String, PollingJob<?>> jobs = new LinkedHashMap<>();
+    private final HighWaterMarkStore store;
+    private final int threads;
+    private ScheduledExecutorService executor;
+
+    /**
+     * Constructor with the water mark store and pool size.
+     *
+     * @param store   - High-water mark store (NULL if no incremental polls).
+     * @param threads - Number of scheduler threads.
+     */
+    public PipelineScheduler(HighWaterMarkStore store, int threads) {
+        this.store = store;
+        this.threads = (threads > 0 ? threads : DEFAULT_THREADS);
+    }
+
+    /**
+     * Get the high-water mark store.
+     *
+     * @return - High-water mark store.
+     */
+    public HighWaterMarkStore getStore() {
+        return store;
+    }
+
+    /**
+     * Add a polling job. Jobs added after start are scheduled immediately.
+     *
+     * @param job - Polling Job.
+     * @return - Self.
+     */
+    public synchronized PipelineScheduler schedule(@Nonnull PollingJob<?> job) {
+        Preconditions.checkArgument(job != null);
+        Preconditions.checkArgument(!jobs.containsKey(job.getName()),
+                                    String.format("Job already scheduled. [name=%s]",
+                                                  job.getName()));
+        job.setStore(store);
+        jobs.put(job.getName(), job);
+        if (executor != null) {
+            submit(job);
+        }
+        return this;
+    }
+
+    /**
+     * Start running the scheduled jobs.
+     */
+    public synchronized void start() {
+        Preconditions.checkState(executor == null, "Scheduler already started.");
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory factory = (r) -> {
+            Thread thread = new Thread(r, String.format("pipeline-scheduler-%d",
+                                                        count.incrementAndGet()));
+            thread.setDaemon(true);
+            return thread;
+        };
+        executor = Executors.newScheduledThreadPool(threads, factory);
+        for (PollingJob<?> job : jobs.values()) {
+            submit(job);
+        }
+        LogUtils.info(getClass(),
+                      String.format("Scheduler started. [jobs=%d]", jobs.size()));
+    }
+
+    /**
+     * Check if the scheduler has been started (and not closed).
+     *
+     * @return - Is started?
+     */
+    public synchronized boolean isStarted() {
+        return (executor != null);
+    }
+
+    /**
+     * Get the poll statistics of the scheduled jobs.
+     *
+     * @return - Map of job name/poll stats.
+     */
+    public synchronized Map<String, PollStats> getStats() {
+        Map<String, PollStats> stats = new LinkedHashMap<>();
+        for (PollingJob<?> job : jobs.values()) {
+            stats.put(job.getName(), job.getStats());
+        }
+        return stats;
+    }
+
+    /**
+     * Stop the scheduler, running polls are allowed to complete.
+     */
+    @Override
+    public synchronized void close() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    private void submit(PollingJob<?> job) {
+        ScheduledExecutorService service = executor;
+        long delay = job.scheduleNext(System.currentTimeMillis());
+        service.schedule(() -> {
+            try {
+                job.run();
+            } finally {
+                synchronized (this) {
+                    if (executor == service && !service.isShutdown()) {
+                        submit(job);
+                    }
+                }
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,68 @@
+package com.codekutter.genesis.pipelines.scheduler;
+
+import lombok.Data;
+import lombok.ToString;
+
+/**
+ * Snapshot of the poll statistics of a scheduled pipeline.
+ */
+@Data
+@ToString
+public class PollStats {
+    /**
+     * Pipeline name.
+     */
+    private String name;
+    /**
+     * Number of polls run.
+     */
+    private long runs;
+    /**
+     * Number of failed polls.
+     */
+    private long failures;
+    /**
+     * Number of fire times skipped as the previous poll was still running.
+     */
+    private long missed;
+    /**
+     * Records fetched by the last poll.
+     */
+    private long lastRecords;
+    /**
+     * Total records fetched.
+     */
+    private long totalRecords;
+    /**
+     * Start lag of the last poll vs. the scheduled time (in milliseconds).
+     */
+    private long lastLag;
+    /**
+     * Max start lag (in milliseconds).
+     */
+    private long maxLag;
+    /**
+     * Duration of the last poll (in milliseconds).
+     */
+    private long lastDuration;
+    /**
+     * Max poll duration (in milliseconds).
+     */
+    private long maxDuration;
+    /**
+     * Average poll duration (in milliseconds).
+     */
+    private double averageDuration;
+    /**
+     * Start time of the last poll.
+     */
+    private long lastRun;
+    /**
+     * Next scheduled poll time.
+     */
+    private long nextRun;
+    /**
+     * Current high-water mark.
+     */
+    private String waterMark;
+}
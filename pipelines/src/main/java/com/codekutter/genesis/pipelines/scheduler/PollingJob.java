@@ -0,0 +1,293 @@
+package com.codekutter.genesis.pipelines.scheduler;
+
+import com.codekutter.genesis.pipelines.Context;
+import com.codekutter.genesis.pipelines.types.CollectionDataProducer;
+import com.codekutter.zconfig.common.LogUtils;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Scheduled poll of a data producer pipeline.
+ * <p>
+ * If a water mark provider is set, only records after the stored
+ * high-water mark are fetched/processed and the mark is advanced to
+ * the max water mark of the records processed by a successful poll.
+ *
+ * @param <T> - Entity Type.
+ */
+public class PollingJob<T> implements Runnable {
+    private final String name;
+    private final CollectionDataProducer<T> producer;
+    private final Schedule schedule;
+    private String query;
+    private long jitter = 0;
+    private long timeout = 0;
+    private IWaterMarkProvider<T> waterMarkProvider;
+    private HighWaterMarkStore store;
+
+    private long fireTime = 0;
+    private long scheduled = 0;
+    private long runs = 0;
+    private long failures = 0;
+    private long missed = 0;
+    private long lastRecords = 0;
+    private long totalRecords = 0;
+    private long lastLag = 0;
+    private long maxLag = 0;
+    private long lastDuration = 0;
+    private long maxDuration = 0;
+    private long totalDuration = 0;
+    private long lastRun = 0;
+
+    /**
+     * Constructor with job name, producer and schedule.
+     *
+     * @param name     - Job name (used as the water mark key).
+     * @param producer - Data Producer pipeline.
+     * @param schedule - Poll schedule.
+     */
+    public PollingJob(@Nonnull String name,
+                      @Nonnull CollectionDataProducer<T> producer,
+                      @Nonnull Schedule schedule) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(name));
+        Preconditions.checkArgument(producer != null);
+        Preconditions.checkArgument(schedule != null);
+        this.name = name;
+        this.producer = producer;
+        this.schedule = schedule;
+    }
+
+    /**
+     * Get the job name.
+     *
+     * @return - Job name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Set the base fetch query.
+     *
+     * @param query - Fetch Query.
+     * @return - Self.
+     */
+    public PollingJob<T> withQuery(String query) {
+        this.query = query;
+        return this;
+    }
+
+    /**
+     * Set the max random delay added to each fire time.
+     *
+     * @param jitter - Jitter (in milliseconds).
+     * @return - Self.
+     */
+    public PollingJob<T> withJitter(long jitter) {
+        Preconditions.checkArgument(jitter >= 0);
+        this.jitter = jitter;
+        return this;
+    }
+
+    /**
+     * Set the deadline for each poll.
+     *
+     * @param timeout - Poll timeout (in milliseconds, 0 = no deadline).
+     * @return - Self.
+     */
+    public PollingJob<T> withTimeout(long timeout) {
+        Preconditions.checkArgument(timeout >= 0);
+        this.timeout = timeout;
+        return this;
+    }
+
+    /**
+     * Set the water mark provider for incremental polls.
+     *
+     * @param waterMarkProvider - Water mark provider.
+     * @return - Self.
+     */
+    public PollingJob<T> withWaterMark(
+            @Nonnull IWaterMarkProvider<T> waterMarkProvider) {
+        Preconditions.checkArgument(waterMarkProvider != null);
+        waterMarkProvider.init(producer);
+        this.waterMarkProvider = waterMarkProvider;
+        return this;
+    }
+
+    /**
+     * Set the water mark store (set by the scheduler).
+     *
+     * @param store - High-water mark store.
+     */
+    void setStore(HighWaterMarkStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Compute the next fire time. Fire times that have passed while the
+     * previous poll was running are skipped.
+     * <p>
+     * The schedule advances from the un-jittered fire time, the jitter is
+     * only added to the returned delay (so it doesn't accumulate).
+     *
+     * @param now - Current time (in milliseconds).
+     * @return - Delay to the next fire time (in milliseconds).
+     */
+    synchronized long scheduleNext(long now) {
+        long next = schedule.next(fireTime > 0 ? fireTime : now);
+        while (next < now) {
+            missed++;
+            next = schedule.next(next);
+        }
+        fireTime = next;
+        if (jitter > 0) {
+            next += ThreadLocalRandom.current().nextLong(jitter + 1);
+        }
+        scheduled = next;
+        return next - now;
+    }
+
+    /**
+     * Run a poll of the producer pipeline.
+     */
+    @Override
+    public void run() {
+        long start = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+        long lag;
+        synchronized (this) {
+            lag = Math.max(0, start - scheduled);
+        }
+        WaterMarkFilter filter = null;
+        boolean failed = false;
+        try {
+            String mark = null;
+            if (waterMarkProvider != null && store != null) {
+                mark = store.get(name);
+            }
+            filter = new WaterMarkFilter(mark);
+            String q = query;
+            if (waterMarkProvider != null) {
+                q = waterMarkProvider.buildQuery(query, mark);
+            }
+            Context context = new Context();
+            if (timeout > 0) {
+                context.withTimeout(timeout, TimeUnit.MILLISECONDS);
+            }
+            List<T> processed = producer.read(q, filter, context);
+
+            // Only advance past the records that were processed, a poll that
+            // didn't complete OK (NULL) is retried from the current mark.
+            String max = maxWaterMark(processed);
+            if (max != null && store != null
+                    && (mark == null
+                    || waterMarkProvider.compare(max, mark) > 0)) {
+                store.put(name, max);
+            }
+        } catch (Throwable ex) {
+            failed = true;
+            LogUtils.error(getClass(), ex);
+            LogUtils.warn(getClass(),
+                          String.format("Poll failed. [job=%s][error=%s]", name,
+                                        ex.getLocalizedMessage()));
+        } finally {
+            long duration = TimeUnit.NANOSECONDS
+                    .toMillis(System.nanoTime() - startNanos);
+            synchronized (this) {
+                runs++;
+                if (failed) {
+                    failures++;
+                }
+                lastRun = start;
+                lastLag = lag;
+                maxLag = Math.max(maxLag, lag);
+                lastDuration = duration;
+                maxDuration = Math.max(maxDuration, duration);
+                totalDuration += duration;
+                lastRecords = (filter != null ? filter.accepted : 0);
+                totalRecords += lastRecords;
+            }
+        }
+    }
+
+    /**
+     * Get the max water mark of the processed records.
+     *
+     * @param processed - Processed records (NULL if the poll didn't
+     *                  complete OK).
+     * @return - Max water mark, NULL if none.
+     */
+    private String maxWaterMark(List<T> processed) {
+        if (waterMarkProvider == null || processed == null) {
+            return null;
+        }
+        String max = null;
+        for (T entity : processed) {
+            String m = (entity != null ? waterMarkProvider.getWaterMark(entity) : null);
+            if (m != null && (max == null || waterMarkProvider.compare(m, max) > 0)) {
+                max = m;
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Get a snapshot of the poll statistics.
+     *
+     * @return - Poll Stats.
+     */
+    public synchronized PollStats getStats() {
+        PollStats stats = new PollStats();
+        stats.setName(name);
+        stats.setRuns(runs);
+        stats.setFailures(failures);
+        stats.setMissed(missed);
+        stats.setLastRecords(lastRecords);
+        stats.setTotalRecords(totalRecords);
+        stats.setLastLag(lastLag);
+        stats.setMaxLag(maxLag);
+        stats.setLastDuration(lastDuration);
+        stats.setMaxDuration(maxDuration);
+        stats.setAverageDuration(runs > 0 ? (double) totalDuration / runs : 0);
+        stats.setLastRun(lastRun);
+        stats.setNextRun(scheduled);
+        if (store != null) {
+            stats.setWaterMark(store.get(name));
+        }
+        return stats;
+    }
+
+    /**
+     * Filter dropping records at or before the water mark, while
+     * counting the accepted records.
+     */
+    private class WaterMarkFilter implements Predicate<T> {
+        private final String mark;
+        private long accepted = 0;
+
+        private WaterMarkFilter(String mark) {
+            this.mark = mark;
+        }
+
+        @Override
+        public boolean test(T entity) {
+            if (waterMarkProvider != null) {
+                String m = waterMarkProvider.getWaterMark(entity);
+                if (m != null) {
+                    if (mark != null && waterMarkProvider.compare(m, mark) <= 0) {
+                        return false;
+                    }
+                }
+            }
+            accepted++;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.codekutter.genesis.pipelines.scheduler;
+
+/**
+ * Interface to define a schedule for polling jobs.
+ */
+public interface Schedule {
+    /**
+     * Get the next fire time after the passed time.
+     *
+     * @param after - Time (in milliseconds).
+     * @return - Next fire time (in milliseconds).
+     */
+    long next(long after);
+}
@@ -0,0 +1,167 @@
+package com.codekutter.genesis.pipelines.snapshot;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Element of a compiled pipeline definition: the element name, its
+ * attributes, its text value and the child elements.
+ */
+public class DefinitionNode {
+    private final String name;
+    private final Map<String, String> attributes = new LinkedHashMap<>();
+    private final List<DefinitionNode> children = new ArrayList<>();
+    private String value;
+
+    /**
+     * Constructor with the element name.
+     *
+     * @param name - Element name.
+     */
+    public DefinitionNode(@Nonnull String name) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(name));
+        this.name = name;
+    }
+
+    /**
+     * Get the element name.
+     *
+     * @return - Element name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the element attributes.
+     *
+     * @return - Attributes (in definition order).
+     */
+    public Map<String, String> getAttributes() {
+        return Collections.unmodifiableMap(attributes);
+    }
+
+    /**
+     * Get an attribute value.
+     *
+     * @param name - Attribute name.
+     * @return - Attribute value, NULL if not set.
+     */
+    public String getAttribute(@Nonnull String name) {
+        return attributes.get(name);
+    }
+
+    /**
+     * Set an attribute value.
+     *
+     * @param name  - Attribute name.
+     * @param value - Attribute value.
+     * @return - Self.
+     */
+    public DefinitionNode setAttribute(@Nonnull String name,
+                                       @Nonnull String value) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(name));
+        Preconditions.checkArgument(value != null);
+        attributes.put(name, value);
+        return this;
+    }
+
+    /**
+     * Get the text value of this element.
+     *
+     * @return - Text value, NULL if not set.
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Set the text value of this element.
+     *
+     * @param value - Text value.
+     * @return - Self.
+     */
+    public DefinitionNode setValue(String value) {
+        this.value = value;
+        return this;
+    }
+
+    /**
+     * Get the child elements.
+     *
+     * @return - Child elements (in definition order).
+     */
+    public List<DefinitionNode> getChildren() {
+        return Collections.unmodifiableList(children);
+    }
+
+    /**
+     * Get the child elements with the specified name.
+     *
+     * @param name - Element name.
+     * @return - Matching child elements.
+     */
+    public List<DefinitionNode> getChildren(@Nonnull String name) {
+        List<DefinitionNode> nodes = new ArrayList<>();
+        for (DefinitionNode child : children) {
+            if (child.name.equals(name)) {
+                nodes.add(child);
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * Get the first child element with the specified name.
+     *
+     * @param name - Element name.
+     * @return - Child element, NULL if not found.
+     */
+    public DefinitionNode getChild(@Nonnull String name) {
+        for (DefinitionNode child : children) {
+            if (child.name.equals(name)) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Find the first element with the specified name in this sub-tree
+     * (depth first, excl. this element).
+     *
+     * @param name - Element name.
+     * @return - Element, NULL if not found.
+     */
+    public DefinitionNode find(@Nonnull String name) {
+        for (DefinitionNode child : children) {
+            if (child.name.equals(name)) {
+                return child;
+            }
+            DefinitionNode node = child.find(name);
+            if (node != null) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Add a child element.
+     *
+     * @param child - Child element.
+     * @return - Self.
+     */
+    public DefinitionNode addChild(@Nonnull DefinitionNode child) {
+        Preconditions.checkArgument(child != null);
+        children.add(child);
+        return this;
+    }
+}
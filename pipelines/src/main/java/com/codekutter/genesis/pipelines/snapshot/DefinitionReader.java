@@ -0,0 +1,70 @@
+package com.codekutter.genesis.pipelines.snapshot;
+
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.google.common.base.Preconditions;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import javax.annotation.Nonnull;
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+/**
+ * Read the element tree of an XML pipeline configuration.
+ */
+public class DefinitionReader {
+    /**
+     * Parse the XML configuration source.
+     *
+     * @param source - XML source.
+     * @return - Root element.
+     * @throws ConfigurationException
+     */
+    public static DefinitionNode read(@Nonnull byte[] source)
+    throws ConfigurationException {
+        Preconditions.checkArgument(source != null);
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setExpandEntityReferences(false);
+            DocumentBuilder builder = factory.newDocumentBuilder();
+            Document document = builder.parse(new ByteArrayInputStream(source));
+            return read(document.getDocumentElement());
+        } catch (ParserConfigurationException | SAXException | IOException e) {
+            throw new ConfigurationException(e);
+        }
+    }
+
+    private static DefinitionNode read(Element element) {
+        DefinitionNode node = new DefinitionNode(element.getTagName());
+        NamedNodeMap attrs = element.getAttributes();
+        for (int ii = 0; ii < attrs.getLength(); ii++) {
+            Node attr = attrs.item(ii);
+            node.setAttribute(attr.getNodeName(), attr.getNodeValue());
+        }
+        StringBuilder text = new StringBuilder();
+        NodeList children = element.getChildNodes();
+        for (int ii = 0; ii < children.getLength(); ii++) {
+            Node child = children.item(ii);
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                node.addChild(read((Element) child));
+            } else if (child.getNodeType() == Node.TEXT_NODE ||
+                    child.getNodeType() == Node.CDATA_SECTION_NODE) {
+                text.append(child.getNodeValue());
+            }
+        }
+        String value = text.toString().trim();
+        if (!value.isEmpty()) {
+            node.setValue(value);
+        }
+        return node;
+    }
+}
@@ -0,0 +1,362 @@
+package com.codekutter.genesis.pipelines.snapshot;
+
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.URI;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Compiled (binary) snapshot of the resolved pipeline definitions.
+ * <p>
+ * The snapshot is bound to the configuration name/version and the
+ * SHA-256 hash of the XML source it was compiled from. The file layout is:
+ * header (magic, format, name, version, source hash, created), a string
+ * table, the definition elements (as string table indexes) and a CRC32
+ * of the preceding bytes. Snapshots are read memory-mapped.
+ */
+public class PipelineSnapshot {
+    private static final int MAGIC = 0x47505331;
+    private static final short FORMAT_VERSION = 1;
+    private static final int HASH_SIZE = 32;
+    private static final int NO_VALUE = -1;
+
+    private final String configName;
+    private final String version;
+    private final byte[] sourceHash;
+    private final long created;
+    private final List<DefinitionNode> nodes;
+
+    /**
+     * Constructor with the snapshot header and definitions.
+     *
+     * @param configName - Configuration name.
+     * @param version    - Configuration version.
+     * @param sourceHash - Hash of the XML source.
+     * @param created    - Compile time (millis).
+     * @param nodes      - Definition elements.
+     */
+    public PipelineSnapshot(@Nonnull String configName, @Nonnull String version,
+                            @Nonnull byte[] sourceHash, long created,
+                            @Nonnull List<DefinitionNode> nodes) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(configName));
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(version));
+        Preconditions.checkArgument(sourceHash != null && sourceHash.length == HASH_SIZE);
+        Preconditions.checkArgument(nodes != null);
+        this.configName = configName;
+        this.version = version;
+        this.sourceHash = sourceHash;
+        this.created = created;
+        this.nodes = nodes;
+    }
+
+    /**
+     * Get the name of the compiled configuration.
+     *
+     * @return - Configuration name.
+     */
+    public String getConfigName() {
+        return configName;
+    }
+
+    /**
+     * Get the version of the compiled configuration.
+     *
+     * @return - Configuration version.
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * Get the time the snapshot was compiled.
+     *
+     * @return - Compile time (millis).
+     */
+    public long getCreated() {
+        return created;
+    }
+
+    /**
+     * Get the compiled definition elements.
+     *
+     * @return - Definition elements.
+     */
+    public List<DefinitionNode> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Get the top level definition element with the specified name.
+     *
+     * @param name - Element name.
+     * @return - Definition element, NULL if not found.
+     */
+    public DefinitionNode getNode(@Nonnull String name) {
+        for (DefinitionNode node : nodes) {
+            if (node.getName().equals(name)) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Check if this snapshot was compiled from the specified source.
+     *
+     * @param configName - Configuration name.
+     * @param version    - Configuration version.
+     * @param sourceHash - Hash of the XML source.
+     * @return - Is current?
+     */
+    public boolean isCurrent(@Nonnull String configName, @Nonnull String version,
+                             @Nonnull byte[] sourceHash) {
+        return this.configName.equals(configName) &&
+                this.version.equals(version) &&
+                Arrays.equals(this.sourceHash, sourceHash);
+    }
+
+    /**
+     * Read the configuration source.
+     *
+     * @param configUri - Configuration URI.
+     * @return - Source bytes.
+     * @throws IOException
+     */
+    public static byte[] readSource(@Nonnull URI configUri) throws IOException {
+        Preconditions.checkArgument(configUri != null);
+        try (InputStream input = configUri.toURL().openStream()) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            byte[] data = new byte[8192];
+            int read;
+            while ((read = input.read(data)) > 0) {
+                buffer.write(data, 0, read);
+            }
+            return buffer.toByteArray();
+        }
+    }
+
+    /**
+     * Get the hash of the configuration source.
+     *
+     * @param source - Source bytes.
+     * @return - SHA-256 hash.
+     */
+    public static byte[] hash(@Nonnull byte[] source) {
+        Preconditions.checkArgument(source != null);
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(source);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Write the snapshot, the file is written to a temporary file and
+     * atomically moved in place.
+     *
+     * @param file - Snapshot file.
+     * @throws IOException
+     */
+    public void write(@Nonnull File file) throws IOException {
+        Preconditions.checkArgument(file != null);
+        Map<String, Integer> index = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        strings(configName, index, strings);
+        strings(version, index, strings);
+        for (DefinitionNode node : nodes) {
+            strings(node, index, strings);
+        }
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(buffer);
+        output.writeInt(MAGIC);
+        output.writeShort(FORMAT_VERSION);
+        output.writeInt(index.get(configName));
+        output.writeInt(index.get(version));
+        output.write(sourceHash);
+        output.writeLong(created);
+        output.writeInt(strings.size());
+        for (String value : strings) {
+            byte[] data = value.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(data.length);
+            output.write(data);
+        }
+        output.writeInt(nodes.size());
+        for (DefinitionNode node : nodes) {
+            write(node, index, output);
+        }
+        output.flush();
+        CRC32 crc = new CRC32();
+        crc.update(buffer.toByteArray());
+        output.writeInt((int) crc.getValue());
+        output.flush();
+
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) {
+            throw new IOException(
+                    String.format("Error creating directory. [path=%s]",
+                                  dir.getAbsolutePath()));
+        }
+        File temp = new File(dir, file.getName() + ".tmp");
+        try (OutputStream stream = new FileOutputStream(temp)) {
+            buffer.writeTo(stream);
+        }
+        Path source = temp.toPath();
+        Path target = file.toPath();
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Read a snapshot file.
+     *
+     * @param file - Snapshot file.
+     * @return - Snapshot.
+     * @throws IOException
+     * @throws ConfigurationException - Invalid or corrupt snapshot.
+     */
+    public static PipelineSnapshot read(@Nonnull File file)
+    throws IOException, ConfigurationException {
+        Preconditions.checkArgument(file != null);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            MappedByteBuffer buffer =
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return read(buffer, file);
+        }
+    }
+
+    private static PipelineSnapshot read(ByteBuffer buffer, File file)
+    throws ConfigurationException {
+        try {
+            if (buffer.limit() < Integer.BYTES * 2 ||
+                    buffer.getInt(0) != MAGIC) {
+                throw new ConfigurationException(String.format(
+                        "Invalid snapshot file. [path=%s]", file.getAbsolutePath()));
+            }
+            int end = buffer.limit() - Integer.BYTES;
+            ByteBuffer payload = buffer.duplicate();
+            payload.limit(end);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt(end)) {
+                throw new ConfigurationException(String.format(
+                        "Snapshot checksum mismatch. [path=%s]",
+                        file.getAbsolutePath()));
+            }
+            buffer.position(Integer.BYTES);
+            short format = buffer.getShort();
+            if (format != FORMAT_VERSION) {
+                throw new ConfigurationException(String.format(
+                        "Unsupported snapshot format. [path=%s][format=%d]",
+                        file.getAbsolutePath(), format));
+            }
+            int nameIndex = buffer.getInt();
+            int versionIndex = buffer.getInt();
+            byte[] hash = new byte[HASH_SIZE];
+            buffer.get(hash);
+            long created = buffer.getLong();
+            String[] strings = new String[buffer.getInt()];
+            for (int ii = 0; ii < strings.length; ii++) {
+                byte[] data = new byte[buffer.getInt()];
+                buffer.get(data);
+                strings[ii] = new String(data, StandardCharsets.UTF_8);
+            }
+            int count = buffer.getInt();
+            List<DefinitionNode> nodes = new ArrayList<>(count);
+            for (int ii = 0; ii < count; ii++) {
+                nodes.add(read(buffer, strings));
+            }
+            return new PipelineSnapshot(strings[nameIndex], strings[versionIndex],
+                                        hash, created, nodes);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException |
+                IllegalArgumentException e) {
+            throw new ConfigurationException(e);
+        }
+    }
+
+    private static DefinitionNode read(ByteBuffer buffer, String[] strings) {
+        DefinitionNode node = new DefinitionNode(strings[buffer.getInt()]);
+        int value = buffer.getInt();
+        if (value != NO_VALUE) {
+            node.setValue(strings[value]);
+        }
+        int attrs = buffer.getInt();
+        for (int ii = 0; ii < attrs; ii++) {
+            node.setAttribute(strings[buffer.getInt()], strings[buffer.getInt()]);
+        }
+        int children = buffer.getInt();
+        for (int ii = 0; ii < children; ii++) {
+            node.addChild(read(buffer, strings));
+        }
+        return node;
+    }
+
+    private static void write(DefinitionNode node, Map<String, Integer> index,
+                              DataOutputStream output) throws IOException {
+        output.writeInt(index.get(node.getName()));
+        output.writeInt(node.getValue() != null ? index.get(node.getValue()) : NO_VALUE);
+        output.writeInt(node.getAttributes().size());
+        for (Map.Entry<String, String> attr : node.getAttributes().entrySet()) {
+            output.writeInt(index.get(attr.getKey()));
+            output.writeInt(index.get(attr.getValue()));
+        }
+        output.writeInt(node.getChildren().size());
+        for (DefinitionNode child : node.getChildren()) {
+            write(child, index, output);
+        }
+    }
+
+    private static void strings(DefinitionNode node, Map<String, Integer> index,
+                                List<String> strings) {
+        strings(node.getName(), index, strings);
+        if (node.getValue() != null) {
+            strings(node.getValue(), index, strings);
+        }
+        for (Map.Entry<String, String> attr : node.getAttributes().entrySet()) {
+            strings(attr.getKey(), index, strings);
+            strings(attr.getValue(), index, strings);
+        }
+        for (DefinitionNode child : node.getChildren()) {
+            strings(child, index, strings);
+        }
+    }
+
+    private static void strings(String value, Map<String, Integer> index,
+                                List<String> strings) {
+        if (!index.containsKey(value)) {
+            index.put(value, strings.size());
+            strings.add(value);
+        }
+    }
+}
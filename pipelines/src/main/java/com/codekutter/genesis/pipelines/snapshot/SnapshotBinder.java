@@ -0,0 +1,246 @@
+package com.codekutter.genesis.pipelines.snapshot;
+
+import com.codekutter.genesis.pipelines.factory.FactoryRegistry;
+import com.codekutter.genesis.pipelines.factory.IConfigBinder;
+import com.codekutter.genesis.pipelines.factory.IObjectFactory;
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.model.annotations.ConfigAttribute;
+import com.codekutter.zconfig.common.model.annotations.ConfigValue;
+import com.codekutter.zconfig.common.model.annotations.MethodInvoke;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bind the annotated configuration fields of a type from a compiled
+ * definition element.
+ * <p>
+ * Only types whose configuration is fully described by @ConfigAttribute
+ * and @ConfigValue fields of simple types can be bound. Types that read
+ * the configuration node in a @MethodInvoke method need the XML
+ * configuration.
+ * <p>
+ * Types with a build-time generated factory/binder (see FactoryRegistry)
+ * are created and bound without reflection.
+ */
+public class SnapshotBinder {
+    /**
+     * Configuration field of a bound type.
+     */
+    private static final class Binding {
+        private final Field field;
+        private final String name;
+        private final boolean attribute;
+        private final boolean required;
+
+        private Binding(Field field, String name, boolean attribute,
+                        boolean required) {
+            this.field = field;
+            this.name = name;
+            this.attribute = attribute;
+            this.required = required;
+        }
+    }
+
+    private static final Map<Class<?>, List<Binding>> BINDINGS =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Check if the type can be bound from a compiled definition.
+     *
+     * @param type - Type to check.
+     * @return - Is supported?
+     */
+    public static boolean supports(@Nonnull Class<?> type) {
+        Preconditions.checkArgument(type != null);
+        try {
+            bindings(type);
+            return true;
+        } catch (ConfigurationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Create an instance of the type and bind the configuration fields.
+     *
+     * @param type - Type to create.
+     * @param node - Definition element.
+     * @param <T>  - Type.
+     * @return - Bound instance.
+     * @throws ConfigurationException
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T bind(@Nonnull Class<? extends T> type,
+                             @Nonnull DefinitionNode node)
+    throws ConfigurationException {
+        Preconditions.checkArgument(type != null);
+        Preconditions.checkArgument(node != null);
+        FactoryRegistry registry = FactoryRegistry.get();
+        IConfigBinder<T> binder = registry.getBinder((Class<T>) type);
+        if (binder != null) {
+            T instance = registry.getFactory((Class<T>) type).create();
+            binder.bind(instance, node);
+            return instance;
+        }
+        List<Binding> bindings = bindings(type);
+        try {
+            IObjectFactory<T> factory = registry.getFactory((Class<T>) type);
+            T instance;
+            if (factory != null) {
+                instance = factory.create();
+            } else {
+                Constructor<? extends T> constructor = type.getDeclaredConstructor();
+                constructor.setAccessible(true);
+                instance = constructor.newInstance();
+            }
+            for (Binding binding : bindings) {
+                String value = value(node, binding.name, binding.attribute,
+                                     binding.required);
+                if (value != null) {
+                    binding.field.set(instance,
+                                      convert(binding.field.getType(), value));
+                }
+            }
+            return instance;
+        } catch (ReflectiveOperationException e) {
+            throw new ConfigurationException(e);
+        }
+    }
+
+    /**
+     * Read a configuration value from the definition element.
+     *
+     * @param node      - Definition element.
+     * @param name      - Value name.
+     * @param attribute - Read from the attributes only (@ConfigAttribute)?
+     * @param required  - Is required?
+     * @return - Value, NULL if not set.
+     * @throws ConfigurationException - Required value not set.
+     */
+    public static String value(@Nonnull DefinitionNode node, @Nonnull String name,
+                               boolean attribute, boolean required)
+    throws ConfigurationException {
+        String value = null;
+        if (attribute) {
+            value = node.getAttribute(name);
+        } else {
+            DefinitionNode child = node.getChild(name);
+            value = (child != null ? child.getValue() : node.getAttribute(name));
+        }
+        if (value == null && required) {
+            throw new ConfigurationException(String.format(
+                    "Required value not found. [element=%s][name=%s]",
+                    node.getName(), name));
+        }
+        return value;
+    }
+
+    /**
+     * Convert a configuration value to the field type (primitives, their
+     * wrappers, String, enums and Class).
+     *
+     * @param type  - Field type.
+     * @param value - Configuration value.
+     * @return - Converted value.
+     * @throws ConfigurationException
+     */
+    public static Object convert(@Nonnull Class<?> type, @Nonnull String value)
+    throws ConfigurationException {
+        try {
+            return doConvert(type, value);
+        } catch (ClassNotFoundException | IllegalArgumentException |
+                IndexOutOfBoundsException e) {
+            throw new ConfigurationException(e);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object doConvert(Class<?> type, String value)
+    throws ClassNotFoundException {
+        if (type == String.class) {
+            return value;
+        } else if (type == int.class || type == Integer.class) {
+            return Integer.parseInt(value);
+        } else if (type == long.class || type == Long.class) {
+            return Long.parseLong(value);
+        } else if (type == double.class || type == Double.class) {
+            return Double.parseDouble(value);
+        } else if (type == float.class || type == Float.class) {
+            return Float.parseFloat(value);
+        } else if (type == short.class || type == Short.class) {
+            return Short.parseShort(value);
+        } else if (type == byte.class || type == Byte.class) {
+            return Byte.parseByte(value);
+        } else if (type == boolean.class || type == Boolean.class) {
+            return Boolean.parseBoolean(value);
+        } else if (type == char.class || type == Character.class) {
+            return value.charAt(0);
+        } else if (type.isEnum()) {
+            return Enum.valueOf((Class<Enum>) type, value);
+        } else if (type == Class.class) {
+            return Class.forName(value);
+        }
+        throw new IllegalArgumentException(String.format(
+                "Unsupported field type. [type=%s]", type.getCanonicalName()));
+    }
+
+    private static boolean isSimple(Class<?> type) {
+        return type.isPrimitive() || type == String.class ||
+                type == Integer.class || type == Long.class ||
+                type == Double.class || type == Float.class ||
+                type == Short.class || type == Byte.class ||
+                type == Boolean.class || type == Character.class ||
+                type.isEnum() || type == Class.class;
+    }
+
+    private static List<Binding> bindings(Class<?> type)
+    throws ConfigurationException {
+        List<Binding> bindings = BINDINGS.get(type);
+        if (bindings != null) {
+            return bindings;
+        }
+        bindings = new ArrayList<>();
+        for (Class<?> cls = type; cls != null && cls != Object.class;
+             cls = cls.getSuperclass()) {
+            for (Method method : cls.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(MethodInvoke.class)) {
+                    throw new ConfigurationException(String.format(
+                            "Type reads the configuration node. [type=%s][method=%s]",
+                            type.getCanonicalName(), method.getName()));
+                }
+            }
+            for (Field field : cls.getDeclaredFields()) {
+                ConfigAttribute attr = field.getAnnotation(ConfigAttribute.class);
+                ConfigValue value = field.getAnnotation(ConfigValue.class);
+                if (attr == null && value == null) {
+                    continue;
+                }
+                if (!isSimple(field.getType()) ||
+                        Modifier.isFinal(field.getModifiers())) {
+                    throw new ConfigurationException(String.format(
+                            "Unsupported configuration field. [type=%s][field=%s]",
+                            type.getCanonicalName(), field.getName()));
+                }
+                field.setAccessible(true);
+                if (attr != null) {
+                    bindings.add(new Binding(field, attr.name(), true,
+                                             attr.required()));
+                } else {
+                    bindings.add(new Binding(field, value.name(), false,
+                                             value.required()));
+                }
+            }
+        }
+        BINDINGS.putIfAbsent(type, bindings);
+        return bindings;
+    }
+}
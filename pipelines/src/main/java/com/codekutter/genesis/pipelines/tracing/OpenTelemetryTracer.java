@@ -0,0 +1,94 @@
+package com.codekutter.genesis.pipelines.tracing;
+
+import com.google.common.base.Preconditions;
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.trace.SpanBuilder;
+import io.opentelemetry.api.trace.StatusCode;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Tracer implementation backed by the OpenTelemetry API.
+ * <p>
+ * Note: Requires opentelemetry-api on the classpath (optional dependency).
+ */
+public class OpenTelemetryTracer implements Tracer {
+    public static final String INSTRUMENTATION_NAME =
+            "com.codekutter.genesis.pipelines";
+
+    private final io.opentelemetry.api.trace.Tracer tracer;
+
+    /**
+     * Default constructor - uses the globally registered OpenTelemetry instance.
+     */
+    public OpenTelemetryTracer() {
+        this(GlobalOpenTelemetry.getTracer(INSTRUMENTATION_NAME));
+    }
+
+    /**
+     * Constructor with the OpenTelemetry tracer to use.
+     *
+     * @param tracer - OpenTelemetry tracer.
+     */
+    public OpenTelemetryTracer(@Nonnull io.opentelemetry.api.trace.Tracer tracer) {
+        Preconditions.checkArgument(tracer != null);
+        this.tracer = tracer;
+    }
+
+    /**
+     * Start a new span.
+     *
+     * @param name   - Span name.
+     * @param parent - Parent span (NULL to start a new trace).
+     * @return - Started span.
+     */
+    @Override
+    public Span startSpan(@Nonnull String name, Span parent) {
+        SpanBuilder builder = tracer.spanBuilder(name);
+        if (parent instanceof OtelSpan) {
+            builder.setParent(io.opentelemetry.context.Context.root()
+                                                              .with(((OtelSpan) parent).span));
+        } else {
+            builder.setNoParent();
+        }
+        return new OtelSpan(builder.startSpan());
+    }
+
+    /**
+     * Span wrapper for OpenTelemetry spans.
+     */
+    private static final class OtelSpan implements Span {
+        private final io.opentelemetry.api.trace.Span span;
+
+        private OtelSpan(io.opentelemetry.api.trace.Span span) {
+            this.span = span;
+        }
+
+        @Override
+        public Span setAttribute(String key, String value) {
+            if (value != null) {
+                span.setAttribute(key, value);
+            }
+            return this;
+        }
+
+        @Override
+        public Span setAttribute(String key, long value) {
+            span.setAttribute(key, value);
+            return this;
+        }
+
+        @Override
+        public void recordError(Throwable error) {
+            span.setStatus(StatusCode.ERROR);
+            if (error != null) {
+                span.recordException(error);
+            }
+        }
+
+        @Override
+        public void end() {
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.codekutter.genesis.pipelines.tracing;
+
+/**
+ * Interface to define a tracing span.
+ */
+public interface Span {
+    /**
+     * Set a string attribute on the span.
+     *
+     * @param key   - Attribute key.
+     * @param value - Attribute value.
+     * @return - Self.
+     */
+    Span setAttribute(String key, String value);
+
+    /**
+     * Set a numeric attribute on the span.
+     *
+     * @param key   - Attribute key.
+     * @param value - Attribute value.
+     * @return - Self.
+     */
+    Span setAttribute(String key, long value);
+
+    /**
+     * Mark the span as failed with the passed error.
+     *
+     * @param error - Error (can be NULL).
+     */
+    void recordError(Throwable error);
+
+    /**
+     * End the span.
+     */
+    void end();
+}
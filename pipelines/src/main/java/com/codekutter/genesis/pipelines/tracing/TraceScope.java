@@ -0,0 +1,55 @@
+package com.codekutter.genesis.pipelines.tracing;
+
+import com.codekutter.genesis.pipelines.Context;
+
+/**
+ * Active span scope - ends the span and restores the parent
+ * span in the context when closed.
+ */
+public class TraceScope {
+    private final Span span;
+    private final Span parent;
+    private final Context context;
+    private boolean closed = false;
+
+    TraceScope(Span span, Span parent, Context context) {
+        this.span = span;
+        this.parent = parent;
+        this.context = context;
+    }
+
+    /**
+     * Get the span of this scope.
+     *
+     * @return - Span.
+     */
+    public Span getSpan() {
+        return span;
+    }
+
+    /**
+     * Check if this scope has been closed.
+     *
+     * @return - Is closed?
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * End the span and restore the parent span.
+     */
+    void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            span.end();
+        } finally {
+            if (context != null) {
+                context.setSpan(parent);
+            }
+        }
+    }
+}
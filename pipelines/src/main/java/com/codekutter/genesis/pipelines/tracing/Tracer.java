@@ -0,0 +1,17 @@
+package com.codekutter.genesis.pipelines.tracing;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Tracing SPI - Interface to be implemented by tracing back-ends.
+ */
+public interface Tracer {
+    /**
+     * Start a new span.
+     *
+     * @param name   - Span name.
+     * @param parent - Parent span (NULL to start a new trace).
+     * @return - Started span.
+     */
+    Span startSpan(@Nonnull String name, Span parent);
+}
@@ -0,0 +1,233 @@
+package com.codekutter.genesis.pipelines.tracing;
+
+import com.codekutter.genesis.pipelines.Context;
+import com.codekutter.genesis.pipelines.EProcessorResponse;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Entry point for tracing pipeline execution.
+ * <p>
+ * No tracer is set by default (no-op). The trace context is carried as the
+ * current span in the execution Context, new traces are sampled based on
+ * the sample rate, spans nested under an un-sampled trace are not created.
+ * The start methods return NULL if no span is created, end methods
+ * ignore NULL scopes.
+ */
+public final class Tracing {
+    public static final String ATTR_PIPELINE = "pipeline.name";
+    public static final String ATTR_PROCESSOR = "processor.name";
+    public static final String ATTR_ENTITY_TYPE = "entity.type";
+    public static final String ATTR_ENTITY_COUNT = "entity.count";
+    public static final String ATTR_RESPONSE_STATE = "response.state";
+    public static final String ATTR_OPERATION = "service.operation";
+    public static final String ATTR_SERVER = "service.server";
+
+    /**
+     * Marker span set in the context for traces that are not sampled.
+     */
+    private static final Span NOT_SAMPLED = new Span() {
+        @Override
+        public Span setAttribute(String key, String value) {
+            return this;
+        }
+
+        @Override
+        public Span setAttribute(String key, long value) {
+            return this;
+        }
+
+        @Override
+        public void recordError(Throwable error) {
+        }
+
+        @Override
+        public void end() {
+        }
+    };
+
+    private static volatile Tracer tracer = null;
+    private static volatile double sampleRate = 1.0;
+
+    private Tracing() {
+    }
+
+    /**
+     * Get the registered tracer.
+     *
+     * @return - Tracer, NULL if tracing is disabled.
+     */
+    public static Tracer getTracer() {
+        return tracer;
+    }
+
+    /**
+     * Register the tracer to use (NULL to disable tracing).
+     *
+     * @param tracer - Tracer.
+     */
+    public static void setTracer(Tracer tracer) {
+        Tracing.tracer = tracer;
+    }
+
+    /**
+     * Get the sample rate for new traces.
+     *
+     * @return - Sample rate (0.0 - 1.0).
+     */
+    public static double getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Set the sample rate for new traces.
+     *
+     * @param sampleRate - Sample rate (0.0 - 1.0).
+     */
+    public static void setSampleRate(double sampleRate) {
+        Preconditions.checkArgument(sampleRate >= 0 && sampleRate <= 1.0);
+        Tracing.sampleRate = sampleRate;
+    }
+
+    /**
+     * Start a span as a child of the current span in the context and
+     * set it as the current span.
+     *
+     * @param name    - Span name.
+     * @param context - Context Handle (can be NULL).
+     * @return - Trace scope, NULL if not traced.
+     */
+    public static TraceScope start(@Nonnull String name, Context context) {
+        Tracer t = tracer;
+        if (t == null) {
+            return null;
+        }
+        Span parent = (context != null ? context.getSpan() : null);
+        if (parent == NOT_SAMPLED) {
+            return null;
+        }
+        Span span;
+        if (parent == null && !sample()) {
+            span = NOT_SAMPLED;
+        } else {
+            span = t.startSpan(name, parent);
+        }
+        if (context != null) {
+            context.setSpan(span);
+        }
+        return new TraceScope(span, parent, context);
+    }
+
+    /**
+     * Start the span for a pipeline execution.
+     *
+     * @param pipeline   - Pipeline name.
+     * @param entityType - Entity type.
+     * @param context    - Context Handle (can be NULL).
+     * @return - Trace scope, NULL if not traced.
+     */
+    public static TraceScope startPipeline(String pipeline, Class<?> entityType,
+                                           Context context) {
+        TraceScope scope = start(String.format("pipeline:%s", pipeline), context);
+        if (scope != null) {
+            scope.getSpan().setAttribute(ATTR_PIPELINE, pipeline);
+            if (entityType != null) {
+                scope.getSpan().setAttribute(ATTR_ENTITY_TYPE,
+                                             entityType.getCanonicalName());
+            }
+        }
+        return scope;
+    }
+
+    /**
+     * Start the span for a processor execution within a pipeline.
+     *
+     * @param pipeline  - Pipeline name.
+     * @param processor - Processor name.
+     * @param context   - Context Handle (can be NULL).
+     * @return - Trace scope, NULL if not traced.
+     */
+    public static TraceScope startProcessor(String pipeline, String processor,
+                                            Context context) {
+        TraceScope scope = start(String.format("processor:%s", processor), context);
+        if (scope != null) {
+            scope.getSpan().setAttribute(ATTR_PIPELINE, pipeline);
+            scope.getSpan().setAttribute(ATTR_PROCESSOR, processor);
+        }
+        return scope;
+    }
+
+    /**
+     * Start the span for a data service (remote) call.
+     *
+     * @param name      - Span name (ex: imap.fetch)
+     * @param operation - Service operation.
+     * @param server    - Remote server.
+     * @param context   - Context Handle (can be NULL).
+     * @return - Trace scope, NULL if not traced.
+     */
+    public static TraceScope startDataCall(@Nonnull String name, String operation,
+                                           String server, Context context) {
+        TraceScope scope = start(name, context);
+        if (scope != null) {
+            scope.getSpan().setAttribute(ATTR_OPERATION, operation);
+            scope.getSpan().setAttribute(ATTR_SERVER, server);
+        }
+        return scope;
+    }
+
+    /**
+     * End the span for a processor/pipeline execution.
+     *
+     * @param scope    - Trace scope (can be NULL).
+     * @param state    - Response State.
+     * @param error    - Response Error (can be NULL).
+     * @param entities - Number of entities processed.
+     */
+    public static void end(TraceScope scope, EProcessorResponse state,
+                           Throwable error, int entities) {
+        if (scope == null || scope.isClosed()) {
+            return;
+        }
+        Span span = scope.getSpan();
+        if (state != null) {
+            span.setAttribute(ATTR_RESPONSE_STATE, state.name());
+        }
+        span.setAttribute(ATTR_ENTITY_COUNT, entities);
+        if (state == EProcessorResponse.FatalError
+                || state == EProcessorResponse.UnhandledError
+                || state == EProcessorResponse.StopWithError) {
+            span.recordError(error);
+        }
+        scope.close();
+    }
+
+    /**
+     * End the span for a data service call.
+     *
+     * @param scope   - Trace scope (can be NULL).
+     * @param records - Number of records read/processed.
+     * @param error   - Call error, NULL if succeeded.
+     */
+    public static void end(TraceScope scope, int records, Throwable error) {
+        if (scope == null || scope.isClosed()) {
+            return;
+        }
+        Span span = scope.getSpan();
+        span.setAttribute(ATTR_ENTITY_COUNT, records);
+        if (error != null) {
+            span.recordError(error);
+        }
+        scope.close();
+    }
+
+    private static boolean sample() {
+        double rate = sampleRate;
+        if (rate >= 1.0) {
+            return true;
+        }
+        return (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+}
@@ -2,10 +2,16 @@ package com.codekutter.genesis.pipelines.types;
 
 import com.codekutter.genesis.pipelines.*;
 import com.codekutter.genesis.pipelines.extensions.IDataConsumer;
+import com.codekutter.genesis.pipelines.extensions.resilience.CircuitOpenException;
+import com.codekutter.genesis.pipelines.extensions.batch.AdaptiveBatchConsumer;
+import com.codekutter.genesis.pipelines.extensions.batch.BatchSizeController;
+import com.codekutter.zconfig.common.ConfigurationException;
 import com.codekutter.zconfig.common.LogUtils;
+import com.codekutter.zconfig.common.model.nodes.AbstractConfigNode;
 import com.google.common.base.Preconditions;
 
 import javax.annotation.Nonnull;
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -17,6 +23,35 @@ import java.util.List;
 public abstract class CollectionDataConsumer<T, O> extends CollectionProcessor<T>
         implements IOperationParser<O> {
     protected IDataConsumer<T, O> consumer;
+    /**
+     * Adaptive batch controller - If set the data set will be passed
+     * to the consumer in batches.
+     */
+    protected BatchSizeController batching;
+
+    /**
+     * Get the batch controller for this consumer.
+     *
+     * @return - Batch Controller, NULL if batching not configured.
+     */
+    public BatchSizeController getBatching() {
+        return batching;
+    }
+
+    /**
+     * Method to initialize the processor from the configuration.
+     * <p>
+     * Note: Use the MethodInvoke annotation with the required path
+     * to auto-wire the initialisation. Sub-classes overriding this
+     * should call super.init() to read the batch settings.
+     *
+     * @param node - Configuration Node.
+     * @throws ConfigurationException
+     */
+    @Override
+    public void init(AbstractConfigNode node) throws ConfigurationException {
+        batching = BatchSizeController.read(node);
+    }
 
     /**
      * Execute method to be implemented for processing the data passed.
@@ -44,14 +79,40 @@ public abstract class CollectionDataConsumer<T, O> extends CollectionProcessor<T
                                                   CONTEXT_KEY_OPERATION)));
             }
             O operation = parseOperation(os);
-            data = consumer.process(data, operation, context);
+            if (batching == null) {
+                data = consumer.process(data, operation, context);
+            } else {
+                data = AdaptiveBatchConsumer
+                        .process(consumer, batching, data, operation, context);
+            }
             response.setState(EProcessorResponse.OK);
             response.setData(data);
 
+        } catch (CircuitOpenException ex) {
+            // Service is down, fail this entity fast (no service call or
+            // retries). The error still reaches the exception handlers
+            // and stops the pipeline.
+            LogUtils.debug(getClass(), ex);
+            response.setError(EProcessorResponse.StopWithError, ex);
         } catch (Throwable ex) {
             LogUtils.debug(getClass(), ex);
             response.setError(EProcessorResponse.UnhandledError, ex);
         }
         return response;
     }
+
+    /**
+     * Dispose this processor and close the data consumer.
+     */
+    @Override
+    public void dispose() {
+        super.dispose();
+        if (consumer != null) {
+            try {
+                consumer.close();
+            } catch (IOException e) {
+                LogUtils.error(getClass(), e);
+            }
+        }
+    }
 }
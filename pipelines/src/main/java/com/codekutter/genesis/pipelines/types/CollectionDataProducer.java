@@ -2,9 +2,21 @@ package com.codekutter.genesis.pipelines.types;
 
 import com.codekutter.genesis.pipelines.*;
 import com.codekutter.genesis.pipelines.extensions.IDataProducer;
+import com.codekutter.genesis.pipelines.extensions.resilience.CircuitOpenException;
+import com.codekutter.genesis.pipelines.extensions.batch.AdaptiveBatchProducer;
+import com.codekutter.genesis.pipelines.extensions.batch.BatchSizeController;
+import com.codekutter.genesis.pipelines.incremental.FingerprintStore;
+import com.codekutter.genesis.pipelines.incremental.Fingerprinter;
+import com.codekutter.zconfig.common.ConfigurationException;
 import com.codekutter.zconfig.common.LogUtils;
+import com.codekutter.zconfig.common.model.nodes.AbstractConfigNode;
+import com.google.common.base.Preconditions;
 
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * Abstract base class for defining data producer pipelines.
@@ -16,6 +28,69 @@ public abstract class CollectionDataProducer<T> extends CollectionPipeline<T> {
      * Data Producer instance.
      */
     protected IDataProducer<T> producer;
+    /**
+     * Adaptive batch controller - If set the fetched records
+     * will be processed in batches.
+     */
+    protected BatchSizeController batching;
+    /**
+     * Fingerprint store - If set only new/changed entities are processed.
+     */
+    protected FingerprintStore fingerprints;
+    /**
+     * Content fingerprint of the fetched entities (incremental mode).
+     */
+    protected Fingerprinter<T> fingerprinter;
+
+    /**
+     * Get the batch controller for this producer.
+     *
+     * @return - Batch Controller, NULL if batching not configured.
+     */
+    public BatchSizeController getBatching() {
+        return batching;
+    }
+
+    /**
+     * Get the fingerprint store of the incremental mode.
+     *
+     * @return - Fingerprint Store, NULL if not incremental.
+     */
+    public FingerprintStore getFingerprints() {
+        return fingerprints;
+    }
+
+    /**
+     * Enable incremental processing: the fetched entities are fingerprinted
+     * and only entities that are new or changed since they were last
+     * processed (successfully) are run through the pipeline. Entities not
+     * implementing Entity (no key) are always processed.
+     *
+     * @param fingerprints  - Fingerprint store (closed on dispose).
+     * @param fingerprinter - Entity fingerprint.
+     */
+    public void setIncremental(@Nonnull FingerprintStore fingerprints,
+                               @Nonnull Fingerprinter<T> fingerprinter) {
+        Preconditions.checkArgument(fingerprints != null);
+        Preconditions.checkArgument(fingerprinter != null);
+        this.fingerprints = fingerprints;
+        this.fingerprinter = fingerprinter;
+    }
+
+    /**
+     * Method to initialize the processor from the configuration.
+     * <p>
+     * Note: Use the MethodInvoke annotation with the required path
+     * to auto-wire the initialisation.
+     *
+     * @param node - Configuration Node.
+     * @throws ConfigurationException
+     */
+    @Override
+    public void init(AbstractConfigNode node) throws ConfigurationException {
+        super.init(node);
+        batching = BatchSizeController.read(node);
+    }
 
     /**
      * Read a collection of entities.
@@ -29,25 +104,227 @@ public abstract class CollectionDataProducer<T> extends CollectionPipeline<T> {
      */
     public List<T> read(String query, Context context) throws
                                                        ProcessorException {
+        return read(query, null, context);
+    }
+
+    /**
+     * Read a collection of entities, only the fetched entities
+     * accepted by the filter are processed.
+     * <p>
+     * If batching is configured the fetched entities are processed in
+     * batches, a batch that doesn't complete OK (or an expired deadline)
+     * ends the read, as for a read that isn't batched. In incremental mode
+     * the fingerprints are only stored once all the batches completed OK,
+     * a read that ended early is processed again by the next read.
+     *
+     * @param query   - Query condition to filter results.
+     * @param filter  - Entity filter (NULL to process all).
+     * @param context - Context Handle.
+     * @return - Processed entities, NULL if none were fetched, the data
+     * service circuit is open or the pipeline didn't complete OK.
+     * @throws ProcessorException
+     */
+    public List<T> read(String query, Predicate<T> filter, Context context)
+    throws ProcessorException {
+        inFlight.increment();
         try {
-            List<T> data = producer.fetch(query, context);
-            if (data != null && !data.isEmpty()) {
+            if (context != null && context.isExpired()) {
+                LogUtils.debug(getClass(), String.format(
+                        "Deadline exceeded, skipping fetch. [pipeline=%s]", name));
+                return null;
+            }
+            List<T> data = fetcher().fetch(query, context);
+            if (data != null && filter != null) {
+                List<T> filtered = new ArrayList<>(data.size());
+                for (T entity : data) {
+                    if (filter.test(entity)) {
+                        filtered.add(entity);
+                    }
+                }
+                data = filtered;
+            }
+            long[] pending = null;
+            if (data != null && fingerprints != null) {
+                pending = new long[data.size()];
+                data = filterUnchanged(data, pending);
+            }
+            if (data == null || data.isEmpty()) {
+                return null;
+            }
+            if (batching == null || batching.isPagedFetch()) {
+                // Processors may change the list, commit from the fetched list.
                 ProcessorResponse<List<T>> response =
-                        execute(data, null, context);
-                if (response == null) {
-                    throw new ProcessorException("Execute returned NULL response.");
+                        process(pending != null ? new ArrayList<>(data) : data,
+                                context);
+                if (!isOk(response)) {
+                    return null;
                 }
-                if (response.hasError()) {
-                    throw new ProcessorException(response.getError());
+                commit(data, pending);
+                return response.getData();
+            }
+            List<T> results = new ArrayList<>();
+            int offset = 0;
+            while (offset < data.size()) {
+                if (context != null && context.isExpired()) {
+                    LogUtils.debug(getClass(), String.format(
+                            "Deadline exceeded, skipping remaining batches. [pipeline=%s]",
+                            name));
+                    return null;
                 }
-                if (response.getState() == EProcessorResponse.OK) {
-                    return response.getData();
+                int end = Math.min(data.size(),
+                                   offset + batching.getBatchSize());
+                List<T> batch = new ArrayList<>(data.subList(offset, end));
+
+                long start = System.nanoTime();
+                ProcessorResponse<List<T>> response = process(batch, context);
+                batching.record(batch.size(), System.nanoTime() - start);
+                if (!isOk(response)) {
+                    // Same as an unbatched read: the read didn't complete OK,
+                    // nothing is committed.
+                    LogUtils.debug(getClass(), String.format(
+                            "Batch not processed, skipping remaining batches. [pipeline=%s][offset=%d][state=%s]",
+                            name, offset, response.getState()));
+                    return null;
                 }
+                if (response.getData() != null) {
+                    results.addAll(response.getData());
+                }
+                offset = end;
             }
+            commit(data, pending);
+            return results;
         } catch (Exception ex) {
+            if (CircuitOpenException.isCause(ex)) {
+                // Service is down, fail the read fast (same as a read
+                // that didn't complete OK) instead of raising an error.
+                LogUtils.warn(getClass(), String.format(
+                        "Circuit open, skipping read. [pipeline=%s][error=%s]",
+                        name, ex.getLocalizedMessage()));
+                return null;
+            }
             LogUtils.debug(getClass(), ex);
             throw new ProcessorException(ex);
+        } finally {
+            if (fingerprints != null) {
+                fingerprints.flush();
+            }
+            inFlight.decrement();
+        }
+    }
+
+    /**
+     * Get the producer to fetch with, wrapped to size the fetches
+     * if batching is configured for paged fetches.
+     *
+     * @return - Data Producer.
+     */
+    private IDataProducer<T> fetcher() {
+        IDataProducer<T> current = producer;
+        if (batching != null && batching.isPagedFetch()
+                && !(current instanceof AdaptiveBatchProducer)) {
+            current = new AdaptiveBatchProducer<>(current, batching);
+            producer = current;
+        }
+        return current;
+    }
+
+    /**
+     * Remove the entities whose fingerprint is unchanged.
+     *
+     * @param data    - Fetched entities.
+     * @param pending - Fingerprints of the returned entities (out).
+     * @return - New/changed entities.
+     */
+    private List<T> filterUnchanged(List<T> data, long[] pending) {
+        List<T> changed = new ArrayList<>(data.size());
+        for (T entity : data) {
+            if (entity instanceof Entity) {
+                long fingerprint = fingerprinter.fingerprint(entity);
+                if (!fingerprints.isChanged(((Entity<?>) entity).getKey(),
+                                            fingerprint)) {
+                    continue;
+                }
+                pending[changed.size()] = fingerprint;
+            }
+            changed.add(entity);
+        }
+        if (changed.size() < data.size()) {
+            LogUtils.debug(getClass(), String.format(
+                    "Skipped unchanged entities. [pipeline=%s][fetched=%d][changed=%d]",
+                    name, data.size(), changed.size()));
+        }
+        return changed;
+    }
+
+    /**
+     * Store the fingerprints of the processed entities.
+     *
+     * @param data    - Processed entities.
+     * @param pending - Fingerprints of the entities to process.
+     * @throws IOException
+     */
+    private void commit(List<T> data, long[] pending)
+    throws IOException {
+        if (pending == null) {
+            return;
+        }
+        for (int ii = 0; ii < data.size(); ii++) {
+            T entity = data.get(ii);
+            if (entity instanceof Entity) {
+                fingerprints.put(((Entity<?>) entity).getKey(),
+                                 pending[ii]);
+            }
+        }
+    }
+
+    /**
+     * Run the fetched records through this pipeline.
+     *
+     * @param data    - Fetched records.
+     * @param context - Context Handle.
+     * @return - Pipeline Response.
+     * @throws ProcessorException
+     */
+    private ProcessorResponse<List<T>> process(List<T> data, Context context)
+    throws ProcessorException {
+        ProcessorResponse<List<T>> response =
+                execute(data, null, context);
+        if (response == null) {
+            throw new ProcessorException("Execute returned NULL response.");
+        }
+        if (response.hasError()) {
+            throw new ProcessorException(response.getError());
+        }
+        return response;
+    }
+
+    /**
+     * Check if the records were processed (the fingerprints are only
+     * stored for processed records, others are processed again by the
+     * next read).
+     *
+     * @param response - Pipeline Response.
+     * @return - Completed OK?
+     */
+    private static boolean isOk(ProcessorResponse<?> response) {
+        return (response.getState() == EProcessorResponse.OK);
+    }
+
+    /**
+     * Dispose this pipeline and close the data producer.
+     */
+    @Override
+    public void dispose() {
+        super.dispose();
+        if (producer != null) {
+            try {
+                producer.close();
+            } catch (IOException e) {
+                LogUtils.error(getClass(), e);
+            }
+        }
+        if (fingerprints != null) {
+            fingerprints.close();
         }
-        return null;
     }
 }
@@ -2,10 +2,12 @@ package com.codekutter.genesis.pipelines.types;
 
 import com.codekutter.genesis.pipelines.*;
 import com.codekutter.genesis.pipelines.extensions.IDataConsumer;
+import com.codekutter.genesis.pipelines.extensions.resilience.CircuitOpenException;
 import com.codekutter.zconfig.common.LogUtils;
 import com.google.common.base.Preconditions;
 
 import javax.annotation.Nonnull;
+import java.io.IOException;
 
 /**
  * Abstract base class to implement data consumers/sinks.
@@ -52,6 +54,12 @@ public abstract class DataConsumer<T, O> extends BasicProcessor<T>
             response.setState(EProcessorResponse.OK);
             response.setData(data);
 
+        } catch (CircuitOpenException ex) {
+            // Service is down, fail this entity fast (no service call or
+            // retries). The error still reaches the exception handlers
+            // and stops the pipeline.
+            LogUtils.debug(getClass(), ex);
+            response.setError(EProcessorResponse.StopWithError, ex);
         } catch (Throwable ex) {
             LogUtils.debug(getClass(), ex);
             response.setError(EProcessorResponse.UnhandledError, ex);
@@ -59,5 +67,18 @@ public abstract class DataConsumer<T, O> extends BasicProcessor<T>
         return response;
     }
 
-
+    /**
+     * Dispose this processor and close the data consumer.
+     */
+    @Override
+    public void dispose() {
+        super.dispose();
+        if (consumer != null) {
+            try {
+                consumer.close();
+            } catch (IOException e) {
+                LogUtils.error(getClass(), e);
+            }
+        }
+    }
 }
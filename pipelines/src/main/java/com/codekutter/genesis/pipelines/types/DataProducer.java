@@ -2,10 +2,12 @@ package com.codekutter.genesis.pipelines.types;
 
 import com.codekutter.genesis.pipelines.*;
 import com.codekutter.genesis.pipelines.extensions.IEntityDataProducer;
+import com.codekutter.genesis.pipelines.extensions.resilience.CircuitOpenException;
 import com.codekutter.zconfig.common.LogUtils;
 import com.google.common.base.Preconditions;
 
 import javax.annotation.Nonnull;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -58,16 +60,24 @@ public class DataProducer<T extends Entity<K>, K> extends BasicPipeline<T> {
      *
      * @param query   - Query condition to filter results.
      * @param context - Context Handle.
-     * @return - List of fetched entities.
+     * @return - List of fetched entities, NULL if none were fetched or the
+     * data service circuit is open.
      * @throws ProcessorException
      */
     public List<T> read(String query, Context context) throws
                                                        ProcessorException {
+        inFlight.increment();
         try {
             List<T> data = producer.fetch(query, context);
             if (data != null && !data.isEmpty()) {
                 List<T> results = new ArrayList<>();
                 for (T d : data) {
+                    if (context != null && context.isExpired()) {
+                        LogUtils.debug(getClass(), String.format(
+                                "Deadline exceeded, skipping remaining entities. [pipeline=%s]",
+                                name));
+                        break;
+                    }
                     ProcessorResponse<T> response =
                             execute(d, null, context);
                     if (response == null) {
@@ -84,9 +94,34 @@ public class DataProducer<T extends Entity<K>, K> extends BasicPipeline<T> {
                 return results;
             }
         } catch (Exception ex) {
+            if (CircuitOpenException.isCause(ex)) {
+                // Service is down, fail the read fast (same as a read
+                // that didn't complete OK) instead of raising an error.
+                LogUtils.warn(getClass(), String.format(
+                        "Circuit open, skipping read. [pipeline=%s][error=%s]",
+                        name, ex.getLocalizedMessage()));
+                return null;
+            }
             LogUtils.debug(getClass(), ex);
             throw new ProcessorException(ex);
+        } finally {
+            inFlight.decrement();
         }
         return null;
     }
+
+    /**
+     * Dispose this pipeline and close the data producer.
+     */
+    @Override
+    public void dispose() {
+        super.dispose();
+        if (producer != null) {
+            try {
+                producer.close();
+            } catch (IOException e) {
+                LogUtils.error(getClass(), e);
+            }
+        }
+    }
 }
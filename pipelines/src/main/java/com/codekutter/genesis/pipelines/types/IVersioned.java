@@ -0,0 +1,14 @@
+package com.codekutter.genesis.pipelines.types;
+
+/**
+ * Interface to implement versioned entities, the version changes
+ * whenever the entity content changes (ex: row version, update timestamp).
+ */
+public interface IVersioned {
+    /**
+     * Get the Entity Version.
+     *
+     * @return - Entity Version.
+     */
+    long getVersion();
+}
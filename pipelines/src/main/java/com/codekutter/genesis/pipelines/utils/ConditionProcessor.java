@@ -1,5 +1,6 @@
 package com.codekutter.genesis.pipelines.utils;
 
+import com.codekutter.genesis.pipelines.jfr.PipelineEvents;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.googlecode.cqengine.ConcurrentIndexedCollection;
@@ -26,6 +27,10 @@ public class ConditionProcessor<T> {
      * Local Parser instance.
      */
     private SQLParser<T> parser = null;
+    /**
+     * Entity type.
+     */
+    private final Class<T> type;
 
     /**
      * Constructor with the entity type.
@@ -33,6 +38,7 @@ public class ConditionProcessor<T> {
      * @param type - Entity type.
      */
     public ConditionProcessor(Class<T> type) {
+        this.type = type;
         parser = SQLParser.forPojoWithAttributes(type, createAttributes(type));
     }
 
@@ -48,14 +54,14 @@ public class ConditionProcessor<T> {
         Preconditions.checkArgument(data != null);
         Preconditions.checkArgument(!Strings.isNullOrEmpty(condition));
         String query = getFormattedQuery(data.getClass(), condition);
+        Object event = PipelineEvents.beginCondition();
         IndexedCollection<T> values = new ConcurrentIndexedCollection<>();
         values.add(data);
 
         ResultSet<T> result = parser.retrieve(values, query);
-        if (result != null && result.isNotEmpty()) {
-            return true;
-        }
-        return false;
+        boolean matched = (result != null && result.isNotEmpty());
+        PipelineEvents.endCondition(event, condition, type, 1, (matched ? 1 : 0));
+        return matched;
     }
 
     /**
@@ -70,6 +76,7 @@ public class ConditionProcessor<T> {
         Preconditions.checkArgument(data != null && !data.isEmpty());
         Preconditions.checkArgument(!Strings.isNullOrEmpty(condition));
         String query = getFormattedQuery(data.getClass(), condition);
+        Object event = PipelineEvents.beginCondition();
         IndexedCollection<T> values = new ConcurrentIndexedCollection<>();
         values.addAll(data);
 
@@ -79,8 +86,11 @@ public class ConditionProcessor<T> {
             for (T tt : result) {
                 ret.add(tt);
             }
+            PipelineEvents.endCondition(event, condition, type, data.size(),
+                                        ret.size());
             return ret;
         }
+        PipelineEvents.endCondition(event, condition, type, data.size(), 0);
         return null;
     }
 
@@ -0,0 +1,310 @@
+package com.codekutter.genesis.pipelines.utils;
+
+import com.codekutter.zconfig.common.LogUtils;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import java.io.Closeable;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Timer implementation based on a hashed timing wheel.
+ * <p>
+ * All timeouts are serviced by a single worker thread, timeouts are accurate
+ * to the tick duration. Scheduling and cancelling a timeout is O(1) and does
+ * not require any locks, which makes this timer suitable for large numbers
+ * of short lived timeouts (ex: per request deadlines).
+ * <p>
+ * Note: Tasks are executed on the timer thread, hence should not block.
+ */
+public class HashedWheelTimer implements Closeable {
+    private static final long DEFAULT_TICK_DURATION = 10;
+    private static final int DEFAULT_TICKS_PER_WHEEL = 512;
+    /**
+     * Max number of new timeouts to transfer to the wheel per tick.
+     */
+    private static final int MAX_TRANSFERS_PER_TICK = 100000;
+
+    /**
+     * Handle to a scheduled timeout.
+     */
+    public interface Timeout {
+        /**
+         * Cancel this timeout, the task will not be executed.
+         *
+         * @return - Cancelled? (false if already expired/cancelled)
+         */
+        boolean cancel();
+
+        /**
+         * Check if this timeout has been cancelled.
+         *
+         * @return - Is Cancelled?
+         */
+        boolean isCancelled();
+
+        /**
+         * Check if this timeout has expired (task has been executed).
+         *
+         * @return - Is Expired?
+         */
+        boolean isExpired();
+    }
+
+    private static final int STATE_INIT = 0;
+    private static final int STATE_CANCELLED = 1;
+    private static final int STATE_EXPIRED = 2;
+
+    private static final class WheelTimeout implements Timeout {
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(STATE_INIT);
+        private long remainingRounds;
+        private WheelTimeout next;
+        private WheelTimeout prev;
+
+        private WheelTimeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            return state.compareAndSet(STATE_INIT, STATE_CANCELLED);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state.get() == STATE_CANCELLED;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state.get() == STATE_EXPIRED;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(STATE_INIT, STATE_EXPIRED)) {
+                return;
+            }
+            try {
+                task.run();
+            } catch (Throwable t) {
+                LogUtils.error(HashedWheelTimer.class, t);
+            }
+        }
+    }
+
+    /**
+     * Bucket of timeouts for a wheel slot. Only accessed by the worker thread.
+     */
+    private static final class Bucket {
+        private WheelTimeout head;
+        private WheelTimeout tail;
+
+        private void add(WheelTimeout timeout) {
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        private WheelTimeout remove(WheelTimeout timeout) {
+            WheelTimeout next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            return next;
+        }
+
+        private void expire(long deadline) {
+            WheelTimeout timeout = head;
+            while (timeout != null) {
+                if (timeout.isCancelled()) {
+                    timeout = remove(timeout);
+                } else if (timeout.remainingRounds <= 0 &&
+                        timeout.deadline <= deadline) {
+                    WheelTimeout next = remove(timeout);
+                    timeout.expire();
+                    timeout = next;
+                } else if (timeout.remainingRounds <= 0) {
+                    timeout = timeout.next;
+                } else {
+                    timeout.remainingRounds--;
+                    timeout = timeout.next;
+                }
+            }
+        }
+    }
+
+    private final long tickDuration;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<WheelTimeout> pending = new ConcurrentLinkedQueue<>();
+    private final Thread worker;
+    private final long startTime;
+    private volatile boolean running = true;
+    private long tick = 0;
+
+    /**
+     * Create a timer with the default tick duration (10ms) and wheel size (512).
+     *
+     * @param name - Timer thread name.
+     */
+    public HashedWheelTimer(@Nonnull String name) {
+        this(name, DEFAULT_TICK_DURATION, TimeUnit.MILLISECONDS,
+             DEFAULT_TICKS_PER_WHEEL);
+    }
+
+    /**
+     * Create a timer.
+     *
+     * @param name          - Timer thread name.
+     * @param tickDuration  - Duration of a tick.
+     * @param unit          - Tick duration unit.
+     * @param ticksPerWheel - Number of slots in the wheel (rounded to a power of 2).
+     */
+    public HashedWheelTimer(@Nonnull String name, long tickDuration,
+                            @Nonnull TimeUnit unit, int ticksPerWheel) {
+        Preconditions.checkArgument(tickDuration > 0);
+        Preconditions.checkArgument(unit != null);
+        Preconditions.checkArgument(ticksPerWheel > 0);
+
+        int size = 1;
+        while (size < ticksPerWheel) {
+            size <<= 1;
+        }
+        this.wheel = new Bucket[size];
+        for (int ii = 0; ii < size; ii++) {
+            wheel[ii] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.tickDuration = unit.toNanos(tickDuration);
+        this.startTime = System.nanoTime();
+
+        worker = new Thread(this::run, name);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Schedule a task to be executed after the specified delay.
+     *
+     * @param task  - Task to execute.
+     * @param delay - Delay.
+     * @param unit  - Delay unit.
+     * @return - Timeout handle.
+     */
+    public Timeout newTimeout(@Nonnull Runnable task, long delay,
+                              @Nonnull TimeUnit unit) {
+        Preconditions.checkArgument(task != null);
+        Preconditions.checkArgument(unit != null);
+        Preconditions.checkState(running, "Timer has been stopped.");
+
+        long deadline = System.nanoTime() + unit.toNanos(Math.max(0, delay)) -
+                startTime;
+        WheelTimeout timeout = new WheelTimeout(task, deadline);
+        pending.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Get the number of timeouts waiting to be added to the wheel.
+     *
+     * @return - Pending timeouts.
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Stop this timer. Timeouts that haven't expired will not be executed.
+     */
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = waitForNextTick();
+            if (deadline < 0) {
+                continue;
+            }
+            transferPending();
+            wheel[(int) (tick & mask)].expire(deadline);
+            tick++;
+        }
+        pending.clear();
+    }
+
+    private void transferPending() {
+        for (int ii = 0; ii < MAX_TRANSFERS_PER_TICK; ii++) {
+            WheelTimeout timeout = pending.poll();
+            if (timeout == null) {
+                break;
+            }
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            long expiry = timeout.deadline / tickDuration;
+            timeout.remainingRounds = (expiry - tick) / wheel.length;
+            // Timeouts already due are put in the current slot.
+            long ticks = Math.max(expiry, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private long waitForNextTick() {
+        long deadline = tickDuration * (tick + 1);
+        while (true) {
+            long current = System.nanoTime() - startTime;
+            long sleep = (deadline - current + 999999) / 1000000;
+            if (sleep <= 0) {
+                return current;
+            }
+            try {
+                Thread.sleep(sleep);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    return -1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Lazy holder for the shared timer instance.
+     */
+    private static final class Holder {
+        private static final HashedWheelTimer TIMER =
+                new HashedWheelTimer("pipeline-timer");
+    }
+
+    /**
+     * Get the shared timer instance.
+     *
+     * @return - Shared Timer.
+     */
+    public static HashedWheelTimer shared() {
+        return Holder.TIMER;
+    }
+}
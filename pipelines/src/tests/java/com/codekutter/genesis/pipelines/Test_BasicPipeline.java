@@ -0,0 +1,394 @@
+package com.codekutter.genesis.pipelines;
+
+import com.codekutter.genesis.pipelines.cache.CacheStats;
+import com.codekutter.genesis.pipelines.cache.ResultCache;
+import com.codekutter.genesis.pipelines.cache.ResultKey;
+import com.codekutter.genesis.pipelines.incremental.Fingerprinter;
+import com.codekutter.genesis.pipelines.limits.ConcurrencyLimiter;
+import com.codekutter.genesis.pipelines.processors.DemoEntity;
+import com.codekutter.genesis.pipelines.processors.DemoEntityFactory;
+import com.codekutter.genesis.pipelines.processors.EntityFilterPipeline;
+import com.codekutter.genesis.pipelines.processors.ScriptedProcessor;
+import com.codekutter.genesis.pipelines.tracing.Span;
+import com.codekutter.genesis.pipelines.tracing.Tracing;
+import com.codekutter.genesis.pipelines.types.Entity;
+import com.codekutter.genesis.pipelines.types.IVersioned;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_BasicPipeline {
+    private static ScriptedProcessor<DemoEntity> step(String name, List<String> steps,
+                                                      EProcessorResponse result) {
+        return new ScriptedProcessor<>(name, DemoEntity.class).withSteps(steps)
+                                                               .withResult(result);
+    }
+
+    private static EntityFilterPipeline pipeline(String name, BasicProcessor<?>... processors) {
+        EntityFilterPipeline pipeline = new EntityFilterPipeline();
+        pipeline.setName(name);
+        pipeline.setType(DemoEntity.class);
+        pipeline.state.setState(EProcessState.Available);
+        for (BasicProcessor<?> processor : processors) {
+            pipeline.addProcessor(processor, null);
+        }
+        return pipeline;
+    }
+
+    /**
+     * Build parent -> [a, child -> [b, nested -> [c, stop], d], e].
+     */
+    private static EntityFilterPipeline nested(List<String> steps, EProcessorResponse stop) {
+        EntityFilterPipeline inner = pipeline("nested",
+                                              step("c", steps, EProcessorResponse.OK),
+                                              step("stop", steps, stop));
+        EntityFilterPipeline child = pipeline("child",
+                                              step("b", steps, EProcessorResponse.OK),
+                                              inner,
+                                              step("d", steps, EProcessorResponse.OK));
+        return pipeline("parent", step("a", steps, EProcessorResponse.OK),
+                        child, step("e", steps, EProcessorResponse.OK));
+    }
+
+    @Test
+    void inline() throws Exception {
+        for (EProcessorResponse stop : Arrays.asList(EProcessorResponse.OK,
+                                                     EProcessorResponse.Skipped,
+                                                     EProcessorResponse.StopWithOk)) {
+            List<String> expected = new ArrayList<>();
+            ProcessorResponse<DemoEntity> r = nested(expected, stop)
+                    .execute(DemoEntityFactory.create(1), (String) null, null);
+
+            List<String> steps = new ArrayList<>();
+            EntityFilterPipeline pipeline = nested(steps, stop);
+            assertEquals(2, pipeline.inline());
+            assertEquals(2, pipeline.getInlined());
+            ProcessorResponse<DemoEntity> response =
+                    pipeline.execute(DemoEntityFactory.create(1), (String) null, null);
+            assertEquals(expected, steps);
+            assertEquals(r.getState(), response.getState());
+        }
+    }
+
+    @Test
+    void inlineSkipsLimited() {
+        List<String> steps = new ArrayList<>();
+        EntityFilterPipeline child = pipeline("child",
+                                              step("b", steps, EProcessorResponse.OK));
+        child.setLimiter(ConcurrencyLimiter.create(null, 1, 0, 100));
+        EntityFilterPipeline pipeline = pipeline("parent", child);
+        assertEquals(0, pipeline.inline());
+        assertEquals(0, pipeline.getInlined());
+    }
+
+    @Test
+    void inlineInFlight() throws Exception {
+        ScriptedProcessor<DemoEntity> processor =
+                new ScriptedProcessor<>("blocking", DemoEntity.class).blocking();
+        EntityFilterPipeline child = pipeline("child", processor);
+        EntityFilterPipeline pipeline = pipeline("parent", child);
+        assertEquals(1, pipeline.inline());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ProcessorResponse<DemoEntity>> running = executor.submit(
+                    () -> pipeline.execute(DemoEntityFactory.create(1), (String) null, null));
+            assertTrue(processor.getStarted().await(10, TimeUnit.SECONDS));
+            assertEquals(1, child.getInFlight());
+            // The inlined child waits for the execution running through it.
+            Future<Boolean> disposed = executor.submit(() -> child.dispose(10000));
+            Thread.sleep(100);
+            assertFalse(disposed.isDone());
+            processor.release();
+            assertTrue(disposed.get(10, TimeUnit.SECONDS));
+            assertEquals(EProcessorResponse.OK, running.get().getState());
+            assertEquals(0, child.getInFlight());
+
+            // Disposed, executed as a nested pipeline (not available).
+            ProcessorResponse<DemoEntity> expected = pipeline("nested", child)
+                    .execute(DemoEntityFactory.create(1), (String) null, null);
+            ProcessorResponse<DemoEntity> response =
+                    pipeline.execute(DemoEntityFactory.create(1), (String) null, null);
+            assertEquals(expected.getState(), response.getState());
+            assertEquals(1, processor.getExecuted());
+            assertEquals(0, child.getInFlight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void inFlight() throws Exception {
+        EntityFilterPipeline pipeline = new EntityFilterPipeline();
+        pipeline.setName("in-flight");
+        pipeline.setType(DemoEntity.class);
+        pipeline.state.setState(EProcessState.Available);
+        ScriptedProcessor<DemoEntity> processor =
+                new ScriptedProcessor<>("blocking", DemoEntity.class).blocking();
+        pipeline.addProcessor(processor, null);
+        assertEquals(0, pipeline.getInFlight());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ProcessorResponse<DemoEntity>> future = executor.submit(
+                    () -> pipeline.execute(DemoEntityFactory.create(1), (String) null, null));
+            assertTrue(processor.getStarted().await(10, TimeUnit.SECONDS));
+            assertEquals(1, pipeline.getInFlight());
+            processor.release();
+            future.get();
+            assertEquals(0, pipeline.getInFlight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void disposeDrains() throws Exception {
+        EntityFilterPipeline pipeline = pipeline("draining");
+        ScriptedProcessor<DemoEntity> processor =
+                new ScriptedProcessor<>("blocking", DemoEntity.class).blocking();
+        pipeline.addProcessor(processor, null);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ProcessorResponse<DemoEntity>> running = executor.submit(
+                    () -> pipeline.execute(DemoEntityFactory.create(1), (String) null, null));
+            assertTrue(processor.getStarted().await(10, TimeUnit.SECONDS));
+            Future<Boolean> disposed = executor.submit(() -> pipeline.dispose(10000));
+            while (pipeline.getState() != EProcessState.Disposing) {
+                Thread.yield();
+            }
+            assertThrows(ProcessorException.class,
+                         () -> pipeline.execute(DemoEntityFactory.create(1), (String) null, null));
+            assertFalse(disposed.isDone());
+
+            processor.release();
+            assertEquals(EProcessorResponse.OK, running.get().getState());
+            assertTrue(disposed.get());
+            assertEquals(EProcessState.Disposed, pipeline.getState());
+            assertEquals(EProcessState.Disposed, processor.getState());
+            assertEquals(0, pipeline.getInFlight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void disposeTimeout() {
+        EntityFilterPipeline pipeline = pipeline("timeout");
+        pipeline.inFlight.increment();
+        assertFalse(pipeline.dispose(20));
+        assertEquals(EProcessState.Disposed, pipeline.getState());
+    }
+
+    @Test
+    void inlineConditionError() throws Exception {
+        for (boolean inline : new boolean[]{false, true}) {
+            ScriptedProcessor<DemoEntity> inner =
+                    new ScriptedProcessor<>("inner", DemoEntity.class);
+            EntityFilterPipeline pipeline = pipeline("parent");
+            pipeline.addProcessor(pipeline("child", inner), "invalid condition (");
+            if (inline) {
+                assertEquals(1, pipeline.inline());
+            }
+            // The condition error is returned as the child's error.
+            ProcessorResponse<DemoEntity> response =
+                    pipeline.execute(DemoEntityFactory.create(1), (String) null, null);
+            assertEquals(EProcessorResponse.UnhandledError, response.getState());
+            assertTrue(response.getError() instanceof ProcessorException);
+            assertEquals(0, inner.getExecuted());
+        }
+    }
+
+    @Test
+    void deadline() throws Exception {
+        // Load the execution path before starting the clock.
+        pipeline("warmup", new ScriptedProcessor<>("warm", DemoEntity.class))
+                .execute(DemoEntityFactory.create(1), (String) null, new Context());
+        for (boolean inline : new boolean[]{false, true}) {
+            ScriptedProcessor<DemoEntity> slow =
+                    new ScriptedProcessor<>("slow", DemoEntity.class).withDelay(200);
+            ScriptedProcessor<DemoEntity> next =
+                    new ScriptedProcessor<>("next", DemoEntity.class);
+            EntityFilterPipeline pipeline =
+                    pipeline("deadline", pipeline("child", slow, next),
+                             new ScriptedProcessor<>("last", DemoEntity.class));
+            if (inline) {
+                assertEquals(1, pipeline.inline());
+            }
+            Context context = new Context().withTimeout(50, TimeUnit.MILLISECONDS);
+            ProcessorResponse<DemoEntity> response =
+                    pipeline.execute(DemoEntityFactory.create(1), (String) null, context);
+            assertEquals(EProcessorResponse.DeadlineExceeded, response.getState());
+            assertEquals(1, slow.getExecuted());
+            assertEquals(0, next.getExecuted());
+        }
+    }
+
+    @Test
+    void uncheckedErrorEndsSpans() throws Exception {
+        AtomicInteger started = new AtomicInteger();
+        AtomicInteger ended = new AtomicInteger();
+        Tracing.setTracer((name, parent) -> {
+            started.incrementAndGet();
+            return new Span() {
+                @Override
+                public Span setAttribute(String key, String value) {
+                    return this;
+                }
+
+                @Override
+                public Span setAttribute(String key, long value) {
+                    return this;
+                }
+
+                @Override
+                public void recordError(Throwable error) {
+                }
+
+                @Override
+                public void end() {
+                    ended.incrementAndGet();
+                }
+            };
+        });
+        try {
+            for (boolean inline : new boolean[]{false, true}) {
+                ScriptedProcessor<DemoEntity> failing =
+                        new ScriptedProcessor<DemoEntity>("failing", DemoEntity.class) {
+                            @Override
+                            public ProcessorResponse<DemoEntity> execute(
+                                    DemoEntity data, String condition, Context context) {
+                                throw new IllegalStateException("failed");
+                            }
+                        };
+                EntityFilterPipeline pipeline =
+                        pipeline("spans", pipeline("child", failing));
+                if (inline) {
+                    assertEquals(1, pipeline.inline());
+                }
+                Context context = new Context();
+                started.set(0);
+                ended.set(0);
+                // The error propagates out of the child, all the spans
+                // started are ended.
+                ProcessorResponse<DemoEntity> response =
+                        pipeline.execute(DemoEntityFactory.create(1), (String) null,
+                                         context);
+                assertNotNull(response.getError());
+                assertTrue(started.get() > 0);
+                assertEquals(started.get(), ended.get());
+                assertNull(context.getSpan());
+            }
+        } finally {
+            Tracing.setTracer(null);
+        }
+    }
+
+    private static class VersionedEntity implements Entity<String>, IVersioned {
+        private final String key;
+        private final long version;
+
+        private VersionedEntity(String key, long version) {
+            this.key = key;
+            this.version = version;
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public long getVersion() {
+            return version;
+        }
+    }
+
+    private static class KeyedEntity implements Entity<String> {
+        private final String key;
+        private String value;
+
+        private KeyedEntity(String key, String value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+    }
+
+    @Test
+    void resultCache() throws Exception {
+        BasicPipeline<VersionedEntity> pipeline = new BasicPipeline<>();
+        pipeline.setName("cached");
+        pipeline.setType(VersionedEntity.class);
+        pipeline.state.setState(EProcessState.Available);
+        ScriptedProcessor<VersionedEntity> processor =
+                new ScriptedProcessor<>("counting", VersionedEntity.class);
+        pipeline.addProcessor(processor, null);
+        pipeline.setResultCache(new ResultCache<>(100, 0, TimeUnit.MILLISECONDS));
+
+        VersionedEntity entity = new VersionedEntity("e1", 1);
+        ProcessorResponse<VersionedEntity> response = pipeline.execute(entity, (String) null, null);
+        assertEquals(EProcessorResponse.OK, response.getState());
+        response = pipeline.execute(new VersionedEntity("e1", 1), (String) null, null);
+        assertEquals(EProcessorResponse.OK, response.getState());
+        // No copy function, the cached entity is shared.
+        assertSame(entity, response.getData());
+        assertEquals(1, processor.getExecuted());
+
+        pipeline.execute(new VersionedEntity("e1", 2), (String) null, null);
+        assertEquals(2, processor.getExecuted());
+        CacheStats stats = pipeline.getResultCache().getStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(2, stats.getMisses());
+    }
+
+    @Test
+    void resultCacheFingerprint() throws Exception {
+        // Not versioned, only cached by the content fingerprint.
+        assertNull(ResultKey.of(new KeyedEntity("e1", "a")));
+
+        BasicPipeline<KeyedEntity> pipeline = new BasicPipeline<>();
+        pipeline.setName("cached");
+        pipeline.setType(KeyedEntity.class);
+        pipeline.state.setState(EProcessState.Available);
+        ScriptedProcessor<KeyedEntity> processor =
+                new ScriptedProcessor<>("counting", KeyedEntity.class);
+        pipeline.addProcessor(processor, null);
+        pipeline.setResultCache(new ResultCache<>(100, 0, TimeUnit.MILLISECONDS),
+                                new Fingerprinter<>(KeyedEntity.class),
+                                (e) -> new KeyedEntity(e.key, e.value));
+
+        KeyedEntity entity = new KeyedEntity("e1", "a");
+        pipeline.execute(entity, (String) null, null);
+        ProcessorResponse<KeyedEntity> response =
+                pipeline.execute(new KeyedEntity("e1", "a"), (String) null, null);
+        assertEquals(1, processor.getExecuted());
+        assertNotSame(entity, response.getData());
+        assertEquals("a", response.getData().value);
+
+        // Changes to the returned entities don't reach the cache.
+        entity.value = "changed";
+        response.getData().value = "changed";
+        response = pipeline.execute(new KeyedEntity("e1", "a"), (String) null, null);
+        assertEquals(1, processor.getExecuted());
+        assertEquals("a", response.getData().value);
+
+        pipeline.execute(new KeyedEntity("e1", "b"), (String) null, null);
+        assertEquals(2, processor.getExecuted());
+    }
+}
+
@@ -0,0 +1,42 @@
+package com.codekutter.genesis.pipelines;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_ConfigWatcher {
+    private static class ReloadCounter extends PipelineLoader {
+        private final CountDownLatch reloaded = new CountDownLatch(1);
+
+        @Override
+        public synchronized void reload() {
+            reloaded.countDown();
+        }
+    }
+
+    @Test
+    void reloadOnChange() throws Exception {
+        File dir = Files.createTempDirectory("pipelines").toFile();
+        dir.deleteOnExit();
+        File config = new File(dir, "pipelines.xml");
+        config.deleteOnExit();
+        Files.write(config.toPath(), "<pipelines/>".getBytes(StandardCharsets.UTF_8));
+
+        ReloadCounter loader = new ReloadCounter();
+        try (ConfigWatcher watcher = new ConfigWatcher(loader, config, 50).start()) {
+            Files.write(new File(dir, "other.xml").toPath(),
+                        "<other/>".getBytes(StandardCharsets.UTF_8));
+            Files.write(config.toPath(),
+                        "<pipelines><pipeline/></pipelines>".getBytes(StandardCharsets.UTF_8));
+            assertTrue(loader.reloaded.await(30, TimeUnit.SECONDS));
+            assertEquals(0, watcher.getFailures());
+        }
+        new File(dir, "other.xml").delete();
+    }
+}
@@ -0,0 +1,102 @@
+package com.codekutter.genesis.pipelines;
+
+import com.codekutter.genesis.pipelines.limits.ConcurrencyLimiter;
+import com.codekutter.genesis.pipelines.processors.DemoEntity;
+import com.codekutter.genesis.pipelines.processors.DemoEntityFactory;
+import com.codekutter.genesis.pipelines.processors.ScriptedProcessor;
+import com.codekutter.zconfig.common.ConfigurationException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_LazyProcessor {
+    @Test
+    void createOnce() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        CountDownLatch ready = new CountDownLatch(1);
+        LazyBasicProcessor<DemoEntity> lazy =
+                new LazyBasicProcessor<>("counting", ScriptedProcessor.class, () -> {
+                    created.incrementAndGet();
+                    return new ScriptedProcessor<>("counting", DemoEntity.class);
+                });
+        lazy.setLimiter(ConcurrencyLimiter.create(null, 8, 0, 100));
+        assertFalse(lazy.getTarget().isCreated());
+        assertEquals(0, created.get());
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<ProcessorResponse<DemoEntity>>> futures = new ArrayList<>();
+            for (int ii = 0; ii < threads; ii++) {
+                futures.add(executor.submit(() -> {
+                    ready.await();
+                    return lazy.execute(DemoEntityFactory.create(2), (String) null, null);
+                }));
+            }
+            ready.countDown();
+            for (Future<ProcessorResponse<DemoEntity>> future : futures) {
+                assertEquals(EProcessorResponse.OK, future.get().getState());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, created.get());
+        ScriptedProcessor<?> processor = (ScriptedProcessor<?>) lazy.getTarget().peek();
+        assertEquals(threads, processor.getExecuted());
+        assertSame(lazy.getLimiter(), processor.getLimiter());
+        assertEquals(EProcessState.Available, lazy.getState());
+    }
+
+    @Test
+    void retryOnError() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        LazyBasicProcessor<DemoEntity> lazy =
+                new LazyBasicProcessor<>("failing", ScriptedProcessor.class, () -> {
+                    if (attempts.incrementAndGet() == 1) {
+                        throw new ConfigurationException("Connection refused.");
+                    }
+                    return new ScriptedProcessor<>("failing", DemoEntity.class);
+                });
+        assertThrows(ProcessorException.class,
+                     () -> lazy.execute(DemoEntityFactory.create(1), (String) null, null));
+        assertFalse(lazy.getTarget().isCreated());
+
+        ProcessorResponse<DemoEntity> response =
+                lazy.execute(DemoEntityFactory.create(1), (String) null, null);
+        assertEquals(EProcessorResponse.OK, response.getState());
+        assertEquals(2, attempts.get());
+        assertTrue(lazy.getTarget().isCreated());
+    }
+
+    @Test
+    void forwardsWhenStopped() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        LazyBasicProcessor<DemoEntity> lazy =
+                new LazyBasicProcessor<>("replaced", ScriptedProcessor.class, () -> {
+                    created.incrementAndGet();
+                    return new ScriptedProcessor<>("replaced", DemoEntity.class);
+                });
+        lazy.dispose();
+        assertThrows(ProcessorException.class,
+                     () -> lazy.execute(DemoEntityFactory.create(1), (String) null, null));
+
+        ScriptedProcessor<DemoEntity> successor =
+                new ScriptedProcessor<>("replacing", DemoEntity.class);
+        lazy.setSuccessor(successor);
+        ProcessorResponse<DemoEntity> response =
+                lazy.execute(DemoEntityFactory.create(1), (String) null, null);
+        assertEquals(EProcessorResponse.OK, response.getState());
+        assertEquals(1, successor.getExecuted());
+        // The stopped handle doesn't create the processor.
+        assertEquals(0, created.get());
+        assertFalse(lazy.getTarget().isCreated());
+    }
+}
@@ -1,7 +1,552 @@
 package com.codekutter.genesis.pipelines;
 
+import com.codekutter.genesis.pipelines.processors.ConfiguredStateFilter;
+import com.codekutter.genesis.pipelines.processors.CountingStateFilter;
+import com.codekutter.genesis.pipelines.processors.DemoEntity;
+import com.codekutter.genesis.pipelines.processors.DemoEntityFactory;
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.model.Version;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class Test_PipelineLoader {
+    private static final String CONFIG_NAME = "test-config";
+    private static final String CONFIG_VERSION = "0.2";
+    private static final String TYPE_PIPELINE =
+            "com.codekutter.genesis.pipelines.processors.EntityFilterPipeline";
+    private static final String TYPE_FILTER =
+            "com.codekutter.genesis.pipelines.processors.EntityStateFilter";
+    private static final String TYPE_ENTITY =
+            "com.codekutter.genesis.pipelines.processors.DemoEntity";
+
+    static String pipeline(String name, String attributes, String... processors) {
+        StringBuilder buffer = new StringBuilder();
+        buffer.append(String.format("<pipeline name=\"%s\" type=\"%s\" entityType=\"%s\" %s>",
+                                    name, TYPE_PIPELINE, TYPE_ENTITY,
+                                    (attributes != null ? attributes : "")));
+        buffer.append("<processors>");
+        for (String processor : processors) {
+            buffer.append(processor);
+        }
+        return buffer.append("</processors></pipeline>").toString();
+    }
+
+    static String processor(String name, String attributes) {
+        return processor(name, TYPE_FILTER, attributes);
+    }
+
+    static String processor(String name, String type, String attributes) {
+        return String.format("<processor name=\"%s\" type=\"%s\" entityType=\"%s\" %s/>",
+                             name, type, TYPE_ENTITY,
+                             (attributes != null ? attributes : ""));
+    }
+
+    static String reference(String name, String reference) {
+        return String.format(
+                "<processor name=\"%s\" type=\"%s\" entityType=\"%s\" reference=\"%s\"/>",
+                name, TYPE_PIPELINE, TYPE_ENTITY, reference);
+    }
+
+    static String reference(String name, String reference, String attributes) {
+        return String.format(
+                "<processor name=\"%s\" type=\"%s\" entityType=\"%s\" reference=\"%s\" %s/>",
+                name, TYPE_PIPELINE, TYPE_ENTITY, reference, attributes);
+    }
+
+    static File config(String... pipelines) throws IOException {
+        File file = File.createTempFile("pipelines", ".xml");
+        file.deleteOnExit();
+        write(file, pipelines);
+        return file;
+    }
+
+    static void write(File file, String... pipelines) throws IOException {
+        StringBuilder buffer = new StringBuilder();
+        buffer.append("<?xml version=\"1.0\" encoding=\"UTF-8\" ?><root>");
+        buffer.append(String.format(
+                "<header ID=\"UNIQUE-99918239013\" group=\"TEST-APP-GROUP\" application=\"TEST-APPLICATION\" name=\"%s\" version=\"%s\">",
+                CONFIG_NAME, CONFIG_VERSION));
+        buffer.append("<description>Pipeline loader test configuration.</description>");
+        buffer.append("<createdBy user=\"test\" tiemstamp=\"1552835141000\"/>");
+        buffer.append("<updatedBy user=\"test\" tiemstamp=\"1552835341000\"/>");
+        buffer.append("</header><pipelines>");
+        for (String pipeline : pipelines) {
+            buffer.append(pipeline);
+        }
+        buffer.append("</pipelines></root>");
+        Files.write(file.toPath(), buffer.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    static File compile(File config) throws IOException, ConfigurationException {
+        File snapshot = File.createTempFile("pipelines", ".snapshot");
+        snapshot.deleteOnExit();
+        new PipelineLoader().compile(CONFIG_NAME, config.toURI().toString(),
+                                     Version.parse(CONFIG_VERSION), null, snapshot);
+        return snapshot;
+    }
+
+    static void load(PipelineLoader loader, File config)
+    throws ConfigurationException {
+        loader.load(CONFIG_NAME, config.toURI().toString(),
+                    Version.parse(CONFIG_VERSION), null);
+    }
+
+    static void reload(PipelineLoader loader, File config)
+    throws ConfigurationException {
+        loader.reload(CONFIG_NAME, config.toURI().toString(),
+                      Version.parse(CONFIG_VERSION), null);
+    }
+
+    /**
+     * Loaded test pipelines don't set their state, mark them available
+     * to execute them.
+     */
+    static void available(PipelineLoader loader, String... names) {
+        for (String name : names) {
+            ((Processor<?>) loader.getPipeline(name)).state
+                    .setState(EProcessState.Available);
+        }
+    }
+
+    static void awaitState(Pipeline<?> pipeline, EProcessState state)
+    throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (pipeline.getState() != state
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(state, pipeline.getState());
+    }
+
+    @Test
+    void forwardReferences() throws Exception {
+        PipelineLoader loader = new PipelineLoader().setThreads(1);
+        load(loader, config(pipeline("orders", null, reference("validate", "validate"),
+                                     processor("state", null)),
+                            pipeline("validate", null, reference("filter", "filter")),
+                            pipeline("filter", null, processor("state", null))));
+
+        Pipeline<?> orders = loader.getPipeline("orders");
+        Pipeline<?> validate = loader.getPipeline("validate");
+        Pipeline<?> filter = loader.getPipeline("filter");
+        assertNotNull(orders);
+        assertNotNull(validate);
+        assertNotNull(filter);
+        assertEquals(2, orders.getProcessors().size());
+        assertSame(validate, orders.getProcessors().get(0));
+        assertSame(filter, validate.getProcessors().get(0));
+        assertEquals(3, loader.getLoadTimings().getPipelines());
+    }
+
+    @Test
+    void inlineLimitedReferences() throws Exception {
+        PipelineLoader loader = new PipelineLoader().setThreads(1).setInline(true);
+        // Orders is wired (and inlined) before audit sets the limit.
+        load(loader, config(pipeline("orders", null, reference("filter", "filter")),
+                            pipeline("audit", null,
+                                     reference("filter", "filter", "maxConcurrent=\"2\"")),
+                            pipeline("filter", null, processor("state", null))));
+
+        assertNotNull(((Processor<?>) loader.getPipeline("filter")).getLimiter());
+        assertEquals(0, ((BasicPipeline<?>) loader.getPipeline("orders")).getInlined());
+        assertEquals(0, ((BasicPipeline<?>) loader.getPipeline("audit")).getInlined());
+    }
+
+    @Test
+    void conflictingLimits() throws Exception {
+        File config = config(pipeline("orders", null,
+                                      reference("filter", "filter", "maxConcurrent=\"2\"")),
+                             pipeline("audit", null,
+                                      reference("filter", "filter", "maxConcurrent=\"4\"")),
+                             pipeline("filter", null, processor("state", null)));
+        ConfigurationException error =
+                assertThrows(ConfigurationException.class,
+                             () -> load(new PipelineLoader(), config));
+        assertTrue(error.getMessage().contains("Conflicting concurrency limits"));
+
+        // The same limit set by both references.
+        PipelineLoader loader = new PipelineLoader();
+        load(loader, config(pipeline("orders", null,
+                                     reference("filter", "filter", "maxConcurrent=\"2\"")),
+                            pipeline("audit", null,
+                                     reference("filter", "filter", "maxConcurrent=\"2\"")),
+                            pipeline("filter", null, processor("state", null))));
+        assertEquals(2, ((Processor<?>) loader.getPipeline("filter")).getLimiter()
+                                                                      .getLimit());
+    }
+
+    @Test
+    void circularReferences() throws Exception {
+        File config = config(pipeline("first", null, reference("second", "second")),
+                             pipeline("second", null, reference("third", "third")),
+                             pipeline("third", null, reference("first", "first")));
+        ConfigurationException error =
+                assertThrows(ConfigurationException.class,
+                             () -> load(new PipelineLoader(), config));
+        assertTrue(error.getMessage().contains("Circular pipeline reference"));
+
+        File self = config(pipeline("self", null, reference("self", "self")));
+        assertThrows(ConfigurationException.class,
+                     () -> load(new PipelineLoader(), self));
+    }
+
+    @Test
+    void duplicateNames() throws Exception {
+        File config = config(pipeline("filter", null, processor("state", null)),
+                             pipeline("other", null, processor("state", null)),
+                             pipeline("filter", null, processor("state", null)));
+        PipelineLoader loader = new PipelineLoader();
+        ConfigurationException error =
+                assertThrows(ConfigurationException.class, () -> load(loader, config));
+        assertTrue(error.getMessage().contains("Duplicate pipeline name"));
+        assertNull(loader.getPipeline("other"));
+    }
+
+    @Test
+    void resultCacheCopy() throws Exception {
+        File missing = config(pipeline("filter", "cacheSize=\"10\"",
+                                       processor("state", null)));
+        ConfigurationException error =
+                assertThrows(ConfigurationException.class,
+                             () -> load(new PipelineLoader(), missing));
+        assertTrue(error.getMessage().contains("cacheCopy"));
+
+        File clone = config(pipeline("filter", "cacheSize=\"10\" cacheCopy=\"clone\"",
+                                     processor("state", null)));
+        error = assertThrows(ConfigurationException.class,
+                             () -> load(new PipelineLoader(), clone));
+        assertTrue(error.getMessage().contains("isn't cloneable"));
+
+        PipelineLoader loader = new PipelineLoader();
+        load(loader, config(pipeline("filter", "cacheSize=\"10\" cacheCopy=\"shared\"",
+                                     processor("state", null))));
+        assertNotNull(((BasicPipeline<?>) loader.getPipeline("filter")).getResultCache());
+    }
+
+    @Test
+    void parallelLoad() throws Exception {
+        int count = 24;
+        String[] pipelines = new String[count];
+        for (int ii = 0; ii < count; ii++) {
+            String name = String.format("pipeline-%d", ii);
+            if (ii % 3 == 2) {
+                pipelines[ii] = pipeline(name, null, processor("state", null));
+            } else {
+                // Reference the next pipeline (declared later).
+                pipelines[ii] = pipeline(name, null, processor("state", null),
+                                         reference("next", String.format(
+                                                 "pipeline-%d", ii + 1)));
+            }
+        }
+        File config = config(pipelines);
+        PipelineLoader serial = new PipelineLoader().setThreads(1);
+        load(serial, config);
+        PipelineLoader parallel = new PipelineLoader().setThreads(8);
+        load(parallel, config);
+
+        assertEquals(1, serial.getLoadTimings().getThreads());
+        assertEquals(8, parallel.getLoadTimings().getThreads());
+        for (int ii = 0; ii < count; ii++) {
+            String name = String.format("pipeline-%d", ii);
+            assertNotNull(parallel.explain(name, false));
+            assertEquals(serial.explain(name, false), parallel.explain(name, false));
+            Pipeline<?> pipeline = parallel.getPipeline(name);
+            if (ii % 3 != 2) {
+                assertSame(parallel.getPipeline(String.format("pipeline-%d", ii + 1)),
+                           pipeline.getProcessors().get(1));
+            }
+        }
+    }
+
+    @Test
+    void snapshot() throws Exception {
+        File config = config(pipeline("orders", null, reference("filter", "filter"),
+                                      processor("state", "maxConcurrent=\"4\"")),
+                             pipeline("filter", null, processor("state", null)));
+        File snapshot = compile(config);
+        PipelineLoader xml = new PipelineLoader();
+        load(xml, config);
+        PipelineLoader compiled = new PipelineLoader().setSnapshot(snapshot);
+        load(compiled, config);
+
+        assertFalse(xml.getLoadTimings().isSnapshot());
+        assertTrue(compiled.getLoadTimings().isSnapshot());
+        for (String name : new String[]{"orders", "filter"}) {
+            assertNotNull(compiled.explain(name, false));
+            assertEquals(xml.explain(name, false), compiled.explain(name, false));
+        }
+        assertSame(compiled.getPipeline("filter"),
+                   compiled.getPipeline("orders").getProcessors().get(0));
+    }
+
+    @Test
+    void snapshotFallback() throws Exception {
+        File config = config(pipeline("filter", null, processor("state", null)));
+        File snapshot = compile(config);
+
+        // Stale: the configuration changed after the snapshot was compiled.
+        write(config, pipeline("filter", null, processor("state", null)),
+              pipeline("added", null, processor("state", null)));
+        PipelineLoader stale = new PipelineLoader().setSnapshot(snapshot);
+        load(stale, config);
+        assertFalse(stale.getLoadTimings().isSnapshot());
+        assertNotNull(stale.getPipeline("filter"));
+        assertNotNull(stale.getPipeline("added"));
+
+        // Corrupt: the snapshot can't be read.
+        snapshot = compile(config);
+        Files.write(snapshot.toPath(), new byte[]{1, 2, 3});
+        PipelineLoader corrupt = new PipelineLoader().setSnapshot(snapshot);
+        load(corrupt, config);
+        assertFalse(corrupt.getLoadTimings().isSnapshot());
+        assertNotNull(corrupt.getPipeline("filter"));
+        assertNotNull(corrupt.getPipeline("added"));
+    }
+
+    @Test
+    void snapshotConfigured() throws Exception {
+        // Processors reading the configuration node load from the XML.
+        File config = config(
+                pipeline("orders", null, reference("filter", "filter"),
+                         processor("configured", ConfiguredStateFilter.class.getName(),
+                                   null)),
+                pipeline("filter", null, processor("state", null)));
+        File snapshot = compile(config);
+        PipelineLoader xml = new PipelineLoader();
+        load(xml, config);
+        PipelineLoader compiled = new PipelineLoader().setSnapshot(snapshot);
+        load(compiled, config);
+
+        assertTrue(compiled.getLoadTimings().isSnapshot());
+        for (String name : new String[]{"orders", "filter"}) {
+            assertNotNull(compiled.explain(name, false));
+            assertEquals(xml.explain(name, false), compiled.explain(name, false));
+        }
+        Pipeline<?> orders = compiled.getPipeline("orders");
+        assertSame(compiled.getPipeline("filter"), orders.getProcessors().get(0));
+        assertTrue(orders.getProcessors().get(1) instanceof ConfiguredStateFilter);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void lazyProcessor() throws Exception {
+        String counting = CountingStateFilter.class.getName();
+        File config = config(pipeline("orders", null,
+                                      processor("lazy", counting, "lazy=\"true\""),
+                                      processor("state", null)));
+        PipelineLoader loader = new PipelineLoader();
+        load(loader, config);
+        int created = CountingStateFilter.getCreated();
+        Pipeline<?> orders = loader.getPipeline("orders");
+        assertEquals(1, loader.getLoadTimings().getLazy());
+        assertTrue(orders.getProcessors().get(0) instanceof ILazyProcessor);
+        ILazyProcessor handle = (ILazyProcessor) orders.getProcessors().get(0);
+        assertFalse(handle.getTarget().isCreated());
+
+        ProcessorResponse<DemoEntity> response =
+                ((BasicProcessor<DemoEntity>) handle)
+                        .execute(DemoEntityFactory.create(1), (String) null, null);
+        assertNotEquals(EProcessorResponse.UnhandledError, response.getState());
+        assertTrue(handle.getTarget().isCreated());
+        assertEquals(created + 1, CountingStateFilter.getCreated());
+
+        PipelineLoader preloaded = new PipelineLoader();
+        load(preloaded, config);
+        handle = (ILazyProcessor) preloaded.getPipeline("orders").getProcessors().get(0);
+        assertFalse(handle.getTarget().isCreated());
+        preloaded.preload("orders");
+        assertTrue(handle.getTarget().isCreated());
+        assertEquals(created + 2, CountingStateFilter.getCreated());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void lazyPipeline() throws Exception {
+        String counting = CountingStateFilter.class.getName();
+        File config = config(pipeline("orders", null, reference("audit", "audit")),
+                             pipeline("audit", "lazy=\"true\"",
+                                      processor("count", counting, null)),
+                             pipeline("report", "lazy=\"true\"",
+                                      processor("count", counting, null)));
+        PipelineLoader loader = new PipelineLoader();
+        load(loader, config);
+        int created = CountingStateFilter.getCreated();
+        assertNull(loader.explain("audit", false));
+        assertNull(loader.explain("report", false));
+        BasicPipeline<DemoEntity> orders =
+                (BasicPipeline<DemoEntity>) loader.<DemoEntity>getPipeline("orders");
+        ILazyProcessor handle = (ILazyProcessor) orders.getProcessors().get(0);
+        assertFalse(handle.getTarget().isCreated());
+
+        orders.state.setState(EProcessState.Available);
+        orders.execute(DemoEntityFactory.create(1), (String) null, null);
+        assertTrue(handle.getTarget().isCreated());
+        assertNotNull(loader.explain("audit", false));
+        assertEquals(created + 1, CountingStateFilter.getCreated());
+        assertNull(loader.explain("report", false));
+
+        loader.preload("report");
+        assertNotNull(loader.explain("report", false));
+        assertEquals(created + 2, CountingStateFilter.getCreated());
+        assertSame(loader.getPipeline("audit"), handle.getTarget().peek());
+    }
+
+    @Test
+    void reload() throws Exception {
+        File config = config(pipeline("orders", null, reference("filter", "filter")),
+                             pipeline("filter", null, processor("state", null)));
+        PipelineLoader loader = new PipelineLoader().setDrainTimeout(10000);
+        load(loader, config);
+        Pipeline<?> orders = loader.getPipeline("orders");
+        Pipeline<?> filter = loader.getPipeline("filter");
+        // Execution running on the replaced pipeline.
+        ((Processor<?>) orders).inFlight.increment();
+
+        write(config, pipeline("orders", null, reference("filter", "filter"),
+                               processor("state", null)),
+              pipeline("filter", null, processor("state", null)));
+        reload(loader, config);
+        Pipeline<?> reloaded = loader.getPipeline("orders");
+        assertNotSame(orders, reloaded);
+        assertEquals(2, reloaded.getProcessors().size());
+        assertNotSame(filter, loader.getPipeline("filter"));
+        assertSame(loader.getPipeline("filter"), reloaded.getProcessors().get(0));
+
+        Thread.sleep(200);
+        // Stopped right away, disposed together once the whole plan has
+        // drained.
+        assertEquals(EProcessState.Disposing, orders.getState());
+        assertEquals(EProcessState.Disposing, filter.getState());
+        ((Processor<?>) orders).inFlight.decrement();
+        awaitState(orders, EProcessState.Disposed);
+        awaitState(filter, EProcessState.Disposed);
+        assertNotEquals(EProcessState.Disposed, reloaded.getState());
+    }
+
+    @Test
+    void reloadDrainsReferences() throws Exception {
+        File config = config(pipeline("orders", null, reference("filter", "filter")),
+                             pipeline("filter", null, processor("state", null)));
+        PipelineLoader loader = new PipelineLoader().setDrainTimeout(10000);
+        load(loader, config);
+        Pipeline<?> orders = loader.getPipeline("orders");
+        Pipeline<?> filter = loader.getPipeline("filter");
+        // Execution running on the referenced pipeline only.
+        ((Processor<?>) filter).inFlight.increment();
+
+        reload(loader, config);
+        Thread.sleep(200);
+        assertEquals(EProcessState.Disposing, orders.getState());
+        assertEquals(EProcessState.Disposing, filter.getState());
+        ((Processor<?>) filter).inFlight.decrement();
+        awaitState(orders, EProcessState.Disposed);
+        awaitState(filter, EProcessState.Disposed);
+    }
+
+    @Test
+    void reloadFailure() throws Exception {
+        File config = config(pipeline("filter", null, processor("state", null)));
+        PipelineLoader loader = new PipelineLoader();
+        load(loader, config);
+        available(loader, "filter");
+        Pipeline<?> filter = loader.getPipeline("filter");
+
+        write(config, pipeline("filter", null, reference("missing", "missing")));
+        assertThrows(ConfigurationException.class, () -> reload(loader, config));
+        assertSame(filter, loader.getPipeline("filter"));
+        assertEquals(EProcessState.Available, filter.getState());
+        assertEquals(1, filter.getProcessors().size());
+    }
+
+    @Test
+    void reloadFailureDisposes() throws Exception {
+        File config = config(pipeline("filter", null, processor("state", null)));
+        PipelineLoader loader = new PipelineLoader().setThreads(1);
+        load(loader, config);
+        available(loader, "filter");
+        Pipeline<?> filter = loader.getPipeline("filter");
+
+        // The first pipeline is built before the second one fails.
+        write(config,
+              pipeline("orders", null,
+                       processor("count", CountingStateFilter.class.getName(), null)),
+              pipeline("filter", "outlierThreshold=\"10\"", processor("state", null)));
+        int created = CountingStateFilter.getCreated();
+        int disposed = CountingStateFilter.getDisposed();
+        assertThrows(ConfigurationException.class, () -> reload(loader, config));
+        assertEquals(created + 1, CountingStateFilter.getCreated());
+        assertEquals(disposed + 1, CountingStateFilter.getDisposed());
+        assertSame(filter, loader.getPipeline("filter"));
+        assertNull(loader.getPipeline("orders"));
+        assertEquals(EProcessState.Available, filter.getState());
+    }
+
+    @Test
+    void lazyPipelineFailureDisposes() throws Exception {
+        PipelineLoader loader = new PipelineLoader();
+        load(loader, config(pipeline("orders", "lazy=\"true\" outlierThreshold=\"10\"",
+                                     processor("count", CountingStateFilter.class.getName(),
+                                               null))));
+        int created = CountingStateFilter.getCreated();
+        int disposed = CountingStateFilter.getDisposed();
+        assertNull(loader.getPipeline("orders"));
+        assertEquals(created + 1, CountingStateFilter.getCreated());
+        assertEquals(disposed + 1, CountingStateFilter.getDisposed());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reloadForwards() throws Exception {
+        File config = config(pipeline("orders", null,
+                                      processor("count", CountingStateFilter.class.getName(),
+                                                null)));
+        PipelineLoader loader = new PipelineLoader();
+        load(loader, config);
+        available(loader, "orders");
+        // Pipeline instance held by the caller across the reload.
+        BasicPipeline<DemoEntity> orders =
+                (BasicPipeline<DemoEntity>) loader.<DemoEntity>getPipeline("orders");
+
+        reload(loader, config);
+        available(loader, "orders");
+        awaitState(orders, EProcessState.Disposed);
+        ProcessorResponse<DemoEntity> response =
+                orders.execute(DemoEntityFactory.create(1), (String) null, null);
+        assertNotEquals(EProcessorResponse.UnhandledError, response.getState());
+        assertEquals(EProcessState.Disposed, orders.getState());
+        assertEquals(0, orders.getInFlight());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reloadForwardsWhileDraining() throws Exception {
+        File config = config(pipeline("orders", null,
+                                      processor("count", CountingStateFilter.class.getName(),
+                                                null)));
+        PipelineLoader loader = new PipelineLoader().setDrainTimeout(10000);
+        load(loader, config);
+        available(loader, "orders");
+        BasicPipeline<DemoEntity> orders =
+                (BasicPipeline<DemoEntity>) loader.<DemoEntity>getPipeline("orders");
+        // Execution running on the replaced pipeline.
+        orders.inFlight.increment();
+
+        reload(loader, config);
+        available(loader, "orders");
+        // Stopped before the drain, new executions go to the new pipeline.
+        awaitState(orders, EProcessState.Disposing);
+        ProcessorResponse<DemoEntity> response =
+                orders.execute(DemoEntityFactory.create(1), (String) null, null);
+        assertNotEquals(EProcessorResponse.UnhandledError, response.getState());
+        assertEquals(1, orders.getInFlight());
 
-}
\ No newline at end of file
+        orders.inFlight.decrement();
+        awaitState(orders, EProcessState.Disposed);
+    }
+}
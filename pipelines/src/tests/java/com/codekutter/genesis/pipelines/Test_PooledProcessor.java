@@ -0,0 +1,143 @@
+package com.codekutter.genesis.pipelines;
+
+import com.codekutter.genesis.pipelines.processors.DemoEntity;
+import com.codekutter.genesis.pipelines.processors.DemoEntityFactory;
+import com.codekutter.genesis.pipelines.processors.ScriptedProcessor;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_PooledProcessor {
+    /**
+     * Processor keeping per-call state, flags executions that saw the
+     * state of a concurrent call on the same instance.
+     */
+    private static ScriptedProcessor<DemoEntity> unsafe(AtomicBoolean shared) {
+        AtomicReference<DemoEntity> current = new AtomicReference<>();
+        return new ScriptedProcessor<>("unsafe", DemoEntity.class).withAction((data) -> {
+            current.set(data);
+            Thread.yield();
+            if (current.get() != data) {
+                shared.set(true);
+            }
+        });
+    }
+
+    @Test
+    void leasePerExecution() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        AtomicBoolean shared = new AtomicBoolean();
+        InstancePool<BasicProcessor<DemoEntity>> pool =
+                new InstancePool<>("unsafe", 2, 1000, () -> {
+                    created.incrementAndGet();
+                    return unsafe(shared);
+                });
+        PooledBasicProcessor<DemoEntity> processor = new PooledBasicProcessor<>(pool);
+        assertEquals(1, created.get());
+        assertEquals(EProcessState.Available, processor.getState());
+
+        int threads = 8;
+        int runs = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int ii = 0; ii < threads; ii++) {
+                futures.add(executor.submit(() -> {
+                    for (int jj = 0; jj < runs; jj++) {
+                        ProcessorResponse<DemoEntity> response = processor.execute(
+                                DemoEntityFactory.create(1), (String) null, null);
+                        assertEquals(EProcessorResponse.OK, response.getState());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertFalse(shared.get());
+        assertTrue(created.get() <= 2);
+        assertEquals(pool.getCreated(), pool.getIdle());
+        assertEquals(threads * runs, pool.getLeases());
+
+        processor.dispose();
+        assertEquals(EProcessState.Disposed, processor.getState());
+        assertThrows(ProcessorException.class, () -> pool.lease(null));
+    }
+
+    @Test
+    void leaseTimeout() throws Exception {
+        InstancePool<BasicProcessor<DemoEntity>> pool =
+                new InstancePool<>("unsafe", 1, 10,
+                                   () -> unsafe(new AtomicBoolean()));
+        BasicProcessor<DemoEntity> leased = pool.lease(null);
+        assertThrows(ProcessorException.class, () -> pool.lease(null));
+        assertEquals(1, pool.getTimeouts());
+
+        PooledBasicProcessor<DemoEntity> processor = new PooledBasicProcessor<>(pool);
+        ProcessorResponse<DemoEntity> response =
+                processor.execute(DemoEntityFactory.create(1), (String) null, null);
+        assertEquals(EProcessorResponse.UnhandledError, response.getState());
+
+        pool.release(leased);
+        response = processor.execute(DemoEntityFactory.create(1), (String) null, null);
+        assertEquals(EProcessorResponse.OK, response.getState());
+    }
+
+    @Test
+    void leaseInterrupted() throws Exception {
+        InstancePool<BasicProcessor<DemoEntity>> pool =
+                new InstancePool<>("unsafe", 1, 10000,
+                                   () -> unsafe(new AtomicBoolean()));
+        BasicProcessor<DemoEntity> leased = pool.lease(null);
+        Thread.currentThread().interrupt();
+        try {
+            ProcessorException error =
+                    assertThrows(ProcessorException.class, () -> pool.lease(null));
+            assertTrue(error.getMessage().contains("Interrupted"));
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+        assertEquals(1, pool.getInterrupts());
+        assertEquals(0, pool.getTimeouts());
+        pool.release(leased);
+    }
+
+    @Test
+    void prestart() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        InstancePool<BasicProcessor<DemoEntity>> pool =
+                new InstancePool<>("unsafe", 4, 1000, () -> {
+                    created.incrementAndGet();
+                    return unsafe(new AtomicBoolean());
+                });
+        assertEquals(3, pool.prestart());
+        assertEquals(4, created.get());
+        assertEquals(4, pool.getIdle());
+        assertEquals(0, pool.prestart());
+
+        // Leases up to the pool size don't create instances.
+        List<BasicProcessor<DemoEntity>> leased = new ArrayList<>();
+        for (int ii = 0; ii < 4; ii++) {
+            leased.add(pool.lease(null));
+        }
+        assertEquals(4, created.get());
+        assertEquals(0, pool.getWaits());
+        for (BasicProcessor<DemoEntity> instance : leased) {
+            pool.release(instance);
+        }
+        pool.dispose();
+    }
+}
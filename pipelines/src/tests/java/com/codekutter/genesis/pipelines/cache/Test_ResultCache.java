@@ -0,0 +1,79 @@
+package com.codekutter.genesis.pipelines.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_ResultCache {
+
+    @Test
+    void bounded() {
+        ResultCache<Integer, String> cache = new ResultCache<>(100, 0, TimeUnit.MILLISECONDS);
+        for (int ii = 0; ii < 1000; ii++) {
+            cache.put(ii, "value-" + ii);
+        }
+        assertEquals(100, cache.size());
+        CacheStats stats = cache.getStats();
+        assertEquals(900, stats.getEvictions());
+        assertEquals(100, stats.getWeight());
+    }
+
+    @Test
+    void keepsFrequent() {
+        ResultCache<Integer, String> cache = new ResultCache<>(100, 0, TimeUnit.MILLISECONDS);
+        // Hot entries, accessed repeatedly.
+        for (int round = 0; round < 5; round++) {
+            for (int ii = 0; ii < 50; ii++) {
+                if (cache.get(ii) == null) {
+                    cache.put(ii, "hot-" + ii);
+                }
+            }
+        }
+        // Scan of one-off entries.
+        for (int ii = 1000; ii < 11000; ii++) {
+            cache.put(ii, "scan-" + ii);
+        }
+        int retained = 0;
+        for (int ii = 0; ii < 50; ii++) {
+            if (cache.get(ii) != null) {
+                retained++;
+            }
+        }
+        assertTrue(retained >= 45, String.format("Retained [%d] hot entries", retained));
+        assertTrue(cache.size() <= 100);
+    }
+
+    @Test
+    void expires() throws Exception {
+        ResultCache<String, String> cache = new ResultCache<>(10, 20, TimeUnit.MILLISECONDS);
+        cache.put("key", "value");
+        assertEquals("value", cache.get("key"));
+        Thread.sleep(40);
+        assertNull(cache.get("key"));
+        CacheStats stats = cache.getStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getExpirations());
+        assertEquals(0.5, stats.getHitRate(), 0.001);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void weighted() {
+        ResultCache<Integer, String> cache =
+                new ResultCache<>(100, String::length, 0, TimeUnit.MILLISECONDS);
+        cache.put(1, new String(new char[200]));
+        assertNull(cache.get(1));
+        for (int ii = 0; ii < 50; ii++) {
+            cache.put(ii, "0123456789");
+        }
+        assertTrue(cache.getStats().getWeight() <= 100);
+        assertTrue(cache.size() <= 10);
+
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getStats().getWeight());
+    }
+}
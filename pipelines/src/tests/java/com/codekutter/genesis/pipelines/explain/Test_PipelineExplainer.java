@@ -0,0 +1,63 @@
+package com.codekutter.genesis.pipelines.explain;
+
+import com.codekutter.genesis.pipelines.processors.DemoEntity;
+import com.codekutter.genesis.pipelines.processors.DemoExceptionProcessor;
+import com.codekutter.genesis.pipelines.processors.EntityDecoratorPipeline;
+import com.codekutter.genesis.pipelines.processors.EntityFilterPipeline;
+import com.codekutter.genesis.pipelines.processors.EntityNameProcessor;
+import com.codekutter.genesis.pipelines.processors.EntityStateFilter;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_PipelineExplainer {
+
+    @Test
+    void explain() {
+        EntityDecoratorPipeline names = new EntityDecoratorPipeline();
+        names.setName("decorator");
+        names.setType(DemoEntity.class);
+        EntityNameProcessor processor = new EntityNameProcessor();
+        processor.setName("names");
+        names.addProcessor(processor, null);
+
+        EntityFilterPipeline pipeline = new EntityFilterPipeline();
+        pipeline.setName("explain-test");
+        pipeline.setType(DemoEntity.class);
+        EntityStateFilter filter = new EntityStateFilter();
+        filter.setName("state");
+        pipeline.addProcessor(filter, "active = 'Deleted' OR name = 'name'");
+        pipeline.addProcessor(names, null);
+        DemoExceptionProcessor handler = new DemoExceptionProcessor();
+        handler.setType(DemoEntity.class);
+        pipeline.addErrorHandler(handler);
+
+        PlanNode plan = PipelineExplainer.explain(pipeline, false);
+        assertEquals("explain-test", plan.getName());
+        assertEquals(PipelineExplainer.MODE_ENTITY, plan.getMode());
+        assertEquals(2, plan.getStages().size());
+        assertEquals(1, plan.getErrorHandlers().size());
+
+        PlanNode state = plan.getStages().get(0);
+        assertEquals(1, state.getPosition());
+        assertEquals(Arrays.asList("active", "name"), state.getAttributes());
+        assertEquals(PipelineExplainer.INDEX_NONE, state.getIndex());
+        assertEquals(-1, state.getCalls());
+
+        PlanNode ref = plan.getStages().get(1);
+        assertTrue(ref.isReference());
+        assertTrue(ref.isPipeline());
+        assertNull(ref.getCondition());
+        assertEquals(1, ref.getStages().size());
+        assertEquals("names", ref.getStages().get(0).getName());
+
+        plan = PipelineExplainer.explain(pipeline, true);
+        assertEquals(0, plan.getStages().get(0).getCalls());
+        String text = PipelineExplainer.format(plan);
+        assertTrue(text.contains("1. state [EntityStateFilter<DemoEntity>]"));
+        assertTrue(text.contains("2. decorator [EntityDecoratorPipeline<DemoEntity>] (reference)"));
+        assertTrue(text.contains("on error: DemoExceptionProcessor"));
+    }
+}
@@ -0,0 +1,60 @@
+package com.codekutter.genesis.pipelines.extensions.batch;
+
+import com.codekutter.genesis.pipelines.Context;
+import com.codekutter.genesis.pipelines.extensions.DataServiceException;
+import com.codekutter.genesis.pipelines.extensions.IDataConsumer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveBatchConsumerTest {
+    private static class RecordingConsumer implements IDataConsumer<Integer, String> {
+        private final List<Integer> batches = new ArrayList<>();
+
+        @Override
+        public Integer process(Integer data, String operation, Context context) {
+            return data;
+        }
+
+        @Override
+        public List<Integer> process(List<Integer> dataSet, String operation,
+                                     Context context) {
+            batches.add(dataSet.size());
+            return new ArrayList<>(dataSet);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    @Test
+    void batches() throws DataServiceException {
+        BatchSizeController controller = new BatchSizeController();
+        controller.setInitialSize(2);
+        controller.setMinSize(2);
+        controller.setMaxSize(2);
+        RecordingConsumer consumer = new RecordingConsumer();
+
+        List<Integer> result = AdaptiveBatchConsumer.process(
+                consumer, controller, Arrays.asList(1, 2, 3, 4, 5), "op", null);
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), result);
+        assertEquals(Arrays.asList(2, 2, 1), consumer.batches);
+    }
+
+    @Test
+    void emptyDataSet() throws DataServiceException {
+        RecordingConsumer consumer = new RecordingConsumer();
+        List<Integer> data = Collections.emptyList();
+
+        List<Integer> result = AdaptiveBatchConsumer.process(
+                consumer, new BatchSizeController(), data, "op", null);
+        assertSame(data, result);
+        assertTrue(consumer.batches.isEmpty());
+    }
+}
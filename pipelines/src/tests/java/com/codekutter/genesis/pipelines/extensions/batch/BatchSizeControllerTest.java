@@ -0,0 +1,63 @@
+package com.codekutter.genesis.pipelines.extensions.batch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchSizeControllerTest {
+
+    @Test
+    void increase() {
+        BatchSizeController controller = new BatchSizeController();
+        controller.setInitialSize(100);
+        controller.setIncreaseStep(10);
+        controller.setTargetLatency(100);
+
+        int size = controller.getBatchSize();
+        assertEquals(100, size);
+        controller.record(size, TimeUnit.MILLISECONDS.toNanos(10));
+        assertEquals(110, controller.getBatchSize());
+
+        // Partial batch should not grow the batch size.
+        controller.record(50, TimeUnit.MILLISECONDS.toNanos(10));
+        assertEquals(110, controller.getBatchSize());
+
+        BatchStats stats = controller.getStats();
+        assertEquals(2, stats.getBatches());
+        assertEquals(1, stats.getIncreases());
+        assertEquals(50, stats.getLastRecords());
+    }
+
+    @Test
+    void decrease() {
+        BatchSizeController controller = new BatchSizeController();
+        controller.setInitialSize(1000);
+        controller.setMinSize(200);
+        controller.setTargetLatency(100);
+
+        int size = controller.getBatchSize();
+        controller.record(size, TimeUnit.MILLISECONDS.toNanos(500));
+        assertEquals(500, controller.getBatchSize());
+        controller.record(500, TimeUnit.MILLISECONDS.toNanos(500));
+        assertEquals(250, controller.getBatchSize());
+        controller.record(250, TimeUnit.MILLISECONDS.toNanos(500));
+        assertEquals(200, controller.getBatchSize());
+
+        BatchStats stats = controller.getStats();
+        assertEquals(3, stats.getDecreases());
+        assertEquals(500.0, stats.getLastLatency(), 0.001);
+    }
+
+    @Test
+    void clampOnUpdate() {
+        BatchSizeController controller = new BatchSizeController();
+        controller.setInitialSize(1000);
+        assertEquals(1000, controller.getBatchSize());
+        controller.setMaxSize(500);
+        assertEquals(500, controller.getBatchSize());
+        controller.setMinSize(800);
+        assertEquals(800, controller.getBatchSize());
+    }
+}
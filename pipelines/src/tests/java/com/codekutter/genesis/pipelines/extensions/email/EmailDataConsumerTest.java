@@ -0,0 +1,82 @@
+package com.codekutter.genesis.pipelines.extensions.email;
+
+import com.codekutter.genesis.pipelines.extensions.EEmailOperations;
+import com.codekutter.zconfig.common.LogUtils;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javax.mail.Flags;
+import javax.mail.Message;
+import javax.mail.Session;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailDataConsumerTest {
+    private static final int MESSAGES = 10;
+    private static final long WAIT_TIMEOUT = 5000;
+
+    private static EmailTestServer server = new EmailTestServer();
+    private static EmailDataProducer dataProducer;
+    private static EmailDataConsumer dataConsumer;
+
+    @BeforeAll
+    public static void init() throws Exception {
+        server.start();
+        server.seed(MESSAGES, MESSAGES);
+        dataProducer = server.createProducer();
+        dataConsumer = server.createConsumer();
+        dataConsumer.setProducer(dataProducer);
+    }
+
+    @AfterAll
+    public static void dispose() throws Exception {
+        dataConsumer.close();
+        dataProducer.close();
+        server.stop();
+    }
+
+    @Test
+    void send() {
+        try {
+            String subject = "outbound-message";
+            Message message = EmailTestServer.createMessage(
+                    Session.getInstance(new Properties()),
+                    EmailTestServer.ADDRESS, subject);
+            Message result = dataConsumer.process(message, EEmailOperations.Send,
+                                                  null);
+            assertNotNull(result);
+            assertTrue(server.waitForMessages(WAIT_TIMEOUT, MESSAGES + 1));
+            assertNotNull(server.find(subject));
+
+            Map<String, Long> counts = dataConsumer.getOperationCounts();
+            assertTrue(counts.get(EEmailOperations.Send.name()) > 0);
+        } catch (Exception ex) {
+            LogUtils.error(getClass(), ex);
+            fail(ex.getLocalizedMessage());
+        }
+    }
+
+    @Test
+    void markAsRead() {
+        try {
+            String subject = EmailTestServer.subject(1);
+            List<Message> messages = dataProducer.fetch(
+                    String.format("subject == \"%s\"", subject), null);
+            assertNotNull(messages);
+            assertEquals(1, messages.size());
+
+            List<Message> result = dataConsumer.process(messages,
+                                                        EEmailOperations.MarkAsRead,
+                                                        null);
+            assertEquals(1, result.size());
+            assertTrue(server.isSet(subject, Flags.Flag.SEEN));
+        } catch (Exception ex) {
+            LogUtils.error(getClass(), ex);
+            fail(ex.getLocalizedMessage());
+        }
+    }
+}
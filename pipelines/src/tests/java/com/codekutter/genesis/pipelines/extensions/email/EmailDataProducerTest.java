@@ -1,9 +1,13 @@
 package com.codekutter.genesis.pipelines.extensions.email;
+import com.codekutter.genesis.pipelines.Context;
+import com.codekutter.genesis.pipelines.extensions.batch.AdaptiveBatchProducer;
 import com.codekutter.zconfig.common.LogUtils;
 import com.google.common.base.Strings;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import javax.mail.Flags;
 import javax.mail.Message;
 import javax.mail.Multipart;
 import java.io.InputStream;
@@ -11,24 +15,28 @@ import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class EmailDataProducerTest {
-    private static final String EMAIL_SERVER = "imap.gmail.com";
-    private static final int EMAIL_SERVER_PORT = 993;
-    private static final String USERNAME = "demo.codekutter@gmail.com";
-    private static final String PASSWORD = "wh0c@res";
+    private static final int MESSAGES = 100;
+    private static final int UNREAD = 10;
 
-    private static EmailDataProducer dataProducer = new EmailDataProducer();
+    private static EmailTestServer server = new EmailTestServer();
+    private static EmailDataProducer dataProducer;
 
     @BeforeAll
     public static void init() throws Exception {
-        dataProducer.setServer(EMAIL_SERVER);
-        dataProducer.setPort(EMAIL_SERVER_PORT);
-        dataProducer.setUseSSL(true);
-        dataProducer.setUsername(USERNAME);
-        dataProducer.setPassword(PASSWORD);
+        server.start();
+        server.seed(MESSAGES, UNREAD);
+        dataProducer = server.createProducer();
+    }
+
+    @AfterAll
+    public static void dispose() throws Exception {
+        dataProducer.close();
+        server.stop();
     }
 
     @Test
@@ -41,10 +49,12 @@ class EmailDataProducerTest {
                     String.format(
                             "receivedDate between {\"%s\", \"%s\"}",
                             fmt.format(new Date(0)),
-                            fmt.format(new Date()));
+                            fmt.format(new Date(System.currentTimeMillis() +
+                                                        TimeUnit.DAYS.toMillis(1))));
 
             List<Message> messages = dataProducer.fetch(query, null);
             assertNotNull(messages);
+            assertFalse(messages.isEmpty());
             for (Message message : messages) {
                 String mid = EmailDataProducer.getMessageId(message);
                 assertFalse(Strings.isNullOrEmpty(mid));
@@ -79,9 +89,40 @@ class EmailDataProducerTest {
     }
 
     @Test
-    void delete() {
+    void fetchUnread() {
         try {
+            List<Message> messages = dataProducer.fetch(null, null);
+            assertNotNull(messages);
+            boolean found = false;
+            Date last = null;
+            for (Message message : messages) {
+                assertFalse(message.isSet(Flags.Flag.SEEN));
+                if (last != null) {
+                    assertFalse(message.getSentDate().after(last));
+                }
+                last = message.getSentDate();
+                if (EmailTestServer.subject(0).equals(message.getSubject())) {
+                    found = true;
+                }
+            }
+            assertTrue(found);
+        } catch (Exception ex) {
+            LogUtils.error(getClass(), ex);
+            fail(ex.getLocalizedMessage());
+        }
+    }
 
+    @Test
+    void fetchBatchSize() {
+        try {
+            Context context = new Context();
+            context.addParameter(AdaptiveBatchProducer.CONTEXT_KEY_BATCH_SIZE, 3);
+            List<Message> messages = dataProducer.fetch(null, context);
+            assertNotNull(messages);
+            assertEquals(3, messages.size());
+            for (Message message : messages) {
+                assertFalse(message.isSet(Flags.Flag.SEEN));
+            }
         } catch (Exception ex) {
             LogUtils.error(getClass(), ex);
             fail(ex.getLocalizedMessage());
@@ -89,9 +130,17 @@ class EmailDataProducerTest {
     }
 
     @Test
-    void markAsRead() {
+    void search() {
         try {
+            String subject = EmailTestServer.subject(42);
+            List<Message> messages = dataProducer.fetch(
+                    String.format("subject == \"%s\"", subject), null);
+            assertNotNull(messages);
+            assertEquals(1, messages.size());
+            assertEquals(subject, messages.get(0).getSubject());
 
+            messages = dataProducer.fetch("subject == \"missing\"", null);
+            assertNull(messages);
         } catch (Exception ex) {
             LogUtils.error(getClass(), ex);
             fail(ex.getLocalizedMessage());
@@ -99,9 +148,24 @@ class EmailDataProducerTest {
     }
 
     @Test
-    void markAsUnRead() {
+    void delete() {
         try {
+            String subject = EmailTestServer.subject(50);
+            dataProducer.delete(find(subject));
+            assertTrue(server.isSet(subject, Flags.Flag.DELETED));
+        } catch (Exception ex) {
+            LogUtils.error(getClass(), ex);
+            fail(ex.getLocalizedMessage());
+        }
+    }
 
+    @Test
+    void markAsRead() {
+        try {
+            String subject = EmailTestServer.subject(UNREAD - 1);
+            assertFalse(server.isSet(subject, Flags.Flag.SEEN));
+            dataProducer.markAsRead(find(subject));
+            assertTrue(server.isSet(subject, Flags.Flag.SEEN));
         } catch (Exception ex) {
             LogUtils.error(getClass(), ex);
             fail(ex.getLocalizedMessage());
@@ -109,12 +173,35 @@ class EmailDataProducerTest {
     }
 
     @Test
-    void answered() {
+    void markAsUnRead() {
         try {
+            String subject = EmailTestServer.subject(60);
+            assertTrue(server.isSet(subject, Flags.Flag.SEEN));
+            dataProducer.markAsUnRead(find(subject));
+            assertFalse(server.isSet(subject, Flags.Flag.SEEN));
+        } catch (Exception ex) {
+            LogUtils.error(getClass(), ex);
+            fail(ex.getLocalizedMessage());
+        }
+    }
 
+    @Test
+    void answered() {
+        try {
+            String subject = EmailTestServer.subject(70);
+            dataProducer.answered(find(subject));
+            assertTrue(server.isSet(subject, Flags.Flag.ANSWERED));
         } catch (Exception ex) {
             LogUtils.error(getClass(), ex);
             fail(ex.getLocalizedMessage());
         }
     }
-}
\ No newline at end of file
+
+    private Message find(String subject) throws Exception {
+        List<Message> messages = dataProducer.fetch(
+                String.format("subject == \"%s\"", subject), null);
+        assertNotNull(messages);
+        assertEquals(1, messages.size());
+        return messages.get(0);
+    }
+}
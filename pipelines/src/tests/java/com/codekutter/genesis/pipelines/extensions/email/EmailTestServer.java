@@ -0,0 +1,173 @@
+package com.codekutter.genesis.pipelines.extensions.email;
+
+import com.icegreen.greenmail.store.FolderException;
+import com.icegreen.greenmail.store.MailFolder;
+import com.icegreen.greenmail.store.StoredMessage;
+import com.icegreen.greenmail.user.GreenMailUser;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import javax.mail.Flags;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+import java.util.Date;
+import java.util.Properties;
+
+/**
+ * Embedded IMAP/SMTP server (GreenMail) used to run the email
+ * extension tests without a real mail server.
+ */
+class EmailTestServer {
+    static final String SERVER = "localhost";
+    static final String USERNAME = "demo";
+    static final String PASSWORD = "demo-secret";
+    static final String ADDRESS = "demo@localhost";
+    static final String SENDER = "sender@localhost";
+
+    private final GreenMail greenMail = new GreenMail(ServerSetupTest.SMTP_IMAP);
+    private GreenMailUser user;
+
+    /**
+     * Start the server and create the test user.
+     */
+    void start() {
+        greenMail.start();
+        user = greenMail.setUser(ADDRESS, USERNAME, PASSWORD);
+    }
+
+    /**
+     * Stop the server.
+     */
+    void stop() {
+        greenMail.stop();
+    }
+
+    /**
+     * Seed the inbox of the test user. Messages are numbered from the
+     * oldest, the first unread messages are not flagged as seen.
+     *
+     * @param count  - Number of messages.
+     * @param unread - Number of unread messages.
+     * @throws Exception
+     */
+    void seed(int count, int unread) throws Exception {
+        MailFolder inbox = inbox();
+        Session session = Session.getInstance(new Properties());
+        long now = System.currentTimeMillis();
+        for (int ii = 0; ii < count; ii++) {
+            Date date = new Date(now - (count - ii) * 1000L);
+            MimeMessage message = createMessage(session, ADDRESS, subject(ii));
+            message.setSentDate(date);
+            Flags flags = (ii < unread ? new Flags() : new Flags(Flags.Flag.SEEN));
+            inbox.appendMessage(message, flags, date);
+        }
+    }
+
+    /**
+     * Get the subject of the seeded message at the index.
+     *
+     * @param index - Message index.
+     * @return - Message subject.
+     */
+    static String subject(int index) {
+        return String.format("message-%07d", index);
+    }
+
+    /**
+     * Create a plain text message.
+     *
+     * @param session   - Mail session.
+     * @param recipient - Recipient address.
+     * @param subject   - Message subject.
+     * @return - Created message.
+     * @throws MessagingException
+     */
+    static MimeMessage createMessage(Session session, String recipient,
+                                     String subject) throws MessagingException {
+        MimeMessage message = new MimeMessage(session);
+        message.setFrom(new InternetAddress(SENDER));
+        message.setRecipient(Message.RecipientType.TO,
+                             new InternetAddress(recipient));
+        message.setSubject(subject);
+        message.setSentDate(new Date());
+        message.setText(String.format("Body of %s", subject));
+        message.saveChanges();
+        return message;
+    }
+
+    /**
+     * Create a producer connected to this server.
+     *
+     * @return - Email data producer.
+     */
+    EmailDataProducer createProducer() {
+        EmailDataProducer producer = new EmailDataProducer();
+        producer.setServer(SERVER);
+        producer.setPort(greenMail.getImap().getPort());
+        producer.setUseSSL(false);
+        producer.setUsername(USERNAME);
+        producer.setPassword(PASSWORD);
+        return producer;
+    }
+
+    /**
+     * Create a consumer sending to this server.
+     *
+     * @return - Email data consumer.
+     */
+    EmailDataConsumer createConsumer() {
+        EmailDataConsumer consumer = new EmailDataConsumer();
+        consumer.setServer(SERVER);
+        consumer.setPort(greenMail.getSmtp().getPort());
+        consumer.setUsername(USERNAME);
+        consumer.setPassword(PASSWORD);
+        return consumer;
+    }
+
+    /**
+     * Wait for the server to hold the expected number of messages.
+     *
+     * @param timeout - Timeout (in milliseconds).
+     * @param count   - Expected message count.
+     * @return - Messages received?
+     */
+    boolean waitForMessages(long timeout, int count) {
+        return greenMail.waitForIncomingEmail(timeout, count);
+    }
+
+    /**
+     * Find a message in the inbox of the test user.
+     *
+     * @param subject - Message subject.
+     * @return - Stored message, NULL if not found.
+     * @throws Exception
+     */
+    StoredMessage find(String subject) throws Exception {
+        for (StoredMessage message : inbox().getMessages()) {
+            if (subject.equals(message.getMimeMessage().getSubject())) {
+                return message;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Check if the flag is set on the stored message.
+     *
+     * @param subject - Message subject.
+     * @param flag    - Flag to check.
+     * @return - Is set?
+     * @throws Exception
+     */
+    boolean isSet(String subject, Flags.Flag flag) throws Exception {
+        StoredMessage message = find(subject);
+        return (message != null && message.isSet(flag));
+    }
+
+    private MailFolder inbox() throws FolderException {
+        return greenMail.getManagers().getImapHostManager().getInbox(user);
+    }
+}
@@ -0,0 +1,91 @@
+package com.codekutter.genesis.pipelines.extensions.resilience;
+
+import com.codekutter.genesis.pipelines.extensions.DataServiceException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private ResilienceConfig config() {
+        ResilienceConfig config = new ResilienceConfig();
+        config.setMinimumCalls(4);
+        config.setFailureRateThreshold(50);
+        config.setOpenDuration(100);
+        config.setMaxRetries(2);
+        config.setInitialBackoff(1);
+        config.setMaxBackoff(5);
+        return config;
+    }
+
+    @Test
+    void openAndRecover() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker("test", config());
+        breaker.onSuccess();
+        breaker.onSuccess();
+        breaker.onFailure();
+        assertEquals(ECircuitState.Closed, breaker.getState());
+        breaker.onFailure();
+        assertEquals(ECircuitState.Open, breaker.getState());
+        assertFalse(breaker.allowRequest());
+
+        Thread.sleep(150);
+        assertTrue(breaker.allowRequest());
+        assertEquals(ECircuitState.HalfOpen, breaker.getState());
+        // Only one trial call allowed.
+        assertFalse(breaker.allowRequest());
+        breaker.onSuccess();
+        assertEquals(ECircuitState.Closed, breaker.getState());
+
+        CircuitStats stats = breaker.getStats();
+        assertEquals(1, stats.getOpened());
+        assertEquals(1, stats.getHalfOpened());
+        assertEquals(1, stats.getClosed());
+        assertEquals(2, stats.getRejected());
+    }
+
+    @Test
+    void retryTransient() throws Exception {
+        ResilienceHandler handler = new ResilienceHandler("test", config());
+        AtomicInteger calls = new AtomicInteger();
+        String result = handler.execute(() -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new DataServiceException(new IOException("timeout"));
+            }
+            return "done";
+        }, null);
+        assertEquals("done", result);
+        assertEquals(3, calls.get());
+        assertEquals(2, handler.getBreaker().getStats().getRetries());
+
+        calls.set(0);
+        assertThrows(DataServiceException.class, () -> handler.execute(() -> {
+            calls.incrementAndGet();
+            throw new DataServiceException("invalid query");
+        }, null));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void halfOpenFailure() throws Exception {
+        ResilienceHandler handler = new ResilienceHandler("test", config());
+        CircuitBreaker breaker = handler.getBreaker();
+        for (int ii = 0; ii < 4; ii++) {
+            breaker.onFailure();
+        }
+        assertEquals(ECircuitState.Open, breaker.getState());
+        assertThrows(CircuitOpenException.class,
+                     () -> handler.execute(() -> "done", null));
+
+        Thread.sleep(150);
+        DataServiceException ex = assertThrows(DataServiceException.class,
+                                               () -> handler.execute(() -> {
+            throw new DataServiceException(new IOException("timeout"));
+        }, null));
+        assertFalse(ex instanceof CircuitOpenException);
+        assertEquals(ECircuitState.Open, breaker.getState());
+    }
+}
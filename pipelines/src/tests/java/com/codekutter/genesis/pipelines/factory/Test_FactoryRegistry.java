@@ -0,0 +1,29 @@
+package com.codekutter.genesis.pipelines.factory;
+
+import com.codekutter.genesis.pipelines.processors.DemoEntity;
+import com.codekutter.genesis.pipelines.processors.EntityStateFilter;
+import com.codekutter.genesis.pipelines.snapshot.DefinitionNode;
+import com.codekutter.genesis.pipelines.snapshot.SnapshotBinder;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_FactoryRegistry {
+
+    @Test
+    void generated() throws Exception {
+        FactoryRegistry registry = FactoryRegistry.get();
+        assertSame(EntityStateFilter.class,
+                   registry.getType(EntityStateFilter.class.getName()));
+        assertNotNull(registry.getFactory(EntityStateFilter.class));
+        assertNotNull(registry.getBinder(EntityStateFilter.class));
+        assertNull(registry.getType("com.codekutter.genesis.pipelines.Missing"));
+
+        DefinitionNode node = new DefinitionNode("processor")
+                .setAttribute("name", "filter")
+                .setAttribute("type", DemoEntity.class.getCanonicalName());
+        EntityStateFilter filter = SnapshotBinder.bind(EntityStateFilter.class, node);
+        assertEquals("filter", filter.getName());
+        assertSame(DemoEntity.class, filter.getType());
+    }
+}
@@ -0,0 +1,228 @@
+package com.codekutter.genesis.pipelines.incremental;
+
+import com.codekutter.genesis.pipelines.CollectionProcessor;
+import com.codekutter.genesis.pipelines.CollectionProcessorResponse;
+import com.codekutter.genesis.pipelines.Context;
+import com.codekutter.genesis.pipelines.EProcessState;
+import com.codekutter.genesis.pipelines.EProcessorResponse;
+import com.codekutter.genesis.pipelines.extensions.IDataProducer;
+import com.codekutter.genesis.pipelines.extensions.batch.BatchSizeController;
+import com.codekutter.genesis.pipelines.types.CollectionDataProducer;
+import com.codekutter.genesis.pipelines.types.Entity;
+import com.codekutter.zconfig.common.model.nodes.AbstractConfigNode;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_FingerprintStore {
+    private static class Row implements Entity<Integer> {
+        private final int id;
+        private String name;
+        private long amount;
+
+        private Row(int id, String name, long amount) {
+            this.id = id;
+            this.name = name;
+            this.amount = amount;
+        }
+
+        @Override
+        public Integer getKey() {
+            return id;
+        }
+    }
+
+    private static class RowProducer extends CollectionDataProducer<Row> {
+        private final List<Row> rows = new ArrayList<>();
+        private final List<Integer> processed = new ArrayList<>();
+        /**
+         * Batches containing this row end with an expired deadline.
+         */
+        private Integer expire;
+
+        private RowProducer() {
+            setName("rows");
+            setType(Row.class);
+            producer = new IDataProducer<Row>() {
+                @Override
+                public List<Row> fetch(String query, Context context) {
+                    return new ArrayList<>(rows);
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+            addProcessor(new CollectionProcessor<Row>() {
+                {
+                    setName("record");
+                    state.setState(EProcessState.Available);
+                }
+
+                @Override
+                protected CollectionProcessorResponse<Row> execute(
+                        @Nonnull List<Row> data, Context context,
+                        @Nonnull CollectionProcessorResponse<Row> response) {
+                    boolean expired = false;
+                    for (Row row : data) {
+                        processed.add(row.id);
+                        expired |= (expire != null && expire == row.id);
+                    }
+                    response.setData(data);
+                    response.setState(expired ? EProcessorResponse.DeadlineExceeded
+                                              : EProcessorResponse.OK);
+                    return response;
+                }
+
+                @Override
+                public void init(AbstractConfigNode node) {
+                }
+            }, null);
+            state.setState(EProcessState.Available);
+        }
+
+        private RowProducer withBatching(int size) {
+            batching = new BatchSizeController();
+            batching.setMinSize(1);
+            batching.setInitialSize(size);
+            batching.setIncreaseStep(0);
+            return this;
+        }
+    }
+
+    @Test
+    void persists() throws Exception {
+        File file = new File(Files.createTempDirectory("fingerprints").toFile(),
+                             "rows.fps");
+        FingerprintStore store = FingerprintStore.open(file);
+        assertSame(store, FingerprintStore.open(file));
+        for (int ii = 0; ii < 100; ii++) {
+            store.put(ii, ii * 31L);
+        }
+        store.put(5, 1L);
+        store.close();
+        store.close();
+
+        store = FingerprintStore.open(file);
+        try {
+            assertEquals(100, store.size());
+            assertFalse(store.isChanged(1, 31L));
+            assertFalse(store.isChanged(5, 1L));
+            assertTrue(store.isChanged(5, 155L));
+            assertTrue(store.isChanged(1000, 0L));
+            FingerprintStats stats = store.getStats();
+            assertEquals(101, stats.getRecords());
+            assertEquals(2, stats.getUnchanged());
+            assertEquals(2, stats.getChanged());
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    void keysByValue() throws Exception {
+        File file = new File(Files.createTempDirectory("fingerprints").toFile(),
+                             "rows.fps");
+        FingerprintStore store = FingerprintStore.open(file);
+        try {
+            store.put(new int[]{1, 2}, 7L);
+            store.put(Arrays.asList("a", 1L), 8L);
+            assertFalse(store.isChanged(new int[]{1, 2}, 7L));
+            assertTrue(store.isChanged(new int[]{2, 1}, 7L));
+            assertFalse(store.isChanged(Arrays.asList("a", 1), 8L));
+            assertEquals(2, store.size());
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    void compacts() throws Exception {
+        File file = new File(Files.createTempDirectory("fingerprints").toFile(),
+                             "rows.fps");
+        FingerprintStore store = FingerprintStore.open(file);
+        try {
+            for (int round = 0; round < 50; round++) {
+                for (int ii = 0; ii < 1000; ii++) {
+                    store.put(ii, round);
+                }
+            }
+            FingerprintStats stats = store.getStats();
+            assertEquals(1000, stats.getEntries());
+            assertTrue(stats.getCompactions() > 0);
+            assertTrue(stats.getRecords() < 8192);
+
+            store.compact();
+            assertEquals(1000, store.getStats().getRecords());
+            assertFalse(store.isChanged(10, 49));
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    void incremental() throws Exception {
+        File file = new File(Files.createTempDirectory("fingerprints").toFile(),
+                             "rows.fps");
+        RowProducer producer = new RowProducer();
+        producer.setIncremental(FingerprintStore.open(file),
+                                new Fingerprinter<>(Row.class));
+        for (int ii = 0; ii < 10; ii++) {
+            producer.rows.add(new Row(ii, "row-" + ii, ii));
+        }
+        producer.read(null, null);
+        assertEquals(10, producer.processed.size());
+
+        producer.processed.clear();
+        producer.rows.get(3).amount = 300;
+        producer.rows.add(new Row(10, "row-10", 10));
+        producer.read(null, null);
+        assertEquals(2, producer.processed.size());
+        assertTrue(producer.processed.contains(3));
+        assertTrue(producer.processed.contains(10));
+
+        producer.processed.clear();
+        producer.read(null, null);
+        assertTrue(producer.processed.isEmpty());
+        assertEquals(11, producer.getFingerprints().size());
+        producer.dispose();
+    }
+
+    @Test
+    void reprocessesNotOk() throws Exception {
+        File file = new File(Files.createTempDirectory("fingerprints").toFile(),
+                             "rows.fps");
+        RowProducer producer = new RowProducer().withBatching(4);
+        producer.setIncremental(FingerprintStore.open(file),
+                                new Fingerprinter<>(Row.class));
+        for (int ii = 0; ii < 10; ii++) {
+            producer.rows.add(new Row(ii, "row-" + ii, ii));
+        }
+        // Second batch (rows 4 - 7) ends with an expired deadline.
+        producer.expire = 5;
+        assertNull(producer.read(null, null));
+        assertEquals(8, producer.processed.size());
+        assertEquals(0, producer.getFingerprints().size());
+
+        // Nothing was committed, all the rows are processed again.
+        producer.expire = null;
+        producer.processed.clear();
+        List<Row> results = producer.read(null, null);
+        assertNotNull(results);
+        assertEquals(10, results.size());
+        assertEquals(10, producer.processed.size());
+
+        producer.processed.clear();
+        producer.read(null, null);
+        assertTrue(producer.processed.isEmpty());
+        assertEquals(10, producer.getFingerprints().size());
+        producer.dispose();
+    }
+}
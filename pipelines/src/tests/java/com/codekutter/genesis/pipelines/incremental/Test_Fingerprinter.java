@@ -0,0 +1,42 @@
+package com.codekutter.genesis.pipelines.incremental;
+
+import com.codekutter.genesis.pipelines.types.Entity;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_Fingerprinter {
+    private static class Row implements Entity<Integer> {
+        private final int id;
+        private String name;
+        private long amount;
+        private transient long touched;
+
+        private Row(int id, String name, long amount) {
+            this.id = id;
+            this.name = name;
+            this.amount = amount;
+        }
+
+        @Override
+        public Integer getKey() {
+            return id;
+        }
+    }
+
+    @Test
+    void fingerprint() throws Exception {
+        Fingerprinter<Row> all = new Fingerprinter<>(Row.class);
+        Fingerprinter<Row> names = new Fingerprinter<>(Row.class, "name");
+        assertArrayEquals(new String[]{"amount", "id", "name"}, all.getFields());
+
+        Row row = new Row(1, "first", 10);
+        long fingerprint = all.fingerprint(row);
+        long name = names.fingerprint(row);
+        row.touched = 100;
+        assertEquals(fingerprint, all.fingerprint(row));
+        row.amount = 20;
+        assertNotEquals(fingerprint, all.fingerprint(row));
+        assertEquals(name, names.fingerprint(row));
+    }
+}
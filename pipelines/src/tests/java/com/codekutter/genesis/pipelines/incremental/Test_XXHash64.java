@@ -0,0 +1,22 @@
+package com.codekutter.genesis.pipelines.incremental;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_XXHash64 {
+    @Test
+    void hash() {
+        assertEquals(0xEF46DB3751D8E999L, XXHash64.hash(new byte[0], 0));
+        assertEquals(0x44BC2CF5AD770999L,
+                     XXHash64.hash("abc".getBytes(StandardCharsets.UTF_8), 0));
+        byte[] data = new byte[100];
+        for (int ii = 0; ii < data.length; ii++) {
+            data[ii] = (byte) ii;
+        }
+        assertEquals(XXHash64.hash(data, 0), XXHash64.hash(data, 0, data.length, 0));
+        assertNotEquals(XXHash64.hash(data, 0, 99, 0), XXHash64.hash(data, 0));
+    }
+}
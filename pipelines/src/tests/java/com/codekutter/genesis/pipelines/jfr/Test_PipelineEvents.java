@@ -0,0 +1,61 @@
+package com.codekutter.genesis.pipelines.jfr;
+
+import com.codekutter.genesis.pipelines.EProcessorResponse;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_PipelineEvents {
+
+    @Test
+    void record() throws Exception {
+        assertTrue(PipelineEvents.isAvailable());
+        Path path = File.createTempFile("pipeline", ".jfr").toPath();
+        try (Recording recording = new Recording()) {
+            recording.enable(ProcessorExecutionEvent.class)
+                     .withThreshold(Duration.ofMillis(5));
+            recording.enable(DataServiceCallEvent.class)
+                     .withThreshold(Duration.ZERO);
+            recording.start();
+
+            // Below threshold, should not be recorded.
+            Object event = PipelineEvents.beginProcessor();
+            PipelineEvents.endProcessor(event, "pipeline", "fast", String.class,
+                                        EProcessorResponse.OK);
+            event = PipelineEvents.beginProcessor();
+            Thread.sleep(20);
+            PipelineEvents.endProcessor(event, "pipeline", "slow", String.class,
+                                        EProcessorResponse.OK);
+            event = PipelineEvents.beginDataCall();
+            PipelineEvents.endDataCall(event, getClass(), "fetch", 10, false);
+
+            recording.stop();
+            recording.dump(path);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(path);
+        int processors = 0;
+        int calls = 0;
+        for (RecordedEvent event : events) {
+            String name = event.getEventType().getName();
+            if (name.endsWith("ProcessorExecution")) {
+                processors++;
+                assertEquals("slow", event.getString("processor"));
+                assertEquals("OK", event.getString("state"));
+            } else if (name.endsWith("DataServiceCall")) {
+                calls++;
+                assertEquals(10, event.getInt("batchSize"));
+            }
+        }
+        assertEquals(1, processors);
+        assertEquals(1, calls);
+        path.toFile().delete();
+    }
+}
@@ -0,0 +1,45 @@
+package com.codekutter.genesis.pipelines.jmx;
+
+import com.codekutter.genesis.pipelines.processors.EntityFilterPipeline;
+import com.codekutter.genesis.pipelines.processors.EntityNameProcessor;
+import com.codekutter.genesis.pipelines.processors.EntityStateFilter;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_PipelineMBeans {
+
+    @Test
+    void register() throws Exception {
+        EntityFilterPipeline pipeline = new EntityFilterPipeline();
+        pipeline.setName("jmx-test");
+        EntityStateFilter filter = new EntityStateFilter();
+        filter.setName("state");
+        EntityNameProcessor names = new EntityNameProcessor();
+        names.setName("names");
+        pipeline.addProcessor(filter, null);
+        pipeline.addProcessor(names, null);
+
+        PipelineMBeans.register("jmx-test", pipeline);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = PipelineMBeans.pipelineName("jmx-test");
+        assertTrue(server.isRegistered(name));
+        assertArrayEquals(new String[]{"state", "names"},
+                          (String[]) server.getAttribute(name, "Processors"));
+        assertEquals(0L, server.getAttribute(name, "Executions"));
+        assertEquals(3, server.queryNames(
+                new ObjectName(PipelineMBeans.DOMAIN + ":*"), null).size());
+
+        server.invoke(name, "resetStats", null, null);
+        // Re-registering replaces the existing MBeans.
+        PipelineMBeans.register("jmx-test", pipeline);
+
+        PipelineMBeans.unregister("jmx-test");
+        assertTrue(server.queryNames(
+                new ObjectName(PipelineMBeans.DOMAIN + ":*"), null).isEmpty());
+    }
+}
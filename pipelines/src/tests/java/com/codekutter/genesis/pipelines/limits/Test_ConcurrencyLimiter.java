@@ -0,0 +1,84 @@
+package com.codekutter.genesis.pipelines.limits;
+
+import com.codekutter.genesis.pipelines.EProcessorResponse;
+import com.codekutter.genesis.pipelines.ProcessorResponse;
+import com.codekutter.genesis.pipelines.processors.DemoEntity;
+import com.codekutter.genesis.pipelines.processors.DemoEntityFactory;
+import com.codekutter.genesis.pipelines.processors.RecordingCollectionProcessor;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_ConcurrencyLimiter {
+
+    @Test
+    void failFast() {
+        ConcurrencyLimiter limiter =
+                ConcurrencyLimiter.create(ConcurrencyLimiter.LIMITER_SEMAPHORE,
+                                          2, 0, 1000);
+        assertTrue(limiter.acquire(null));
+        assertTrue(limiter.acquire(null));
+        assertFalse(limiter.acquire(null));
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(1, limiter.getRejected());
+
+        limiter.release(1000);
+        limiter.release(1000);
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(2, limiter.getPeakInFlight());
+        assertEquals(2, limiter.getAdmitted());
+    }
+
+    @Test
+    void queued() throws Exception {
+        ConcurrencyLimiter limiter = new SemaphoreLimiter(1, 1, 5000);
+        assertTrue(limiter.acquire(null));
+
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean acquired = new AtomicBoolean(false);
+        Thread waiter = new Thread(() -> {
+            started.countDown();
+            acquired.set(limiter.acquire(null));
+        });
+        waiter.start();
+        started.await();
+        while (limiter.getQueued() == 0) {
+            Thread.sleep(1);
+        }
+        // Queue is full.
+        assertFalse(limiter.acquire(null));
+
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(1));
+        waiter.join(5000);
+        assertTrue(acquired.get());
+        assertEquals(1, limiter.getInFlight());
+        assertEquals(0, limiter.getQueued());
+    }
+
+    @Test
+    void skippedWithoutPermit() throws Exception {
+        ConcurrencyLimiter limiter = new SemaphoreLimiter(1, 0, 1000);
+        RecordingCollectionProcessor<DemoEntity> processor =
+                new RecordingCollectionProcessor<>("limited", DemoEntity.class);
+        processor.setLimiter(limiter);
+
+        ProcessorResponse<List<DemoEntity>> response =
+                processor.execute(new ArrayList<>(), (String) null, null);
+        assertEquals(EProcessorResponse.Skipped, response.getState());
+        assertEquals(0, limiter.getAdmitted());
+
+        response = processor.execute(
+                Collections.singletonList(DemoEntityFactory.create(1)),
+                (String) null, null);
+        assertEquals(EProcessorResponse.OK, response.getState());
+        assertEquals(1, limiter.getAdmitted());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
@@ -0,0 +1,55 @@
+package com.codekutter.genesis.pipelines.metrics;
+
+import com.codekutter.genesis.pipelines.EProcessorResponse;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_LatencyHistogram {
+
+    @Test
+    void buckets() {
+        long[] values = {0, 1, 63, 64, 65, 1000, 123456789L, 1L << 40};
+        for (long value : values) {
+            int index = LatencyHistogram.index(value);
+            long high = LatencyHistogram.highestValue(index);
+            assertTrue(high >= value);
+            assertTrue(high - value <= Math.max(1, value / 32));
+        }
+    }
+
+    @Test
+    void percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int ii = 1; ii <= 1000; ii++) {
+            histogram.record(ii * 1000L);
+        }
+        HistogramSnapshot snapshot = histogram.getSnapshot();
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(1000, snapshot.getMin());
+        assertEquals(1000000, snapshot.getMax());
+        assertEquals(500500, snapshot.getMean(), 0.01);
+        assertEquals(500000, snapshot.getP50(), 500000 * 0.04);
+        assertEquals(990000, snapshot.getP99(), 990000 * 0.04);
+
+        histogram.reset();
+        assertEquals(0, histogram.getSnapshot().getCount());
+    }
+
+    @Test
+    void responses() {
+        ProcessorMetrics metrics = new ProcessorMetrics();
+        metrics.recordResponse(EProcessorResponse.OK);
+        metrics.recordResponse(EProcessorResponse.OK);
+        metrics.recordResponse(EProcessorResponse.Skipped);
+        metrics.recordProcess(2000);
+
+        ProcessorMetricsSnapshot snapshot = metrics.getSnapshot("test");
+        assertEquals("test", snapshot.getName());
+        assertEquals(2, snapshot.getCount(EProcessorResponse.OK));
+        assertEquals(1, snapshot.getCount(EProcessorResponse.Skipped));
+        assertEquals(0, snapshot.getCount(EProcessorResponse.FatalError));
+        assertEquals(1, snapshot.getProcess().getCount());
+        assertEquals(0, snapshot.getCondition().getCount());
+    }
+}
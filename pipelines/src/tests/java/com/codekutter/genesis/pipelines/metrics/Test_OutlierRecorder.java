@@ -0,0 +1,99 @@
+package com.codekutter.genesis.pipelines.metrics;
+
+import com.codekutter.genesis.pipelines.EProcessorResponse;
+import com.codekutter.genesis.pipelines.types.Entity;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_OutlierRecorder {
+    private static final List<String> STAGES = Arrays.asList("s1", "s2", "s3");
+
+    private static class KeyedEntity implements Entity<String> {
+        private final String key;
+
+        private KeyedEntity(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+    }
+
+    @Test
+    void keepsSlowest() {
+        OutlierRecorder recorder =
+                new OutlierRecorder("test", 5, 0, TimeUnit.MILLISECONDS);
+        for (int ii = 1; ii <= 100; ii++) {
+            recorder.record(new KeyedEntity("k" + ii), 1, ii * 1000L, STAGES,
+                            new long[]{ii * 100L, ii * 900L, 0}, 2,
+                            EProcessorResponse.OK);
+        }
+        List<OutlierRecord> records = recorder.getOutliers();
+        assertEquals(5, records.size());
+        assertEquals("k100", records.get(0).getKey());
+        assertEquals("k96", records.get(4).getKey());
+        assertEquals(2, records.get(0).getStages().size());
+        assertEquals(90000L, (long) records.get(0).getStages().get("s2"));
+
+        recorder.reset();
+        assertTrue(recorder.getOutliers().isEmpty());
+    }
+
+    @Test
+    void collectionKeys() {
+        OutlierRecorder recorder =
+                new OutlierRecorder("test", 2, 0, TimeUnit.MILLISECONDS);
+        List<KeyedEntity> batch = new ArrayList<>();
+        for (int ii = 0; ii < 10; ii++) {
+            batch.add(new KeyedEntity("k" + ii));
+        }
+        recorder.record(batch, batch.size(), 1000, STAGES, new long[3], 3,
+                        EProcessorResponse.StopWithError);
+        recorder.record("not-keyed", 1, 500, STAGES, new long[3], 1,
+                        EProcessorResponse.OK);
+        List<OutlierRecord> records = recorder.getOutliers();
+        assertEquals(2, records.size());
+        assertTrue(records.get(0).getKey().startsWith("[k0, k1"));
+        assertTrue(records.get(0).getKey().endsWith(", ...]"));
+        assertEquals(10, records.get(0).getEntities());
+        assertNull(records.get(1).getKey());
+    }
+
+    @Test
+    void concurrent() throws Exception {
+        OutlierRecorder recorder =
+                new OutlierRecorder("test", 10, 0, TimeUnit.MILLISECONDS);
+        int threads = 4;
+        int count = 10000;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int offset = t;
+            Thread thread = new Thread(() -> {
+                for (int ii = 0; ii < count; ii++) {
+                    long elapsed = (long) ii * threads + offset;
+                    recorder.record(null, 1, elapsed, STAGES, null, 0,
+                                    EProcessorResponse.OK);
+                }
+            });
+            workers.add(thread);
+            thread.start();
+        }
+        for (Thread thread : workers) {
+            thread.join();
+        }
+        List<OutlierRecord> records = recorder.getOutliers();
+        assertEquals(10, records.size());
+        long expected = (long) count * threads - 1;
+        for (OutlierRecord record : records) {
+            assertEquals(expected--, record.getElapsed());
+        }
+    }
+}
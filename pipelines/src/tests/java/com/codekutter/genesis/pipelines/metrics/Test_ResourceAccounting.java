@@ -0,0 +1,52 @@
+package com.codekutter.genesis.pipelines.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_ResourceAccounting {
+
+    @AfterEach
+    void disable() {
+        ResourceAccounting.setEnabled(false);
+    }
+
+    @Test
+    void probes() {
+        assertTrue(ResourceAccounting.isSupported());
+        assertFalse(ResourceAccounting.isEnabled());
+        ResourceAccounting.setEnabled(true);
+        assertTrue(ResourceAccounting.isEnabled());
+
+        long cpu = ResourceAccounting.cpuTime();
+        long allocated = ResourceAccounting.allocatedBytes();
+        byte[] buffer = new byte[1024 * 1024];
+        long sum = 0;
+        for (int ii = 0; ii < 1000000; ii++) {
+            sum += ii % 7;
+        }
+        buffer[0] = (byte) sum;
+        assertTrue(ResourceAccounting.allocatedBytes() - allocated >= buffer.length);
+        assertTrue(ResourceAccounting.cpuTime() - cpu > 0);
+    }
+
+    @Test
+    void snapshot() {
+        ProcessorMetrics metrics = new ProcessorMetrics();
+        ProcessorMetricsSnapshot snapshot = metrics.getSnapshot("test");
+        assertEquals(-1.0, snapshot.getCpuTimeMean());
+        assertEquals(-1.0, snapshot.getAllocatedMean());
+
+        metrics.recordResources(1000, 100);
+        metrics.recordResources(3000, 300);
+        snapshot = metrics.getSnapshot("test");
+        assertEquals(2L, snapshot.getAccounted());
+        assertEquals(2000.0, snapshot.getCpuTimeMean());
+        assertEquals(400L, snapshot.getAllocatedBytes());
+        assertEquals(200.0, snapshot.getAllocatedMean());
+
+        metrics.reset();
+        assertEquals(0L, metrics.getSnapshot("test").getAccounted());
+    }
+}
@@ -0,0 +1,24 @@
+package com.codekutter.genesis.pipelines.processors;
+
+import com.codekutter.genesis.pipelines.EProcessState;
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.model.annotations.MethodInvoke;
+import com.codekutter.zconfig.common.model.nodes.AbstractConfigNode;
+
+/**
+ * State filter that reads the configuration node on init, can't be
+ * loaded from a compiled snapshot.
+ */
+public class ConfiguredStateFilter extends EntityStateFilter {
+    /**
+     * Method to initialize the processor from the configuration.
+     *
+     * @param node - Configuration Node.
+     * @throws ConfigurationException
+     */
+    @Override
+    @MethodInvoke
+    public void init(AbstractConfigNode node) throws ConfigurationException {
+        state.setState(EProcessState.Available);
+    }
+}
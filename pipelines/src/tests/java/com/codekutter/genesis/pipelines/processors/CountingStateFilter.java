@@ -0,0 +1,42 @@
+package com.codekutter.genesis.pipelines.processors;
+
+import com.codekutter.genesis.pipelines.EProcessState;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * State filter that counts the created and disposed instances.
+ */
+public class CountingStateFilter extends EntityStateFilter {
+    private static final AtomicInteger CREATED = new AtomicInteger();
+    private static final AtomicInteger DISPOSED = new AtomicInteger();
+
+    public CountingStateFilter() {
+        CREATED.incrementAndGet();
+        state.setState(EProcessState.Available);
+    }
+
+    @Override
+    public void dispose() {
+        DISPOSED.incrementAndGet();
+        super.dispose();
+    }
+
+    /**
+     * Get the number of instances created.
+     *
+     * @return - Created instances.
+     */
+    public static int getCreated() {
+        return CREATED.get();
+    }
+
+    /**
+     * Get the number of instances disposed.
+     *
+     * @return - Disposed instances.
+     */
+    public static int getDisposed() {
+        return DISPOSED.get();
+    }
+}
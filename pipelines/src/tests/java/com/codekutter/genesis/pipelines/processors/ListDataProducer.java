@@ -0,0 +1,49 @@
+package com.codekutter.genesis.pipelines.processors;
+
+import com.codekutter.genesis.pipelines.Context;
+import com.codekutter.genesis.pipelines.EProcessState;
+import com.codekutter.genesis.pipelines.extensions.IDataProducer;
+import com.codekutter.genesis.pipelines.extensions.batch.AdaptiveBatchProducer;
+import com.codekutter.genesis.pipelines.extensions.batch.BatchSizeController;
+import com.codekutter.genesis.pipelines.types.CollectionDataProducer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Producer pipeline that fetches the entities of an in-memory list, the
+ * fetch is limited to the batch size hint (paged fetches) if passed.
+ *
+ * @param <T> - Entity Type.
+ */
+public class ListDataProducer<T> extends CollectionDataProducer<T> {
+    private final List<T> rows = new CopyOnWriteArrayList<>();
+
+    public ListDataProducer(String name, Class<T> type) {
+        setName(name);
+        setType(type);
+        producer = new IDataProducer<T>() {
+            @Override
+            public List<T> fetch(String query, Context context) {
+                List<T> data = new ArrayList<>(rows);
+                int limit = AdaptiveBatchProducer.getBatchSize(context, data.size());
+                return (limit < data.size() ? data.subList(0, limit) : data);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        state.setState(EProcessState.Available);
+    }
+
+    public List<T> getRows() {
+        return rows;
+    }
+
+    public ListDataProducer<T> withBatching(BatchSizeController batching) {
+        this.batching = batching;
+        return this;
+    }
+}
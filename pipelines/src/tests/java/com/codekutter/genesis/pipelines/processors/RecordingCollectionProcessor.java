@@ -0,0 +1,66 @@
+package com.codekutter.genesis.pipelines.processors;
+
+import com.codekutter.genesis.pipelines.CollectionProcessor;
+import com.codekutter.genesis.pipelines.CollectionProcessorResponse;
+import com.codekutter.genesis.pipelines.Context;
+import com.codekutter.genesis.pipelines.EProcessState;
+import com.codekutter.genesis.pipelines.EProcessorResponse;
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.model.nodes.AbstractConfigNode;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * Collection processor that records the data sets it processed, the
+ * response state is computed by a settable function (default OK).
+ *
+ * @param <T> - Entity Type.
+ */
+public class RecordingCollectionProcessor<T> extends CollectionProcessor<T> {
+    private final List<List<T>> batches = new CopyOnWriteArrayList<>();
+    private volatile Function<List<T>, EProcessorResponse> result =
+            (data) -> EProcessorResponse.OK;
+
+    public RecordingCollectionProcessor(String name, Class<T> type) {
+        setName(name);
+        setType(type);
+        state.setState(EProcessState.Available);
+    }
+
+    public RecordingCollectionProcessor<T> withResult(
+            Function<List<T>, EProcessorResponse> result) {
+        this.result = result;
+        return this;
+    }
+
+    public List<List<T>> getBatches() {
+        return batches;
+    }
+
+    public List<T> getProcessed() {
+        List<T> processed = new ArrayList<>();
+        for (List<T> batch : batches) {
+            processed.addAll(batch);
+        }
+        return processed;
+    }
+
+    @Override
+    protected CollectionProcessorResponse<T> execute(@Nonnull List<T> data,
+                                                     Context context,
+                                                     @Nonnull CollectionProcessorResponse<T> response) {
+        batches.add(new ArrayList<>(data));
+        response.setData(data);
+        response.setState(result.apply(data));
+        return response;
+    }
+
+    @Override
+    public void init(AbstractConfigNode node) throws ConfigurationException {
+        // Configured by the test.
+    }
+}
@@ -0,0 +1,112 @@
+package com.codekutter.genesis.pipelines.processors;
+
+import com.codekutter.genesis.pipelines.BasicProcessor;
+import com.codekutter.genesis.pipelines.Context;
+import com.codekutter.genesis.pipelines.EProcessState;
+import com.codekutter.genesis.pipelines.EProcessorResponse;
+import com.codekutter.genesis.pipelines.ProcessorResponse;
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.model.nodes.AbstractConfigNode;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Test processor with a scripted behaviour: counts the executions, and
+ * optionally records its name in a step list, runs an action, blocks until
+ * released or sleeps before returning the configured state (default OK).
+ *
+ * @param <T> - Entity Type.
+ */
+public class ScriptedProcessor<T> extends BasicProcessor<T> {
+    private final AtomicInteger executed = new AtomicInteger();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private volatile EProcessorResponse result = EProcessorResponse.OK;
+    private volatile List<String> steps;
+    private volatile Consumer<T> action;
+    private volatile CountDownLatch release;
+    private volatile long delay;
+
+    public ScriptedProcessor(String name, Class<T> type) {
+        setName(name);
+        setType(type);
+        state.setState(EProcessState.Available);
+    }
+
+    public ScriptedProcessor<T> withResult(EProcessorResponse result) {
+        this.result = result;
+        return this;
+    }
+
+    public ScriptedProcessor<T> withSteps(List<String> steps) {
+        this.steps = steps;
+        return this;
+    }
+
+    public ScriptedProcessor<T> withAction(Consumer<T> action) {
+        this.action = action;
+        return this;
+    }
+
+    public ScriptedProcessor<T> withDelay(long millis) {
+        this.delay = millis;
+        return this;
+    }
+
+    /**
+     * Block executions until release() is called.
+     *
+     * @return - Self.
+     */
+    public ScriptedProcessor<T> blocking() {
+        this.release = new CountDownLatch(1);
+        return this;
+    }
+
+    public void release() {
+        if (release != null) {
+            release.countDown();
+        }
+    }
+
+    public CountDownLatch getStarted() {
+        return started;
+    }
+
+    public int getExecuted() {
+        return executed.get();
+    }
+
+    @Override
+    protected ProcessorResponse<T> execute(@Nonnull T data, Context context,
+                                           @Nonnull ProcessorResponse<T> response) {
+        executed.incrementAndGet();
+        started.countDown();
+        if (steps != null) {
+            steps.add(name);
+        }
+        if (action != null) {
+            action.accept(data);
+        }
+        try {
+            if (release != null) {
+                release.await();
+            }
+            if (delay > 0) {
+                Thread.sleep(delay);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        response.setState(result);
+        return response;
+    }
+
+    @Override
+    public void init(AbstractConfigNode node) throws ConfigurationException {
+        // Configured by the test.
+    }
+}
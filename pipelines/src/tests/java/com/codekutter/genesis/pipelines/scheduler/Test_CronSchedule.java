@@ -0,0 +1,35 @@
+package com.codekutter.genesis.pipelines.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_CronSchedule {
+
+    private static long time(int year, int month, int day, int hour, int minute) {
+        return ZonedDateTime.of(year, month, day, hour, minute, 0, 0, ZoneOffset.UTC)
+                            .toInstant().toEpochMilli();
+    }
+
+    @Test
+    void next() {
+        CronSchedule schedule = new CronSchedule("*/15 8-18 * * 1-5", ZoneOffset.UTC);
+        // Friday 18:50 -> Monday 08:00
+        long next = schedule.next(time(2019, 3, 15, 18, 50));
+        assertEquals(time(2019, 3, 18, 8, 0), next);
+        next = schedule.next(next);
+        assertEquals(time(2019, 3, 18, 8, 15), next);
+
+        schedule = new CronSchedule("30 2 1 */3 *", ZoneOffset.UTC);
+        assertEquals(time(2019, 4, 1, 2, 30),
+                     schedule.next(time(2019, 1, 1, 2, 30)));
+
+        assertThrows(IllegalArgumentException.class,
+                     () -> new CronSchedule("* * *", ZoneOffset.UTC));
+        assertThrows(IllegalArgumentException.class,
+                     () -> new CronSchedule("61 * * * *", ZoneOffset.UTC));
+    }
+}
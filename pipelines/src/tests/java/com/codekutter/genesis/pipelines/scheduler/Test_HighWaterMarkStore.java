@@ -0,0 +1,22 @@
+package com.codekutter.genesis.pipelines.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_HighWaterMarkStore {
+
+    @Test
+    void persists() throws Exception {
+        File dir = Files.createTempDirectory("hwm").toFile();
+        HighWaterMarkStore store = new HighWaterMarkStore(dir.getAbsolutePath());
+        assertNull(store.get("email"));
+        store.put("email", "1552835141000");
+
+        HighWaterMarkStore reloaded = new HighWaterMarkStore(dir.getAbsolutePath());
+        assertEquals("1552835141000", reloaded.get("email"));
+    }
+}
@@ -0,0 +1,91 @@
+package com.codekutter.genesis.pipelines.scheduler;
+
+import com.codekutter.genesis.pipelines.EProcessorResponse;
+import com.codekutter.genesis.pipelines.extensions.batch.BatchSizeController;
+import com.codekutter.genesis.pipelines.processors.DemoEntity;
+import com.codekutter.genesis.pipelines.processors.ListDataProducer;
+import com.codekutter.genesis.pipelines.processors.RecordingCollectionProcessor;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_PollingJob {
+    private static class IdWaterMark implements IWaterMarkProvider<DemoEntity> {
+        @Override
+        public String getWaterMark(@Nonnull DemoEntity entity) {
+            return entity.getId();
+        }
+
+        @Override
+        public String buildQuery(String query, String waterMark) {
+            return query;
+        }
+    }
+
+    @Test
+    void waterMark() throws Exception {
+        BatchSizeController batching = new BatchSizeController();
+        batching.setMinSize(1);
+        batching.setInitialSize(4);
+        batching.setIncreaseStep(0);
+        ListDataProducer<DemoEntity> producer =
+                new ListDataProducer<>("producer", DemoEntity.class)
+                        .withBatching(batching);
+        AtomicBoolean fail = new AtomicBoolean(true);
+        RecordingCollectionProcessor<DemoEntity> processor =
+                new RecordingCollectionProcessor<DemoEntity>("record", DemoEntity.class)
+                        .withResult((data) -> (fail.get() && data.size() < 4
+                                ? EProcessorResponse.StopWithOk : EProcessorResponse.OK));
+        producer.addProcessor(processor, null);
+        for (int ii = 1; ii <= 10; ii++) {
+            DemoEntity entity = new DemoEntity();
+            entity.setId(String.format("%03d", ii));
+            producer.getRows().add(entity);
+        }
+
+        File dir = Files.createTempDirectory("hwm").toFile();
+        HighWaterMarkStore store = new HighWaterMarkStore(dir.getAbsolutePath());
+        PollingJob<DemoEntity> job =
+                new PollingJob<>("poll", producer, new FixedRateSchedule(1000))
+                        .withWaterMark(new IdWaterMark());
+        job.setStore(store);
+
+        // The last batch didn't complete OK, the mark isn't advanced.
+        job.run();
+        assertNull(store.get("poll"));
+        assertEquals(10, job.getStats().getLastRecords());
+
+        fail.set(false);
+        job.run();
+        assertEquals("010", store.get("poll"));
+        assertEquals(0, job.getStats().getFailures());
+
+        // Records at or before the mark are not processed again.
+        processor.getBatches().clear();
+        job.run();
+        assertTrue(processor.getBatches().isEmpty());
+        assertEquals("010", store.get("poll"));
+    }
+
+    @Test
+    void jitter() {
+        PollingJob<DemoEntity> job =
+                new PollingJob<>("jitter",
+                                 new ListDataProducer<>("producer", DemoEntity.class),
+                                 new FixedRateSchedule(1000))
+                        .withJitter(500);
+        long now = 0;
+        for (int ii = 1; ii <= 20; ii++) {
+            now += job.scheduleNext(now);
+            // Jitter is added to each fire time, it doesn't accumulate.
+            assertTrue(now >= ii * 1000L && now <= ii * 1000L + 500,
+                       String.format("[run=%d][time=%d]", ii, now));
+        }
+        assertEquals(0, job.getStats().getMissed());
+    }
+}
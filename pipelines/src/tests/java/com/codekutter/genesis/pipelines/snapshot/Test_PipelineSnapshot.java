@@ -0,0 +1,102 @@
+package com.codekutter.genesis.pipelines.snapshot;
+
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.model.annotations.ConfigAttribute;
+import com.codekutter.zconfig.common.model.annotations.ConfigValue;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_PipelineSnapshot {
+    private static final String SOURCE =
+            "<root><pipelines>" +
+                    "<pipeline name=\"filter\" type=\"demo.Filter\">" +
+                    "<condition><![CDATA[state > 1]]></condition>" +
+                    "<processors><processor name=\"p1\" reference=\"other\"/></processors>" +
+                    "</pipeline>" +
+                    "</pipelines></root>";
+
+    private static class Settings {
+        @ConfigAttribute(name = "name", required = true)
+        private String name;
+        @ConfigAttribute(name = "size")
+        private int size = 10;
+        @ConfigAttribute(name = "unit")
+        private TimeUnit unit;
+        @ConfigValue(name = "condition")
+        private String condition;
+    }
+
+    @Test
+    void writeAndRead() throws Exception {
+        byte[] source = SOURCE.getBytes(StandardCharsets.UTF_8);
+        DefinitionNode root = DefinitionReader.read(source);
+        DefinitionNode pipelines = root.find("pipelines");
+        assertNotNull(pipelines);
+
+        File file = File.createTempFile("pipelines", ".snapshot");
+        file.deleteOnExit();
+        byte[] hash = PipelineSnapshot.hash(source);
+        new PipelineSnapshot("test-config", "0.2", hash, 1000,
+                             Collections.singletonList(pipelines)).write(file);
+
+        PipelineSnapshot snapshot = PipelineSnapshot.read(file);
+        assertTrue(snapshot.isCurrent("test-config", "0.2", hash));
+        assertFalse(snapshot.isCurrent("test-config", "0.3", hash));
+        assertFalse(snapshot.isCurrent("test-config", "0.2",
+                                       PipelineSnapshot.hash(new byte[]{1})));
+        assertEquals(1000, snapshot.getCreated());
+
+        DefinitionNode pipeline = snapshot.getNode("pipelines").getChild("pipeline");
+        assertEquals("filter", pipeline.getAttribute("name"));
+        assertEquals("demo.Filter", pipeline.getAttribute("type"));
+        assertEquals("state > 1", pipeline.getChild("condition").getValue());
+        DefinitionNode processor = pipeline.find("processor");
+        assertEquals("other", processor.getAttribute("reference"));
+    }
+
+    @Test
+    void corrupt() throws Exception {
+        byte[] source = SOURCE.getBytes(StandardCharsets.UTF_8);
+        File file = File.createTempFile("pipelines", ".snapshot");
+        file.deleteOnExit();
+        new PipelineSnapshot("test-config", "0.2", PipelineSnapshot.hash(source), 0,
+                             Collections.singletonList(DefinitionReader.read(source)))
+                .write(file);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length() / 2);
+            int value = raf.read();
+            raf.seek(raf.length() / 2);
+            raf.write(value ^ 0xFF);
+        }
+        assertThrows(ConfigurationException.class, () -> PipelineSnapshot.read(file));
+
+        Files.write(file.toPath(), new byte[]{1, 2, 3});
+        assertThrows(ConfigurationException.class, () -> PipelineSnapshot.read(file));
+    }
+
+    @Test
+    void bind() throws Exception {
+        DefinitionNode node = new DefinitionNode("settings")
+                .setAttribute("name", "test")
+                .setAttribute("unit", "SECONDS")
+                .addChild(new DefinitionNode("condition").setValue("state > 1"));
+        assertTrue(SnapshotBinder.supports(Settings.class));
+        Settings settings = SnapshotBinder.bind(Settings.class, node);
+        assertEquals("test", settings.name);
+        assertEquals(10, settings.size);
+        assertEquals(TimeUnit.SECONDS, settings.unit);
+        assertEquals("state > 1", settings.condition);
+
+        assertThrows(ConfigurationException.class,
+                     () -> SnapshotBinder.bind(Settings.class,
+                                               new DefinitionNode("settings")));
+    }
+}
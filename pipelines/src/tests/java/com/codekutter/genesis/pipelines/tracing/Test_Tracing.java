@@ -0,0 +1,126 @@
+package com.codekutter.genesis.pipelines.tracing;
+
+import com.codekutter.genesis.pipelines.Context;
+import com.codekutter.genesis.pipelines.EProcessorResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_Tracing {
+    private static class RecordedSpan implements Span {
+        private final String name;
+        private final RecordedSpan parent;
+        private final Map<String, Object> attributes = new HashMap<>();
+        private boolean error = false;
+        private int ended = 0;
+
+        private RecordedSpan(String name, RecordedSpan parent) {
+            this.name = name;
+            this.parent = parent;
+        }
+
+        @Override
+        public Span setAttribute(String key, String value) {
+            attributes.put(key, value);
+            return this;
+        }
+
+        @Override
+        public Span setAttribute(String key, long value) {
+            attributes.put(key, value);
+            return this;
+        }
+
+        @Override
+        public void recordError(Throwable error) {
+            this.error = true;
+        }
+
+        @Override
+        public void end() {
+            ended++;
+        }
+    }
+
+    private static class RecordingTracer implements Tracer {
+        private final List<RecordedSpan> spans = new ArrayList<>();
+
+        @Override
+        public Span startSpan(String name, Span parent) {
+            RecordedSpan span = new RecordedSpan(name, (RecordedSpan) parent);
+            spans.add(span);
+            return span;
+        }
+    }
+
+    @AfterEach
+    void reset() {
+        Tracing.setTracer(null);
+        Tracing.setSampleRate(1.0);
+    }
+
+    @Test
+    void disabled() {
+        Context context = new Context();
+        assertNull(Tracing.startPipeline("pipeline", String.class, context));
+        assertNull(context.getSpan());
+        Tracing.end(null, EProcessorResponse.OK, null, 1);
+    }
+
+    @Test
+    void spanTree() {
+        RecordingTracer tracer = new RecordingTracer();
+        Tracing.setTracer(tracer);
+        Context context = new Context();
+
+        TraceScope pipeline = Tracing.startPipeline("pipeline", String.class,
+                                                    context);
+        TraceScope processor = Tracing.startProcessor("pipeline", "p1", context);
+        TraceScope call = Tracing.startDataCall("imap.fetch", "fetch",
+                                                "localhost", context);
+        Tracing.end(call, 0, new Exception("failed"));
+        assertSame(processor.getSpan(), context.getSpan());
+        Tracing.end(processor, EProcessorResponse.ContinueWithError, null, 1);
+        Tracing.end(processor, EProcessorResponse.OK, null, 1);
+        Tracing.end(pipeline, EProcessorResponse.OK, null, 1);
+        assertNull(context.getSpan());
+
+        assertEquals(3, tracer.spans.size());
+        RecordedSpan p = tracer.spans.get(0);
+        RecordedSpan c = tracer.spans.get(1);
+        RecordedSpan d = tracer.spans.get(2);
+        assertNull(p.parent);
+        assertSame(p, c.parent);
+        assertSame(c, d.parent);
+        assertEquals("pipeline:pipeline", p.name);
+        assertEquals("p1", c.attributes.get(Tracing.ATTR_PROCESSOR));
+        assertEquals("ContinueWithError",
+                     c.attributes.get(Tracing.ATTR_RESPONSE_STATE));
+        assertEquals(1, c.ended);
+        assertFalse(c.error);
+        assertTrue(d.error);
+        assertEquals("localhost", d.attributes.get(Tracing.ATTR_SERVER));
+    }
+
+    @Test
+    void notSampled() {
+        RecordingTracer tracer = new RecordingTracer();
+        Tracing.setTracer(tracer);
+        Tracing.setSampleRate(0);
+        Context context = new Context();
+
+        TraceScope pipeline = Tracing.startPipeline("pipeline", String.class,
+                                                    context);
+        assertNotNull(pipeline);
+        assertNull(Tracing.startProcessor("pipeline", "p1", context));
+        Tracing.end(pipeline, EProcessorResponse.OK, null, 1);
+        assertNull(context.getSpan());
+        assertTrue(tracer.spans.isEmpty());
+    }
+}
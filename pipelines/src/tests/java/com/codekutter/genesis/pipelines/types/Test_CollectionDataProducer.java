@@ -0,0 +1,120 @@
+package com.codekutter.genesis.pipelines.types;
+
+import com.codekutter.genesis.pipelines.Context;
+import com.codekutter.genesis.pipelines.EProcessorResponse;
+import com.codekutter.genesis.pipelines.ProcessorException;
+import com.codekutter.genesis.pipelines.extensions.DataServiceException;
+import com.codekutter.genesis.pipelines.extensions.IDataProducer;
+import com.codekutter.genesis.pipelines.extensions.batch.BatchSizeController;
+import com.codekutter.genesis.pipelines.extensions.resilience.CircuitOpenException;
+import com.codekutter.genesis.pipelines.processors.DemoEntity;
+import com.codekutter.genesis.pipelines.processors.DemoEntityFactory;
+import com.codekutter.genesis.pipelines.processors.ListDataProducer;
+import com.codekutter.genesis.pipelines.processors.RecordingCollectionProcessor;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_CollectionDataProducer {
+    private static BatchSizeController batching(int size, boolean paged) {
+        BatchSizeController batching = new BatchSizeController();
+        batching.setMinSize(1);
+        batching.setInitialSize(size);
+        batching.setIncreaseStep(0);
+        batching.setPagedFetch(paged);
+        return batching;
+    }
+
+    @Test
+    void batched() throws Exception {
+        ListDataProducer<DemoEntity> producer =
+                new ListDataProducer<>("producer", DemoEntity.class)
+                        .withBatching(batching(4, false));
+        RecordingCollectionProcessor<DemoEntity> processor =
+                new RecordingCollectionProcessor<>("record", DemoEntity.class);
+        producer.addProcessor(processor, null);
+        producer.getRows().addAll(DemoEntityFactory.createEntities(10));
+
+        List<DemoEntity> results = producer.read(null, null);
+        assertNotNull(results);
+        assertEquals(10, results.size());
+        assertEquals(3, processor.getBatches().size());
+    }
+
+    @Test
+    void batchNotOk() throws Exception {
+        ListDataProducer<DemoEntity> unbatched =
+                new ListDataProducer<>("unbatched", DemoEntity.class);
+        ListDataProducer<DemoEntity> batched =
+                new ListDataProducer<>("batched", DemoEntity.class)
+                        .withBatching(batching(4, false));
+        List<DemoEntity> rows = DemoEntityFactory.createEntities(10);
+        RecordingCollectionProcessor<DemoEntity> first =
+                new RecordingCollectionProcessor<DemoEntity>("stop", DemoEntity.class)
+                        .withResult((data) -> EProcessorResponse.StopWithOk);
+        RecordingCollectionProcessor<DemoEntity> second =
+                new RecordingCollectionProcessor<DemoEntity>("stop", DemoEntity.class)
+                        .withResult((data) -> (data.contains(rows.get(5))
+                                ? EProcessorResponse.StopWithOk : EProcessorResponse.OK));
+        unbatched.addProcessor(first, null);
+        batched.addProcessor(second, null);
+        unbatched.getRows().addAll(rows);
+        batched.getRows().addAll(rows);
+
+        // A read that doesn't complete OK returns NULL in both modes.
+        assertNull(unbatched.read(null, null));
+        assertNull(batched.read(null, null));
+        // The batches after the one that stopped are not processed.
+        assertEquals(2, second.getBatches().size());
+    }
+
+    @Test
+    void pagedFetch() throws Exception {
+        BatchSizeController batching = batching(4, true);
+        ListDataProducer<DemoEntity> producer =
+                new ListDataProducer<>("producer", DemoEntity.class)
+                        .withBatching(batching);
+        RecordingCollectionProcessor<DemoEntity> processor =
+                new RecordingCollectionProcessor<>("record", DemoEntity.class);
+        producer.addProcessor(processor, null);
+        producer.getRows().addAll(DemoEntityFactory.createEntities(10));
+
+        List<DemoEntity> results = producer.read(null, new Context());
+        assertNotNull(results);
+        // The fetch is limited to the batch size and processed as one batch.
+        assertEquals(4, results.size());
+        assertEquals(1, processor.getBatches().size());
+        assertEquals(1, batching.getStats().getBatches());
+    }
+
+    @Test
+    void circuitOpen() throws Exception {
+        AtomicReference<DataServiceException> error = new AtomicReference<>();
+        ListDataProducer<DemoEntity> producer =
+                new ListDataProducer<>("producer", DemoEntity.class);
+        producer.producer = new IDataProducer<DemoEntity>() {
+            @Override
+            public List<DemoEntity> fetch(String query, Context context)
+            throws DataServiceException {
+                throw error.get();
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        RecordingCollectionProcessor<DemoEntity> processor =
+                new RecordingCollectionProcessor<>("record", DemoEntity.class);
+        producer.addProcessor(processor, null);
+
+        // An open circuit fails the read fast, other errors are raised.
+        error.set(new CircuitOpenException("Circuit open. [name=test]"));
+        assertNull(producer.read(null, null));
+        error.set(new DataServiceException("invalid query"));
+        assertThrows(ProcessorException.class, () -> producer.read(null, null));
+        assertTrue(processor.getBatches().isEmpty());
+    }
+}
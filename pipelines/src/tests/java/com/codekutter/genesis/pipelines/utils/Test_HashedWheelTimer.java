@@ -0,0 +1,57 @@
+package com.codekutter.genesis.pipelines.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_HashedWheelTimer {
+
+    @Test
+    void newTimeout() throws Exception {
+        HashedWheelTimer timer =
+                new HashedWheelTimer("test-timer", 5, TimeUnit.MILLISECONDS, 8);
+        try {
+            CountDownLatch latch = new CountDownLatch(3);
+            long start = System.nanoTime();
+            // Delay spans multiple rounds of the wheel.
+            HashedWheelTimer.Timeout t1 =
+                    timer.newTimeout(latch::countDown, 100, TimeUnit.MILLISECONDS);
+            HashedWheelTimer.Timeout t2 =
+                    timer.newTimeout(latch::countDown, 10, TimeUnit.MILLISECONDS);
+            HashedWheelTimer.Timeout t3 =
+                    timer.newTimeout(latch::countDown, 0, TimeUnit.MILLISECONDS);
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertTrue(System.nanoTime() - start >=
+                               TimeUnit.MILLISECONDS.toNanos(100));
+            assertTrue(t1.isExpired());
+            assertTrue(t2.isExpired());
+            assertTrue(t3.isExpired());
+            assertFalse(t1.cancel());
+        } finally {
+            timer.close();
+        }
+    }
+
+    @Test
+    void cancel() throws Exception {
+        HashedWheelTimer timer =
+                new HashedWheelTimer("test-timer", 5, TimeUnit.MILLISECONDS, 8);
+        try {
+            AtomicInteger count = new AtomicInteger();
+            HashedWheelTimer.Timeout t1 =
+                    timer.newTimeout(count::incrementAndGet, 50,
+                                     TimeUnit.MILLISECONDS);
+            assertTrue(t1.cancel());
+            assertTrue(t1.isCancelled());
+            Thread.sleep(150);
+            assertEquals(0, count.get());
+            assertFalse(t1.isExpired());
+        } finally {
+            timer.close();
+        }
+    }
+}